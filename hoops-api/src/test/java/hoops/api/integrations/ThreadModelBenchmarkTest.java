@@ -0,0 +1,173 @@
+package hoops.api.integrations;
+
+import hoops.api.HoopsApiApplication;
+import hoops.api.config.TestRedisConfig;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.StreamUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares platform and virtual request threads end to end: concurrent HTTP clients against the
+ * embedded Tomcat, through the controller and repository, onto a real Hikari pool (and, on virtual
+ * threads, the {@code db.concurrency.limit} gate in front of it) backed by TimescaleDB.
+ * Each thread model runs in its own application context.
+ * Run with {@code HOOPS_BENCHMARK=true ./gradlew :hoops-api:test --tests '*ThreadModelBenchmarkTest*'}.
+ */
+@EnabledIfEnvironmentVariable(named = "HOOPS_BENCHMARK", matches = "true")
+@Testcontainers
+class ThreadModelBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(ThreadModelBenchmarkTest.class);
+
+    private static final int CLIENTS = 400;            // twice Tomcat's default max threads
+    private static final int REQUESTS = 20_000;
+    private static final int WARM_UP_REQUESTS = 2_000;
+    private static final String PATH = "/api/v1/teams"; // uncached, one query per request
+
+    // Started once and shared by both contexts so they measure the same database
+    private static final PostgreSQLContainer<?> TIMESCALEDB = startTimescaleDB();
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        // Point DatabaseConfig at the container so requests go through the production pool setup
+        registry.add("spring.datasource.url", TIMESCALEDB::getJdbcUrl);
+        registry.add("spring.datasource.username", TIMESCALEDB::getUsername);
+        registry.add("spring.datasource.password", TIMESCALEDB::getPassword);
+    }
+
+    @Nested
+    @SpringBootTest(classes = {HoopsApiApplication.class, TestRedisConfig.class},
+            webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @ActiveProfiles("test")
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+    class PlatformThreads {
+        @LocalServerPort
+        private int port;
+
+        @Test
+        void measure() throws Exception {
+            run("platform", port);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(classes = {HoopsApiApplication.class, TestRedisConfig.class},
+            webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @ActiveProfiles("test")
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+    class VirtualThreads {
+        @LocalServerPort
+        private int port;
+
+        @Test
+        void measure() throws Exception {
+            run("virtual", port);
+        }
+    }
+
+    private static void run(String label, int port) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + PATH)).GET().build();
+
+        send(client, request, WARM_UP_REQUESTS);
+
+        long[] latencies = new long[REQUESTS];
+        long start = System.nanoTime();
+        int failures = send(client, request, REQUESTS, latencies);
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        log.info("{}: {} req/s, p50 {} ms, p99 {} ms, {} failed",
+                label,
+                String.format("%.0f", REQUESTS / (elapsed / 1e9)),
+                String.format("%.2f", latencies[REQUESTS / 2] / 1e6),
+                String.format("%.2f", latencies[(int) (REQUESTS * 0.99)] / 1e6),
+                failures);
+        assertEquals(0, failures, "every request should succeed under load");
+    }
+
+    private static int send(HttpClient client, HttpRequest request, int requests) throws Exception {
+        return send(client, request, requests, new long[requests]);
+    }
+
+    /**
+     * Sends {@code requests} GETs from {@link #CLIENTS} concurrent callers.
+     *
+     * @return Number of responses that were not 200
+     */
+    private static int send(HttpClient client, HttpRequest request, int requests, long[] latencies) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> callers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                callers.add(executor.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[i] = System.nanoTime() - sent;
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> caller : callers) {
+                caller.get();
+            }
+        }
+        return failures.get();
+    }
+
+    private static PostgreSQLContainer<?> startTimescaleDB() {
+        PostgreSQLContainer<?> container = new PostgreSQLContainer<>(
+                DockerImageName.parse("timescale/timescaledb:latest-pg15")
+                    .asCompatibleSubstituteFor("postgres"))
+                .withDatabaseName("hoopsdb_test")
+                .withUsername("test")
+                .withPassword("test")
+                .withInitScript("db/init/01_schema.sql")
+                .withCommand("postgres -c shared_preload_libraries=timescaledb");
+        container.start();
+
+        try (var conn = container.createConnection("");
+             InputStream is = ThreadModelBenchmarkTest.class.getClassLoader()
+                 .getResourceAsStream("db/init/02_test_data.sql")) {
+            conn.createStatement().execute(StreamUtils.copyToString(is, StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load test data", e);
+        }
+        return container;
+    }
+}
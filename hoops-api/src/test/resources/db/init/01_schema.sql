@@ -84,6 +84,33 @@ CREATE INDEX idx_games_season_id ON games(season_id);
 CREATE INDEX idx_games_league_id ON games(league_id);
 CREATE INDEX idx_players_team_id ON players(team_id);
 CREATE INDEX idx_teams_league_id ON teams(league_id);
+-- Ingest reloads the live games every few seconds
+CREATE INDEX idx_live_games ON games(game_id, home_team_id, away_team_id) WHERE state = 'IN_PROGRESS';
+
+-- Keep last_updated current on every change: ingest reloads only the teams and players
+-- updated since its previous refresh, so a row changed without it would never be picked up
+CREATE OR REPLACE FUNCTION touch_last_updated()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.last_updated := CURRENT_TIMESTAMP;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER teams_touch_last_updated
+    BEFORE UPDATE ON teams
+    FOR EACH ROW
+    EXECUTE FUNCTION touch_last_updated();
+
+CREATE TRIGGER players_touch_last_updated
+    BEFORE UPDATE ON players
+    FOR EACH ROW
+    EXECUTE FUNCTION touch_last_updated();
+
+CREATE TRIGGER games_touch_last_updated
+    BEFORE UPDATE ON games
+    FOR EACH ROW
+    EXECUTE FUNCTION touch_last_updated();
 
 -- Create the team_avg_stats_view materialized view
 CREATE MATERIALIZED VIEW team_avg_stats_view_per_bucket
@@ -0,0 +1,294 @@
+package hoops.common.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import hoops.common.enums.StatType;
+import hoops.common.models.events.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Reads and writes the {@link GameEvent} JSON wire format with a streaming parser.
+ * Fields are read straight into primitives, the subtype is picked from a table keyed by
+ * {@link StatType} once the {@code event} property has been seen (in any position), and
+ * {@link #validate} applies the same rules as the Jakarta annotations on the event classes
+ * from precomputed bounds, without going through a {@code Validator}.
+ * Instances are immutable and thread-safe.
+ */
+public class GameEventCodec {
+    private static final Map<StatType, Supplier<GameEvent>> SUBTYPES = new EnumMap<>(StatType.class);
+    private static final Map<StatType, ValueRule> VALUE_RULES = new EnumMap<>(StatType.class);
+
+    static {
+        SUBTYPES.put(StatType.POINT, PointsEvent::new);
+        SUBTYPES.put(StatType.ASSIST, AssistsEvent::new);
+        SUBTYPES.put(StatType.REBOUND, ReboundsEvent::new);
+        SUBTYPES.put(StatType.STEAL, StealsEvent::new);
+        SUBTYPES.put(StatType.BLOCK, BlocksEvent::new);
+        SUBTYPES.put(StatType.FOUL, FoulsEvent::new);
+        SUBTYPES.put(StatType.TURNOVER, TurnoversEvent::new);
+        SUBTYPES.put(StatType.MINUTES_PLAYED, MinutesPlayedEvent::new);
+
+        // Mirrors the @Min/@Max/@Digits constraints on each event's getValue()
+        VALUE_RULES.put(StatType.POINT, ValueRule.of(1, 3, 1, 0,
+                "Points must be at least 1", "Points cannot exceed 3", "Points must be a whole number"));
+        VALUE_RULES.put(StatType.ASSIST, ValueRule.count("Assists"));
+        VALUE_RULES.put(StatType.REBOUND, ValueRule.count("Rebounds"));
+        VALUE_RULES.put(StatType.STEAL, ValueRule.count("Steals"));
+        VALUE_RULES.put(StatType.BLOCK, ValueRule.count("Blocks"));
+        VALUE_RULES.put(StatType.TURNOVER, ValueRule.count("Turnovers"));
+        VALUE_RULES.put(StatType.FOUL, ValueRule.of(1, 6, 1, 0,
+                "Incoming Fouls cannot be 0", "Fouls cannot exceed 6", "Fouls must be a whole number"));
+        VALUE_RULES.put(StatType.MINUTES_PLAYED, ValueRule.of(0, 48, 2, 1,
+                "Minutes played cannot be negative", "Minutes played cannot exceed 48",
+                "Minutes played can have at most 1 decimal place"));
+    }
+
+    private final JsonFactory jsonFactory;
+    private final boolean failOnUnknownFields;
+
+    /**
+     * @param jsonFactory Factory for parsers and generators, usually {@code objectMapper.getFactory()}
+     * @param failOnUnknownFields Reject events carrying properties outside the wire format
+     */
+    public GameEventCodec(JsonFactory jsonFactory, boolean failOnUnknownFields) {
+        this.jsonFactory = jsonFactory;
+        this.failOnUnknownFields = failOnUnknownFields;
+    }
+
+    public GameEvent decode(String json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return decode(parser);
+        }
+    }
+
+    public GameEvent decode(byte[] json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return decode(parser);
+        }
+    }
+
+    /**
+     * Read one event object. The parser may be positioned before or on its START_OBJECT
+     * and is left on the matching END_OBJECT.
+     * @throws JsonParseException if the JSON is malformed, the event type is missing or unknown,
+     *         or a field has the wrong type
+     */
+    public GameEvent decode(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null || token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+            token = parser.nextToken();
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a game event object but found " + token);
+        }
+
+        StatType statType = null;
+        String gameId = null;
+        String teamId = null;
+        String playerId = null;
+        long version = 0;
+        boolean hasVersion = false;
+        double value = 0;
+        boolean hasValue = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken valueToken = parser.nextToken();
+            switch (field) {
+                case "event" -> statType = readStatType(parser);
+                case "gameId" -> gameId = readText(parser);
+                case "teamId" -> teamId = readText(parser);
+                case "playerId" -> playerId = readText(parser);
+                case "version" -> {
+                    hasVersion = valueToken != JsonToken.VALUE_NULL;
+                    version = hasVersion ? readLong(parser) : 0;
+                }
+                case "value" -> {
+                    hasValue = valueToken != JsonToken.VALUE_NULL;
+                    value = hasValue ? readDouble(parser) : 0;
+                }
+                default -> {
+                    if (failOnUnknownFields) {
+                        throw new JsonParseException(parser, "Unrecognized field \"" + field + "\"");
+                    }
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        if (statType == null) {
+            throw new JsonParseException(parser, "Missing event type");
+        }
+        GameEvent event = newEvent(statType);
+        event.setEvent(statType.getValue());
+        event.setGameId(gameId);
+        event.setTeamId(teamId);
+        event.setPlayerId(playerId);
+        event.setVersion(hasVersion ? version : null);
+        event.setValue(hasValue ? value : null);
+        return event;
+    }
+
+    /**
+     * Write an event in the wire format read by {@link #decode}.
+     */
+    public String encode(GameEvent event) throws IOException {
+        StringWriter writer = new StringWriter(128);
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeStringField("event", event.getEvent());
+            if (event.getVersion() != null) {
+                generator.writeNumberField("version", event.getVersion());
+            }
+            generator.writeStringField("gameId", event.getGameId());
+            generator.writeStringField("teamId", event.getTeamId());
+            generator.writeStringField("playerId", event.getPlayerId());
+            if (event.getValue() != null) {
+                generator.writeNumberField("value", event.getValue());
+            }
+            generator.writeEndObject();
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Check an event against the constraints declared on {@link GameEvent} and its subclasses.
+     * @return Constraint messages, empty when the event is valid
+     */
+    public List<String> validate(GameEvent event) {
+        List<String> errors = null;
+        if (event.getVersion() == null) {
+            errors = add(errors, "Version is required");
+        } else if (event.getVersion() < 1) {
+            errors = add(errors, "Version must be greater than 0");
+        }
+        if (isBlank(event.getGameId())) {
+            errors = add(errors, "Game ID is required");
+        }
+        if (isBlank(event.getTeamId())) {
+            errors = add(errors, "Team ID is required");
+        }
+        if (isBlank(event.getPlayerId())) {
+            errors = add(errors, "Player ID is required");
+        }
+        if (event.getValue() == null) {
+            errors = add(errors, "Value is required");
+        } else {
+            ValueRule rule = VALUE_RULES.get(StatType.fromString(event.getEvent()));
+            errors = rule.check(event.getValue(), errors);
+        }
+        return errors == null ? List.of() : errors;
+    }
+
+    static GameEvent newEvent(StatType statType) {
+        return SUBTYPES.get(statType).get();
+    }
+
+    private static StatType readStatType(JsonParser parser) throws IOException {
+        String text = readText(parser);
+        try {
+            return StatType.fromString(text);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(parser, "Unknown event type \"" + text + "\"");
+        }
+    }
+
+    private static String readText(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            throw new JsonParseException(parser, "Expected a string for \"" + parser.currentName() + "\"");
+        }
+        return parser.getText();
+    }
+
+    private static long readLong(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Long.parseLong(parser.getText().trim());
+            } catch (NumberFormatException e) {
+                throw new JsonParseException(parser, "Invalid number for \"" + parser.currentName() + "\"");
+            }
+        }
+        throw new JsonParseException(parser, "Expected an integer for \"" + parser.currentName() + "\"");
+    }
+
+    private static double readDouble(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Double.parseDouble(parser.getText().trim());
+            } catch (NumberFormatException e) {
+                throw new JsonParseException(parser, "Invalid number for \"" + parser.currentName() + "\"");
+            }
+        }
+        throw new JsonParseException(parser, "Expected a number for \"" + parser.currentName() + "\"");
+    }
+
+    private static boolean isBlank(String text) {
+        return text == null || text.isBlank();
+    }
+
+    private static List<String> add(List<String> errors, String message) {
+        if (errors == null) {
+            errors = new ArrayList<>(2);
+        }
+        errors.add(message);
+        return errors;
+    }
+
+    /**
+     * Precomputed form of a {@code @Min}/{@code @Max}/{@code @Digits} triple.
+     * {@code integerLimit} is 10^integer digits and {@code fractionScale} is 10^fraction digits.
+     */
+    private record ValueRule(double min, double max, double integerLimit, double fractionScale,
+                             String minMessage, String maxMessage, String digitsMessage) {
+
+        static ValueRule of(double min, double max, int integerDigits, int fractionDigits,
+                            String minMessage, String maxMessage, String digitsMessage) {
+            return new ValueRule(min, max, Math.pow(10, integerDigits), Math.pow(10, fractionDigits),
+                    minMessage, maxMessage, digitsMessage);
+        }
+
+        // @Min(1) with unbounded whole-number @Digits
+        static ValueRule count(String stat) {
+            return new ValueRule(1, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, 1,
+                    stat + " must be at least 1", null, stat + " must be a whole number");
+        }
+
+        List<String> check(double value, List<String> errors) {
+            if (value < min) {
+                errors = add(errors, minMessage);
+            }
+            if (value > max) {
+                errors = add(errors, maxMessage);
+            }
+            // Rounding to the allowed fraction digits must give back the same double,
+            // which is the case exactly when its shortest decimal form fits @Digits
+            if (!(Math.abs(value) < integerLimit)
+                    || Math.rint(value * fractionScale) / fractionScale != value) {
+                errors = add(errors, digitsMessage);
+            }
+            return errors;
+        }
+    }
+}
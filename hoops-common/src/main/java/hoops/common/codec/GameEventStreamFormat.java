@@ -0,0 +1,127 @@
+package hoops.common.codec;
+
+import hoops.common.enums.StatType;
+import hoops.common.models.events.GameEvent;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Maps a {@link GameEvent} to and from the fields of a Redis stream entry.
+ *
+ * <pre>
+ * schema 2 (fields): s=2  event=point  gameId=..  teamId=..  playerId=..  value=2  version=17
+ * schema 1 (legacy): data={"event":"point","version":17,...}
+ * </pre>
+ *
+ * Schema 2 stores each attribute as its own field, so neither side runs a JSON encode or
+ * parse per event, and Redis can store the field names once per listpack node as long as
+ * every entry carries the same fields in the same order. Schema 1 entries carry no
+ * {@code s} field and are still read, so old and new producers can share a stream
+ * while a deployment rolls out. Instances are immutable and thread-safe.
+ */
+public class GameEventStreamFormat {
+    public static final String SCHEMA_FIELD = "s";
+    public static final String LEGACY_DATA_FIELD = "data";
+    public static final String FIELDS_SCHEMA = "2";
+
+    private final GameEventCodec jsonCodec;
+
+    /**
+     * @param jsonCodec Reads and writes the {@code data} field of schema 1 entries
+     */
+    public GameEventStreamFormat(GameEventCodec jsonCodec) {
+        this.jsonCodec = jsonCodec;
+    }
+
+    /**
+     * Build the fields of a schema 2 entry. Null attributes are left out.
+     */
+    public Map<String, String> toFields(GameEvent event) {
+        Map<String, String> fields = new LinkedHashMap<>(16);
+        fields.put(SCHEMA_FIELD, FIELDS_SCHEMA);
+        fields.put("event", event.getEvent());
+        putIfPresent(fields, "gameId", event.getGameId());
+        putIfPresent(fields, "teamId", event.getTeamId());
+        putIfPresent(fields, "playerId", event.getPlayerId());
+        if (event.getValue() != null) {
+            fields.put("value", formatValue(event.getValue()));
+        }
+        if (event.getVersion() != null) {
+            fields.put("version", Long.toString(event.getVersion()));
+        }
+        return fields;
+    }
+
+    /**
+     * Build the fields of a schema 1 entry, for producers that must stay readable by older consumers.
+     */
+    public Map<String, String> toLegacyFields(GameEvent event) throws IOException {
+        return Map.of(LEGACY_DATA_FIELD, jsonCodec.encode(event));
+    }
+
+    /**
+     * @return true if the entry holds a game event in either schema, false for init or marker entries
+     */
+    public boolean isGameEvent(Map<String, String> fields) {
+        return fields.containsKey(SCHEMA_FIELD) || fields.containsKey(LEGACY_DATA_FIELD);
+    }
+
+    /**
+     * Read an event from the fields of a schema 1 or schema 2 entry.
+     * @throws IOException if the schema is unknown, the event type is missing or unknown,
+     *         or a numeric field cannot be parsed
+     */
+    public GameEvent fromFields(Map<String, String> fields) throws IOException {
+        String schema = fields.get(SCHEMA_FIELD);
+        if (schema == null) {
+            String data = fields.get(LEGACY_DATA_FIELD);
+            if (data == null) {
+                throw new IOException("Entry has neither a schema nor a data field");
+            }
+            return jsonCodec.decode(data);
+        }
+        if (!FIELDS_SCHEMA.equals(schema)) {
+            throw new IOException("Unsupported stream entry schema: " + schema);
+        }
+
+        String type = fields.get("event");
+        if (type == null) {
+            throw new IOException("Missing event type");
+        }
+        StatType statType;
+        try {
+            statType = StatType.fromString(type);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown event type \"" + type + "\"");
+        }
+
+        GameEvent event = GameEventCodec.newEvent(statType);
+        event.setEvent(statType.getValue());
+        event.setGameId(fields.get("gameId"));
+        event.setTeamId(fields.get("teamId"));
+        event.setPlayerId(fields.get("playerId"));
+        try {
+            String value = fields.get("value");
+            event.setValue(value == null ? null : Double.parseDouble(value));
+            String version = fields.get("version");
+            event.setVersion(version == null ? null : Long.parseLong(version));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid number in stream entry: " + e.getMessage());
+        }
+        return event;
+    }
+
+    // Whole values ("2") are far more common than fractional minutes ("24.5")
+    private static String formatValue(double value) {
+        long whole = (long) value;
+        return whole == value ? Long.toString(whole) : Double.toString(value);
+    }
+
+    private static void putIfPresent(Map<String, String> fields, String name, String value) {
+        if (value != null) {
+            fields.put(name, value);
+        }
+    }
+}
@@ -7,4 +7,6 @@ public final class StreamConstants {
 
     public static final String GAME_EVENTS_STREAM = "game-events-stream";
     public static final String GAME_EVENTS_CONSUMER_GROUP = "game-events-processors";
+    // Entries the processor gave up on, with the source stream and the error
+    public static final String GAME_EVENTS_DLQ_STREAM = "game-events-dlq";
 } 
\ No newline at end of file
@@ -1,6 +1,10 @@
 
 package hoops.common.enums;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * Represents the different types of basketball statistics that can be recorded.
  */
@@ -14,6 +18,14 @@ public enum StatType {
     TURNOVER("turnover"),
     MINUTES_PLAYED("minutes_played");
 
+    private static final Map<String, StatType> BY_VALUE = new HashMap<>();
+
+    static {
+        for (StatType type : values()) {
+            BY_VALUE.put(type.value, type);
+        }
+    }
+
     private final String value;
 
     StatType(String value) {
@@ -32,10 +44,10 @@ public enum StatType {
      * @throws IllegalArgumentException if no matching stat type is found
      */
     public static StatType fromString(String text) {
-        for (StatType type : StatType.values()) {
-            if (type.value.equalsIgnoreCase(text)) {
-                return type;
-            }
+        // Values are lower case; toLowerCase returns the same instance when nothing changes
+        StatType type = text == null ? null : BY_VALUE.get(text.toLowerCase(Locale.ROOT));
+        if (type != null) {
+            return type;
         }
         throw new IllegalArgumentException("Unknown stat type: " + text);
     }
@@ -0,0 +1,97 @@
+package hoops.common.redis;
+
+import hoops.common.constants.StreamConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Utility class for partitioned game event stream keys.
+ * With more than one partition, events go to {@code game-events-stream:{n}} where n is
+ * derived from the game ID, so all events of one game stay in one stream and keep their order.
+ * The braces are a Redis Cluster hash tag, so each partition can live in a different slot.
+ */
+public final class StreamKeyUtil {
+    private StreamKeyUtil() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Get the partition a game's events belong to
+     * @param gameId The game ID
+     * @param partitions Total number of partitions
+     * @return Partition index in [0, partitions)
+     */
+    public static int getPartition(String gameId, int partitions) {
+        if (partitions <= 1) {
+            return 0;
+        }
+        return Math.floorMod(gameId.hashCode(), partitions);
+    }
+
+    /**
+     * Get the stream key for a partition. A single partition keeps the legacy unpartitioned key.
+     * @param partition The partition index
+     * @param partitions Total number of partitions
+     * @return The Redis stream key
+     */
+    public static String getStreamKey(int partition, int partitions) {
+        if (partitions <= 1) {
+            return StreamConstants.GAME_EVENTS_STREAM;
+        }
+        return StreamConstants.GAME_EVENTS_STREAM + ":{" + partition + "}";
+    }
+
+    /**
+     * Get the stream key a game's events are published to
+     * @param gameId The game ID
+     * @param partitions Total number of partitions
+     * @return The Redis stream key
+     */
+    public static String getStreamKeyForGame(String gameId, int partitions) {
+        return getStreamKey(getPartition(gameId, partitions), partitions);
+    }
+
+    /**
+     * Get the stream keys of the given partitions
+     * @param assignment Partition list such as "0,2,5" or "0-3"; blank means all partitions
+     * @param partitions Total number of partitions
+     * @return Stream keys in partition order
+     */
+    public static List<String> getStreamKeys(String assignment, int partitions) {
+        List<String> keys = new ArrayList<>();
+        for (int partition : parseAssignment(assignment, partitions)) {
+            keys.add(getStreamKey(partition, partitions));
+        }
+        return keys;
+    }
+
+    private static TreeSet<Integer> parseAssignment(String assignment, int partitions) {
+        int count = Math.max(partitions, 1);
+        TreeSet<Integer> result = new TreeSet<>();
+        if (assignment == null || assignment.isBlank()) {
+            for (int i = 0; i < count; i++) {
+                result.add(i);
+            }
+            return result;
+        }
+
+        for (String part : assignment.split(",")) {
+            String token = part.trim();
+            if (token.isEmpty()) {
+                continue;
+            }
+            int dash = token.indexOf('-');
+            int from = Integer.parseInt(dash < 0 ? token : token.substring(0, dash).trim());
+            int to = dash < 0 ? from : Integer.parseInt(token.substring(dash + 1).trim());
+            for (int partition = from; partition <= to; partition++) {
+                if (partition < 0 || partition >= count) {
+                    throw new IllegalArgumentException("Partition " + partition + " is outside 0-" + (count - 1));
+                }
+                result.add(partition);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,79 @@
+package hoops.common.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.common.models.events.GameEvent;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Decode-and-validate cost per event: ObjectMapper plus Jakarta Validator against
+ * {@link GameEventCodec}. Reports mean latency and bytes allocated per event on the
+ * calling thread. Run with
+ * {@code HOOPS_BENCHMARK=true ./gradlew :hoops-common:test --tests '*GameEventCodecBenchmarkTest'}.
+ */
+@EnabledIfEnvironmentVariable(named = "HOOPS_BENCHMARK", matches = "true")
+class GameEventCodecBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(GameEventCodecBenchmarkTest.class);
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+    private static final String[] PAYLOADS = {
+        """
+        {"gameId":"2024030100","teamId":"BOS","playerId":"jt0","event":"point","value":3,"version":1}""",
+        """
+        {"gameId":"2024030100","teamId":"NYK","playerId":"jb11","event":"minutes_played","value":24.5,"version":2}""",
+        """
+        {"gameId":"2024030100","teamId":"BOS","playerId":"jb7","event":"rebound","value":1,"version":3}"""
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final GameEventCodec codec = new GameEventCodec(objectMapper.getFactory(), true);
+
+    @Test
+    void compareDecoders() throws Exception {
+        measure("objectMapper", WARMUP, this::viaObjectMapper);
+        measure("codec", WARMUP, this::viaCodec);
+
+        measure("objectMapper", ITERATIONS, this::viaObjectMapper);
+        measure("codec", ITERATIONS, this::viaCodec);
+    }
+
+    private int viaObjectMapper(String json) throws Exception {
+        GameEvent event = objectMapper.readValue(json, GameEvent.class);
+        return validator.validate(event).size();
+    }
+
+    private int viaCodec(String json) throws Exception {
+        return codec.validate(codec.decode(json)).size();
+    }
+
+    private void measure(String label, int iterations, Decoder decoder) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        int sink = 0;
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += decoder.decode(PAYLOADS[i % PAYLOADS.length]);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        log.info("{}: {} ns/event, {} B/event ({})", label,
+                String.format("%.1f", (double) elapsed / iterations),
+                String.format("%.1f", (double) allocated / iterations), sink);
+    }
+
+    @FunctionalInterface
+    private interface Decoder {
+        int decode(String json) throws Exception;
+    }
+}
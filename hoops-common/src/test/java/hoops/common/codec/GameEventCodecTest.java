@@ -0,0 +1,97 @@
+package hoops.common.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.common.enums.StatType;
+import hoops.common.models.events.GameEvent;
+import hoops.common.models.events.MinutesPlayedEvent;
+import hoops.common.models.events.PointsEvent;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventCodecTest {
+    private final GameEventCodec codec = new GameEventCodec(new JsonFactory(), true);
+
+    @Test
+    void decode_ShouldResolveSubtypeWhenEventComesLast() throws Exception {
+        GameEvent event = codec.decode("""
+            {"gameId":"2024030100","teamId":"BOS","playerId":"jt0","value":24.5,"version":7,"event":"minutes_played"}""");
+
+        assertInstanceOf(MinutesPlayedEvent.class, event);
+        assertEquals("2024030100", event.getGameId());
+        assertEquals(7L, event.getVersion());
+        assertEquals(24.5, event.getValue());
+        assertEquals("minutes_played", event.getEvent());
+    }
+
+    @Test
+    void decode_UnknownEventType_ShouldFail() {
+        assertThrows(JsonParseException.class, () -> codec.decode("""
+            {"gameId":"2024030100","teamId":"BOS","playerId":"jt0","event":"dunk","value":1,"version":1}"""));
+    }
+
+    @Test
+    void decode_UnknownField_ShouldFailOnlyWhenStrict() throws Exception {
+        String json = """
+            {"gameId":"2024030100","teamId":"BOS","playerId":"jt0","event":"point","value":2,"version":1,"extra":{"a":[1]}}""";
+
+        assertThrows(JsonParseException.class, () -> codec.decode(json));
+        GameEvent event = new GameEventCodec(new JsonFactory(), false).decode(json);
+        assertInstanceOf(PointsEvent.class, event);
+        assertEquals(2.0, event.getValue());
+    }
+
+    @Test
+    void encode_ShouldRoundTripAndBeReadableByObjectMapper() throws Exception {
+        GameEvent original = codec.decode("""
+            {"gameId":"2024030100","teamId":"BOS","playerId":"jt0","event":"point","value":3,"version":1}""");
+
+        String json = codec.encode(original);
+
+        assertEquals(original, codec.decode(json));
+        GameEvent viaMapper = new ObjectMapper().readValue(json, GameEvent.class);
+        assertInstanceOf(PointsEvent.class, viaMapper);
+        assertEquals(3.0, viaMapper.getValue());
+    }
+
+    @Test
+    void validate_ShouldMatchJakartaConstraints() throws Exception {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        double[] values = {-1, 0, 0.5, 1, 1.5, 2, 3, 4, 6, 7, 9.9, 10, 24.3, 24.35, 48, 48.1, 99, 100, 1234};
+
+        for (StatType statType : StatType.values()) {
+            for (double value : values) {
+                for (long version : new long[]{0, 1}) {
+                    GameEvent event = codec.decode("""
+                        {"gameId":"2024030100","teamId":"BOS","playerId":" ","event":"%s","value":%s,"version":%d}"""
+                            .formatted(statType.getValue(), value, version));
+
+                    Set<String> expected = validator.validate(event).stream()
+                            .map(ConstraintViolation::getMessage)
+                            .collect(Collectors.toCollection(TreeSet::new));
+                    List<String> actual = codec.validate(event);
+
+                    assertEquals(expected, new TreeSet<>(actual), statType + " value " + value + " version " + version);
+                }
+            }
+        }
+    }
+
+    @Test
+    void validate_MissingFields_ShouldReportRequiredMessages() throws Exception {
+        GameEvent event = codec.decode("{\"event\":\"rebound\"}");
+
+        assertEquals(List.of("Version is required", "Game ID is required", "Team ID is required",
+                "Player ID is required", "Value is required"), codec.validate(event));
+    }
+}
@@ -0,0 +1,66 @@
+package hoops.common.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import hoops.common.models.events.GameEvent;
+import hoops.common.models.events.MinutesPlayedEvent;
+import hoops.common.models.events.PointsEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventStreamFormatTest {
+    private final GameEventCodec codec = new GameEventCodec(new JsonFactory(), false);
+    private final GameEventStreamFormat format = new GameEventStreamFormat(codec);
+
+    @Test
+    void toFields_ShouldWriteOneFieldPerAttributeInFixedOrder() throws Exception {
+        GameEvent event = codec.decode("""
+            {"gameId":"2024030100","teamId":"BOS","playerId":"jt0","event":"point","value":3,"version":7}""");
+
+        Map<String, String> fields = format.toFields(event);
+
+        assertEquals(List.of("s", "event", "gameId", "teamId", "playerId", "value", "version"),
+                List.copyOf(fields.keySet()));
+        assertEquals("2", fields.get("s"));
+        assertEquals("3", fields.get("value"));
+        assertEquals("7", fields.get("version"));
+        assertEquals(event, format.fromFields(fields));
+    }
+
+    @Test
+    void fromFields_ShouldKeepFractionalValues() throws Exception {
+        GameEvent event = codec.decode("""
+            {"gameId":"2024030100","teamId":"BOS","playerId":"jt0","event":"minutes_played","value":24.5,"version":1}""");
+
+        GameEvent decoded = format.fromFields(format.toFields(event));
+
+        assertInstanceOf(MinutesPlayedEvent.class, decoded);
+        assertEquals(24.5, decoded.getValue());
+    }
+
+    @Test
+    void fromFields_ShouldReadLegacyDataEntries() throws Exception {
+        GameEvent event = codec.decode("""
+            {"gameId":"2024030100","teamId":"BOS","playerId":"jt0","event":"point","value":2,"version":1}""");
+
+        Map<String, String> legacy = format.toLegacyFields(event);
+
+        assertTrue(format.isGameEvent(legacy));
+        GameEvent decoded = format.fromFields(legacy);
+        assertInstanceOf(PointsEvent.class, decoded);
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void fromFields_ShouldRejectUnknownSchemaAndBadNumbers() {
+        assertFalse(format.isGameEvent(Map.of("type", "STREAM_INIT")));
+        assertThrows(IOException.class, () -> format.fromFields(Map.of("s", "3", "event", "point")));
+        assertThrows(IOException.class, () -> format.fromFields(Map.of("s", "2", "event", "dunk")));
+        assertThrows(IOException.class, () -> format.fromFields(Map.of("s", "2", "event", "point", "value", "two")));
+        assertThrows(IOException.class, () -> format.fromFields(Map.of("type", "STREAM_INIT")));
+    }
+}
@@ -0,0 +1,53 @@
+package hoops.common.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitedDataSourceTest {
+
+    @Test
+    void getConnection_ShouldReleasePermitOnClose() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 2, 100);
+
+        Connection first = dataSource.getConnection();
+        assertEquals(1, dataSource.getAvailablePermits());
+
+        first.close();
+        first.close();
+        assertEquals(2, dataSource.getAvailablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void getConnection_LimitReached_ShouldTimeOut() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, 20);
+
+        Connection held = dataSource.getConnection();
+
+        assertThrows(CannotGetJdbcConnectionException.class, dataSource::getConnection);
+        held.close();
+        assertNotNull(dataSource.getConnection());
+    }
+
+    @Test
+    void getConnection_TargetFails_ShouldReturnPermit() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLException("Pool exhausted"));
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, 20);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+}
@@ -0,0 +1,45 @@
+package hoops.common.redis;
+
+import hoops.common.constants.StreamConstants;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamKeyUtilTest {
+
+    @Test
+    void getStreamKey_SinglePartition_ShouldKeepLegacyKey() {
+        assertEquals(StreamConstants.GAME_EVENTS_STREAM, StreamKeyUtil.getStreamKeyForGame("2024030100", 1));
+        assertEquals(List.of(StreamConstants.GAME_EVENTS_STREAM), StreamKeyUtil.getStreamKeys("", 1));
+    }
+
+    @Test
+    void getStreamKey_MultiplePartitions_ShouldUseHashTag() {
+        assertEquals("game-events-stream:{3}", StreamKeyUtil.getStreamKey(3, 8));
+    }
+
+    @Test
+    void getStreamKeyForGame_ShouldBeStableForSameGame() {
+        String first = StreamKeyUtil.getStreamKeyForGame("2024030100", 8);
+        String second = StreamKeyUtil.getStreamKeyForGame("2024030100", 8);
+
+        assertEquals(first, second);
+        int partition = StreamKeyUtil.getPartition("2024030100", 8);
+        assertTrue(partition >= 0 && partition < 8);
+    }
+
+    @Test
+    void getStreamKeys_ShouldParseListsAndRanges() {
+        assertEquals(
+            List.of("game-events-stream:{0}", "game-events-stream:{1}", "game-events-stream:{2}", "game-events-stream:{5}"),
+            StreamKeyUtil.getStreamKeys("0-2, 5", 8));
+        assertEquals(4, StreamKeyUtil.getStreamKeys(null, 4).size());
+    }
+
+    @Test
+    void getStreamKeys_OutOfRange_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> StreamKeyUtil.getStreamKeys("0,9", 8));
+    }
+}
@@ -0,0 +1,29 @@
+package hoops.ingestion.config;
+
+import hoops.ingestion.controllers.RespondAsync;
+import hoops.ingestion.controllers.RespondAsyncCondition;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.servlet.mvc.condition.RequestCondition;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+
+/**
+ * Lets handler methods annotated with {@link RespondAsync} match on the parsed {@code Prefer} header.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcRegistrations {
+
+    @Override
+    public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+        return new RequestMappingHandlerMapping() {
+            @Override
+            protected RequestCondition<?> getCustomMethodCondition(Method method) {
+                return AnnotatedElementUtils.hasAnnotation(method, RespondAsync.class)
+                        ? RespondAsyncCondition.INSTANCE : null;
+            }
+        };
+    }
+}
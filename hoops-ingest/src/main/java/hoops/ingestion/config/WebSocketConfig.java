@@ -1,6 +1,8 @@
 package hoops.ingestion.config;
 
 import hoops.ingestion.constants.WebSocketConstants;
+import hoops.ingestion.services.ratelimit.ClientClassResolver;
+import hoops.ingestion.websocket.ClientClassHandshakeInterceptor;
 import hoops.ingestion.websocket.GameEventWebSocketHandler;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
@@ -12,14 +14,17 @@ import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry
 public class WebSocketConfig implements WebSocketConfigurer {
 
     private final GameEventWebSocketHandler gameEventWebSocketHandler;
+    private final ClientClassResolver clientClassResolver;
 
-    public WebSocketConfig(GameEventWebSocketHandler gameEventWebSocketHandler) {
+    public WebSocketConfig(GameEventWebSocketHandler gameEventWebSocketHandler, ClientClassResolver clientClassResolver) {
         this.gameEventWebSocketHandler = gameEventWebSocketHandler;
+        this.clientClassResolver = clientClassResolver;
     }
 
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(gameEventWebSocketHandler, WebSocketConstants.GAME_EVENTS_ENDPOINT)
+               .addInterceptors(new ClientClassHandshakeInterceptor(clientClassResolver))
                .setAllowedOrigins("*");
     }
 } 
\ No newline at end of file
@@ -7,4 +7,12 @@ public final class WebSocketConstants {
 
     public static final String GAME_EVENTS_ENDPOINT = "/ws/game_live_update";
     public static final String GAME_EVENTS_ENDPOINT_PATH = "/ws/**";  // For WebSocket configuration
+
+    // Sub-protocols offered in Sec-WebSocket-Protocol; clients that send none get JSON text frames
+    public static final String JSON_SUBPROTOCOL = "hoops.events.v1.json";
+    public static final String BINARY_SUBPROTOCOL = "hoops.events.v1.binary";
+
+    // API key that selects the caller's rate limit class, sent as a handshake header or query parameter (REST: header only)
+    public static final String API_KEY_HEADER = "X-Hoops-Api-Key";
+    public static final String API_KEY_PARAM = "apiKey";
 } 
\ No newline at end of file
@@ -1,62 +1,268 @@
 package hoops.ingestion.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import hoops.common.models.events.GameEvent;
+import hoops.ingestion.constants.WebSocketConstants;
+import hoops.ingestion.models.dtos.BatchIngestResponse;
+import hoops.ingestion.services.batch.BatchIngestService;
+import hoops.ingestion.services.metrics.IngestMetrics;
+import hoops.ingestion.services.metrics.IngestMetrics.Outcome;
+import hoops.ingestion.services.metrics.IngestMetrics.Transport;
 import hoops.ingestion.services.producers.GameEventProducer;
-import jakarta.validation.Valid;
+import hoops.ingestion.services.producers.GameEventProducer.Durability;
+import hoops.ingestion.services.ratelimit.ClientClassResolver;
+import hoops.ingestion.services.ratelimit.IngestRateLimiter;
+import hoops.ingestion.services.ratelimit.RateLimitDecision;
+import hoops.ingestion.services.reference.ReferenceDataIndex;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.validation.FieldError;
-import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/ingest")
 public class GameDataController {
     private static final Logger logger = LoggerFactory.getLogger(GameDataController.class);
+    private static final String SLOW_DOWN_HEADER = "X-Hoops-Slow-Down";
+    // RFC 7240: clients opt in to a 202 that does not wait for the synchronous publish (see RespondAsync)
+    private static final String PREFERENCE_APPLIED_HEADER = "Preference-Applied";
     
     private final GameEventProducer gameEventProducer;
+    private final BatchIngestService batchIngestService;
+    private final ReferenceDataIndex referenceDataIndex;
+    private final IngestMetrics metrics;
+    private final IngestRateLimiter rateLimiter;
+    private final ClientClassResolver clientClassResolver;
+    private final Validator validator;
+    private final ObjectReader eventReader;
+    private final ObjectWriter lineWriter;
+
+    @Value("${ingest.rest.async.durability:REDIS}")
+    private Durability asyncDurability = Durability.REDIS;
     
     @Autowired
-    public GameDataController(GameEventProducer gameEventProducer) {
+    public GameDataController(GameEventProducer gameEventProducer, BatchIngestService batchIngestService,
+                              ReferenceDataIndex referenceDataIndex, IngestMetrics metrics,
+                              IngestRateLimiter rateLimiter, ClientClassResolver clientClassResolver,
+                              Validator validator, ObjectMapper objectMapper) {
         this.gameEventProducer = gameEventProducer;
+        this.batchIngestService = batchIngestService;
+        this.referenceDataIndex = referenceDataIndex;
+        this.metrics = metrics;
+        this.rateLimiter = rateLimiter;
+        this.clientClassResolver = clientClassResolver;
+        this.validator = validator;
+        this.eventReader = objectMapper.readerFor(GameEvent.class);
+        this.lineWriter = objectMapper.writer();
     }
     
-    @PostMapping("/event")
-    public ResponseEntity<?> ingestGameEvent(@Valid @RequestBody GameEvent gameEvent) {
-        logger.info("Received game event for event version: {}, player: {}, event: {}",
-            gameEvent.getGameId(), gameEvent.getVersion(), gameEvent.getEvent());
+    /**
+     * The body is read as bytes and parsed here rather than bound with {@code @RequestBody GameEvent},
+     * so parsing and validation are timed like they are on the WebSocket path. It is bound with the
+     * same ObjectMapper the message converter used, so the accepted JSON is unchanged.
+     */
+    @PostMapping(value = "/event", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> ingestGameEvent(@RequestBody byte[] body, HttpServletRequest request) {
+        GameEvent gameEvent = decode(body);
+        if (gameEvent == null) {
+            return malformed();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        ResponseEntity<?> refused = admit(gameEvent, request, headers);
+        if (refused != null) {
+            return refused;
+        }
         
         try {
             gameEventProducer.publishEvent(gameEvent);
-            return ResponseEntity.ok().build();
+            metrics.recordEvent(Transport.REST, Outcome.ACCEPTED, gameEvent);
+            return ResponseEntity.ok().headers(headers).build();
         } catch (Exception e) {
+            metrics.recordEvent(Transport.REST, Outcome.FAILED, gameEvent);
             logger.error("Error processing game event", e);
             return ResponseEntity.internalServerError().body("Error processing game event");
         }
     }
 
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String, Object>> handleValidationExceptions(MethodArgumentNotValidException ex) {
+    /**
+     * Asynchronous variant of {@link #ingestGameEvent}, selected when the {@code Prefer} header
+     * lists {@code respond-async}, alone or with other preferences.
+     * The servlet thread is released straight away; the response is 202 once the event has reached
+     * the configured {@link Durability} level.
+     */
+    @RespondAsync
+    @PostMapping(value = "/event", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<?>> ingestGameEventAsync(@RequestBody byte[] body,
+                                                                     HttpServletRequest request) {
+        GameEvent gameEvent = decode(body);
+        if (gameEvent == null) {
+            return CompletableFuture.completedFuture(malformed());
+        }
+        HttpHeaders headers = new HttpHeaders();
+        ResponseEntity<?> refused = admit(gameEvent, request, headers);
+        if (refused != null) {
+            return CompletableFuture.completedFuture(refused);
+        }
+
+        headers.set(PREFERENCE_APPLIED_HEADER, RespondAsyncCondition.RESPOND_ASYNC);
+        return gameEventProducer.publishEventAsync(gameEvent, asyncDurability).handle((entryId, error) -> {
+            if (error != null) {
+                metrics.recordEvent(Transport.REST, Outcome.FAILED, gameEvent);
+                logger.error("Error processing game event", error);
+                return ResponseEntity.internalServerError().body("Error processing game event");
+            }
+            metrics.recordEvent(Transport.REST, Outcome.ACCEPTED, gameEvent);
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("durability", asyncDurability.name().toLowerCase());
+            if (entryId != null) {
+                response.put("entryId", entryId);
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED).headers(headers).body(response);
+        });
+    }
+
+    /**
+     * Parse the request body into an event, timed as JSON parse.
+     * @return The event, or null if the body is not a valid game event
+     */
+    private GameEvent decode(byte[] body) {
+        try {
+            long parseStart = System.nanoTime();
+            GameEvent gameEvent = eventReader.readValue(body);
+            metrics.recordJsonParse(parseStart);
+            return gameEvent;
+        } catch (IOException e) {
+            logger.debug("Rejected malformed game event: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private ResponseEntity<?> malformed() {
+        metrics.recordEvent(Transport.REST, Outcome.REJECTED, null);
+        return ResponseEntity.badRequest().body(Map.of("errors", List.of("Malformed game event")));
+    }
+
+    /**
+     * Rate limit, constraint and reference checks shared by both single-event endpoints.
+     * @return The response to send if the event is refused, or null to go on and publish it
+     */
+    private ResponseEntity<?> admit(GameEvent gameEvent, HttpServletRequest request, HttpHeaders headers) {
+        logger.info("Received game event for event version: {}, player: {}, event: {}",
+            gameEvent.getGameId(), gameEvent.getVersion(), gameEvent.getEvent());
+
+        // Callers are tracked by address (the client's, behind a trusted proxy); over the limit they get 429,
+        // close to it a slow-down header
+        String clientClass = clientClassResolver.resolve(request.getUserPrincipal(),
+            request.getHeader(WebSocketConstants.API_KEY_HEADER), request.getRemoteAddr());
+        RateLimitDecision decision = rateLimiter.check(request.getRemoteAddr(), clientClass, gameEvent.getGameId());
+        if (decision.action() != RateLimitDecision.Action.ALLOW) {
+            metrics.recordRateLimit(Transport.REST, decision);
+            if (decision.rejected()) {
+                metrics.recordEvent(Transport.REST, Outcome.THROTTLED, gameEvent);
+                headers.set(HttpHeaders.RETRY_AFTER, String.valueOf((decision.retryAfterMs() + 999) / 1000));
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).headers(headers).body(Map.of(
+                    "error", "rate_limited",
+                    "scope", decision.scope().name().toLowerCase(),
+                    "retryAfterMs", decision.retryAfterMs()));
+            }
+            headers.set(SLOW_DOWN_HEADER, decision.scope().name().toLowerCase() + "; retry-after-ms=" + decision.retryAfterMs());
+        }
+
+        long validateStart = System.nanoTime();
+        Set<ConstraintViolation<GameEvent>> violations = validator.validate(gameEvent);
+        List<String> referenceErrors = violations.isEmpty() ? referenceDataIndex.check(gameEvent) : List.of();
+        metrics.recordValidate(validateStart);
+        if (!violations.isEmpty()) {
+            metrics.recordEvent(Transport.REST, Outcome.REJECTED, gameEvent);
+            return ResponseEntity.badRequest().body(fieldErrors(violations));
+        }
+        if (!referenceErrors.isEmpty()) {
+            metrics.recordEvent(Transport.REST, Outcome.REJECTED, gameEvent);
+            return ResponseEntity.badRequest().body(Map.of("errors", referenceErrors));
+        }
+        return null;
+    }
+
+    /**
+     * Bulk ingest for feed replays. Body is either a JSON array of events or
+     * application/x-ndjson with one event per line; it is parsed incrementally. Each item is charged
+     * against the caller's rate limits like a single event; large replays need a client class with a
+     * big enough budget (e.g. {@code replay}).
+     * The response is application/x-ndjson too: one result line per item, in request order and written as
+     * the items settle, then a totals line, so neither side holds the whole feed in memory.
+     */
+    @PostMapping(value = "/events", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void ingestGameEvents(InputStream body, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        String clientClass = clientClassResolver.resolve(request.getUserPrincipal(),
+            request.getHeader(WebSocketConstants.API_KEY_HEADER), request.getRemoteAddr());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        try {
+            BatchIngestResponse totals = batchIngestService.ingest(body, request.getRemoteAddr(), clientClass,
+                result -> writeLine(out, result));
+            writeLine(out, totals);
+        } catch (UncheckedIOException e) {
+            // The client stopped reading; there is nobody left to report to
+            logger.warn("Batch ingest response aborted: {}", e.getCause().getMessage());
+        } catch (Exception e) {
+            logger.error("Error processing game event batch", e);
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+                response.getWriter().write("Error processing game event batch");
+            } else {
+                // Results already went out with a 200, so the failure is reported in place of the totals line
+                writeLine(out, Map.of("error", "Error processing game event batch"));
+            }
+        }
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(lineWriter.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, Object> fieldErrors(Set<ConstraintViolation<GameEvent>> violations) {
         Map<String, Object> response = new HashMap<>();
         List<Map<String, String>> errors = new ArrayList<>();
         
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
+        violations.forEach((violation) -> {
             Map<String, String> errorDetails = new HashMap<>();
-            String fieldName = ((FieldError) error).getField();
-            String errorMessage = error.getDefaultMessage();
-            errorDetails.put("field", fieldName);
-            errorDetails.put("message", errorMessage);
+            errorDetails.put("field", violation.getPropertyPath().toString());
+            errorDetails.put("message", violation.getMessage());
             errors.add(errorDetails);
         });
         
         response.put("errors", errors);
-        return ResponseEntity.badRequest().body(response);
+        return response;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,17 @@
+package hoops.ingestion.controllers;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler method that only matches requests carrying the RFC 7240 {@code respond-async}
+ * preference, wherever it appears in the {@code Prefer} header(s). See {@link RespondAsyncCondition}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RespondAsync {
+}
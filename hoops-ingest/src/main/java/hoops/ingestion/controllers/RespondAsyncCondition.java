@@ -0,0 +1,78 @@
+package hoops.ingestion.controllers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.mvc.condition.AbstractRequestCondition;
+
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Request condition for {@link RespondAsync} handlers. A {@code headers = "Prefer=respond-async"}
+ * mapping only matches a header that is exactly that value, so a combined
+ * {@code Prefer: respond-async, wait=5} or a second preference header would fall through to the
+ * synchronous handler. This parses the comma-separated preference list of every {@code Prefer}
+ * header instead; preference names are case-insensitive and may carry a value or parameters.
+ */
+public final class RespondAsyncCondition extends AbstractRequestCondition<RespondAsyncCondition> {
+    public static final String PREFER_HEADER = "Prefer";
+    public static final String RESPOND_ASYNC = "respond-async";
+
+    public static final RespondAsyncCondition INSTANCE = new RespondAsyncCondition();
+
+    private RespondAsyncCondition() {
+    }
+
+    /**
+     * @return true if any {@code Prefer} header on the request lists {@code respond-async}
+     */
+    public static boolean prefersRespondAsync(HttpServletRequest request) {
+        Enumeration<String> headers = request.getHeaders(PREFER_HEADER);
+        while (headers != null && headers.hasMoreElements()) {
+            for (String preference : headers.nextElement().split(",")) {
+                int end = preference.length();
+                int parameters = preference.indexOf(';');
+                if (parameters >= 0) {
+                    end = parameters;
+                }
+                int value = preference.indexOf('=');
+                if (value >= 0 && value < end) {
+                    end = value;
+                }
+                if (RESPOND_ASYNC.equalsIgnoreCase(preference.substring(0, end).trim())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected Collection<?> getContent() {
+        return List.of(PREFER_HEADER + "=" + RESPOND_ASYNC);
+    }
+
+    @Override
+    protected String getToStringInfix() {
+        return " && ";
+    }
+
+    @Override
+    public RespondAsyncCondition combine(RespondAsyncCondition other) {
+        return this;
+    }
+
+    @Override
+    public RespondAsyncCondition getMatchingCondition(HttpServletRequest request) {
+        if (CorsUtils.isPreFlightRequest(request) || prefersRespondAsync(request)) {
+            return this;
+        }
+        return null;
+    }
+
+    @Override
+    public int compareTo(RespondAsyncCondition other, HttpServletRequest request) {
+        return 0;
+    }
+}
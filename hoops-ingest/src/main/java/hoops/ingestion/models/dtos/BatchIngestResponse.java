@@ -0,0 +1,15 @@
+package hoops.ingestion.models.dtos;
+
+import lombok.Data;
+
+/**
+ * Totals for a batch ingest request, sent as the last line of the response after the per-item results
+ */
+@Data
+public class BatchIngestResponse {
+    private int received;
+    private int accepted;
+    private int rejected;
+    private int throttled;
+    private int failed;
+}
@@ -0,0 +1,44 @@
+package hoops.ingestion.models.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a single event inside a batch ingest request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IngestItemResult {
+    public static final String ACCEPTED = "accepted";
+    public static final String REJECTED = "rejected";
+    public static final String FAILED = "failed";
+    public static final String THROTTLED = "throttled";
+
+    private int index;          // Position of the event in the request body
+    private String status;      // accepted, rejected (invalid input), throttled (over a rate limit) or failed (publish error)
+    private String entryId;     // Redis stream entry ID when accepted; absent for a dropped duplicate or a journaled event
+    private List<String> errors;
+    private Long retryAfterMs;  // When throttled, how long until the limit that refused it has a token again
+
+    public static IngestItemResult accepted(int index, String entryId) {
+        return new IngestItemResult(index, ACCEPTED, entryId, null, null);
+    }
+
+    public static IngestItemResult rejected(int index, List<String> errors) {
+        return new IngestItemResult(index, REJECTED, null, errors, null);
+    }
+
+    public static IngestItemResult failed(int index, String error) {
+        return new IngestItemResult(index, FAILED, null, List.of(error), null);
+    }
+
+    public static IngestItemResult throttled(int index, String scope, long retryAfterMs) {
+        return new IngestItemResult(index, THROTTLED, null, List.of("rate_limited: " + scope), retryAfterMs);
+    }
+}
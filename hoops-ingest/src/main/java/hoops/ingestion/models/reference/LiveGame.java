@@ -0,0 +1,11 @@
+package hoops.ingestion.models.reference;
+
+/**
+ * A game currently IN_PROGRESS and the two teams playing it
+ */
+public record LiveGame(String gameId, String homeTeamId, String awayTeamId) {
+
+    public boolean hasTeam(String teamId) {
+        return teamId.equals(homeTeamId) || teamId.equals(awayTeamId);
+    }
+}
@@ -0,0 +1,9 @@
+package hoops.ingestion.models.reference;
+
+import java.time.Instant;
+
+/**
+ * A player's roster entry; inactive players are dropped from the index
+ */
+public record PlayerRecord(String playerId, String teamId, boolean active, Instant lastUpdated) {
+}
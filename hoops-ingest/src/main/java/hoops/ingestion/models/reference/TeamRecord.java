@@ -0,0 +1,9 @@
+package hoops.ingestion.models.reference;
+
+import java.time.Instant;
+
+/**
+ * A team row as loaded for ingest validation
+ */
+public record TeamRecord(String teamId, Instant lastUpdated) {
+}
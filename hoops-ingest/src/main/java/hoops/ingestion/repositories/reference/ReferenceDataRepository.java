@@ -0,0 +1,22 @@
+package hoops.ingestion.repositories.reference;
+
+import hoops.ingestion.models.reference.LiveGame;
+import hoops.ingestion.models.reference.PlayerRecord;
+import hoops.ingestion.models.reference.TeamRecord;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ReferenceDataRepository {
+    /**
+     * @param since Only rows updated at or after this instant; null for all rows
+     */
+    List<TeamRecord> findTeamsUpdatedSince(Instant since);
+
+    /**
+     * @param since Only rows updated at or after this instant; null for all rows
+     */
+    List<PlayerRecord> findPlayersUpdatedSince(Instant since);
+
+    List<LiveGame> findLiveGames();
+}
@@ -0,0 +1,60 @@
+package hoops.ingestion.repositories.reference;
+
+import hoops.ingestion.models.reference.LiveGame;
+import hoops.ingestion.models.reference.PlayerRecord;
+import hoops.ingestion.models.reference.TeamRecord;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+@AllArgsConstructor
+@Repository
+@ConditionalOnProperty(name = "app.database.enabled", havingValue = "true")
+public class ReferenceDataRepositoryImpl implements ReferenceDataRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<TeamRecord> findTeamsUpdatedSince(Instant since) {
+        String sql = "SELECT team_id, last_updated FROM teams WHERE last_updated >= ?";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new TeamRecord(
+                rs.getString("team_id"),
+                toInstant(rs.getTimestamp("last_updated"))
+        ), since(since));
+    }
+
+    @Override
+    public List<PlayerRecord> findPlayersUpdatedSince(Instant since) {
+        String sql = "SELECT player_id, team_id, active, last_updated FROM players WHERE last_updated >= ?";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new PlayerRecord(
+                rs.getString("player_id"),
+                rs.getString("team_id"),
+                rs.getBoolean("active"),
+                toInstant(rs.getTimestamp("last_updated"))
+        ), since(since));
+    }
+
+    @Override
+    public List<LiveGame> findLiveGames() {
+        // Served by the partial index idx_live_games
+        String sql = "SELECT game_id, home_team_id, away_team_id FROM games WHERE state = 'IN_PROGRESS'";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new LiveGame(
+                rs.getString("game_id"),
+                rs.getString("home_team_id"),
+                rs.getString("away_team_id")
+        ));
+    }
+
+    private static Timestamp since(Instant since) {
+        return Timestamp.from(since == null ? Instant.EPOCH : since);
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? Instant.EPOCH : timestamp.toInstant();
+    }
+}
@@ -0,0 +1,22 @@
+package hoops.ingestion.services.batch;
+
+import hoops.ingestion.models.dtos.BatchIngestResponse;
+import hoops.ingestion.models.dtos.IngestItemResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public interface BatchIngestService {
+    /**
+     * Parse, validate and publish a stream of game events.
+     * Accepts either a JSON array of events or newline-delimited JSON (one event per line).
+     * @param body The raw request body
+     * @param clientKey Identifies the caller for its rate limit bucket (e.g. its address)
+     * @param clientClass The caller's server-assigned client class
+     * @param results Receives each item's result in request order, as soon as its publish group settles
+     * @return Totals for the whole request
+     */
+    BatchIngestResponse ingest(InputStream body, String clientKey, String clientClass,
+                               Consumer<IngestItemResult> results) throws IOException;
+}
@@ -0,0 +1,205 @@
+package hoops.ingestion.services.batch;
+
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import hoops.common.models.events.GameEvent;
+import hoops.ingestion.models.dtos.BatchIngestResponse;
+import hoops.ingestion.models.dtos.IngestItemResult;
+import hoops.ingestion.services.metrics.IngestMetrics;
+import hoops.ingestion.services.metrics.IngestMetrics.Outcome;
+import hoops.ingestion.services.metrics.IngestMetrics.Transport;
+import hoops.ingestion.services.producers.GameEventProducer;
+import hoops.ingestion.services.ratelimit.IngestRateLimiter;
+import hoops.ingestion.services.ratelimit.RateLimitDecision;
+import hoops.ingestion.services.reference.ReferenceDataIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Streams events out of the request body one at a time, so memory use does not grow
+ * with the size of the feed. Valid events are handed to the pipelined producer and
+ * awaited in groups of {@code publishGroupSize}, which bounds the number of XADDs in flight.
+ * Each group's results are passed on as soon as it settles rather than collected for the
+ * whole request, so the response can be streamed back too. Items go through the same rate
+ * limits as single events; those over a limit are reported as throttled and not published.
+ */
+@Slf4j
+@Service
+public class BatchIngestServiceImpl implements BatchIngestService {
+    private final ObjectReader eventReader;
+    private final GameEventProducer gameEventProducer;
+    private final Validator validator;
+    private final ReferenceDataIndex referenceDataIndex;
+    private final IngestMetrics metrics;
+    private final IngestRateLimiter rateLimiter;
+
+    @Value("${ingest.batch.publish-group-size:256}")
+    private int publishGroupSize;
+
+    @Value("${redis.publisher.timeout-ms:2000}")
+    private long publishTimeoutMs;
+
+    public BatchIngestServiceImpl(ObjectMapper objectMapper, GameEventProducer gameEventProducer, Validator validator,
+                                  ReferenceDataIndex referenceDataIndex, IngestMetrics metrics,
+                                  IngestRateLimiter rateLimiter) {
+        this.eventReader = objectMapper.readerFor(GameEvent.class);
+        this.gameEventProducer = gameEventProducer;
+        this.validator = validator;
+        this.referenceDataIndex = referenceDataIndex;
+        this.metrics = metrics;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public BatchIngestResponse ingest(InputStream body, String clientKey, String clientClass,
+                                      Consumer<IngestItemResult> results) throws IOException {
+        BatchIngestResponse response = new BatchIngestResponse();
+        List<PendingPublish> inFlight = new ArrayList<>(publishGroupSize);
+        // Results of the current group, held back until its publishes settle so they go out in request order
+        List<IngestItemResult> settled = new ArrayList<>(publishGroupSize);
+        int index = 0;
+
+        // readValues unwraps a root-level JSON array and also iterates whitespace-separated NDJSON values
+        try (MappingIterator<GameEvent> events = eventReader.readValues(body)) {
+            while (true) {
+                GameEvent event;
+                try {
+                    long parseStart = System.nanoTime();
+                    if (!events.hasNextValue()) {
+                        break;
+                    }
+                    event = events.nextValue();
+                    metrics.recordJsonParse(parseStart);
+                } catch (DatabindException e) {
+                    // Well-formed JSON that doesn't map to a GameEvent; the iterator skips to the next value
+                    metrics.recordEvent(Transport.REST, Outcome.REJECTED, null);
+                    settled.add(IngestItemResult.rejected(index++, List.of(e.getOriginalMessage())));
+                    flushIfFull(inFlight, settled, response, results);
+                    continue;
+                } catch (StreamReadException e) {
+                    // Malformed JSON - the parser cannot recover, so stop reading here
+                    metrics.recordEvent(Transport.REST, Outcome.REJECTED, null);
+                    settled.add(IngestItemResult.rejected(index, List.of("Malformed JSON: " + e.getOriginalMessage())));
+                    break;
+                }
+
+                int itemIndex = index++;
+                // Every item is charged like a single event from the same caller, so a bulk feed gets no larger budget
+                RateLimitDecision decision = rateLimiter.check(clientKey, clientClass, event.getGameId());
+                if (decision.action() != RateLimitDecision.Action.ALLOW) {
+                    metrics.recordRateLimit(Transport.REST, decision);
+                }
+                if (decision.rejected()) {
+                    metrics.recordEvent(Transport.REST, Outcome.THROTTLED, event);
+                    settled.add(IngestItemResult.throttled(itemIndex, decision.scope().name().toLowerCase(),
+                            decision.retryAfterMs()));
+                    flushIfFull(inFlight, settled, response, results);
+                    continue;
+                }
+
+                long validateStart = System.nanoTime();
+                List<String> errors = validate(event);
+                metrics.recordValidate(validateStart);
+                if (!errors.isEmpty()) {
+                    metrics.recordEvent(Transport.REST, Outcome.REJECTED, event);
+                    settled.add(IngestItemResult.rejected(itemIndex, errors));
+                } else {
+                    inFlight.add(new PendingPublish(itemIndex, event, publish(event)));
+                }
+                flushIfFull(inFlight, settled, response, results);
+            }
+            flush(inFlight, settled, response, results);
+        } finally {
+            // Only reached with publishes outstanding if reading or writing failed; settle them for the metrics
+            awaitGroup(inFlight, settled);
+        }
+
+        log.info("Batch ingest finished: received {}, accepted {}, rejected {}, throttled {}, failed {}",
+                response.getReceived(), response.getAccepted(), response.getRejected(), response.getThrottled(),
+                response.getFailed());
+        return response;
+    }
+
+    private List<String> validate(GameEvent event) {
+        Set<ConstraintViolation<GameEvent>> violations = validator.validate(event);
+        List<String> errors = new ArrayList<>(violations.size());
+        for (ConstraintViolation<GameEvent> violation : violations) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return errors.isEmpty() ? referenceDataIndex.check(event) : errors;
+    }
+
+    private CompletableFuture<String> publish(GameEvent event) {
+        try {
+            return gameEventProducer.publishEventAsync(event);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void flushIfFull(List<PendingPublish> inFlight, List<IngestItemResult> settled,
+                             BatchIngestResponse response, Consumer<IngestItemResult> results) {
+        if (inFlight.size() + settled.size() >= publishGroupSize) {
+            flush(inFlight, settled, response, results);
+        }
+    }
+
+    private void flush(List<PendingPublish> inFlight, List<IngestItemResult> settled,
+                       BatchIngestResponse response, Consumer<IngestItemResult> results) {
+        awaitGroup(inFlight, settled);
+        settled.sort(Comparator.comparingInt(IngestItemResult::getIndex));
+        for (IngestItemResult result : settled) {
+            count(response, result);
+            results.accept(result);
+        }
+        settled.clear();
+    }
+
+    private void awaitGroup(List<PendingPublish> inFlight, List<IngestItemResult> settled) {
+        for (PendingPublish pending : inFlight) {
+            try {
+                String entryId = pending.future().get(publishTimeoutMs, TimeUnit.MILLISECONDS);
+                metrics.recordEvent(Transport.REST, Outcome.ACCEPTED, pending.event());
+                settled.add(IngestItemResult.accepted(pending.index(), entryId));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                metrics.recordEvent(Transport.REST, Outcome.FAILED, pending.event());
+                settled.add(IngestItemResult.failed(pending.index(), "Interrupted while publishing"));
+            } catch (Exception e) {
+                log.error("Failed to publish batch item {}", pending.index(), e);
+                metrics.recordEvent(Transport.REST, Outcome.FAILED, pending.event());
+                settled.add(IngestItemResult.failed(pending.index(), "Error processing game event"));
+            }
+        }
+        inFlight.clear();
+    }
+
+    private void count(BatchIngestResponse response, IngestItemResult result) {
+        response.setReceived(response.getReceived() + 1);
+        switch (result.getStatus()) {
+            case IngestItemResult.ACCEPTED -> response.setAccepted(response.getAccepted() + 1);
+            case IngestItemResult.REJECTED -> response.setRejected(response.getRejected() + 1);
+            case IngestItemResult.THROTTLED -> response.setThrottled(response.getThrottled() + 1);
+            default -> response.setFailed(response.getFailed() + 1);
+        }
+    }
+
+    private record PendingPublish(int index, GameEvent event, CompletableFuture<String> future) {
+    }
+}
@@ -0,0 +1,316 @@
+package hoops.ingestion.services.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.common.codec.GameEventCodec;
+import hoops.common.models.events.GameEvent;
+import hoops.ingestion.services.producers.RedisStreamPublisher;
+import hoops.ingestion.services.producers.RedisStreamPublisher.StreamEntry;
+import hoops.ingestion.services.producers.StreamEntryFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps live events when Redis is down or slow and puts them back on the stream afterwards.
+ * Once a publish fails the batcher switches to buffering: the failed events and every later one
+ * are appended to a {@link MappedEventJournal} instead of going to Redis, which keeps per-game order.
+ * Appends come from the batcher under its lane lock, and the batcher only sends an event to Redis
+ * directly once every earlier event of its game has settled, so nothing sent directly can overtake
+ * a journaled event of the same game.
+ * A background thread drains the journal through the pipelined publisher in append order,
+ * retrying with a fixed backoff, and turns buffering off once it has caught up.
+ * A client can also ask for a single event to be journaled before it is acknowledged. That detours only
+ * the event's game: the game's later events follow it into the journal until the replayer has
+ * published every one of them, while other games keep going to Redis directly. A record that
+ * cannot be decoded is copied to {@code quarantined-records} in the journal directory and skipped.
+ * <p>
+ * Delivery is at-least-once. An XADD whose reply is lost (timeout or dropped connection) may
+ * still have been applied, and the journaled copy is then published again. The same holds for
+ * a replay batch that times out. The processor sees such an event twice.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JournalReplayer {
+    private final RedisStreamPublisher streamPublisher;
+    private final StreamEntryFactory streamEntryFactory;
+    private final ObjectMapper objectMapper;
+
+    @Value("${ingest.journal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ingest.journal.dir:./ingest-journal}")
+    private String journalDir;
+
+    @Value("${ingest.journal.segment-size-bytes:67108864}")
+    private int segmentSize;
+
+    @Value("${ingest.journal.replay-batch-size:500}")
+    private int replayBatchSize;
+
+    @Value("${ingest.journal.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${redis.publisher.timeout-ms:2000}")
+    private long publishTimeoutMs;
+
+    private final AtomicLong journaledEvents = new AtomicLong();
+    private final AtomicLong replayedEvents = new AtomicLong();
+    private final AtomicLong quarantinedRecords = new AtomicLong();
+    private volatile double replayRate;
+
+    private GameEventCodec eventCodec;
+    private MappedEventJournal journal;
+    private Thread replayThread;
+    private volatile boolean buffering;
+    // Events per game still in the journal; a game listed here must not be sent to Redis directly. Guarded by this
+    private final Map<String, Integer> journaledByGame = new HashMap<>();
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            log.info("Ingest journal disabled");
+            return;
+        }
+        eventCodec = new GameEventCodec(objectMapper.getFactory(), false);
+        journal = new MappedEventJournal(Paths.get(journalDir), segmentSize);
+        // Events left over from a previous run go out before anything new
+        buffering = !journal.isEmpty();
+        running = true;
+        replayThread = new Thread(this::replayLoop, "ingest-journal-replayer");
+        replayThread.setDaemon(true);
+        replayThread.start();
+        log.info("Ingest journal at {} ({} pending bytes)", journalDir, journal.pendingBytes());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Append the events if the journal is currently buffering.
+     * @return true if the events were journaled, false if they should go to Redis directly
+     */
+    public boolean appendIfBuffering(List<GameEvent> events) throws IOException {
+        if (!enabled || !buffering) {
+            return false;
+        }
+        List<byte[]> payloads = encode(events);
+        synchronized (this) {
+            // Re-check under the lock: the replayer may have just caught up
+            if (!buffering) {
+                return false;
+            }
+            appendAll(events, payloads);
+        }
+        journaledEvents.addAndGet(payloads.size());
+        return true;
+    }
+
+    /**
+     * @return true while events of the game are in the journal, so its new events must go there too
+     */
+    public synchronized boolean isJournaled(String gameId) {
+        return journaledByGame.containsKey(gameId);
+    }
+
+    /**
+     * Append events whose publish failed and buffer everything after them.
+     */
+    public void append(List<GameEvent> events) throws IOException {
+        append(events, true);
+    }
+
+    /**
+     * Append events a client asked to have journaled before they are acknowledged. This does not
+     * switch to buffering; only later events of the same games queue behind them (see {@link #isJournaled}).
+     */
+    public void appendAccepted(List<GameEvent> events) throws IOException {
+        append(events, false);
+    }
+
+    private void append(List<GameEvent> events, boolean afterFailure) throws IOException {
+        List<byte[]> payloads = encode(events);
+        synchronized (this) {
+            if (afterFailure) {
+                if (!buffering) {
+                    log.warn("Redis publish failed, buffering events in the local journal");
+                }
+                buffering = true;
+            }
+            appendAll(events, payloads);
+        }
+        journaledEvents.addAndGet(payloads.size());
+        synchronized (replayThread) {
+            replayThread.notifyAll();
+        }
+    }
+
+    private void appendAll(List<GameEvent> events, List<byte[]> payloads) throws IOException {
+        for (int i = 0; i < payloads.size(); i++) {
+            journal.append(payloads.get(i));
+            journaledByGame.merge(events.get(i).getGameId(), 1, Integer::sum);
+        }
+    }
+
+    private synchronized void forget(List<String> replayedGames) {
+        for (String gameId : replayedGames) {
+            journaledByGame.computeIfPresent(gameId, (id, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private synchronized boolean hasWork() {
+        return buffering || !journaledByGame.isEmpty();
+    }
+
+    public boolean isBuffering() {
+        return buffering;
+    }
+
+    public long getJournalSizeBytes() {
+        return journal == null ? 0 : journal.pendingBytes();
+    }
+
+    public long getJournaledEvents() {
+        return journaledEvents.get();
+    }
+
+    public long getReplayedEvents() {
+        return replayedEvents.get();
+    }
+
+    public long getQuarantinedRecords() {
+        return quarantinedRecords.get();
+    }
+
+    /**
+     * @return Events per second replayed by the most recent batch
+     */
+    public double getReplayRate() {
+        return replayRate;
+    }
+
+    private void replayLoop() {
+        while (running) {
+            try {
+                if (!hasWork()) {
+                    synchronized (replayThread) {
+                        replayThread.wait(retryBackoffMs);
+                    }
+                    continue;
+                }
+                if (!replayBatch()) {
+                    Thread.sleep(retryBackoffMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Journal replay failed", e);
+            }
+        }
+    }
+
+    /**
+     * Publish the next batch of journaled events.
+     * @return false if Redis is still unavailable
+     */
+    boolean replayBatch() throws IOException, InterruptedException {
+        MappedEventJournal.Batch batch = journal.peek(replayBatchSize);
+        if (batch.records().isEmpty()) {
+            synchronized (this) {
+                if (journal.isEmpty()) {
+                    if (buffering) {
+                        log.info("Journal drained, publishing to Redis directly again");
+                    }
+                    buffering = false;
+                    // Also drops counts that a quarantined record could never bring down
+                    journaledByGame.clear();
+                }
+            }
+            return true;
+        }
+
+        long start = System.nanoTime();
+        List<StreamEntry> entries = new ArrayList<>(batch.records().size());
+        List<String> replayedGames = new ArrayList<>(batch.records().size());
+        for (byte[] record : batch.records()) {
+            try {
+                GameEvent event = eventCodec.decode(record);
+                entries.add(streamEntryFactory.toStreamEntry(event));
+                replayedGames.add(event.getGameId());
+            } catch (Exception e) {
+                // Retrying cannot fix a bad record, and it would hold up every event behind it
+                quarantine(record, e);
+            }
+        }
+        if (entries.isEmpty()) {
+            journal.commit(batch);
+            return true;
+        }
+        try {
+            List<CompletableFuture<String>> results = streamPublisher.xaddAll(entries);
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                    .get(publishTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("Redis still unavailable, {} bytes waiting in the journal: {}", journal.pendingBytes(), e.getMessage());
+            return false;
+        }
+
+        journal.commit(batch);
+        forget(replayedGames);
+        replayedEvents.addAndGet(entries.size());
+        replayRate = entries.size() / Math.max((System.nanoTime() - start) / 1e9, 1e-6);
+        log.debug("Replayed {} journaled events, {} bytes left", entries.size(), journal.pendingBytes());
+        return true;
+    }
+
+    private void quarantine(byte[] record, Exception cause) throws IOException {
+        Path file = Paths.get(journalDir).resolve("quarantined-records");
+        Files.writeString(file, Base64.getEncoder().encodeToString(record) + System.lineSeparator(),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        quarantinedRecords.incrementAndGet();
+        log.error("Skipped a journal record that could not be replayed, kept in {}: {}", file, cause.toString());
+    }
+
+    private List<byte[]> encode(List<GameEvent> events) throws IOException {
+        List<byte[]> payloads = new ArrayList<>(events.size());
+        for (GameEvent event : events) {
+            payloads.add(eventCodec.encode(event).getBytes(StandardCharsets.UTF_8));
+        }
+        return payloads;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (replayThread != null) {
+            replayThread.interrupt();
+            replayThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+}
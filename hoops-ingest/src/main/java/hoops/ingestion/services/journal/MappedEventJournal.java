@@ -0,0 +1,241 @@
+package hoops.ingestion.services.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only record log on memory-mapped segment files.
+ * Each record is {@code length:int crc32:int payload}; a zero length marks the end of the
+ * written part of a segment. Appends are plain memory writes, so they survive a process
+ * crash as soon as they return and cost no system call; segments are forced to disk when
+ * they roll over and on close. The read position is checkpointed separately, so records are
+ * delivered at least once across restarts. Fully consumed segments are deleted.
+ * All methods are synchronized; the writer and the single reader share one instance.
+ */
+@Slf4j
+public class MappedEventJournal implements Closeable {
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "journal.checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+
+    private int readOffset;
+
+    public MappedEventJournal(Path directory, int segmentSize) throws IOException {
+        if (segmentSize <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Segment size must be larger than " + HEADER_BYTES + " bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Append one record.
+     * @throws IllegalArgumentException if the record cannot fit in a segment
+     */
+    public synchronized void append(byte[] payload) throws IOException {
+        if (payload.length + HEADER_BYTES > segmentSize) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes exceeds the journal segment size");
+        }
+        Segment tail = segments.peekLast();
+        if (tail == null || tail.writeOffset + HEADER_BYTES + payload.length > segmentSize) {
+            tail = roll(tail);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        MappedByteBuffer buffer = tail.buffer;
+        int offset = tail.writeOffset;
+        buffer.put(offset + HEADER_BYTES, payload);
+        buffer.putInt(offset + 4, (int) crc.getValue());
+        // Length last: a record only becomes visible once it is complete
+        buffer.putInt(offset, payload.length);
+        tail.writeOffset = offset + HEADER_BYTES + payload.length;
+    }
+
+    /**
+     * Read up to {@code maxRecords} records from the committed read position without consuming them.
+     */
+    public synchronized Batch peek(int maxRecords) {
+        List<byte[]> records = new ArrayList<>(Math.min(maxRecords, 1024));
+        int segmentIndex = 0;
+        int offset = readOffset;
+        for (Segment segment : segments) {
+            if (segmentIndex++ > 0) {
+                offset = 0;
+            }
+            while (records.size() < maxRecords && offset < segment.writeOffset) {
+                int length = segment.buffer.getInt(offset);
+                byte[] payload = new byte[length];
+                segment.buffer.get(offset + HEADER_BYTES, payload);
+                records.add(payload);
+                offset += HEADER_BYTES + length;
+            }
+            if (records.size() >= maxRecords || offset < segment.writeOffset) {
+                return new Batch(records, segment.sequence, offset);
+            }
+        }
+        Segment tail = segments.peekLast();
+        return new Batch(records, tail == null ? 0 : tail.sequence, tail == null ? 0 : tail.writeOffset);
+    }
+
+    /**
+     * Mark everything up to the end of {@code batch} as consumed and persist the position.
+     */
+    public synchronized void commit(Batch batch) throws IOException {
+        while (segments.size() > 1 && segments.peekFirst().sequence < batch.segment()) {
+            Segment consumed = segments.pollFirst();
+            Files.deleteIfExists(consumed.path);
+        }
+        readOffset = batch.offset();
+        writeCheckpoint(batch.segment(), batch.offset());
+    }
+
+    public synchronized boolean isEmpty() {
+        return pendingBytes() == 0;
+    }
+
+    /**
+     * @return Bytes of records appended but not yet consumed
+     */
+    public synchronized long pendingBytes() {
+        long total = 0;
+        boolean first = true;
+        for (Segment segment : segments) {
+            total += segment.writeOffset - (first ? readOffset : 0);
+            first = false;
+        }
+        return total;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+    }
+
+    private Segment roll(Segment tail) throws IOException {
+        if (tail != null) {
+            tail.buffer.force();
+        }
+        long sequence = tail == null ? 0 : tail.sequence + 1;
+        Segment segment = map(segmentPath(sequence));
+        segments.addLast(segment);
+        return segment;
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (var listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+
+        long checkpointSegment = -1;
+        int checkpointOffset = 0;
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpoint)) {
+            String[] parts = Files.readString(checkpoint, StandardCharsets.UTF_8).trim().split(" ");
+            checkpointSegment = Long.parseLong(parts[0]);
+            checkpointOffset = Integer.parseInt(parts[1]);
+        }
+
+        for (Path file : files) {
+            Segment segment = map(file);
+            if (segment.sequence < checkpointSegment) {
+                Files.deleteIfExists(file);
+                continue;
+            }
+            segment.writeOffset = scan(segment);
+            segments.addLast(segment);
+        }
+        Segment head = segments.peekFirst();
+        readOffset = head != null && head.sequence == checkpointSegment ? Math.min(checkpointOffset, head.writeOffset) : 0;
+        if (!isEmpty()) {
+            log.warn("Recovered {} bytes of unpublished events from journal {}", pendingBytes(), directory);
+        }
+    }
+
+    // Find the end of the valid records; a torn or corrupt record ends the segment
+    private int scan(Segment segment) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segmentSize) {
+            int length = segment.buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > segmentSize) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            segment.buffer.get(offset + HEADER_BYTES, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != segment.buffer.getInt(offset + 4)) {
+                log.warn("Journal segment {} has a corrupt record at offset {}, ignoring the rest", segment.path, offset);
+                break;
+            }
+            offset += HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    private Segment map(Path path) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw");
+             FileChannel channel = file.getChannel()) {
+            if (file.length() < segmentSize) {
+                file.setLength(segmentSize);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            String name = path.getFileName().toString();
+            long sequence = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            return new Segment(sequence, path, buffer);
+        }
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%020d%s", sequence, SEGMENT_SUFFIX));
+    }
+
+    private void writeCheckpoint(long segment, int offset) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temp, segment + " " + offset, StandardCharsets.UTF_8);
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Records read by {@link #peek} and the position just after them.
+     */
+    public record Batch(List<byte[]> records, long segment, int offset) {
+    }
+
+    private static final class Segment {
+        private final long sequence;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int writeOffset;
+
+        private Segment(long sequence, Path path, MappedByteBuffer buffer) {
+            this.sequence = sequence;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+}
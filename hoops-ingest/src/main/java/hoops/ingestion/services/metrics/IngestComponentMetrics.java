@@ -0,0 +1,73 @@
+package hoops.ingestion.services.metrics;
+
+import hoops.ingestion.services.journal.JournalReplayer;
+import hoops.ingestion.services.producers.GameEventBatcher;
+import hoops.ingestion.services.producers.GameEventDeduplicator;
+import hoops.ingestion.tcp.TcpIngestServer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the counters the batcher, deduplicator and journal already keep. They are read
+ * when the registry is scraped, so the components themselves stay free of metrics code.
+ */
+@Component
+@RequiredArgsConstructor
+public class IngestComponentMetrics implements MeterBinder {
+    private final GameEventBatcher gameEventBatcher;
+    private final GameEventDeduplicator gameEventDeduplicator;
+    private final JournalReplayer journalReplayer;
+    private final ObjectProvider<TcpIngestServer> tcpIngestServer;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ingest.batcher.queue.depth", gameEventBatcher, GameEventBatcher::getQueueDepth)
+                .description("Events waiting for the next pipelined flush")
+                .register(registry);
+        Gauge.builder("ingest.batcher.last.flush.size", gameEventBatcher, GameEventBatcher::getLastFlushSize)
+                .description("Events sent in the most recent flush")
+                .register(registry);
+        FunctionCounter.builder("ingest.batcher.flushes", gameEventBatcher, GameEventBatcher::getFlushCount)
+                .description("Pipelined flushes to Redis")
+                .register(registry);
+        FunctionCounter.builder("ingest.batcher.flushed.events", gameEventBatcher, GameEventBatcher::getFlushedEvents)
+                .description("Events sent by the batcher")
+                .register(registry);
+
+        FunctionCounter.builder("ingest.dedup.duplicates", gameEventDeduplicator, GameEventDeduplicator::getDuplicateCount)
+                .description("Resent events dropped before reaching Redis")
+                .register(registry);
+
+        Gauge.builder("ingest.journal.size", journalReplayer, JournalReplayer::getJournalSizeBytes)
+                .description("Bytes of events waiting in the local journal")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("ingest.journal.journaled", journalReplayer, JournalReplayer::getJournaledEvents)
+                .description("Events written to the local journal")
+                .register(registry);
+        FunctionCounter.builder("ingest.journal.replayed", journalReplayer, JournalReplayer::getReplayedEvents)
+                .description("Journaled events replayed to Redis")
+                .register(registry);
+        FunctionCounter.builder("ingest.journal.quarantined", journalReplayer, JournalReplayer::getQuarantinedRecords)
+                .description("Journal records skipped because they could not be replayed")
+                .register(registry);
+        Gauge.builder("ingest.journal.replay.rate", journalReplayer, JournalReplayer::getReplayRate)
+                .description("Journal replay rate")
+                .baseUnit("events/s")
+                .register(registry);
+
+        tcpIngestServer.ifAvailable(server -> {
+            Gauge.builder("ingest.tcp.connections", server, TcpIngestServer::getConnectionCount)
+                    .description("Open raw TCP feed connections")
+                    .register(registry);
+            Gauge.builder("ingest.tcp.paused", server, TcpIngestServer::getPausedConnectionCount)
+                    .description("TCP connections with reads paused for backpressure")
+                    .register(registry);
+        });
+    }
+}
@@ -0,0 +1,225 @@
+package hoops.ingestion.services.metrics;
+
+import hoops.common.enums.StatType;
+import hoops.common.models.events.GameEvent;
+import hoops.ingestion.services.ratelimit.RateLimitDecision;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hot-path metrics for the ingest handlers. Every meter is registered up front and kept in
+ * arrays indexed by transport, outcome and {@link StatType} ordinal, so recording is a
+ * clock read plus a lock-free add with no registry lookups or tag allocation per event.
+ * Per-session message rates are sampled every {@code sessionRateIntervalMs} into a
+ * distribution rather than one gauge per session, which keeps series cardinality fixed.
+ */
+@Slf4j
+@Component
+public class IngestMetrics {
+    public enum Transport { WEBSOCKET, REST, TCP }
+
+    public enum Outcome { ACCEPTED, REJECTED, THROTTLED, FAILED }
+
+    private static final StatType[] STAT_TYPES = StatType.values();
+    private static final String UNKNOWN_STAT = "unknown";
+
+    private final MeterRegistry registry;
+
+    // [transport][outcome][stat ordinal, last slot for events without a known stat]
+    private final Counter[][][] eventCounters;
+    // [transport][action][scope] for slow-down and reject signals sent to clients
+    private final Counter[][][] rateLimitCounters;
+    private final Timer jsonParseTimer;
+    private final Timer binaryParseTimer;
+    private final Timer validateTimer;
+    private final Timer xaddTimer;
+    private final DistributionSummary sessionRates;
+
+    private final Map<String, LongAdder> sessionMessages = new ConcurrentHashMap<>();
+    private volatile double maxSessionRate;
+
+    @Value("${ingest.metrics.session-rate-interval-ms:10000}")
+    private long sessionRateIntervalMs = 10000;
+
+    private ScheduledExecutorService sampler;
+
+    public IngestMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        Transport[] transports = Transport.values();
+        Outcome[] outcomes = Outcome.values();
+        eventCounters = new Counter[transports.length][outcomes.length][STAT_TYPES.length + 1];
+        for (Transport transport : transports) {
+            for (Outcome outcome : outcomes) {
+                for (int stat = 0; stat <= STAT_TYPES.length; stat++) {
+                    eventCounters[transport.ordinal()][outcome.ordinal()][stat] = Counter.builder("ingest.events")
+                            .description("Game events received, by outcome and stat type")
+                            .tag("transport", tagValue(transport))
+                            .tag("outcome", tagValue(outcome))
+                            .tag("stat", stat < STAT_TYPES.length ? STAT_TYPES[stat].getValue() : UNKNOWN_STAT)
+                            .register(registry);
+                }
+            }
+        }
+
+        RateLimitDecision.Action[] actions = RateLimitDecision.Action.values();
+        RateLimitDecision.Scope[] scopes = RateLimitDecision.Scope.values();
+        rateLimitCounters = new Counter[transports.length][actions.length][scopes.length];
+        for (Transport transport : transports) {
+            for (RateLimitDecision.Action action : actions) {
+                if (action == RateLimitDecision.Action.ALLOW) {
+                    continue;
+                }
+                for (RateLimitDecision.Scope scope : scopes) {
+                    rateLimitCounters[transport.ordinal()][action.ordinal()][scope.ordinal()] = Counter.builder("ingest.ratelimit")
+                            .description("Events over a rate limit, by the signal sent back and the limit hit")
+                            .tag("transport", tagValue(transport))
+                            .tag("action", tagValue(action))
+                            .tag("scope", tagValue(scope))
+                            .register(registry);
+                }
+            }
+        }
+
+        jsonParseTimer = latencyTimer("ingest.parse", "Time to decode a message into events", "format", "json");
+        binaryParseTimer = latencyTimer("ingest.parse", "Time to decode a message into events", "format", "binary");
+        validateTimer = latencyTimer("ingest.validate", "Time to check an event's fields and reference data");
+        xaddTimer = latencyTimer("ingest.xadd", "Time from sending a pipelined XADD to the Redis reply");
+
+        sessionRates = DistributionSummary.builder("ingest.websocket.session.message.rate")
+                .description("Messages per second per open WebSocket session, sampled periodically")
+                .baseUnit("messages/s")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("ingest.websocket.sessions", sessionMessages, Map::size)
+                .description("Open WebSocket sessions")
+                .register(registry);
+        Gauge.builder("ingest.websocket.session.message.rate.max", this, metrics -> metrics.maxSessionRate)
+                .description("Highest per-session message rate in the last sample")
+                .baseUnit("messages/s")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ingest-metrics-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(this::sampleSessionRates, sessionRateIntervalMs, sessionRateIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordJsonParse(long startNanos) {
+        jsonParseTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordBinaryParse(long startNanos) {
+        binaryParseTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordValidate(long startNanos) {
+        validateTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordXadd(long startNanos) {
+        xaddTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Count one event outcome.
+     * @param event The event, or null when the message could not be decoded at all
+     */
+    public void recordEvent(Transport transport, Outcome outcome, GameEvent event) {
+        eventCounters[transport.ordinal()][outcome.ordinal()][statIndex(event)].increment();
+    }
+
+    /**
+     * Count a slow-down or reject signal sent to a client.
+     */
+    public void recordRateLimit(Transport transport, RateLimitDecision decision) {
+        rateLimitCounters[transport.ordinal()][decision.action().ordinal()][decision.scope().ordinal()].increment();
+    }
+
+    public void sessionOpened(String sessionId) {
+        sessionMessages.putIfAbsent(sessionId, new LongAdder());
+    }
+
+    public void sessionClosed(String sessionId) {
+        sessionMessages.remove(sessionId);
+    }
+
+    public void messageReceived(String sessionId) {
+        LongAdder messages = sessionId == null ? null : sessionMessages.get(sessionId);
+        if (messages != null) {
+            messages.increment();
+        }
+    }
+
+    void sampleSessionRates() {
+        try {
+            double seconds = sessionRateIntervalMs / 1000.0;
+            double max = 0;
+            for (LongAdder messages : sessionMessages.values()) {
+                double rate = messages.sumThenReset() / seconds;
+                sessionRates.record(rate);
+                max = Math.max(max, rate);
+            }
+            maxSessionRate = max;
+        } catch (Exception e) {
+            log.error("Failed to sample WebSocket session rates", e);
+        }
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+        }
+    }
+
+    private Timer latencyTimer(String name, String description, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(500))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(registry);
+    }
+
+    private static int statIndex(GameEvent event) {
+        if (event == null || event.getEvent() == null) {
+            return STAT_TYPES.length;
+        }
+        try {
+            return StatType.fromString(event.getEvent()).ordinal();
+        } catch (IllegalArgumentException e) {
+            return STAT_TYPES.length;
+        }
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase();
+    }
+}
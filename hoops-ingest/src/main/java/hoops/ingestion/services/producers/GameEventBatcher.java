@@ -0,0 +1,415 @@
+package hoops.ingestion.services.producers;
+
+import hoops.common.models.events.GameEvent;
+import hoops.ingestion.services.journal.JournalReplayer;
+import hoops.ingestion.services.metrics.IngestMetrics;
+import hoops.ingestion.services.producers.RedisStreamPublisher.StreamEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micro-batching stage between the ingest handlers and the Redis stream.
+ * Handler threads only enqueue; a single drain thread serializes the events and
+ * sends them as one pipelined group of XADDs once {@code maxBatchSize} events are
+ * queued or {@code maxDelayMs} has passed since the first event of the batch,
+ * whichever comes first. Entries are built by {@link StreamEntryFactory}.
+ * <p>
+ * With the journal enabled, the choice between Redis and the journal is made under one lock, so
+ * neither path can overtake the other within a game. Batches are still pipelined: the drain
+ * thread does not wait for replies. Only events of a game that has XADDs still waiting for a
+ * reply are held back, in that game's lane, until the replies are in. A settle thread then
+ * journals whatever failed, which switches the journal to buffering, and only afterwards
+ * releases the held events, so they follow the failed ones into the journal.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GameEventBatcher {
+    private final RedisStreamPublisher streamPublisher;
+    private final StreamEntryFactory streamEntryFactory;
+    private final JournalReplayer journalReplayer;
+    private final IngestMetrics metrics;
+
+    @Value("${ingest.batcher.max-batch-size:256}")
+    private int maxBatchSize;
+
+    @Value("${ingest.batcher.max-delay-ms:2}")
+    private long maxDelayMs;
+
+    @Value("${ingest.batcher.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // How long to wait for a batch's replies before journaling the rest; matches the client's command timeout
+    @Value("${redis.publisher.timeout-ms:2000}")
+    private long publishTimeoutMs;
+
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedEvents = new AtomicLong();
+    private volatile int lastFlushSize;
+
+    // Games with XADDs waiting for a reply, and the later events held behind them; guarded by itself
+    private final Map<String, Lane> lanes = new HashMap<>();
+
+    private BlockingQueue<PendingEvent> queue;
+    private Thread drainThread;
+    private ExecutorService settleExecutor;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        settleExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ingest-batcher-settle");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainThread = new Thread(this::drainLoop, "ingest-batcher");
+        drainThread.setDaemon(true);
+        drainThread.start();
+        log.info("Started ingest batcher (batch size {}, max delay {} ms, queue capacity {}, {} entries)",
+                maxBatchSize, maxDelayMs, queueCapacity, streamEntryFactory.isLegacy() ? "json" : "fields");
+    }
+
+    /**
+     * Hand an event to the drain thread without blocking.
+     * @param event The validated game event
+     * @return Future completing with the stream entry ID (null if the event was journaled instead);
+     *         fails immediately if the queue is full
+     */
+    public CompletableFuture<String> submit(GameEvent event) {
+        return submit(event, false);
+    }
+
+    /**
+     * Hand an event to the drain thread without blocking.
+     * @param event The validated game event
+     * @param journal true to append the event to the journal rather than publish it directly;
+     *                later events of the same game then queue behind it in the journal, which keeps
+     *                per-game order; other games are not affected
+     * @return Future completing with the stream entry ID, or null once journaled; fails immediately
+     *         if the queue is full
+     */
+    public CompletableFuture<String> submit(GameEvent event, boolean journal) {
+        PendingEvent pending = new PendingEvent(event, journal, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Ingest queue is full"));
+        }
+        return pending.future();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getLastFlushSize() {
+        return lastFlushSize;
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public long getFlushedEvents() {
+        return flushedEvents.get();
+    }
+
+    private void drainLoop() {
+        List<PendingEvent> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                PendingEvent first = queue.take();
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // Shutting down: publish the partially collected batch before exiting
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Ingest batcher flush failed", e);
+                failAll(batch, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingEvent> batch) {
+        lastFlushSize = batch.size();
+        flushCount.incrementAndGet();
+        flushedEvents.addAndGet(batch.size());
+
+        if (!journalReplayer.isEnabled()) {
+            publish(batch);
+        } else {
+            synchronized (lanes) {
+                List<PendingEvent> ready = new ArrayList<>(batch.size());
+                for (PendingEvent pending : batch) {
+                    Lane lane = lanes.get(pending.event().getGameId());
+                    if (lane != null) {
+                        lane.held.add(pending);
+                    } else {
+                        ready.add(pending);
+                    }
+                }
+                dispatch(ready);
+            }
+        }
+        log.debug("Flushed {} events, queue depth {}", batch.size(), queue.size());
+    }
+
+    // Without the journal there is nothing to fall back on, so failures simply go back to the caller
+    private void publish(List<PendingEvent> batch) {
+        List<PendingEvent> serialized = new ArrayList<>(batch.size());
+        List<StreamEntry> entries = serialize(batch, serialized);
+        if (entries.isEmpty()) {
+            return;
+        }
+        long sentAt = System.nanoTime();
+        List<CompletableFuture<String>> results = streamPublisher.xaddAll(entries);
+        for (int i = 0; i < results.size(); i++) {
+            CompletableFuture<String> target = serialized.get(i).future();
+            results.get(i).whenComplete((entryId, error) -> {
+                if (error != null) {
+                    target.completeExceptionally(error);
+                } else {
+                    metrics.recordXadd(sentAt);
+                    target.complete(entryId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Journal the events or send them to Redis, opening a lane for each game sent. Called with the lanes lock held.
+     */
+    private void dispatch(List<PendingEvent> ready) {
+        if (ready.isEmpty()) {
+            return;
+        }
+        List<PendingEvent> direct = journal(ready);
+        List<PendingEvent> sent = new ArrayList<>(direct.size());
+        List<StreamEntry> entries = serialize(direct, sent);
+        if (entries.isEmpty()) {
+            return;
+        }
+        long sentAt = System.nanoTime();
+        List<CompletableFuture<String>> results;
+        try {
+            results = streamPublisher.xaddAll(entries);
+        } catch (Exception e) {
+            failAll(sent, e);
+            return;
+        }
+        for (PendingEvent pending : sent) {
+            lanes.computeIfAbsent(pending.event().getGameId(), gameId -> new Lane()).unsettled++;
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .orTimeout(publishTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenCompleteAsync((ignored, error) -> settle(sent, results, sentAt), settleExecutor);
+    }
+
+    private List<StreamEntry> serialize(List<PendingEvent> batch, List<PendingEvent> serialized) {
+        List<StreamEntry> entries = new ArrayList<>(batch.size());
+        for (PendingEvent pending : batch) {
+            try {
+                entries.add(streamEntryFactory.toStreamEntry(pending.event()));
+                serialized.add(pending);
+            } catch (Exception e) {
+                pending.future().completeExceptionally(e);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Append to the journal the events that have to go through it: all of them while it is buffering,
+     * otherwise those of any game that has an event here asking for the journal or still has events
+     * waiting in it. The other games are not affected.
+     * @return The events to send to Redis directly
+     */
+    private List<PendingEvent> journal(List<PendingEvent> ready) {
+        try {
+            if (journalReplayer.appendIfBuffering(ready.stream().map(PendingEvent::event).toList())) {
+                completeJournaled(ready);
+                return List.of();
+            }
+        } catch (Exception e) {
+            failAll(ready, e);
+            return List.of();
+        }
+
+        // Earlier events of a detoured game go to the journal too, so the replay cannot overtake them
+        Set<String> detoured = new HashSet<>();
+        for (PendingEvent pending : ready) {
+            if (pending.journal()) {
+                detoured.add(pending.event().getGameId());
+            }
+        }
+        List<PendingEvent> journaled = new ArrayList<>();
+        List<PendingEvent> direct = new ArrayList<>(ready.size());
+        for (PendingEvent pending : ready) {
+            String gameId = pending.event().getGameId();
+            if (detoured.contains(gameId) || journalReplayer.isJournaled(gameId)) {
+                journaled.add(pending);
+            } else {
+                direct.add(pending);
+            }
+        }
+        if (!journaled.isEmpty()) {
+            try {
+                journalReplayer.appendAccepted(journaled.stream().map(PendingEvent::event).toList());
+                completeJournaled(journaled);
+            } catch (Exception e) {
+                failAll(journaled, e);
+            }
+        }
+        return direct;
+    }
+
+    private void completeJournaled(List<PendingEvent> journaled) {
+        for (PendingEvent pending : journaled) {
+            pending.future().complete(null);
+        }
+    }
+
+    /**
+     * Runs once every reply to a batch is in or {@code publishTimeoutMs} has passed, and journals the
+     * entries that did not get a successful one. A timed-out XADD may still be applied by Redis, so
+     * journaling it can produce a duplicate, but not a reordering: the replay goes out on the same
+     * connection, behind it. Events held behind the batch are released only after that.
+     */
+    private void settle(List<PendingEvent> sent, List<CompletableFuture<String>> results, long sentAt) {
+        List<PendingEvent> failed = new ArrayList<>();
+        Throwable cause = null;
+        for (int i = 0; i < results.size(); i++) {
+            PendingEvent pending = sent.get(i);
+            CompletableFuture<String> result = results.get(i);
+            if (!result.isDone()) {
+                failed.add(pending);
+                cause = new TimeoutException("No reply within " + publishTimeoutMs + " ms");
+                continue;
+            }
+            try {
+                String entryId = result.join();
+                metrics.recordXadd(sentAt);
+                pending.future().complete(entryId);
+            } catch (CompletionException | CancellationException e) {
+                failed.add(pending);
+                cause = e.getCause() != null ? e.getCause() : e;
+            }
+        }
+
+        synchronized (lanes) {
+            if (!failed.isEmpty()) {
+                journalFailed(failed, cause);
+            }
+            List<PendingEvent> released = new ArrayList<>();
+            for (PendingEvent pending : sent) {
+                String gameId = pending.event().getGameId();
+                Lane lane = lanes.get(gameId);
+                if (--lane.unsettled == 0) {
+                    lanes.remove(gameId);
+                    released.addAll(lane.held);
+                }
+            }
+            dispatch(released);
+            if (lanes.isEmpty()) {
+                lanes.notifyAll();
+            }
+        }
+    }
+
+    private void journalFailed(List<PendingEvent> failed, Throwable cause) {
+        try {
+            log.debug("Journaling {} events after publish failure: {}", failed.size(), String.valueOf(cause));
+            journalReplayer.append(failed.stream().map(PendingEvent::event).toList());
+            completeJournaled(failed);
+        } catch (Exception e) {
+            e.addSuppressed(cause);
+            failAll(failed, e);
+        }
+    }
+
+    private void failAll(List<PendingEvent> batch, Exception cause) {
+        for (PendingEvent pending : batch) {
+            pending.future().completeExceptionally(cause);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (drainThread != null) {
+            drainThread.interrupt();
+            drainThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        // Publish whatever was accepted before shutdown
+        List<PendingEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += maxBatchSize) {
+            flush(remaining.subList(from, Math.min(from + maxBatchSize, remaining.size())));
+        }
+
+        // Give the last replies time to settle, so failures still reach the journal before it closes
+        synchronized (lanes) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2 * publishTimeoutMs);
+            long remainingNanos;
+            while (!lanes.isEmpty() && (remainingNanos = deadline - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.timedWait(lanes, remainingNanos);
+            }
+        }
+        if (settleExecutor != null) {
+            settleExecutor.shutdown();
+        }
+    }
+
+    private record PendingEvent(GameEvent event, boolean journal, CompletableFuture<String> future) {
+    }
+
+    private static final class Lane {
+        private int unsettled;
+        private final List<PendingEvent> held = new ArrayList<>();
+    }
+}
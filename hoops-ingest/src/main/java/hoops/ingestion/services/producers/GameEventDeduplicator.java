@@ -0,0 +1,114 @@
+package hoops.ingestion.services.producers;
+
+import hoops.common.models.events.GameEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drops events that were already accepted, identified by (gameId, playerId, stat, version).
+ * Scorer clients resend after a reconnect; without this every replay would cost an XADD,
+ * a database insert and a cache invalidation downstream.
+ * Seen keys live in a fixed number of LRU stripes, each guarded by its own lock, so memory
+ * is bounded by {@code capacity} regardless of how many games are live and concurrent
+ * handlers rarely contend. A key that falls out of the window is treated as new again.
+ */
+@Slf4j
+@Component
+public class GameEventDeduplicator {
+    @Value("${ingest.dedup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${ingest.dedup.capacity:100000}")
+    private int capacity = 100_000;
+
+    @Value("${ingest.dedup.stripes:16}")
+    private int stripeCount = 16;
+
+    private final LongAdder duplicates = new LongAdder();
+
+    private Stripe[] stripes;
+
+    @PostConstruct
+    public void init() {
+        // Round up to a power of two so the stripe can be picked with a mask
+        int count = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        int perStripe = Math.max(1, capacity / count);
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        log.info("Event dedup {} (capacity {}, {} stripes)", enabled ? "enabled" : "disabled", capacity, count);
+    }
+
+    /**
+     * Record the event as seen, with the future its publish will complete.
+     * @return null the first time an event key is seen, so the caller publishes it and completes
+     *         {@code outcome}; for a replay, the outcome of the copy that was accepted first
+     */
+    public CompletableFuture<String> claim(GameEvent event, CompletableFuture<String> outcome) {
+        if (!enabled) {
+            return null;
+        }
+        EventKey key = EventKey.of(event);
+        Stripe stripe = stripeFor(key);
+        CompletableFuture<String> first;
+        synchronized (stripe) {
+            first = stripe.putIfAbsent(key, outcome);
+        }
+        if (first != null) {
+            duplicates.increment();
+        }
+        return first;
+    }
+
+    /**
+     * Forget an event, so a resend is accepted again. Used when publishing it failed.
+     * Only removes the key while it still belongs to {@code outcome}.
+     */
+    public void forget(GameEvent event, CompletableFuture<String> outcome) {
+        if (!enabled) {
+            return;
+        }
+        EventKey key = EventKey.of(event);
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.remove(key, outcome);
+        }
+    }
+
+    public long getDuplicateCount() {
+        return duplicates.sum();
+    }
+
+    private Stripe stripeFor(EventKey key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private record EventKey(String gameId, String playerId, String stat, Long version) {
+        static EventKey of(GameEvent event) {
+            return new EventKey(event.getGameId(), event.getPlayerId(), event.getEvent(), event.getVersion());
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<EventKey, CompletableFuture<String>> {
+        private final int maxEntries;
+
+        Stripe(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<EventKey, CompletableFuture<String>> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -2,10 +2,39 @@ package hoops.ingestion.services.producers;
 
 import hoops.common.models.events.GameEvent;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface GameEventProducer {
     /**
      * Process a game event and publish it to Redis stream
      * @param event The game event to process
      */
     void publishEvent(GameEvent event);
+
+    /**
+     * Queue a game event for the next pipelined XADD batch without waiting for the reply
+     * @param event The game event to process
+     * @return Future completing with the stream entry ID, with null if the event was dropped
+     *         as a duplicate or kept in the local journal until Redis recovers, or exceptionally on failure
+     */
+    CompletableFuture<String> publishEventAsync(GameEvent event);
+
+    /**
+     * Publish a game event without blocking, completing once it is as durable as requested
+     * @param event The game event to process
+     * @param durability {@link Durability#JOURNAL} completes once the event is in the local journal,
+     *        {@link Durability#REDIS} behaves like {@link #publishEventAsync(GameEvent)}
+     * @return Future completing with the stream entry ID, or null if the entry is not known yet
+     */
+    CompletableFuture<String> publishEventAsync(GameEvent event, Durability durability);
+
+    /**
+     * How far an event must get before an asynchronous publish reports success.
+     */
+    enum Durability {
+        // Appended to the memory-mapped journal; survives a process crash, the replayer moves it to Redis
+        JOURNAL,
+        // Acknowledged by Redis, or journaled after a failed or slow publish
+        REDIS
+    }
 } 
\ No newline at end of file
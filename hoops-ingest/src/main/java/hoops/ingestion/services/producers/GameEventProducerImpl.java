@@ -1,24 +1,36 @@
 package hoops.ingestion.services.producers;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import hoops.common.constants.StreamConstants;
 import hoops.common.models.events.GameEvent;
+import hoops.common.redis.StreamKeyUtil;
+import hoops.ingestion.services.journal.JournalReplayer;
 import io.lettuce.core.RedisClient;
 import io.lettuce.core.api.sync.RedisCommands;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import java.time.Instant;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GameEventProducerImpl implements GameEventProducer {
     private final RedisClient redisClient;
-    private final ObjectMapper objectMapper;
+    private final GameEventBatcher gameEventBatcher;
+    private final GameEventDeduplicator gameEventDeduplicator;
+    private final JournalReplayer journalReplayer;
+
+    @Value("${redis.publisher.timeout-ms:2000}")
+    private long publishTimeoutMs;
+
+    @Value("${redis.stream.partitions:1}")
+    private int partitions;
+
     private volatile boolean isStreamInitialized = false;
 
     @PostConstruct
@@ -26,18 +38,17 @@ public class GameEventProducerImpl implements GameEventProducer {
         try {
             RedisCommands<String, String> commands = redisClient.connect().sync();
             try {
-                if (!streamExists(commands, StreamConstants.GAME_EVENTS_STREAM)) {
-                    // Initialize stream with metadata
-                    Map<String, String> metadata = Map.of(
-                            "type", "STREAM_INIT",
-                            "service", "game-event-ingest",
-                            "timestamp", Instant.now().toString()
-                    );
-                    String entryId = commands.xadd(
-                            StreamConstants.GAME_EVENTS_STREAM,
-                            metadata
-                    );
-                    log.info("Initialized game events stream with ID: {}", entryId);
+                for (String stream : StreamKeyUtil.getStreamKeys(null, partitions)) {
+                    if (!streamExists(commands, stream)) {
+                        // Initialize stream with metadata
+                        Map<String, String> metadata = Map.of(
+                                "type", "STREAM_INIT",
+                                "service", "game-event-ingest",
+                                "timestamp", Instant.now().toString()
+                        );
+                        String entryId = commands.xadd(stream, metadata);
+                        log.info("Initialized game events stream {} with ID: {}", stream, entryId);
+                    }
                 }
                 isStreamInitialized = true;
             } finally {
@@ -51,29 +62,67 @@ public class GameEventProducerImpl implements GameEventProducer {
 
     @Override
     public void publishEvent(GameEvent event) {
-        if (!isStreamInitialized) {
-            initStream();
-        }
-
-        RedisCommands<String, String> commands = null;
         try {
-            commands = redisClient.connect().sync();
-            String eventJson = objectMapper.writeValueAsString(event);
-            String entryId = commands.xadd(
-                    StreamConstants.GAME_EVENTS_STREAM,
-                    Map.of("data", eventJson)
-            );
+            String entryId = publishEventAsync(event).get(publishTimeoutMs, TimeUnit.MILLISECONDS);
             log.debug("Published event {} with ID {}", event, entryId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Event publishing interrupted", e);
         } catch (Exception e) {
             log.error("Failed to publish event: {}", event, e);
             throw new RuntimeException("Event publishing failed", e);
-        } finally {
-            if (commands != null) {
-                commands.getStatefulConnection().close();
-            }
         }
     }
 
+    @Override
+    public CompletableFuture<String> publishEventAsync(GameEvent event) {
+        if (!isStreamInitialized) {
+            initStream();
+        }
+
+        CompletableFuture<String> outcome = new CompletableFuture<>();
+        CompletableFuture<String> first = gameEventDeduplicator.claim(event, outcome);
+        if (first != null) {
+            log.debug("Dropped duplicate event {}", event);
+            return first.copy();
+        }
+
+        // The batcher decides between Redis and the journal, in submission order
+        return settle(event, gameEventBatcher.submit(event), outcome);
+    }
+
+    @Override
+    public CompletableFuture<String> publishEventAsync(GameEvent event, Durability durability) {
+        if (durability == Durability.REDIS || !journalReplayer.isEnabled()) {
+            return publishEventAsync(event);
+        }
+
+        CompletableFuture<String> outcome = new CompletableFuture<>();
+        CompletableFuture<String> first = gameEventDeduplicator.claim(event, outcome);
+        if (first != null) {
+            log.debug("Dropped duplicate event {}", event);
+            return first.copy();
+        }
+        return settle(event, gameEventBatcher.submit(event, true), outcome);
+    }
+
+    /**
+     * Pass the publish result on to {@code outcome}, which resends of the same event also wait on.
+     * A failed publish is forgotten first so that the client's retry is not dropped as a duplicate.
+     */
+    private CompletableFuture<String> settle(GameEvent event, CompletableFuture<String> published,
+                                             CompletableFuture<String> outcome) {
+        published.whenComplete((entryId, error) -> {
+            if (error != null) {
+                gameEventDeduplicator.forget(event, outcome);
+                outcome.completeExceptionally(error);
+            } else {
+                outcome.complete(entryId);
+            }
+        });
+        return outcome;
+    }
+
     private boolean streamExists(RedisCommands<String, String> commands, String key) {
         try {
             commands.xinfoStream(key);
@@ -0,0 +1,132 @@
+package hoops.ingestion.services.producers;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.XAddArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes stream entries over one long-lived, multiplexed Redis connection.
+ * Auto-flush is disabled on the connection, so XADD commands from all callers are
+ * buffered and written to the socket in pipelined bursts: either when
+ * {@code flushBatchSize} commands are pending or every {@code flushIntervalMs}.
+ * Each call returns a future that completes with the entry ID once Redis replies.
+ * When {@code maxLength} is set every XADD also trims the stream to roughly that many
+ * entries, whether or not they were consumed; it is off by default and only meant as an
+ * emergency ceiling on memory. The processor's trimmer does the regular, ack-aware cleanup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisStreamPublisher {
+    private final RedisClient redisClient;
+
+    @Value("${redis.publisher.flush-interval-ms:1}")
+    private long flushIntervalMs;
+
+    @Value("${redis.publisher.flush-batch-size:128}")
+    private int flushBatchSize;
+
+    // Approximate MAXLEN applied on every XADD; 0 leaves streams uncapped
+    @Value("${redis.stream.retention.max-length:0}")
+    private long maxLength;
+
+    private final AtomicInteger pendingCommands = new AtomicInteger();
+
+    private StatefulRedisConnection<String, String> connection;
+    private RedisAsyncCommands<String, String> asyncCommands;
+    private ScheduledExecutorService flushScheduler;
+    private XAddArgs xaddArgs;
+
+    @PostConstruct
+    public void start() {
+        connection = redisClient.connect();
+        connection.setAutoFlushCommands(false);
+        asyncCommands = connection.async();
+        // "~" lets Redis trim whole macro nodes only, which keeps XADD O(1)
+        xaddArgs = maxLength > 0 ? XAddArgs.Builder.maxlen(maxLength).approximateTrimming() : new XAddArgs();
+
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-stream-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Started pipelined stream publisher (flush every {} ms or {} commands)", flushIntervalMs, flushBatchSize);
+    }
+
+    /**
+     * Queue an XADD on the shared connection.
+     * @param stream The stream key
+     * @param body The entry fields
+     * @return Future completing with the new entry ID, or exceptionally if Redis rejects the command
+     */
+    public CompletableFuture<String> xadd(String stream, Map<String, String> body) {
+        CompletableFuture<String> future = asyncCommands.xadd(stream, xaddArgs, body).toCompletableFuture();
+        if (pendingCommands.incrementAndGet() >= flushBatchSize) {
+            flush();
+        }
+        return future;
+    }
+
+    /**
+     * Queue a group of XADDs and write them to the socket as one pipelined burst.
+     * @param entries The entries to add; they may target different streams
+     * @return One future per entry, in the same order as {@code entries}
+     */
+    public List<CompletableFuture<String>> xaddAll(List<StreamEntry> entries) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(entries.size());
+        for (StreamEntry entry : entries) {
+            futures.add(asyncCommands.xadd(entry.stream(), xaddArgs, entry.body()).toCompletableFuture());
+        }
+        pendingCommands.addAndGet(entries.size());
+        flush();
+        return futures;
+    }
+
+    /**
+     * Write all buffered commands to the socket.
+     */
+    public void flush() {
+        if (pendingCommands.getAndSet(0) > 0) {
+            connection.flushCommands();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush pipelined stream commands", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flushScheduler != null) {
+            flushScheduler.shutdown();
+        }
+        if (connection != null) {
+            flushQuietly();
+            connection.close();
+        }
+    }
+
+    public record StreamEntry(String stream, Map<String, String> body) {
+    }
+}
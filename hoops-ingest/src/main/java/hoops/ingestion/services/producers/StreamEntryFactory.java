@@ -0,0 +1,59 @@
+package hoops.ingestion.services.producers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.common.codec.GameEventCodec;
+import hoops.common.codec.GameEventStreamFormat;
+import hoops.common.models.events.GameEvent;
+import hoops.common.redis.StreamKeyUtil;
+import hoops.ingestion.services.producers.RedisStreamPublisher.StreamEntry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Builds the stream entry for a game event, shared by the batcher and the journal replayer so
+ * live and replayed events look the same. Each event is routed to its game's stream partition
+ * and written as a single JSON {@code data} field, which every processor reads, or one field per
+ * attribute (schema 2, see {@link GameEventStreamFormat}) when {@code redis.stream.entry-format=fields}.
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamEntryFactory {
+    private final ObjectMapper objectMapper;
+
+    @Value("${redis.stream.partitions:1}")
+    private int partitions;
+
+    // "json" (data field) until every processor reads "fields" (schema 2)
+    @Value("${redis.stream.entry-format:json}")
+    private String entryFormat = "json";
+
+    private GameEventStreamFormat streamFormat;
+    private boolean legacyEntries;
+
+    @PostConstruct
+    public void init() {
+        streamFormat = new GameEventStreamFormat(new GameEventCodec(objectMapper.getFactory(), true));
+        legacyEntries = "json".equalsIgnoreCase(entryFormat);
+    }
+
+    /**
+     * Build the stream entry for an event, routed to its game's partition.
+     */
+    public StreamEntry toStreamEntry(GameEvent event) throws IOException {
+        return new StreamEntry(
+                StreamKeyUtil.getStreamKeyForGame(event.getGameId(), partitions),
+                legacyEntries ? streamFormat.toLegacyFields(event) : streamFormat.toFields(event)
+        );
+    }
+
+    /**
+     * @return true if entries are written as a single JSON {@code data} field
+     */
+    public boolean isLegacy() {
+        return legacyEntries;
+    }
+}
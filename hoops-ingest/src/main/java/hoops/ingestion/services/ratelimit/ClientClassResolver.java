@@ -0,0 +1,151 @@
+package hoops.ingestion.services.ratelimit;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns a caller's rate limit class on the server side, so clients cannot pick a more
+ * generous class for themselves. A class is granted by, in order: the caller's API key,
+ * its authenticated principal, or its source address. Each is configured per class with
+ * {@code ingest.ratelimit.class.<name>.api-keys}, {@code .principals} and {@code .addresses}
+ * (single addresses or CIDR blocks). Callers matching none of them get {@code default}.
+ */
+@Slf4j
+@Component
+public class ClientClassResolver {
+    private final Environment environment;
+
+    @Value("${ingest.ratelimit.client-classes:default}")
+    private List<String> clientClasses = List.of(IngestRateLimiter.DEFAULT_CLASS);
+
+    private final Map<String, String> classByApiKey = new HashMap<>();
+    private final Map<String, String> classByPrincipal = new HashMap<>();
+    private final List<AddressBlock> addressBlocks = new ArrayList<>();
+
+    public ClientClassResolver(Environment environment) {
+        this.environment = environment;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (String clientClass : clientClasses) {
+            String prefix = "ingest.ratelimit.class." + clientClass + ".";
+            for (String apiKey : readList(prefix + "api-keys")) {
+                classByApiKey.put(apiKey, clientClass);
+            }
+            for (String principal : readList(prefix + "principals")) {
+                classByPrincipal.put(principal, clientClass);
+            }
+            for (String address : readList(prefix + "addresses")) {
+                addressBlocks.add(AddressBlock.parse(address, clientClass));
+            }
+        }
+        log.info("Client classes assigned by {} API keys, {} principals and {} address blocks",
+                classByApiKey.size(), classByPrincipal.size(), addressBlocks.size());
+    }
+
+    /**
+     * @param principal Authenticated principal, or null
+     * @param apiKey API key presented by the caller, or null
+     * @param remoteAddress Caller's address, or null
+     * @return The caller's client class; {@code default} if nothing matches
+     */
+    public String resolve(Principal principal, String apiKey, String remoteAddress) {
+        if (apiKey != null) {
+            String clientClass = classByApiKey.get(apiKey);
+            if (clientClass != null) {
+                return clientClass;
+            }
+        }
+        if (principal != null) {
+            String clientClass = classByPrincipal.get(principal.getName());
+            if (clientClass != null) {
+                return clientClass;
+            }
+        }
+        if (remoteAddress != null && !addressBlocks.isEmpty()) {
+            byte[] address = toBytes(remoteAddress);
+            if (address != null) {
+                for (AddressBlock block : addressBlocks) {
+                    if (block.contains(address)) {
+                        return block.clientClass();
+                    }
+                }
+            }
+        }
+        return IngestRateLimiter.DEFAULT_CLASS;
+    }
+
+    private List<String> readList(String property) {
+        String[] values = environment.getProperty(property, String[].class, new String[0]);
+        List<String> result = new ArrayList<>(values.length);
+        for (String value : values) {
+            if (!value.isBlank()) {
+                result.add(value.trim());
+            }
+        }
+        return result;
+    }
+
+    // Only literal addresses are expected here, so this never does a DNS lookup
+    private static byte[] toBytes(String address) {
+        if (address.isEmpty()) {
+            return null;
+        }
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (Character.digit(c, 16) < 0 && c != '.' && c != ':') {
+                return null;
+            }
+        }
+        try {
+            return InetAddress.getByName(address).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private record AddressBlock(byte[] network, int prefixLength, String clientClass) {
+        static AddressBlock parse(String cidr, String clientClass) {
+            int slash = cidr.indexOf('/');
+            byte[] network = toBytes(slash < 0 ? cidr : cidr.substring(0, slash));
+            if (network == null) {
+                throw new IllegalArgumentException("Invalid address for client class " + clientClass + ": " + cidr);
+            }
+            int prefixLength = slash < 0 ? network.length * 8 : Integer.parseInt(cidr.substring(slash + 1));
+            if (prefixLength < 0 || prefixLength > network.length * 8) {
+                throw new IllegalArgumentException("Invalid prefix length for client class " + clientClass + ": " + cidr);
+            }
+            return new AddressBlock(network, prefixLength, clientClass);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - remainingBits);
+            return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
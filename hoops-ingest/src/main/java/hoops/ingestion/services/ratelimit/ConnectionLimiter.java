@@ -0,0 +1,34 @@
+package hoops.ingestion.services.ratelimit;
+
+/**
+ * Rate limit state for one client connection: its own bucket, its client class, and when it
+ * was last told to slow down, so slow-down signals are not sent for every message.
+ */
+public class ConnectionLimiter {
+    private final String clientClass;
+    private final TokenBucket bucket;
+    private long lastSlowDownNanos;
+    private boolean signalled;
+
+    ConnectionLimiter(String clientClass, TokenBucket bucket) {
+        this.clientClass = clientClass;
+        this.bucket = bucket;
+    }
+
+    public String getClientClass() {
+        return clientClass;
+    }
+
+    TokenBucket getBucket() {
+        return bucket;
+    }
+
+    synchronized boolean claimSlowDownSignal(long nowNanos, long intervalNanos) {
+        if (signalled && nowNanos - lastSlowDownNanos < intervalNanos) {
+            return false;
+        }
+        signalled = true;
+        lastSlowDownNanos = nowNanos;
+        return true;
+    }
+}
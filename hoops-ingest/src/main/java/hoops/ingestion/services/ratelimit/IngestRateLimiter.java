@@ -0,0 +1,186 @@
+package hoops.ingestion.services.ratelimit;
+
+import hoops.ingestion.services.ratelimit.RateLimitDecision.Action;
+import hoops.ingestion.services.ratelimit.RateLimitDecision.Scope;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Token-bucket limits per connection and per game, so one runaway scorer cannot starve the
+ * other games. Every event takes a token from its connection's bucket and from its game's
+ * bucket; an empty bucket rejects the event without charging the other one, and a bucket below
+ * {@code slowDownThreshold} of its burst asks the client to back off (at most once per
+ * {@code slowDownIntervalMs}).
+ *
+ * <p>Limits are set per client class, {@code ingest.ratelimit.class.<name>.*}. The class is
+ * assigned by {@link ClientClassResolver}; anything unknown uses {@code default}. Each class has its own per-game budget, so a
+ * bulk replay does not eat into the live scorers' allowance for the same game. Game buckets, and connection buckets for REST
+ * callers, live in LRU stripes with their own locks, like the dedup window, so lookups for
+ * different games rarely contend and memory stays bounded.
+ */
+@Slf4j
+@Component
+public class IngestRateLimiter {
+    public static final String DEFAULT_CLASS = "default";
+
+    private final Environment environment;
+
+    @Value("${ingest.ratelimit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${ingest.ratelimit.client-classes:default}")
+    private List<String> clientClasses = List.of(DEFAULT_CLASS);
+
+    @Value("${ingest.ratelimit.stripes:16}")
+    private int stripeCount = 16;
+
+    @Value("${ingest.ratelimit.max-tracked-keys:10000}")
+    private int maxTrackedKeys = 10_000;
+
+    @Value("${ingest.ratelimit.slow-down-threshold:0.2}")
+    private double slowDownThreshold = 0.2;
+
+    @Value("${ingest.ratelimit.slow-down-interval-ms:1000}")
+    private long slowDownIntervalMs = 1000;
+
+    private final Map<String, Limits> limitsByClass = new HashMap<>();
+    private Stripe[] stripes;
+
+    public IngestRateLimiter(Environment environment) {
+        this.environment = environment;
+    }
+
+    @PostConstruct
+    public void init() {
+        limitsByClass.put(DEFAULT_CLASS, readLimits(DEFAULT_CLASS, new Limits(250, 500, 250, 500)));
+        for (String clientClass : clientClasses) {
+            limitsByClass.put(clientClass, readLimits(clientClass, limitsByClass.get(DEFAULT_CLASS)));
+        }
+
+        int count = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        int perStripe = Math.max(1, maxTrackedKeys / count);
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        log.info("Ingest rate limits {}: {}", enabled ? "enabled" : "disabled", limitsByClass);
+    }
+
+    /**
+     * Create the limiter state for a new WebSocket session.
+     * @param clientClass Client class resolved at the handshake; null or unknown means default
+     */
+    public ConnectionLimiter newConnection(String clientClass) {
+        String resolved = resolveClass(clientClass);
+        Limits limits = limitsByClass.get(resolved);
+        return new ConnectionLimiter(resolved, new TokenBucket(limits.sessionRate(), limits.sessionBurst(), System.nanoTime()));
+    }
+
+    /**
+     * Check an event from a WebSocket session.
+     */
+    public RateLimitDecision check(ConnectionLimiter connection, String gameId) {
+        if (!enabled) {
+            return RateLimitDecision.ALLOW;
+        }
+        return check(connection, connection.getBucket(), gameId);
+    }
+
+    /**
+     * Check an event from a connectionless REST caller, tracked by {@code clientKey} (e.g. its address).
+     */
+    public RateLimitDecision check(String clientKey, String clientClass, String gameId) {
+        if (!enabled) {
+            return RateLimitDecision.ALLOW;
+        }
+        String resolved = resolveClass(clientClass);
+        Limits limits = limitsByClass.get(resolved);
+        long now = System.nanoTime();
+        BucketEntry entry = bucketFor("client:" + resolved + ":" + clientKey,
+                () -> new BucketEntry(new ConnectionLimiter(resolved,
+                        new TokenBucket(limits.sessionRate(), limits.sessionBurst(), now)), null));
+        return check(entry.connection(), entry.connection().getBucket(), gameId);
+    }
+
+    private RateLimitDecision check(ConnectionLimiter connection, TokenBucket connectionBucket, String gameId) {
+        long now = System.nanoTime();
+        double connectionLeft = connectionBucket.tryAcquire(now);
+        if (connectionLeft < 0) {
+            return new RateLimitDecision(Action.REJECT, Scope.SESSION, connectionBucket.millisUntilAvailable(now));
+        }
+
+        Limits limits = limitsByClass.get(connection.getClientClass());
+        TokenBucket gameBucket = bucketFor("game:" + connection.getClientClass() + ":" + gameId,
+                () -> new BucketEntry(null, new TokenBucket(limits.gameRate(), limits.gameBurst(), now))).game();
+        double gameLeft = gameBucket.tryAcquire(now);
+        if (gameLeft < 0) {
+            // The event is dropped, so it must not count against the connection either
+            connectionBucket.release();
+            return new RateLimitDecision(Action.REJECT, Scope.GAME, gameBucket.millisUntilAvailable(now));
+        }
+
+        Scope lowScope = connectionLeft < slowDownThreshold * connectionBucket.getBurst() ? Scope.SESSION
+                : gameLeft < slowDownThreshold * gameBucket.getBurst() ? Scope.GAME : null;
+        if (lowScope != null && connection.claimSlowDownSignal(now, TimeUnit.MILLISECONDS.toNanos(slowDownIntervalMs))) {
+            return new RateLimitDecision(Action.SLOW_DOWN, lowScope, slowDownIntervalMs);
+        }
+        return RateLimitDecision.ALLOW;
+    }
+
+    private BucketEntry bucketFor(String key, Supplier<BucketEntry> factory) {
+        int hash = key.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+        synchronized (stripe) {
+            BucketEntry entry = stripe.get(key);
+            if (entry == null) {
+                entry = factory.get();
+                stripe.put(key, entry);
+            }
+            return entry;
+        }
+    }
+
+    private String resolveClass(String clientClass) {
+        return clientClass != null && limitsByClass.containsKey(clientClass) ? clientClass : DEFAULT_CLASS;
+    }
+
+    private Limits readLimits(String clientClass, Limits fallback) {
+        String prefix = "ingest.ratelimit.class." + clientClass + ".";
+        return new Limits(
+                environment.getProperty(prefix + "session-rate", Double.class, fallback.sessionRate()),
+                environment.getProperty(prefix + "session-burst", Double.class, fallback.sessionBurst()),
+                environment.getProperty(prefix + "game-rate", Double.class, fallback.gameRate()),
+                environment.getProperty(prefix + "game-burst", Double.class, fallback.gameBurst()));
+    }
+
+    record Limits(double sessionRate, double sessionBurst, double gameRate, double gameBurst) {
+    }
+
+    // A stripe entry is either a REST caller's connection state or a game bucket
+    private record BucketEntry(ConnectionLimiter connection, TokenBucket game) {
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, BucketEntry> {
+        private final int maxEntries;
+
+        Stripe(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BucketEntry> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
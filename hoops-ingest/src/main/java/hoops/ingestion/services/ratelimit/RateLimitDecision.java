@@ -0,0 +1,19 @@
+package hoops.ingestion.services.ratelimit;
+
+/**
+ * Outcome of a rate limit check.
+ * @param action What to do with the event
+ * @param scope Which limit triggered it; null when allowed
+ * @param retryAfterMs For REJECT, when a token will be available; for SLOW_DOWN, a suggested pause
+ */
+public record RateLimitDecision(Action action, Scope scope, long retryAfterMs) {
+    public static final RateLimitDecision ALLOW = new RateLimitDecision(Action.ALLOW, null, 0);
+
+    public enum Action { ALLOW, SLOW_DOWN, REJECT }
+
+    public enum Scope { SESSION, GAME }
+
+    public boolean rejected() {
+        return action == Action.REJECT;
+    }
+}
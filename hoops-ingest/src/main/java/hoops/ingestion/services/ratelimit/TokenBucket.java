@@ -0,0 +1,67 @@
+package hoops.ingestion.services.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classic token bucket: holds up to {@code burst} tokens and refills at {@code ratePerSecond}.
+ * Refill is computed lazily from the elapsed time on each call, so idle buckets cost nothing.
+ * Each bucket has its own lock; buckets are per connection or per game, so callers only
+ * contend when they share one.
+ */
+public class TokenBucket {
+    private final double ratePerNano;
+    private final double burst;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double ratePerSecond, double burst, long nowNanos) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Token bucket needs a positive rate and a burst of at least 1");
+        }
+        this.ratePerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.tokens = burst;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Take one token if available.
+     * @return Tokens left after taking one, or -1 if the bucket was empty
+     */
+    public synchronized double tryAcquire(long nowNanos) {
+        refill(nowNanos);
+        if (tokens < 1) {
+            return -1;
+        }
+        tokens -= 1;
+        return tokens;
+    }
+
+    /**
+     * Return a token taken by {@link #tryAcquire} for an event that was not admitted after all.
+     */
+    public synchronized void release() {
+        tokens = Math.min(burst, tokens + 1);
+    }
+
+    /**
+     * @return Milliseconds until the next token is available, at least 1
+     */
+    public synchronized long millisUntilAvailable(long nowNanos) {
+        refill(nowNanos);
+        double missing = 1 - tokens;
+        return missing <= 0 ? 1 : Math.max(1, TimeUnit.NANOSECONDS.toMillis((long) Math.ceil(missing / ratePerNano)));
+    }
+
+    public double getBurst() {
+        return burst;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(burst, tokens + elapsed * ratePerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
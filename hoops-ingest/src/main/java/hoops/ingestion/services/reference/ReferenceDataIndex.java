@@ -0,0 +1,108 @@
+package hoops.ingestion.services.reference;
+
+import hoops.common.models.events.GameEvent;
+import hoops.ingestion.repositories.reference.ReferenceDataRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates event ids against an in-memory {@link ReferenceDataSnapshot} so events for unknown
+ * players or games are rejected at the edge instead of failing on foreign keys in the processor.
+ * Every {@code refreshIntervalMs} only teams and players changed since the last load are read,
+ * plus the (small, indexed) set of live games; a full reload every {@code fullRefreshIntervalMs}
+ * picks up deletions. Each refresh swaps in a new snapshot, so readers never lock.
+ * Checks are skipped until the first load succeeds, and entirely when no database is configured.
+ */
+@Slf4j
+@Component
+public class ReferenceDataIndex {
+    private final ReferenceDataRepository repository;
+
+    @Value("${ingest.reference.refresh-interval-ms:15000}")
+    private long refreshIntervalMs;
+
+    @Value("${ingest.reference.full-refresh-interval-ms:3600000}")
+    private long fullRefreshIntervalMs;
+
+    private volatile ReferenceDataSnapshot snapshot;
+    private long lastFullRefresh;
+    private ScheduledExecutorService refreshScheduler;
+
+    public ReferenceDataIndex(ObjectProvider<ReferenceDataRepository> repository) {
+        this.repository = repository.getIfAvailable();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (repository == null) {
+            log.info("No reference database configured, team/player/game checks are disabled");
+            return;
+        }
+        refreshQuietly();
+        refreshScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reference-data-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refreshScheduler.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return Reasons the event refers to unknown or inconsistent ids; empty if valid or checks are off
+     */
+    public List<String> check(GameEvent event) {
+        ReferenceDataSnapshot current = snapshot;
+        return current == null ? List.of() : current.check(event);
+    }
+
+    public ReferenceDataSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Load changes since the last refresh, or everything when a full reload is due.
+     */
+    public void refresh() {
+        ReferenceDataSnapshot current = snapshot;
+        long now = System.currentTimeMillis();
+        if (current == null || now - lastFullRefresh >= fullRefreshIntervalMs) {
+            snapshot = ReferenceDataSnapshot.of(
+                    repository.findTeamsUpdatedSince(null),
+                    repository.findPlayersUpdatedSince(null),
+                    repository.findLiveGames());
+            lastFullRefresh = now;
+            log.info("Loaded reference data: {} teams, {} players, {} live games",
+                    snapshot.getTeamCount(), snapshot.getPlayerCount(), snapshot.getLiveGameCount());
+            return;
+        }
+
+        snapshot = current.withChanges(
+                repository.findTeamsUpdatedSince(current.getTeamsWatermark()),
+                repository.findPlayersUpdatedSince(current.getPlayersWatermark()),
+                repository.findLiveGames());
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("Failed to refresh reference data, keeping the previous snapshot", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refreshScheduler != null) {
+            refreshScheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package hoops.ingestion.services.reference;
+
+import hoops.common.models.events.GameEvent;
+import hoops.ingestion.models.reference.LiveGame;
+import hoops.ingestion.models.reference.PlayerRecord;
+import hoops.ingestion.models.reference.TeamRecord;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of teams, rosters and live games. Every check is a hash lookup.
+ * Refreshes build a new snapshot from the previous one plus the changed rows.
+ */
+public final class ReferenceDataSnapshot {
+    private final Set<String> teamIds;
+    private final Map<String, String> playerTeams;   // active player -> team
+    private final Map<String, LiveGame> liveGames;
+    private final Instant teamsWatermark;
+    private final Instant playersWatermark;
+
+    private ReferenceDataSnapshot(Set<String> teamIds, Map<String, String> playerTeams, Map<String, LiveGame> liveGames,
+                                  Instant teamsWatermark, Instant playersWatermark) {
+        this.teamIds = teamIds;
+        this.playerTeams = playerTeams;
+        this.liveGames = liveGames;
+        this.teamsWatermark = teamsWatermark;
+        this.playersWatermark = playersWatermark;
+    }
+
+    public static ReferenceDataSnapshot of(Collection<TeamRecord> teams, Collection<PlayerRecord> players,
+                                           Collection<LiveGame> games) {
+        return new ReferenceDataSnapshot(Set.of(), Map.of(), Map.of(), null, null)
+                .withChanges(teams, players, games);
+    }
+
+    /**
+     * @param games The complete set of live games; it replaces the previous one
+     * @return A new snapshot with the changed teams and players applied
+     */
+    public ReferenceDataSnapshot withChanges(Collection<TeamRecord> teams, Collection<PlayerRecord> players,
+                                             Collection<LiveGame> games) {
+        Set<String> newTeams = teams.isEmpty() ? teamIds : new HashSet<>(teamIds);
+        Instant newTeamsWatermark = teamsWatermark;
+        for (TeamRecord team : teams) {
+            newTeams.add(team.teamId());
+            newTeamsWatermark = later(newTeamsWatermark, team.lastUpdated());
+        }
+
+        Map<String, String> newPlayers = players.isEmpty() ? playerTeams : new HashMap<>(playerTeams);
+        Instant newPlayersWatermark = playersWatermark;
+        for (PlayerRecord player : players) {
+            if (player.active() && player.teamId() != null) {
+                newPlayers.put(player.playerId(), player.teamId());
+            } else {
+                newPlayers.remove(player.playerId());
+            }
+            newPlayersWatermark = later(newPlayersWatermark, player.lastUpdated());
+        }
+
+        Map<String, LiveGame> newGames = new HashMap<>(games.size() * 2);
+        for (LiveGame game : games) {
+            newGames.put(game.gameId(), game);
+        }
+        return new ReferenceDataSnapshot(newTeams, newPlayers, newGames, newTeamsWatermark, newPlayersWatermark);
+    }
+
+    /**
+     * Check that the game is in progress, the team plays in it and the player is on its roster.
+     * @return Error messages, empty when the event refers to known, consistent ids
+     */
+    public List<String> check(GameEvent event) {
+        List<String> errors = new ArrayList<>(0);
+        LiveGame game = liveGames.get(event.getGameId());
+        if (game == null) {
+            errors.add("Game " + event.getGameId() + " is not in progress");
+        }
+        if (!teamIds.contains(event.getTeamId())) {
+            errors.add("Unknown team " + event.getTeamId());
+        } else if (game != null && !game.hasTeam(event.getTeamId())) {
+            errors.add("Team " + event.getTeamId() + " is not playing in game " + event.getGameId());
+        }
+        String rosterTeam = playerTeams.get(event.getPlayerId());
+        if (rosterTeam == null) {
+            errors.add("Unknown player " + event.getPlayerId());
+        } else if (!rosterTeam.equals(event.getTeamId())) {
+            errors.add("Player " + event.getPlayerId() + " is not on the roster of team " + event.getTeamId());
+        }
+        return errors;
+    }
+
+    public Instant getTeamsWatermark() {
+        return teamsWatermark;
+    }
+
+    public Instant getPlayersWatermark() {
+        return playersWatermark;
+    }
+
+    public int getTeamCount() {
+        return teamIds.size();
+    }
+
+    public int getPlayerCount() {
+        return playerTeams.size();
+    }
+
+    public int getLiveGameCount() {
+        return liveGames.size();
+    }
+
+    private static Instant later(Instant current, Instant candidate) {
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+}
@@ -0,0 +1,135 @@
+package hoops.ingestion.tcp;
+
+import hoops.common.codec.GameEventCodec;
+import hoops.common.models.events.GameEvent;
+import hoops.ingestion.services.metrics.IngestMetrics;
+import hoops.ingestion.services.metrics.IngestMetrics.Outcome;
+import hoops.ingestion.services.metrics.IngestMetrics.Transport;
+import hoops.ingestion.services.producers.GameEventProducer;
+import hoops.ingestion.services.reference.ReferenceDataIndex;
+import hoops.ingestion.websocket.BinaryEventFrameDecoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handles one feed connection. Each inbound message is a frame already cut by the
+ * length-prefix decoder; its payload uses the binary WebSocket format
+ * ({@link BinaryEventFrameDecoder}), so ids stay interned for the life of the connection.
+ * <p>
+ * The payload is decoded straight from Netty's pooled buffer through {@link ByteBuf#nioBuffer()},
+ * without copying it onto the heap first. Once more than {@code highWatermark} events from this
+ * connection are waiting on Redis, auto-read is switched off and the kernel receive buffer fills
+ * up, which slows the sender through TCP flow control. Reading resumes below {@code lowWatermark}.
+ * A malformed frame closes the connection, since the id table can no longer be trusted.
+ */
+@Slf4j
+public class TcpEventFrameHandler extends SimpleChannelInboundHandler<ByteBuf> {
+    private final GameEventCodec eventCodec;
+    private final GameEventProducer gameEventProducer;
+    private final ReferenceDataIndex referenceDataIndex;
+    private final IngestMetrics metrics;
+    private final BinaryEventFrameDecoder frameDecoder;
+    private final int highWatermark;
+    private final int lowWatermark;
+
+    // Only touched on the channel's event loop
+    private int inFlight;
+    private boolean paused;
+
+    public TcpEventFrameHandler(GameEventCodec eventCodec, GameEventProducer gameEventProducer,
+                                ReferenceDataIndex referenceDataIndex, IngestMetrics metrics,
+                                int maxInternedIds, int highWatermark, int lowWatermark) {
+        this.eventCodec = eventCodec;
+        this.gameEventProducer = gameEventProducer;
+        this.referenceDataIndex = referenceDataIndex;
+        this.metrics = metrics;
+        this.frameDecoder = new BinaryEventFrameDecoder(maxInternedIds);
+        this.highWatermark = highWatermark;
+        this.lowWatermark = lowWatermark;
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, ByteBuf frame) {
+        List<GameEvent> events;
+        try {
+            long parseStart = System.nanoTime();
+            events = frameDecoder.decode(frame.nioBuffer());
+            metrics.recordBinaryParse(parseStart);
+        } catch (IllegalArgumentException e) {
+            metrics.recordEvent(Transport.TCP, Outcome.REJECTED, null);
+            log.error("Rejected TCP frame from {}, closing: {}", ctx.channel().remoteAddress(), e.getMessage());
+            ctx.close();
+            return;
+        }
+
+        for (GameEvent event : events) {
+            try {
+                processEvent(ctx, event);
+            } catch (Exception e) {
+                metrics.recordEvent(Transport.TCP, Outcome.FAILED, event);
+                log.error("Error processing game event", e);
+            }
+        }
+    }
+
+    /**
+     * Same validation and publishing as the WebSocket handler, with in-flight accounting for backpressure.
+     */
+    private void processEvent(ChannelHandlerContext ctx, GameEvent event) {
+        long validateStart = System.nanoTime();
+        List<String> violations = eventCodec.validate(event);
+        if (violations.isEmpty()) {
+            violations = referenceDataIndex.check(event);
+        }
+        metrics.recordValidate(validateStart);
+        if (!violations.isEmpty()) {
+            metrics.recordEvent(Transport.TCP, Outcome.REJECTED, event);
+            log.error("Validation failed for game event: {}", String.join(", ", violations));
+            return;
+        }
+
+        // Counted only once there is a future to release it; a synchronous throw must not leave reads paused
+        CompletableFuture<String> published = gameEventProducer.publishEventAsync(event);
+        if (++inFlight >= highWatermark && !paused) {
+            paused = true;
+            ctx.channel().config().setAutoRead(false);
+            log.debug("Pausing reads from {} with {} events in flight", ctx.channel().remoteAddress(), inFlight);
+        }
+        published.whenComplete((entryId, error) -> {
+            if (error != null) {
+                metrics.recordEvent(Transport.TCP, Outcome.FAILED, event);
+                log.error("Failed to publish game event {}", event, error);
+            } else {
+                metrics.recordEvent(Transport.TCP, Outcome.ACCEPTED, event);
+            }
+            if (ctx.executor().inEventLoop()) {
+                published(ctx);
+            } else {
+                ctx.executor().execute(() -> published(ctx));
+            }
+        });
+    }
+
+    private void published(ChannelHandlerContext ctx) {
+        if (--inFlight <= lowWatermark && paused) {
+            paused = false;
+            ctx.channel().config().setAutoRead(true);
+            log.debug("Resuming reads from {}", ctx.channel().remoteAddress());
+        }
+    }
+
+    boolean isPaused() {
+        return paused;
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        log.error("TCP ingest connection error from {}", ctx.channel().remoteAddress(), cause);
+        ctx.close();
+    }
+}
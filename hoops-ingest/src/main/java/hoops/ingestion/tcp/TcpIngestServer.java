@@ -0,0 +1,140 @@
+package hoops.ingestion.tcp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.common.codec.GameEventCodec;
+import hoops.ingestion.services.metrics.IngestMetrics;
+import hoops.ingestion.services.producers.GameEventProducer;
+import hoops.ingestion.services.reference.ReferenceDataIndex;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Optional raw TCP listener for high-volume feed providers.
+ *
+ * <pre>
+ * stream := frame*
+ * frame  := length:u32 (big-endian, payload bytes only)  payload
+ * </pre>
+ *
+ * The payload is a binary WebSocket frame (see {@link hoops.ingestion.websocket.BinaryEventFrameDecoder}),
+ * and events go through the same validation and {@link GameEventProducer} as the other endpoints.
+ * There are no replies on the connection; outcomes show up in the {@code ingest.events} metrics
+ * with {@code transport=tcp}. Enabled with {@code ingest.tcp.enabled=true}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ingest.tcp.enabled", havingValue = "true")
+public class TcpIngestServer {
+    private final ObjectMapper objectMapper;
+    private final GameEventProducer gameEventProducer;
+    private final ReferenceDataIndex referenceDataIndex;
+    private final IngestMetrics metrics;
+
+    @Value("${ingest.tcp.port:8092}")
+    private int port;
+
+    // 0 lets Netty pick two per core
+    @Value("${ingest.tcp.worker-threads:0}")
+    private int workerThreads;
+
+    @Value("${ingest.tcp.max-frame-bytes:1048576}")
+    private int maxFrameBytes;
+
+    // Events per connection waiting on Redis before reads are paused, and the level they resume at
+    @Value("${ingest.tcp.high-watermark:10000}")
+    private int highWatermark;
+
+    @Value("${ingest.tcp.low-watermark:5000}")
+    private int lowWatermark;
+
+    @Value("${ingest.websocket.binary.max-interned-ids:4096}")
+    private int maxInternedIds;
+
+    private final ChannelGroup connections = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
+    private Channel serverChannel;
+
+    @PostConstruct
+    public void start() throws InterruptedException {
+        GameEventCodec eventCodec = new GameEventCodec(objectMapper.getFactory(), true);
+        bossGroup = new NioEventLoopGroup(1, new DefaultThreadFactory("tcp-ingest-accept", true));
+        workerGroup = new NioEventLoopGroup(workerThreads, new DefaultThreadFactory("tcp-ingest", true));
+
+        ServerBootstrap bootstrap = new ServerBootstrap()
+                .group(bossGroup, workerGroup)
+                .channel(NioServerSocketChannel.class)
+                .childOption(ChannelOption.TCP_NODELAY, true)
+                .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel channel) {
+                        connections.add(channel);
+                        // Strips the 4-byte prefix and passes on a retained slice of the read buffer
+                        channel.pipeline().addLast(
+                                new LengthFieldBasedFrameDecoder(maxFrameBytes, 0, 4, 0, 4),
+                                new TcpEventFrameHandler(eventCodec, gameEventProducer, referenceDataIndex, metrics,
+                                        maxInternedIds, highWatermark, lowWatermark));
+                    }
+                });
+        serverChannel = bootstrap.bind(port).sync().channel();
+        log.info("TCP ingest listening on port {} (max frame {} bytes, pause at {} events in flight)",
+                getPort(), maxFrameBytes, highWatermark);
+    }
+
+    /**
+     * @return The bound port, which differs from the configured one when that is 0
+     */
+    public int getPort() {
+        return ((InetSocketAddress) serverChannel.localAddress()).getPort();
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    public int getPausedConnectionCount() {
+        int paused = 0;
+        for (Channel channel : connections) {
+            if (!channel.config().isAutoRead()) {
+                paused++;
+            }
+        }
+        return paused;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (serverChannel != null) {
+            serverChannel.close().syncUninterruptibly();
+        }
+        connections.close().awaitUninterruptibly();
+        if (bossGroup != null) {
+            bossGroup.shutdownGracefully();
+            workerGroup.shutdownGracefully().syncUninterruptibly();
+        }
+    }
+}
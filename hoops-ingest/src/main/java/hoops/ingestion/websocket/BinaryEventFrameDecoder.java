@@ -0,0 +1,136 @@
+package hoops.ingestion.websocket;
+
+import hoops.common.enums.StatType;
+import hoops.common.models.events.*;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the compact binary frame format negotiated through
+ * {@link hoops.ingestion.constants.WebSocketConstants#BINARY_SUBPROTOCOL}.
+ *
+ * <pre>
+ * frame  := formatVersion:u8  eventCount:varint  event*
+ * event  := statType:u8  version:varint  gameId:id  teamId:id  playerId:id  value:varint
+ * id     := 0:varint  length:varint  utf8Bytes   -- define a new id, appended to the session table
+ *         | n:varint                             -- reuse the id at table position n - 1
+ * </pre>
+ *
+ * {@code statType} is the {@link StatType} ordinal and {@code value} is the stat value in tenths,
+ * so 24.5 minutes is sent as 245. Ids are interned per connection: a scorer sends each
+ * game, team and player id once and then refers to it by its table position.
+ * One instance is kept per WebSocket session and is not thread-safe.
+ */
+public class BinaryEventFrameDecoder {
+    public static final int FORMAT_VERSION = 1;
+
+    private static final StatType[] STAT_TYPES = StatType.values();
+    private static final int MAX_ID_LENGTH = 64;
+
+    private final List<String> internedIds = new ArrayList<>();
+    private final int maxInternedIds;
+
+    public BinaryEventFrameDecoder(int maxInternedIds) {
+        this.maxInternedIds = maxInternedIds;
+    }
+
+    /**
+     * Decode every event carried in one frame.
+     * @param frame The binary frame payload
+     * @return Events in frame order
+     * @throws IllegalArgumentException if the frame is truncated or malformed
+     */
+    public List<GameEvent> decode(ByteBuffer frame) {
+        try {
+            int formatVersion = frame.get() & 0xFF;
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported frame format version: " + formatVersion);
+            }
+
+            int eventCount = toInt(readVarint(frame));
+            List<GameEvent> events = new ArrayList<>(Math.min(eventCount, frame.remaining()));
+            for (int i = 0; i < eventCount; i++) {
+                events.add(readEvent(frame));
+            }
+            return events;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated binary frame", e);
+        }
+    }
+
+    private GameEvent readEvent(ByteBuffer frame) {
+        int ordinal = frame.get() & 0xFF;
+        if (ordinal >= STAT_TYPES.length) {
+            throw new IllegalArgumentException("Unknown stat type ordinal: " + ordinal);
+        }
+        StatType statType = STAT_TYPES[ordinal];
+
+        GameEvent event = newEvent(statType);
+        event.setEvent(statType.getValue());
+        event.setVersion(readVarint(frame));
+        event.setGameId(readId(frame));
+        event.setTeamId(readId(frame));
+        event.setPlayerId(readId(frame));
+        event.setValue(readVarint(frame) / 10.0);
+        return event;
+    }
+
+    private String readId(ByteBuffer frame) {
+        int reference = toInt(readVarint(frame));
+        if (reference > 0) {
+            if (reference > internedIds.size()) {
+                throw new IllegalArgumentException("Unknown id reference: " + reference);
+            }
+            return internedIds.get(reference - 1);
+        }
+
+        int length = toInt(readVarint(frame));
+        if (length > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("Id exceeds " + MAX_ID_LENGTH + " bytes");
+        }
+        if (internedIds.size() >= maxInternedIds) {
+            throw new IllegalArgumentException("Id table is full (" + maxInternedIds + " entries)");
+        }
+        byte[] bytes = new byte[length];
+        frame.get(bytes);
+        String id = new String(bytes, StandardCharsets.UTF_8);
+        internedIds.add(id);
+        return id;
+    }
+
+    private static long readVarint(ByteBuffer frame) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = frame.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Varint is too long");
+    }
+
+    private static int toInt(long value) {
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Varint out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    private static GameEvent newEvent(StatType statType) {
+        return switch (statType) {
+            case POINT -> new PointsEvent();
+            case ASSIST -> new AssistsEvent();
+            case REBOUND -> new ReboundsEvent();
+            case STEAL -> new StealsEvent();
+            case BLOCK -> new BlocksEvent();
+            case FOUL -> new FoulsEvent();
+            case TURNOVER -> new TurnoversEvent();
+            case MINUTES_PLAYED -> new MinutesPlayedEvent();
+        };
+    }
+}
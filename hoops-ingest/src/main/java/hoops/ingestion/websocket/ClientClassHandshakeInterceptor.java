@@ -0,0 +1,48 @@
+package hoops.ingestion.websocket;
+
+import hoops.ingestion.constants.WebSocketConstants;
+import hoops.ingestion.services.ratelimit.ClientClassResolver;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+/**
+ * Resolves the session's client class during the handshake and stores it in the session
+ * attributes, where the handler picks it up to choose the session's rate limits. The class
+ * comes from {@link ClientClassResolver}, never from the client directly. Browsers cannot set
+ * headers on a WebSocket handshake, so the API key is accepted as a query parameter too.
+ */
+public class ClientClassHandshakeInterceptor implements HandshakeInterceptor {
+    public static final String CLIENT_CLASS_ATTRIBUTE = "clientClass";
+
+    private final ClientClassResolver clientClassResolver;
+
+    public ClientClassHandshakeInterceptor(ClientClassResolver clientClassResolver) {
+        this.clientClassResolver = clientClassResolver;
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        String apiKey = request.getHeaders().getFirst(WebSocketConstants.API_KEY_HEADER);
+        if (apiKey == null) {
+            apiKey = UriComponentsBuilder.fromUri(request.getURI()).build()
+                    .getQueryParams().getFirst(WebSocketConstants.API_KEY_PARAM);
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String address = remoteAddress == null || remoteAddress.getAddress() == null
+                ? null : remoteAddress.getAddress().getHostAddress();
+        attributes.put(CLIENT_CLASS_ATTRIBUTE, clientClassResolver.resolve(request.getPrincipal(), apiKey, address));
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
@@ -1,49 +1,107 @@
 package hoops.ingestion.websocket;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.common.codec.GameEventCodec;
 import hoops.common.models.events.GameEvent;
+import hoops.ingestion.constants.WebSocketConstants;
+import hoops.ingestion.services.metrics.IngestMetrics;
+import hoops.ingestion.services.metrics.IngestMetrics.Outcome;
+import hoops.ingestion.services.metrics.IngestMetrics.Transport;
 import hoops.ingestion.services.producers.GameEventProducer;
-import jakarta.validation.ConstraintViolation;
-import jakarta.validation.Validator;
+import hoops.ingestion.services.ratelimit.ConnectionLimiter;
+import hoops.ingestion.services.ratelimit.IngestRateLimiter;
+import hoops.ingestion.services.ratelimit.RateLimitDecision;
+import hoops.ingestion.services.reference.ReferenceDataIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.SubProtocolCapable;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
 
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * WebSocket handler for processing real-time game events.
- * This handler receives JSON messages containing game statistics,
- * validates them, and forwards them to the event processing service.
+ * This handler receives JSON text messages, or compact binary frames when the client
+ * negotiates {@link WebSocketConstants#BINARY_SUBPROTOCOL}, validates the events,
+ * and forwards them to the event processing service.
  */
 @Component
-public class GameEventWebSocketHandler extends TextWebSocketHandler {
+public class GameEventWebSocketHandler extends AbstractWebSocketHandler implements SubProtocolCapable {
     private static final Logger logger = LoggerFactory.getLogger(GameEventWebSocketHandler.class);
-    
-    private final ObjectMapper objectMapper;      // For JSON serialization/deserialization
+    private static final String FRAME_DECODER_ATTRIBUTE = "binaryFrameDecoder";
+    private static final String RATE_LIMITER_ATTRIBUTE = "rateLimiter";
+    private static final String SIGNAL_SESSION_ATTRIBUTE = "signalSession";
+
+    private final GameEventCodec eventCodec;      // For JSON parsing and event validation
     private final GameEventProducer gameEventProducer;  // Service to process events
-    private final Validator validator;            // For event validation
-    
+    private final ReferenceDataIndex referenceDataIndex;  // Known teams, rosters and live games
+    private final IngestMetrics metrics;
+    private final IngestRateLimiter rateLimiter;       // Per-session and per-game token buckets
+    private final ObjectMapper objectMapper;          // For slow-down and reject frames
+
+    @Value("${ingest.websocket.binary.max-interned-ids:4096}")
+    private int maxInternedIds = 4096;
+
+    // Reject and slow-down frames go through a buffering decorator; a client that stops reading for this long is closed
+    @Value("${ingest.websocket.signal.send-time-limit-ms:5000}")
+    private int signalSendTimeLimitMs = 5000;
+
+    // Buffered signal bytes per session; beyond this the oldest signals are dropped
+    @Value("${ingest.websocket.signal.buffer-size-limit:65536}")
+    private int signalBufferSizeLimit = 65536;
+
     /**
      * Constructor with required dependencies.
-     * @param objectMapper For JSON parsing
+     * @param objectMapper Supplies the JSON factory for the event codec
      * @param gameEventProducer For event processing
-     * @param validator For event validation
+     * @param referenceDataIndex For team, player and game checks
+     * @param metrics For parse, validation and publish metrics
+     * @param rateLimiter For per-session and per-game rate limits
      */
     @Autowired
-    public GameEventWebSocketHandler(ObjectMapper objectMapper, GameEventProducer gameEventProducer, Validator validator) {
-        this.objectMapper = objectMapper;
+    public GameEventWebSocketHandler(ObjectMapper objectMapper, GameEventProducer gameEventProducer,
+                                     ReferenceDataIndex referenceDataIndex, IngestMetrics metrics,
+                                     IngestRateLimiter rateLimiter) {
+        this.eventCodec = new GameEventCodec(objectMapper.getFactory(), true);
         this.gameEventProducer = gameEventProducer;
-        this.validator = validator;
+        this.referenceDataIndex = referenceDataIndex;
+        this.metrics = metrics;
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        metrics.sessionOpened(session.getId());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        metrics.sessionClosed(session.getId());
+    }
+
+    /**
+     * Sub-protocols offered during the handshake, in order of preference.
+     */
+    @Override
+    public List<String> getSubProtocols() {
+        return List.of(WebSocketConstants.BINARY_SUBPROTOCOL, WebSocketConstants.JSON_SUBPROTOCOL);
     }
-    
+
     /**
-     * Handles incoming WebSocket messages.
+     * Handles incoming WebSocket text messages.
      * Process flow:
      * 1. Parse JSON message to GameEvent object
      * 2. Validate the event data
@@ -52,30 +110,148 @@ public class GameEventWebSocketHandler extends TextWebSocketHandler {
      */
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        metrics.messageReceived(session.getId());
+        GameEvent event;
         try {
             String payload = message.getPayload();
-            logger.info("Received game event: {}", payload);
-            
+            logger.debug("Received game event: {}", payload);
+
             // Parse JSON to GameEvent object
-            GameEvent event = objectMapper.readValue(payload, GameEvent.class);
-            
-            // Validate all fields using Jakarta validation. need to add team player and game exists
-            Set<ConstraintViolation<GameEvent>> violations = validator.validate(event);
-            if (violations.isEmpty()) {
-                // Process valid event
-                gameEventProducer.publishEvent(event);
-            } else {
-                // Log validation errors
-                String errors = violations.stream()
-                    .map(ConstraintViolation::getMessage)
-                    .collect(Collectors.joining(", "));
-                logger.error("Validation failed for game event: {}", errors);
-            }
+            long parseStart = System.nanoTime();
+            event = eventCodec.decode(payload);
+            metrics.recordJsonParse(parseStart);
+        } catch (Exception e) {
+            metrics.recordEvent(Transport.WEBSOCKET, Outcome.REJECTED, null);
+            logger.error("Error processing game event", e);
+            return;
+        }
+
+        try {
+            processEvent(session, event);
         } catch (Exception e) {
+            metrics.recordEvent(Transport.WEBSOCKET, Outcome.FAILED, event);
             logger.error("Error processing game event", e);
         }
     }
-    
+
+    /**
+     * Handles incoming binary frames. Only accepted on sessions that negotiated the
+     * binary sub-protocol; one frame may carry many events (see {@link BinaryEventFrameDecoder}).
+     */
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        if (!WebSocketConstants.BINARY_SUBPROTOCOL.equals(session.getAcceptedProtocol())) {
+            session.close(CloseStatus.NOT_ACCEPTABLE.withReason("Binary frames require the "
+                    + WebSocketConstants.BINARY_SUBPROTOCOL + " sub-protocol"));
+            return;
+        }
+
+        metrics.messageReceived(session.getId());
+        List<GameEvent> events;
+        try {
+            long parseStart = System.nanoTime();
+            events = frameDecoder(session).decode(message.getPayload());
+            metrics.recordBinaryParse(parseStart);
+        } catch (IllegalArgumentException e) {
+            metrics.recordEvent(Transport.WEBSOCKET, Outcome.REJECTED, null);
+            logger.error("Rejected binary frame: {}", e.getMessage());
+            return;
+        }
+
+        logger.debug("Received binary frame with {} game events", events.size());
+        for (GameEvent event : events) {
+            try {
+                processEvent(session, event);
+            } catch (Exception e) {
+                metrics.recordEvent(Transport.WEBSOCKET, Outcome.FAILED, event);
+                logger.error("Error processing game event", e);
+            }
+        }
+    }
+
+    /**
+     * Apply the rate limits, validate all fields against the event constraints and the reference data,
+     * and publish valid events. Publishing is asynchronous so the WebSocket thread never waits on Redis.
+     */
+    private void processEvent(WebSocketSession session, GameEvent event) {
+        if (!admit(session, event)) {
+            return;
+        }
+
+        long validateStart = System.nanoTime();
+        List<String> violations = eventCodec.validate(event);
+        if (violations.isEmpty()) {
+            violations = referenceDataIndex.check(event);
+        }
+        metrics.recordValidate(validateStart);
+        if (violations.isEmpty()) {
+            // Process valid event
+            gameEventProducer.publishEventAsync(event).whenComplete((entryId, error) -> {
+                if (error != null) {
+                    metrics.recordEvent(Transport.WEBSOCKET, Outcome.FAILED, event);
+                    logger.error("Failed to publish game event {}", event, error);
+                } else {
+                    metrics.recordEvent(Transport.WEBSOCKET, Outcome.ACCEPTED, event);
+                }
+            });
+        } else {
+            // Log validation errors
+            metrics.recordEvent(Transport.WEBSOCKET, Outcome.REJECTED, event);
+            logger.error("Validation failed for game event: {}", String.join(", ", violations));
+        }
+    }
+
+    /**
+     * Take a token from the session's and the game's buckets. Over the limit the event is dropped
+     * and the client gets a reject frame; close to it, the client is asked to slow down.
+     * @return true if the event may be processed
+     */
+    private boolean admit(WebSocketSession session, GameEvent event) {
+        ConnectionLimiter limiter = (ConnectionLimiter) session.getAttributes().computeIfAbsent(RATE_LIMITER_ATTRIBUTE,
+                key -> rateLimiter.newConnection((String) session.getAttributes().get(ClientClassHandshakeInterceptor.CLIENT_CLASS_ATTRIBUTE)));
+        RateLimitDecision decision = rateLimiter.check(limiter, event.getGameId());
+        if (decision.action() == RateLimitDecision.Action.ALLOW) {
+            return true;
+        }
+
+        metrics.recordRateLimit(Transport.WEBSOCKET, decision);
+        sendSignal(session, decision, event);
+        if (decision.rejected()) {
+            metrics.recordEvent(Transport.WEBSOCKET, Outcome.THROTTLED, event);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Send a control frame: {"type":"reject"|"slow_down","scope":"session"|"game","gameId":..,"version":..,"retryAfterMs":..}
+     * While one frame is being written, later ones are buffered instead of blocking the receiving thread.
+     */
+    private void sendSignal(WebSocketSession session, RateLimitDecision decision, GameEvent event) {
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("type", decision.action().name().toLowerCase());
+        frame.put("scope", decision.scope().name().toLowerCase());
+        frame.put("gameId", event.getGameId());
+        frame.put("version", event.getVersion());
+        frame.put("retryAfterMs", decision.retryAfterMs());
+        try {
+            signalSession(session).sendMessage(new TextMessage(objectMapper.writeValueAsString(frame)));
+        } catch (IOException e) {
+            logger.warn("Failed to send {} frame: {}", frame.get("type"), e.getMessage());
+        }
+    }
+
+    private WebSocketSession signalSession(WebSocketSession session) {
+        return (WebSocketSession) session.getAttributes().computeIfAbsent(SIGNAL_SESSION_ATTRIBUTE,
+                key -> new ConcurrentWebSocketSessionDecorator(session, signalSendTimeLimitMs, signalBufferSizeLimit,
+                        OverflowStrategy.DROP));
+    }
+
+    private BinaryEventFrameDecoder frameDecoder(WebSocketSession session) {
+        return (BinaryEventFrameDecoder) session.getAttributes()
+                .computeIfAbsent(FRAME_DECODER_ATTRIBUTE, key -> new BinaryEventFrameDecoder(maxInternedIds));
+    }
+
     /**
      * Handles WebSocket transport errors.
      * This includes connection issues, protocol errors, etc.
@@ -84,4 +260,4 @@ public class GameEventWebSocketHandler extends TextWebSocketHandler {
     public void handleTransportError(WebSocketSession session, Throwable exception) {
         logger.error("WebSocket transport error", exception);
     }
-} 
+}
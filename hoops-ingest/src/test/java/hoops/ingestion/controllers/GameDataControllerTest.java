@@ -2,7 +2,17 @@ package hoops.ingestion.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import hoops.common.models.events.*;
+import hoops.ingestion.models.dtos.BatchIngestResponse;
+import hoops.ingestion.models.dtos.IngestItemResult;
+import hoops.ingestion.services.batch.BatchIngestService;
+import hoops.ingestion.services.metrics.IngestMetrics;
 import hoops.ingestion.services.producers.GameEventProducer;
+import hoops.ingestion.services.producers.GameEventProducer.Durability;
+import hoops.ingestion.services.ratelimit.ClientClassResolver;
+import hoops.ingestion.services.ratelimit.IngestRateLimiter;
+import hoops.ingestion.services.ratelimit.RateLimitDecision;
+import hoops.ingestion.services.reference.ReferenceDataIndex;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -12,11 +22,20 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -32,6 +51,27 @@ class GameDataControllerTest {
     @MockBean
     private GameEventProducer gameEventProducer;
 
+    @MockBean
+    private BatchIngestService batchIngestService;
+
+    @MockBean
+    private ReferenceDataIndex referenceDataIndex;
+
+    @MockBean
+    private IngestMetrics ingestMetrics;
+
+    @MockBean
+    private IngestRateLimiter rateLimiter;
+
+    @MockBean
+    private ClientClassResolver clientClassResolver;
+
+    @BeforeEach
+    void allowByDefault() {
+        when(rateLimiter.check(anyString(), any(), any())).thenReturn(RateLimitDecision.ALLOW);
+        when(clientClassResolver.resolve(any(), any(), any())).thenReturn(IngestRateLimiter.DEFAULT_CLASS);
+    }
+
     private static Stream<Arguments> validEventProvider() {
         return Stream.of(
             Arguments.of(createEvent(PointsEvent::new, "point", 3d)),
@@ -76,6 +116,75 @@ class GameDataControllerTest {
         verify(gameEventProducer, times(1)).publishEvent(any(GameEvent.class));
     }
 
+    @Test
+    void testAsyncEventIngestion() throws Exception {
+        GameEvent event = createEvent(PointsEvent::new, "point", 2d);
+        when(gameEventProducer.publishEventAsync(any(GameEvent.class), eq(Durability.REDIS)))
+            .thenReturn(CompletableFuture.completedFuture("1700000000000-0"));
+
+        MvcResult result = mockMvc.perform(post("/api/v1/ingest/event")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(event)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isAccepted())
+            .andExpect(header().string("Preference-Applied", "respond-async"))
+            .andExpect(jsonPath("$.durability").value("redis"))
+            .andExpect(jsonPath("$.entryId").value("1700000000000-0"));
+        verify(gameEventProducer, never()).publishEvent(any());
+    }
+
+    @Test
+    void testAsyncEventIngestionWithCombinedPreferences() throws Exception {
+        GameEvent event = createEvent(PointsEvent::new, "point", 2d);
+        when(gameEventProducer.publishEventAsync(any(GameEvent.class), eq(Durability.REDIS)))
+            .thenReturn(CompletableFuture.completedFuture("1-0"));
+
+        MvcResult result = mockMvc.perform(post("/api/v1/ingest/event")
+                .header("Prefer", "wait=5, Respond-Async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(event)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isAccepted())
+            .andExpect(header().string("Preference-Applied", "respond-async"));
+        verify(gameEventProducer, never()).publishEvent(any());
+    }
+
+    @Test
+    void testOtherPreferencesStaySynchronous() throws Exception {
+        GameEvent event = createEvent(PointsEvent::new, "point", 2d);
+
+        mockMvc.perform(post("/api/v1/ingest/event")
+                .header("Prefer", "return=minimal; respond-async-ish")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(event)))
+            .andExpect(status().isOk());
+
+        verify(gameEventProducer).publishEvent(any(GameEvent.class));
+    }
+
+    @Test
+    void testAsyncEventIngestionFailure() throws Exception {
+        GameEvent event = createEvent(PointsEvent::new, "point", 2d);
+        when(gameEventProducer.publishEventAsync(any(GameEvent.class), any()))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Journal full")));
+
+        MvcResult result = mockMvc.perform(post("/api/v1/ingest/event")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(event)))
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isInternalServerError());
+    }
+
     @Test
     void testInvalidEventMissingFields() throws Exception {
         // Create invalid event (missing required fields)
@@ -118,6 +227,41 @@ class GameDataControllerTest {
             .andExpect(jsonPath("$.errors[?(@.field=='value')].message").value("Minutes played cannot exceed 48"));
     }
     
+    @Test
+    void testUnknownReferenceData() throws Exception {
+        GameEvent event = createEvent(PointsEvent::new, "point", 3d);
+        when(referenceDataIndex.check(any(GameEvent.class)))
+            .thenReturn(List.of("Game 2024030100 is not in progress"));
+
+        mockMvc.perform(post("/api/v1/ingest/event")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(event)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errors[0]").value("Game 2024030100 is not in progress"));
+
+        verify(gameEventProducer, never()).publishEvent(any());
+    }
+
+    @Test
+    void testRateLimitedEvent() throws Exception {
+        GameEvent event = createEvent(PointsEvent::new, "point", 3d);
+        when(rateLimiter.check(anyString(), any(), any())).thenReturn(
+            new RateLimitDecision(RateLimitDecision.Action.REJECT, RateLimitDecision.Scope.GAME, 1500));
+        when(clientClassResolver.resolve(any(), eq("scorer-key"), anyString())).thenReturn("scorer");
+
+        mockMvc.perform(post("/api/v1/ingest/event")
+                .header("X-Hoops-Api-Key", "scorer-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(event)))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string("Retry-After", "2"))
+            .andExpect(jsonPath("$.scope").value("game"))
+            .andExpect(jsonPath("$.retryAfterMs").value(1500));
+
+        verify(rateLimiter).check(anyString(), eq("scorer"), eq("2024030100"));
+        verify(gameEventProducer, never()).publishEvent(any());
+    }
+
     @Test
     void testServiceError() throws Exception {
         GameEvent event = createEvent(PointsEvent::new, "point", 3d);
@@ -134,6 +278,19 @@ class GameDataControllerTest {
             .andExpect(content().string("Error processing game event"));
     }
 
+    @Test
+    void testParseAndValidateAreTimed() throws Exception {
+        GameEvent event = createEvent(PointsEvent::new, "point", 2d);
+
+        mockMvc.perform(post("/api/v1/ingest/event")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(event)))
+            .andExpect(status().isOk());
+
+        verify(ingestMetrics).recordJsonParse(anyLong());
+        verify(ingestMetrics).recordValidate(anyLong());
+    }
+
     @Test
     void testInvalidJson() throws Exception {
         String invalidJson = "{invalid json}";
@@ -143,4 +300,49 @@ class GameDataControllerTest {
                 .content(invalidJson))
             .andExpect(status().isBadRequest());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testBatchIngestionAcceptsNdjson() throws Exception {
+        BatchIngestResponse response = new BatchIngestResponse();
+        response.setReceived(2);
+        response.setAccepted(2);
+        when(clientClassResolver.resolve(any(), eq("replay-key"), any())).thenReturn("replay");
+        when(batchIngestService.ingest(any(), anyString(), eq("replay"), any())).thenAnswer(invocation -> {
+            Consumer<IngestItemResult> results = invocation.getArgument(3);
+            results.accept(IngestItemResult.accepted(0, "1-0"));
+            results.accept(IngestItemResult.accepted(1, "1-1"));
+            return response;
+        });
+
+        String body = objectMapper.writeValueAsString(createEvent(PointsEvent::new, "point", 2d)) + "\n"
+                + objectMapper.writeValueAsString(createEvent(ReboundsEvent::new, "rebound", 1d)) + "\n";
+
+        MvcResult result = mockMvc.perform(post("/api/v1/ingest/events")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header("X-Hoops-Api-Key", "replay-key")
+                .content(body))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("1-0", objectMapper.readTree(lines[0]).get("entryId").asText());
+        assertEquals(1, objectMapper.readTree(lines[1]).get("index").asInt());
+        assertEquals(2, objectMapper.readTree(lines[2]).get("received").asInt());
+        assertEquals(2, objectMapper.readTree(lines[2]).get("accepted").asInt());
+
+        verify(batchIngestService, times(1)).ingest(any(), anyString(), eq("replay"), any());
+    }
+
+    @Test
+    void testBatchIngestionServiceError() throws Exception {
+        when(batchIngestService.ingest(any(), anyString(), any(), any())).thenThrow(new RuntimeException("Test error"));
+
+        mockMvc.perform(post("/api/v1/ingest/events")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+            .andExpect(status().isInternalServerError())
+            .andExpect(content().string("Error processing game event batch"));
+    }
+}
\ No newline at end of file
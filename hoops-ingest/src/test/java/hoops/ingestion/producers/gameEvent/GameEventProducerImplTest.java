@@ -1,15 +1,24 @@
 package hoops.ingestion.producers.gameEvent;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.common.codec.GameEventCodec;
+import hoops.common.codec.GameEventStreamFormat;
 import hoops.common.constants.StreamConstants;
 import hoops.common.models.events.AssistsEvent;
 import hoops.common.models.events.GameEvent;
 import hoops.common.models.events.PointsEvent;
 import hoops.common.models.events.ReboundsEvent;
 import hoops.ingestion.config.TestRedisConfig;
+import hoops.ingestion.services.journal.JournalReplayer;
+import hoops.ingestion.services.metrics.IngestMetrics;
+import hoops.ingestion.services.producers.GameEventBatcher;
+import hoops.ingestion.services.producers.GameEventDeduplicator;
 import hoops.ingestion.services.producers.GameEventProducerImpl;
+import hoops.ingestion.services.producers.RedisStreamPublisher;
+import hoops.ingestion.services.producers.StreamEntryFactory;
 import io.lettuce.core.*;
 import io.lettuce.core.api.sync.RedisCommands;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,8 +34,18 @@ import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest(classes = {
         GameEventProducerImpl.class,
+        GameEventBatcher.class,
+        GameEventDeduplicator.class,
+        JournalReplayer.class,
+        RedisStreamPublisher.class,
+        StreamEntryFactory.class,
+        IngestMetrics.class,
+        SimpleMeterRegistry.class,
         TestRedisConfig.class,
         ObjectMapper.class
+}, properties = {
+        "ingest.dedup.enabled=false",    // tests publish the same events across methods
+        "ingest.journal.enabled=false"   // publish failures should surface here
 })
 @ActiveProfiles("test")
 @Testcontainers
@@ -45,9 +64,11 @@ class GameEventProducerImplTest {
     private static final String TEST_CONSUMER = "test-consumer";
     
     private RedisCommands<String, String> commands;
+    private GameEventStreamFormat streamFormat;
 
     @BeforeEach
     void setUp() {
+        streamFormat = new GameEventStreamFormat(new GameEventCodec(objectMapper.getFactory(), false));
         commands = redisClient.connect().sync();
         
         // Delete all messages from the stream, keeping 0 elements
@@ -119,8 +140,7 @@ class GameEventProducerImplTest {
 
             StreamMessage<String, String> message = messages.get(0);
             Map<String, String> fields = message.getBody();
-            String eventJson = fields.get("data");
-            GameEvent consumedEvent = objectMapper.readValue(eventJson, GameEvent.class);
+            GameEvent consumedEvent = streamFormat.fromFields(fields);
 
             assertTrue(consumedEvent instanceof PointsEvent);
             PointsEvent consumedPointsEvent = (PointsEvent) consumedEvent;
@@ -235,10 +255,7 @@ class GameEventProducerImplTest {
     private void verifyEvent(StreamMessage<String, String> message, Class<? extends GameEvent> expectedType, Double expectedValue)
             throws Exception {
         Map<String, String> fields = message.getBody();
-        GameEvent consumedEvent = objectMapper.readValue(
-                fields.get("data"),
-                GameEvent.class
-        );
+        GameEvent consumedEvent = streamFormat.fromFields(fields);
         assertTrue(expectedType.isInstance(consumedEvent));
         assertEquals(expectedValue, consumedEvent.getValue());
     }
@@ -0,0 +1,316 @@
+package hoops.ingestion.producers.publisher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.common.constants.StreamConstants;
+import hoops.common.models.events.PointsEvent;
+import hoops.common.redis.StreamKeyUtil;
+import hoops.ingestion.services.journal.JournalReplayer;
+import hoops.ingestion.services.metrics.IngestMetrics;
+import hoops.ingestion.services.producers.GameEventBatcher;
+import hoops.ingestion.services.producers.RedisStreamPublisher;
+import hoops.ingestion.services.producers.RedisStreamPublisher.StreamEntry;
+import hoops.ingestion.services.producers.StreamEntryFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameEventBatcherTest {
+
+    @Mock
+    private RedisStreamPublisher streamPublisher;
+
+    @Mock
+    private JournalReplayer journalReplayer;
+
+    @Captor
+    private ArgumentCaptor<List<StreamEntry>> entriesCaptor;
+
+    private GameEventBatcher batcher;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (batcher != null) {
+            batcher.stop();
+        }
+    }
+
+    @Test
+    void submit_ShouldFlushFullBatchAsOnePipelinedGroup() throws Exception {
+        answerWithEntryIds();
+        batcher = startBatcher(3, 10_000, 100);
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(batcher.submit(createEvent(i + 1)));
+        }
+
+        for (CompletableFuture<String> future : futures) {
+            assertNotNull(future.get(2, TimeUnit.SECONDS));
+        }
+        verify(streamPublisher, times(1)).xaddAll(entriesCaptor.capture());
+        assertEquals(3, entriesCaptor.getValue().size());
+        assertEquals(StreamConstants.GAME_EVENTS_STREAM, entriesCaptor.getValue().get(0).stream());
+        assertEquals(3, batcher.getLastFlushSize());
+    }
+
+    @Test
+    void submit_ShouldFlushPartialBatchAfterMaxDelay() throws Exception {
+        answerWithEntryIds();
+        batcher = startBatcher(100, 5, 100);
+
+        String entryId = batcher.submit(createEvent(1)).get(2, TimeUnit.SECONDS);
+
+        assertEquals("0-1", entryId);
+        assertEquals(1, batcher.getLastFlushSize());
+        assertEquals(1, batcher.getFlushCount());
+    }
+
+    @Test
+    void submit_ShouldPropagatePublishFailure() {
+        when(streamPublisher.xaddAll(anyList()))
+            .thenReturn(List.of(CompletableFuture.failedFuture(new RuntimeException("Redis down"))));
+        batcher = startBatcher(1, 10_000, 100);
+
+        CompletableFuture<String> future = batcher.submit(createEvent(1));
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+        assertEquals("Redis down", exception.getCause().getMessage());
+    }
+
+    @Test
+    void submit_ShouldRejectWhenQueueIsFull() throws Exception {
+        batcher = startBatcher(10, 10_000, 1);
+        batcher.stop();
+
+        CompletableFuture<String> future = batcher.submit(createEvent(1));
+
+        assertTrue(future.isCompletedExceptionally());
+        batcher = null;
+    }
+
+    private GameEventBatcher startBatcher(int maxBatchSize, long maxDelayMs, int queueCapacity) {
+        return startBatcher(maxBatchSize, maxDelayMs, queueCapacity, 1);
+    }
+
+    private GameEventBatcher startBatcher(int maxBatchSize, long maxDelayMs, int queueCapacity, int partitions) {
+        StreamEntryFactory streamEntryFactory = new StreamEntryFactory(new ObjectMapper());
+        ReflectionTestUtils.setField(streamEntryFactory, "partitions", partitions);
+        streamEntryFactory.init();
+        GameEventBatcher instance = new GameEventBatcher(streamPublisher, streamEntryFactory, journalReplayer,
+                new IngestMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(instance, "maxBatchSize", maxBatchSize);
+        ReflectionTestUtils.setField(instance, "maxDelayMs", maxDelayMs);
+        ReflectionTestUtils.setField(instance, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(instance, "publishTimeoutMs", 1000L);
+        instance.start();
+        return instance;
+    }
+
+    @Test
+    void submit_ShouldRouteEventsToTheirGamePartition() throws Exception {
+        answerWithEntryIds();
+        batcher = startBatcher(2, 10_000, 100, 4);
+
+        PointsEvent first = createEvent(1);
+        PointsEvent second = createEvent(2);
+        second.setGameId("2024031502");
+        batcher.submit(first);
+        batcher.submit(second).get(2, TimeUnit.SECONDS);
+
+        verify(streamPublisher).xaddAll(entriesCaptor.capture());
+        List<StreamEntry> entries = entriesCaptor.getValue();
+        assertEquals(StreamKeyUtil.getStreamKeyForGame("2024031501", 4), entries.get(0).stream());
+        assertEquals(StreamKeyUtil.getStreamKeyForGame("2024031502", 4), entries.get(1).stream());
+    }
+
+    @Test
+    void submit_WhileJournalIsBuffering_ShouldJournalTheBatchInsteadOfPublishing() throws Exception {
+        when(journalReplayer.isEnabled()).thenReturn(true);
+        when(journalReplayer.appendIfBuffering(anyList())).thenReturn(true);
+        batcher = startBatcher(1, 10_000, 100);
+
+        assertNull(batcher.submit(createEvent(1)).get(2, TimeUnit.SECONDS));
+
+        verify(streamPublisher, never()).xaddAll(anyList());
+    }
+
+    @Test
+    void submit_WithJournalDurability_ShouldAppendAcceptedEvents() throws Exception {
+        when(journalReplayer.isEnabled()).thenReturn(true);
+        batcher = startBatcher(1, 10_000, 100);
+
+        assertNull(batcher.submit(createEvent(1), true).get(2, TimeUnit.SECONDS));
+
+        verify(journalReplayer).appendAccepted(List.of(createEvent(1)));
+        verify(streamPublisher, never()).xaddAll(anyList());
+    }
+
+    @Test
+    void submit_WithJournalDurability_ShouldKeepOtherGamesGoingStraightToRedis() throws Exception {
+        when(journalReplayer.isEnabled()).thenReturn(true);
+        answerWithEntryIds();
+        batcher = startBatcher(3, 10_000, 100);
+
+        PointsEvent otherGame = createEvent(7);
+        otherGame.setGameId("2024031502");
+        CompletableFuture<String> earlier = batcher.submit(createEvent(1));
+        CompletableFuture<String> requested = batcher.submit(createEvent(2), true);
+        CompletableFuture<String> other = batcher.submit(otherGame);
+
+        assertNull(earlier.get(2, TimeUnit.SECONDS));
+        assertNull(requested.get(2, TimeUnit.SECONDS));
+        assertEquals("0-1", other.get(2, TimeUnit.SECONDS));
+        // The earlier event of the same game is journaled too, so the replay cannot overtake it
+        verify(journalReplayer).appendAccepted(List.of(createEvent(1), createEvent(2)));
+        verify(journalReplayer, never()).append(anyList());
+        verify(streamPublisher).xaddAll(entriesCaptor.capture());
+        assertEquals(1, entriesCaptor.getValue().size());
+    }
+
+    @Test
+    void submit_GameStillInJournal_ShouldFollowItsJournaledEvents() throws Exception {
+        when(journalReplayer.isEnabled()).thenReturn(true);
+        when(journalReplayer.isJournaled("2024031501")).thenReturn(true);
+        batcher = startBatcher(1, 10_000, 100);
+
+        assertNull(batcher.submit(createEvent(3)).get(2, TimeUnit.SECONDS));
+
+        verify(journalReplayer).appendAccepted(List.of(createEvent(3)));
+        verify(streamPublisher, never()).xaddAll(anyList());
+    }
+
+    @Test
+    void submit_PublishFailsWithJournal_ShouldJournalOnlyTheFailedEventsInOrder() throws Exception {
+        when(journalReplayer.isEnabled()).thenReturn(true);
+        when(streamPublisher.xaddAll(anyList())).thenReturn(List.of(
+                CompletableFuture.completedFuture("0-1"),
+                CompletableFuture.failedFuture(new RuntimeException("Redis down")),
+                CompletableFuture.failedFuture(new RuntimeException("Redis down"))));
+        batcher = startBatcher(3, 10_000, 100);
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(batcher.submit(createEvent(i + 1)));
+        }
+
+        assertEquals("0-1", futures.get(0).get(2, TimeUnit.SECONDS));
+        assertNull(futures.get(1).get(2, TimeUnit.SECONDS));
+        assertNull(futures.get(2).get(2, TimeUnit.SECONDS));
+        verify(journalReplayer).append(List.of(createEvent(2), createEvent(3)));
+    }
+
+    @Test
+    void submit_NoReplyWithinTimeout_ShouldJournalTheEvent() throws Exception {
+        when(journalReplayer.isEnabled()).thenReturn(true);
+        when(streamPublisher.xaddAll(anyList())).thenReturn(List.of(new CompletableFuture<>()));
+        batcher = startBatcher(1, 10_000, 100);
+        ReflectionTestUtils.setField(batcher, "publishTimeoutMs", 50L);
+
+        assertNull(batcher.submit(createEvent(1)).get(2, TimeUnit.SECONDS));
+
+        verify(journalReplayer).append(List.of(createEvent(1)));
+    }
+
+    @Test
+    void submit_WithJournal_ShouldNotWaitForRepliesBeforeSendingOtherGames() throws Exception {
+        when(journalReplayer.isEnabled()).thenReturn(true);
+        CompletableFuture<String> slowReply = new CompletableFuture<>();
+        when(streamPublisher.xaddAll(anyList()))
+            .thenReturn(List.of(slowReply))
+            .thenReturn(List.of(CompletableFuture.completedFuture("0-2")));
+        batcher = startBatcher(1, 10_000, 100);
+
+        CompletableFuture<String> first = batcher.submit(createEvent(1));
+        PointsEvent otherGame = createEvent(1);
+        otherGame.setGameId("2024031502");
+
+        assertEquals("0-2", batcher.submit(otherGame).get(2, TimeUnit.SECONDS));
+        assertFalse(first.isDone());
+        slowReply.complete("0-1");
+        assertEquals("0-1", first.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void submit_WithJournal_ShouldHoldGameEventsUntilEarlierRepliesSettle() throws Exception {
+        when(journalReplayer.isEnabled()).thenReturn(true);
+        CompletableFuture<String> slowReply = new CompletableFuture<>();
+        when(streamPublisher.xaddAll(anyList()))
+            .thenReturn(List.of(slowReply))
+            .thenReturn(List.of(CompletableFuture.completedFuture("0-2")));
+        batcher = startBatcher(1, 10_000, 100);
+
+        CompletableFuture<String> first = batcher.submit(createEvent(1));
+        CompletableFuture<String> second = batcher.submit(createEvent(2));
+
+        verify(streamPublisher, after(200).times(1)).xaddAll(anyList());
+        assertFalse(second.isDone());
+        slowReply.complete("0-1");
+        assertEquals("0-1", first.get(2, TimeUnit.SECONDS));
+        assertEquals("0-2", second.get(2, TimeUnit.SECONDS));
+        verify(streamPublisher, times(2)).xaddAll(anyList());
+    }
+
+    @Test
+    void submit_FailureWithEventsHeldBehind_ShouldJournalHeldEventsAfterTheFailedOnes() throws Exception {
+        when(journalReplayer.isEnabled()).thenReturn(true);
+        CompletableFuture<String> failingReply = new CompletableFuture<>();
+        when(streamPublisher.xaddAll(anyList())).thenReturn(List.of(failingReply));
+        batcher = startBatcher(1, 10_000, 100);
+
+        CompletableFuture<String> first = batcher.submit(createEvent(1));
+        CompletableFuture<String> second = batcher.submit(createEvent(2));
+        verify(streamPublisher, after(200).times(1)).xaddAll(anyList());
+        // The failure switches the journal to buffering, which the held event then finds
+        doAnswer(invocation -> {
+            when(journalReplayer.appendIfBuffering(anyList())).thenReturn(true);
+            return null;
+        }).when(journalReplayer).append(anyList());
+        failingReply.completeExceptionally(new RuntimeException("OOM command not allowed"));
+
+        assertNull(first.get(2, TimeUnit.SECONDS));
+        assertNull(second.get(2, TimeUnit.SECONDS));
+        InOrder inOrder = inOrder(journalReplayer);
+        inOrder.verify(journalReplayer).append(List.of(createEvent(1)));
+        inOrder.verify(journalReplayer).appendIfBuffering(List.of(createEvent(2)));
+        verify(streamPublisher, times(1)).xaddAll(anyList());
+    }
+
+    private void answerWithEntryIds() {
+        when(streamPublisher.xaddAll(anyList())).thenAnswer(invocation -> {
+            List<?> bodies = invocation.getArgument(0);
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            for (int i = 0; i < bodies.size(); i++) {
+                results.add(CompletableFuture.completedFuture("0-" + (i + 1)));
+            }
+            return results;
+        });
+    }
+
+    private PointsEvent createEvent(long version) {
+        PointsEvent event = new PointsEvent();
+        event.setGameId("2024031501");
+        event.setTeamId("BOS");
+        event.setPlayerId("player123");
+        event.setValue(2.0);
+        event.setVersion(version);
+        return event;
+    }
+}
@@ -0,0 +1,104 @@
+package hoops.ingestion.producers.publisher;
+
+import hoops.common.models.events.PointsEvent;
+import hoops.common.models.events.ReboundsEvent;
+import hoops.common.models.events.GameEvent;
+import hoops.ingestion.services.producers.GameEventDeduplicator;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventDeduplicatorTest {
+
+    @Test
+    void claim_ShouldDropReplayAndCountIt() {
+        GameEventDeduplicator deduplicator = create(1000);
+
+        assertNull(deduplicator.claim(event(new PointsEvent(), 1L), new CompletableFuture<>()));
+        assertNotNull(deduplicator.claim(event(new PointsEvent(), 1L), new CompletableFuture<>()));
+        assertNull(deduplicator.claim(event(new PointsEvent(), 2L), new CompletableFuture<>()));
+        assertNull(deduplicator.claim(event(new ReboundsEvent(), 1L), new CompletableFuture<>()));
+
+        assertEquals(1, deduplicator.getDuplicateCount());
+    }
+
+    @Test
+    void claim_ShouldHandReplayTheOutcomeOfTheFirstCopy() {
+        GameEventDeduplicator deduplicator = create(1000);
+        CompletableFuture<String> first = new CompletableFuture<>();
+
+        deduplicator.claim(event(new PointsEvent(), 1L), first);
+        CompletableFuture<String> replay = deduplicator.claim(event(new PointsEvent(), 1L), new CompletableFuture<>());
+
+        // Still in flight, so the replay must not read as accepted yet
+        assertSame(first, replay);
+        assertFalse(replay.isDone());
+    }
+
+    @Test
+    void forget_ShouldAcceptResendAfterFailedPublish() {
+        GameEventDeduplicator deduplicator = create(1000);
+        GameEvent event = event(new PointsEvent(), 1L);
+        CompletableFuture<String> outcome = new CompletableFuture<>();
+
+        deduplicator.claim(event, outcome);
+        deduplicator.forget(event, outcome);
+
+        assertNull(deduplicator.claim(event, new CompletableFuture<>()));
+        assertEquals(0, deduplicator.getDuplicateCount());
+    }
+
+    @Test
+    void forget_ShouldKeepAKeyClaimedByAnotherPublish() {
+        GameEventDeduplicator deduplicator = create(1000);
+        GameEvent event = event(new PointsEvent(), 1L);
+        CompletableFuture<String> stale = new CompletableFuture<>();
+        CompletableFuture<String> current = new CompletableFuture<>();
+
+        deduplicator.claim(event, stale);
+        deduplicator.forget(event, stale);
+        deduplicator.claim(event, current);
+        deduplicator.forget(event, stale);
+
+        assertSame(current, deduplicator.claim(event, new CompletableFuture<>()));
+    }
+
+    @Test
+    void claim_ShouldStayWithinCapacity() {
+        GameEventDeduplicator deduplicator = create(1);
+
+        assertNull(deduplicator.claim(event(new PointsEvent(), 1L), new CompletableFuture<>()));
+        assertNull(deduplicator.claim(event(new PointsEvent(), 2L), new CompletableFuture<>()));
+        // The oldest key was evicted, so its replay is no longer recognised
+        assertNull(deduplicator.claim(event(new PointsEvent(), 1L), new CompletableFuture<>()));
+    }
+
+    @Test
+    void claim_Disabled_ShouldAcceptEverything() {
+        GameEventDeduplicator deduplicator = create(1000);
+        ReflectionTestUtils.setField(deduplicator, "enabled", false);
+
+        assertNull(deduplicator.claim(event(new PointsEvent(), 1L), new CompletableFuture<>()));
+        assertNull(deduplicator.claim(event(new PointsEvent(), 1L), new CompletableFuture<>()));
+    }
+
+    private GameEventDeduplicator create(int capacity) {
+        GameEventDeduplicator deduplicator = new GameEventDeduplicator();
+        ReflectionTestUtils.setField(deduplicator, "capacity", capacity);
+        ReflectionTestUtils.setField(deduplicator, "stripeCount", 1);
+        deduplicator.init();
+        return deduplicator;
+    }
+
+    private GameEvent event(GameEvent event, Long version) {
+        event.setGameId("2024030100");
+        event.setTeamId("BOS");
+        event.setPlayerId("jt0");
+        event.setValue(1.0);
+        event.setVersion(version);
+        return event;
+    }
+}
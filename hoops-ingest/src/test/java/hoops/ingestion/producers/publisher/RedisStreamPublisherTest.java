@@ -0,0 +1,97 @@
+package hoops.ingestion.producers.publisher;
+
+import hoops.common.constants.StreamConstants;
+import hoops.ingestion.services.producers.RedisStreamPublisher;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.XAddArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisStreamPublisherTest {
+
+    @Mock
+    private RedisClient redisClient;
+
+    @Mock
+    private StatefulRedisConnection<String, String> connection;
+
+    @Mock
+    private RedisAsyncCommands<String, String> asyncCommands;
+
+    @Mock
+    private RedisFuture<String> redisFuture;
+
+    private RedisStreamPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        when(redisClient.connect()).thenReturn(connection);
+        when(connection.async()).thenReturn(asyncCommands);
+
+        publisher = new RedisStreamPublisher(redisClient);
+        // Long interval so only the batch-size trigger flushes during the test
+        ReflectionTestUtils.setField(publisher, "flushIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(publisher, "flushBatchSize", 3);
+        publisher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.stop();
+    }
+
+    @Test
+    void start_shouldDisableAutoFlushOnSharedConnection() {
+        verify(redisClient, times(1)).connect();
+        verify(connection).setAutoFlushCommands(false);
+    }
+
+    @Test
+    void xadd_shouldFlushOnlyWhenBatchSizeReached() {
+        when(asyncCommands.xadd(eq(StreamConstants.GAME_EVENTS_STREAM), any(XAddArgs.class), anyMap())).thenReturn(redisFuture);
+        when(redisFuture.toCompletableFuture()).thenReturn(CompletableFuture.completedFuture("1-0"));
+
+        publisher.xadd(StreamConstants.GAME_EVENTS_STREAM, Map.of("data", "{}"));
+        publisher.xadd(StreamConstants.GAME_EVENTS_STREAM, Map.of("data", "{}"));
+        verify(connection, never()).flushCommands();
+
+        publisher.xadd(StreamConstants.GAME_EVENTS_STREAM, Map.of("data", "{}"));
+        verify(connection, times(1)).flushCommands();
+        verify(redisClient, times(1)).connect();
+    }
+
+    @Test
+    void xadd_shouldCompleteFutureWithEntryId() throws Exception {
+        when(asyncCommands.xadd(eq(StreamConstants.GAME_EVENTS_STREAM), any(XAddArgs.class), anyMap())).thenReturn(redisFuture);
+        when(redisFuture.toCompletableFuture()).thenReturn(CompletableFuture.completedFuture("42-0"));
+
+        CompletableFuture<String> result = publisher.xadd(StreamConstants.GAME_EVENTS_STREAM, Map.of("data", "{}"));
+
+        assertEquals("42-0", result.get());
+    }
+
+    @Test
+    void flush_shouldSkipWhenNothingPending() {
+        publisher.flush();
+
+        verify(connection, never()).flushCommands();
+    }
+}
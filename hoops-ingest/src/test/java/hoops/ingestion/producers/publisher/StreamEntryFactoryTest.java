@@ -0,0 +1,67 @@
+package hoops.ingestion.producers.publisher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.common.models.events.PointsEvent;
+import hoops.common.redis.StreamKeyUtil;
+import hoops.ingestion.services.producers.RedisStreamPublisher.StreamEntry;
+import hoops.ingestion.services.producers.StreamEntryFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamEntryFactoryTest {
+
+    @Test
+    void toStreamEntry_ShouldWriteFieldsOrLegacyJson() throws Exception {
+        PointsEvent event = createEvent();
+
+        StreamEntry entry = create("fields", 1).toStreamEntry(event);
+        assertEquals("2", entry.body().get("s"));
+        assertEquals("player123", entry.body().get("playerId"));
+        assertEquals("3", entry.body().get("version"));
+        assertFalse(entry.body().containsKey("data"));
+
+        StreamEntry legacy = create("json", 1).toStreamEntry(event);
+        assertEquals(List.of("data"), List.copyOf(legacy.body().keySet()));
+        assertTrue(legacy.body().get("data").contains("\"version\":3"));
+    }
+
+    @Test
+    void toStreamEntry_ByDefault_ShouldWriteTheJsonDataField() throws Exception {
+        StreamEntryFactory factory = new StreamEntryFactory(new ObjectMapper());
+        ReflectionTestUtils.setField(factory, "partitions", 1);
+        factory.init();
+
+        assertTrue(factory.isLegacy());
+        assertEquals(List.of("data"), List.copyOf(factory.toStreamEntry(createEvent()).body().keySet()));
+    }
+
+    @Test
+    void toStreamEntry_ShouldRouteToTheGamePartition() throws Exception {
+        StreamEntry entry = create("fields", 4).toStreamEntry(createEvent());
+
+        assertEquals(StreamKeyUtil.getStreamKeyForGame("2024031501", 4), entry.stream());
+    }
+
+    private StreamEntryFactory create(String entryFormat, int partitions) {
+        StreamEntryFactory factory = new StreamEntryFactory(new ObjectMapper());
+        ReflectionTestUtils.setField(factory, "entryFormat", entryFormat);
+        ReflectionTestUtils.setField(factory, "partitions", partitions);
+        factory.init();
+        return factory;
+    }
+
+    private PointsEvent createEvent() {
+        PointsEvent event = new PointsEvent();
+        event.setEvent("point");
+        event.setGameId("2024031501");
+        event.setTeamId("BOS");
+        event.setPlayerId("player123");
+        event.setValue(2.0);
+        event.setVersion(3L);
+        return event;
+    }
+}
@@ -0,0 +1,199 @@
+package hoops.ingestion.services.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.common.models.events.GameEvent;
+import hoops.ingestion.models.dtos.BatchIngestResponse;
+import hoops.ingestion.models.dtos.IngestItemResult;
+import hoops.ingestion.services.metrics.IngestMetrics;
+import hoops.ingestion.services.producers.GameEventProducer;
+import hoops.ingestion.services.ratelimit.IngestRateLimiter;
+import hoops.ingestion.services.ratelimit.RateLimitDecision;
+import hoops.ingestion.services.reference.ReferenceDataIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchIngestServiceImplTest {
+
+    private static final String POINT = """
+        {"gameId":"2024030100","teamId":"BOS","playerId":"jt0","event":"point","value":3,"version":1}""";
+    private static final String REBOUND = """
+        {"gameId":"2024030100","teamId":"BOS","playerId":"jt0","event":"rebound","value":1,"version":2}""";
+    private static final String INVALID_POINT = """
+        {"gameId":"2024030100","teamId":"BOS","playerId":"jt0","event":"point","value":4,"version":3}""";
+    private static final String UNKNOWN_EVENT = """
+        {"gameId":"2024030100","teamId":"BOS","playerId":"jt0","event":"dunk","value":1,"version":4}""";
+
+    private static final String CLIENT = "10.0.0.7";
+
+    @Mock
+    private GameEventProducer gameEventProducer;
+
+    @Mock
+    private ReferenceDataIndex referenceDataIndex;
+
+    @Mock
+    private IngestRateLimiter rateLimiter;
+
+    private BatchIngestServiceImpl batchIngestService;
+
+    private final List<IngestItemResult> results = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        batchIngestService = new BatchIngestServiceImpl(new ObjectMapper(), gameEventProducer, validator, referenceDataIndex,
+            new IngestMetrics(new SimpleMeterRegistry()), rateLimiter);
+        ReflectionTestUtils.setField(batchIngestService, "publishGroupSize", 2);
+        ReflectionTestUtils.setField(batchIngestService, "publishTimeoutMs", 1000L);
+        lenient().when(rateLimiter.check(eq(CLIENT), eq(IngestRateLimiter.DEFAULT_CLASS), anyString()))
+            .thenReturn(RateLimitDecision.ALLOW);
+    }
+
+    @Test
+    void ingest_JsonArray_ShouldPublishEveryEvent() throws Exception {
+        when(gameEventProducer.publishEventAsync(any(GameEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture("1-0"));
+
+        BatchIngestResponse response = batchIngestService.ingest(body("[" + POINT + "," + REBOUND + "," + POINT + "]"), CLIENT, IngestRateLimiter.DEFAULT_CLASS, results::add);
+
+        assertEquals(3, response.getReceived());
+        assertEquals(3, response.getAccepted());
+        assertEquals(0, response.getRejected());
+        verify(gameEventProducer, times(3)).publishEventAsync(any(GameEvent.class));
+        assertEquals("1-0", results.get(0).getEntryId());
+    }
+
+    @Test
+    void ingest_Ndjson_ShouldReportPerItemResultsInOrder() throws Exception {
+        when(gameEventProducer.publishEventAsync(any(GameEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture("1-0"));
+
+        BatchIngestResponse response = batchIngestService.ingest(
+            body(POINT + "\n" + INVALID_POINT + "\n" + UNKNOWN_EVENT + "\n" + REBOUND + "\n"), CLIENT, IngestRateLimiter.DEFAULT_CLASS, results::add);
+
+        assertEquals(4, response.getReceived());
+        assertEquals(2, response.getAccepted());
+        assertEquals(2, response.getRejected());
+        assertEquals(IngestItemResult.ACCEPTED, results.get(0).getStatus());
+        assertEquals(IngestItemResult.REJECTED, results.get(1).getStatus());
+        assertEquals(IngestItemResult.REJECTED, results.get(2).getStatus());
+        assertEquals(IngestItemResult.ACCEPTED, results.get(3).getStatus());
+        assertEquals(3, results.get(3).getIndex());
+        verify(gameEventProducer, times(2)).publishEventAsync(any(GameEvent.class));
+    }
+
+    @Test
+    void ingest_PublishFailure_ShouldMarkItemFailed() throws Exception {
+        when(gameEventProducer.publishEventAsync(any(GameEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture("1-0"))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Redis down")));
+
+        BatchIngestResponse response = batchIngestService.ingest(body(POINT + "\n" + REBOUND), CLIENT, IngestRateLimiter.DEFAULT_CLASS, results::add);
+
+        assertEquals(1, response.getAccepted());
+        assertEquals(1, response.getFailed());
+        assertEquals(IngestItemResult.FAILED, results.get(1).getStatus());
+    }
+
+    @Test
+    void ingest_MalformedJson_ShouldStopAndKeepEarlierResults() throws Exception {
+        when(gameEventProducer.publishEventAsync(any(GameEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture("1-0"));
+
+        BatchIngestResponse response = batchIngestService.ingest(body(POINT + "\n{ this is not valid json }\n" + REBOUND), CLIENT, IngestRateLimiter.DEFAULT_CLASS, results::add);
+
+        assertEquals(1, response.getAccepted());
+        assertEquals(1, response.getRejected());
+        assertEquals(2, response.getReceived());
+        verify(gameEventProducer, times(1)).publishEventAsync(any(GameEvent.class));
+    }
+
+    @Test
+    void ingest_UnknownPlayer_ShouldRejectWithoutPublishing() throws Exception {
+        when(referenceDataIndex.check(any(GameEvent.class))).thenReturn(List.of("Unknown player jt0"));
+
+        BatchIngestResponse response = batchIngestService.ingest(body(POINT), CLIENT, IngestRateLimiter.DEFAULT_CLASS, results::add);
+
+        assertEquals(1, response.getRejected());
+        assertEquals(List.of("Unknown player jt0"), results.get(0).getErrors());
+        verify(gameEventProducer, never()).publishEventAsync(any(GameEvent.class));
+    }
+
+    @Test
+    void ingest_ShouldHandOverResultsGroupByGroup() throws Exception {
+        CompletableFuture<String> lastPublish = new CompletableFuture<>();
+        when(gameEventProducer.publishEventAsync(any(GameEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture("1-0"))
+            .thenReturn(CompletableFuture.completedFuture("2-0"))
+            .thenAnswer(invocation -> {
+                // The first group of two must already be out before the third event is even published
+                assertEquals(2, results.size());
+                lastPublish.complete("3-0");
+                return lastPublish;
+            });
+
+        batchIngestService.ingest(body(POINT + "\n" + REBOUND + "\n" + POINT), CLIENT, IngestRateLimiter.DEFAULT_CLASS, results::add);
+
+        assertEquals(List.of(0, 1, 2), results.stream().map(IngestItemResult::getIndex).toList());
+    }
+
+    @Test
+    void ingest_ManyRejections_ShouldNotHoldBackMoreThanOneGroup() throws Exception {
+        List<Integer> deliveredBeforeCheck = new ArrayList<>();
+        when(referenceDataIndex.check(any(GameEvent.class))).thenAnswer(invocation -> {
+            deliveredBeforeCheck.add(results.size());
+            return List.of("Unknown player jt0");
+        });
+
+        batchIngestService.ingest(body(POINT + "\n" + POINT + "\n" + POINT + "\n" + POINT), CLIENT, IngestRateLimiter.DEFAULT_CLASS, results::add);
+
+        // With a group size of 2, the first two rejections are sent before the third event is checked
+        assertEquals(List.of(0, 0, 2, 2), deliveredBeforeCheck);
+        assertEquals(4, results.size());
+        verify(gameEventProducer, never()).publishEventAsync(any(GameEvent.class));
+    }
+
+    @Test
+    void ingest_OverRateLimit_ShouldThrottleItemWithoutPublishing() throws Exception {
+        when(rateLimiter.check(eq(CLIENT), eq(IngestRateLimiter.DEFAULT_CLASS), anyString()))
+            .thenReturn(RateLimitDecision.ALLOW)
+            .thenReturn(new RateLimitDecision(RateLimitDecision.Action.REJECT, RateLimitDecision.Scope.GAME, 40));
+        when(gameEventProducer.publishEventAsync(any(GameEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture("1-0"));
+
+        BatchIngestResponse response = batchIngestService.ingest(body(POINT + "\n" + REBOUND),
+            CLIENT, IngestRateLimiter.DEFAULT_CLASS, results::add);
+
+        assertEquals(1, response.getAccepted());
+        assertEquals(1, response.getThrottled());
+        assertEquals(IngestItemResult.THROTTLED, results.get(1).getStatus());
+        assertEquals(40L, results.get(1).getRetryAfterMs());
+        assertEquals(List.of("rate_limited: game"), results.get(1).getErrors());
+        verify(gameEventProducer, times(1)).publishEventAsync(any(GameEvent.class));
+    }
+
+    private InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
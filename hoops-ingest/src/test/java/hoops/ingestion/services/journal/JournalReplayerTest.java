@@ -0,0 +1,198 @@
+package hoops.ingestion.services.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.common.models.events.GameEvent;
+import hoops.common.models.events.PointsEvent;
+import hoops.ingestion.services.producers.RedisStreamPublisher;
+import hoops.ingestion.services.producers.RedisStreamPublisher.StreamEntry;
+import hoops.ingestion.services.producers.StreamEntryFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JournalReplayerTest {
+
+    @Mock
+    private RedisStreamPublisher streamPublisher;
+
+    @Mock
+    private StreamEntryFactory streamEntryFactory;
+
+    @Captor
+    private ArgumentCaptor<List<StreamEntry>> entriesCaptor;
+
+    @TempDir
+    Path journalDir;
+
+    private JournalReplayer replayer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        replayer = new JournalReplayer(streamPublisher, streamEntryFactory, new ObjectMapper());
+        ReflectionTestUtils.setField(replayer, "enabled", true);
+        ReflectionTestUtils.setField(replayer, "journalDir", journalDir.toString());
+        ReflectionTestUtils.setField(replayer, "segmentSize", 64 * 1024);
+        ReflectionTestUtils.setField(replayer, "replayBatchSize", 10);
+        ReflectionTestUtils.setField(replayer, "retryBackoffMs", 10L);
+        ReflectionTestUtils.setField(replayer, "publishTimeoutMs", 1000L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        replayer.stop();
+    }
+
+    @Test
+    void appendIfBuffering_ShouldPassThroughWhileRedisIsHealthy() throws Exception {
+        replayer.start();
+
+        assertFalse(replayer.appendIfBuffering(List.of(event(1L))));
+        assertEquals(0, replayer.getJournalSizeBytes());
+    }
+
+    @Test
+    void append_ShouldBufferUntilReplayedInOrder() throws Exception {
+        when(streamEntryFactory.toStreamEntry(any(GameEvent.class)))
+                .thenAnswer(invocation -> new StreamEntry("game-events-stream",
+                        Map.of("version", String.valueOf(((GameEvent) invocation.getArgument(0)).getVersion()))));
+        when(streamPublisher.xaddAll(anyList()))
+                .thenReturn(List.of(CompletableFuture.failedFuture(new RuntimeException("Redis down"))))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).stream()
+                        .map(entry -> CompletableFuture.completedFuture("1-0"))
+                        .toList());
+        replayer.start();
+
+        synchronized (replayer) {
+            // Hold the replayer back until both events are in the journal
+            replayer.append(List.of(event(1L)));
+            assertTrue(replayer.appendIfBuffering(List.of(event(2L))));
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (replayer.isBuffering() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertFalse(replayer.isBuffering());
+        assertEquals(2, replayer.getReplayedEvents());
+        assertEquals(0, replayer.getJournalSizeBytes());
+        verify(streamPublisher, atLeast(2)).xaddAll(entriesCaptor.capture());
+        List<StreamEntry> replayed = entriesCaptor.getValue();
+        assertEquals(List.of("1", "2"), replayed.stream().map(entry -> entry.body().get("version")).toList());
+    }
+
+    @Test
+    void appendAccepted_ShouldReplayWhileRedisIsHealthy() throws Exception {
+        when(streamEntryFactory.toStreamEntry(any(GameEvent.class)))
+                .thenReturn(new StreamEntry("game-events-stream", Map.of("s", "2")));
+        when(streamPublisher.xaddAll(anyList())).thenReturn(List.of(CompletableFuture.completedFuture("1-0")));
+        replayer.start();
+
+        replayer.appendAccepted(List.of(event(1L)));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (replayer.getReplayedEvents() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, replayer.getJournaledEvents());
+        assertEquals(1, replayer.getReplayedEvents());
+    }
+
+    @Test
+    void appendAccepted_ShouldDetourOnlyTheGameUntilReplayed() throws Exception {
+        when(streamEntryFactory.toStreamEntry(any(GameEvent.class)))
+                .thenReturn(new StreamEntry("game-events-stream", Map.of("s", "2")));
+        when(streamPublisher.xaddAll(anyList())).thenReturn(List.of(CompletableFuture.completedFuture("1-0")));
+        replayer.start();
+
+        synchronized (replayer) {
+            // Hold the replayer back to look at the state before the replay
+            replayer.appendAccepted(List.of(event(1L)));
+            assertFalse(replayer.isBuffering());
+            assertTrue(replayer.isJournaled("2024030100"));
+            assertFalse(replayer.isJournaled("2024030101"));
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (replayer.isJournaled("2024030100") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(replayer.isJournaled("2024030100"));
+        assertEquals(1, replayer.getReplayedEvents());
+        assertFalse(replayer.appendIfBuffering(List.of(event(2L))));
+    }
+
+    @Test
+    void start_ShouldResumeBufferingWithEventsLeftByPreviousRun() throws Exception {
+        MappedEventJournal journal = new MappedEventJournal(journalDir, 64 * 1024);
+        journal.append("""
+            {"event":"point","version":1,"gameId":"2024030100","teamId":"BOS","playerId":"jt0","value":2.0}"""
+                .getBytes(StandardCharsets.UTF_8));
+        journal.close();
+        // The replay thread may or may not reach Redis before the assertions run
+        lenient().when(streamPublisher.xaddAll(anyList()))
+                .thenReturn(List.of(CompletableFuture.failedFuture(new RuntimeException("Redis down"))));
+
+        replayer.start();
+
+        assertTrue(replayer.isBuffering());
+        assertTrue(replayer.getJournalSizeBytes() > 0);
+        assertTrue(replayer.appendIfBuffering(List.of(event(2L))));
+    }
+
+    @Test
+    void replay_ShouldQuarantineAnUndecodableRecordAndMoveOn() throws Exception {
+        MappedEventJournal journal = new MappedEventJournal(journalDir, 64 * 1024);
+        journal.append("not an event".getBytes(StandardCharsets.UTF_8));
+        journal.append("""
+            {"event":"point","version":1,"gameId":"2024030100","teamId":"BOS","playerId":"jt0","value":2.0}"""
+                .getBytes(StandardCharsets.UTF_8));
+        journal.close();
+        when(streamEntryFactory.toStreamEntry(any(GameEvent.class)))
+                .thenReturn(new StreamEntry("game-events-stream", Map.of("s", "2")));
+        when(streamPublisher.xaddAll(anyList())).thenReturn(List.of(CompletableFuture.completedFuture("1-0")));
+
+        replayer.start();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (replayer.isBuffering() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(replayer.isBuffering());
+        assertEquals(1, replayer.getReplayedEvents());
+        assertEquals(1, replayer.getQuarantinedRecords());
+        assertEquals(List.of(Base64.getEncoder().encodeToString("not an event".getBytes(StandardCharsets.UTF_8))),
+                Files.readAllLines(journalDir.resolve("quarantined-records")));
+    }
+
+    private GameEvent event(Long version) {
+        PointsEvent event = new PointsEvent();
+        event.setGameId("2024030100");
+        event.setTeamId("BOS");
+        event.setPlayerId("jt0");
+        event.setValue(2.0);
+        event.setVersion(version);
+        return event;
+    }
+}
@@ -0,0 +1,105 @@
+package hoops.ingestion.services.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedEventJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void peekAndCommit_ShouldReturnRecordsInAppendOrder() throws Exception {
+        MappedEventJournal journal = new MappedEventJournal(directory, 1024);
+        journal.append(bytes("a"));
+        journal.append(bytes("b"));
+        journal.append(bytes("c"));
+
+        MappedEventJournal.Batch first = journal.peek(2);
+        assertEquals(List.of("a", "b"), strings(first));
+        // Peeking does not consume
+        assertEquals(List.of("a", "b"), strings(journal.peek(2)));
+
+        journal.commit(first);
+        assertEquals(List.of("c"), strings(journal.peek(10)));
+        journal.commit(journal.peek(10));
+        assertTrue(journal.isEmpty());
+    }
+
+    @Test
+    void append_ShouldRollSegmentsAndDeleteConsumedOnes() throws Exception {
+        // Room for two 10-byte records (8 header + 2 payload) per segment
+        MappedEventJournal journal = new MappedEventJournal(directory, 20);
+        for (int i = 0; i < 5; i++) {
+            journal.append(bytes("e" + i));
+        }
+        assertEquals(3, segmentCount());
+
+        MappedEventJournal.Batch batch = journal.peek(10);
+        assertEquals(List.of("e0", "e1", "e2", "e3", "e4"), strings(batch));
+        journal.commit(batch);
+
+        assertTrue(journal.isEmpty());
+        assertEquals(1, segmentCount());
+    }
+
+    @Test
+    void recover_ShouldResumeFromCheckpointAfterRestart() throws Exception {
+        MappedEventJournal journal = new MappedEventJournal(directory, 1024);
+        journal.append(bytes("a"));
+        journal.append(bytes("b"));
+        journal.commit(journal.peek(1));
+        journal.close();
+
+        MappedEventJournal reopened = new MappedEventJournal(directory, 1024);
+        assertEquals(List.of("b"), strings(reopened.peek(10)));
+
+        reopened.append(bytes("c"));
+        assertEquals(List.of("b", "c"), strings(reopened.peek(10)));
+    }
+
+    @Test
+    void recover_ShouldIgnoreTornRecord() throws Exception {
+        MappedEventJournal journal = new MappedEventJournal(directory, 1024);
+        journal.append(bytes("good"));
+        journal.append(bytes("torn"));
+        journal.close();
+
+        // Corrupt the payload of the second record, as if the process died mid-write
+        try (RandomAccessFile file = new RandomAccessFile(singleSegment().toFile(), "rw")) {
+            file.seek(12 + 8);
+            file.write('X');
+        }
+
+        MappedEventJournal reopened = new MappedEventJournal(directory, 1024);
+        assertEquals(List.of("good"), strings(reopened.peek(10)));
+    }
+
+    private long segmentCount() throws Exception {
+        try (var files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".journal")).count();
+        }
+    }
+
+    private Path singleSegment() throws Exception {
+        try (var files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".journal")).findFirst().orElseThrow();
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> strings(MappedEventJournal.Batch batch) {
+        return batch.records().stream().map(record -> new String(record, StandardCharsets.UTF_8)).toList();
+    }
+}
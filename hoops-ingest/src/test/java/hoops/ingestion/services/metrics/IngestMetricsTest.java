@@ -0,0 +1,73 @@
+package hoops.ingestion.services.metrics;
+
+import hoops.common.models.events.GameEvent;
+import hoops.common.models.events.ReboundsEvent;
+import hoops.ingestion.services.metrics.IngestMetrics.Outcome;
+import hoops.ingestion.services.metrics.IngestMetrics.Transport;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private IngestMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new IngestMetrics(registry);
+        ReflectionTestUtils.setField(metrics, "sessionRateIntervalMs", 2000L);
+    }
+
+    @Test
+    void recordEvent_ShouldCountByTransportOutcomeAndStat() {
+        GameEvent rebound = new ReboundsEvent();
+        rebound.setEvent("rebound");
+
+        metrics.recordEvent(Transport.REST, Outcome.FAILED, rebound);
+        metrics.recordEvent(Transport.REST, Outcome.FAILED, rebound);
+        metrics.recordEvent(Transport.REST, Outcome.REJECTED, null);
+
+        assertEquals(2.0, registry.get("ingest.events")
+            .tags("transport", "rest", "outcome", "failed", "stat", "rebound").counter().count());
+        assertEquals(1.0, registry.get("ingest.events")
+            .tags("transport", "rest", "outcome", "rejected", "stat", "unknown").counter().count());
+        assertEquals(0.0, registry.get("ingest.events")
+            .tags("transport", "websocket", "outcome", "failed", "stat", "rebound").counter().count());
+    }
+
+    @Test
+    void sampleSessionRates_ShouldRecordEachSessionAndResetCounts() {
+        metrics.sessionOpened("a");
+        metrics.sessionOpened("b");
+        for (int i = 0; i < 10; i++) {
+            metrics.messageReceived("a");
+        }
+        metrics.messageReceived("b");
+        metrics.messageReceived("closed-or-unknown");
+
+        metrics.sampleSessionRates();
+
+        DistributionSummary rates = registry.get("ingest.websocket.session.message.rate").summary();
+        assertEquals(2, rates.count());
+        assertEquals(5.0, rates.max());
+        assertEquals(5.0, registry.get("ingest.websocket.session.message.rate.max").gauge().value());
+
+        metrics.sampleSessionRates();
+        assertEquals(0.0, registry.get("ingest.websocket.session.message.rate.max").gauge().value());
+    }
+
+    @Test
+    void latencyTimers_ShouldBeRegisteredUpFront() {
+        metrics.recordXadd(System.nanoTime() - 1_000_000);
+
+        assertEquals(1, registry.get("ingest.xadd").timer().count());
+        assertNotNull(registry.get("ingest.parse").tags("format", "binary").timer());
+        assertEquals(0, registry.get("ingest.validate").timer().count());
+    }
+}
@@ -0,0 +1,53 @@
+package hoops.ingestion.services.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Principal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientClassResolverTest {
+
+    private ClientClassResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("ingest.ratelimit.class.scorer.api-keys", "scorer-key-1, scorer-key-2")
+            .withProperty("ingest.ratelimit.class.scorer.principals", "courtside")
+            .withProperty("ingest.ratelimit.class.replay.addresses", "10.1.0.0/16,2001:db8::1");
+        resolver = new ClientClassResolver(environment);
+        ReflectionTestUtils.setField(resolver, "clientClasses", List.of("default", "scorer", "replay"));
+        resolver.init();
+    }
+
+    @Test
+    void resolve_KnownApiKey_ShouldGrantItsClass() {
+        assertEquals("scorer", resolver.resolve(null, "scorer-key-2", "192.168.1.5"));
+        assertEquals("default", resolver.resolve(null, "scorer", "192.168.1.5"));
+    }
+
+    @Test
+    void resolve_KnownPrincipal_ShouldGrantItsClass() {
+        Principal principal = () -> "courtside";
+
+        assertEquals("scorer", resolver.resolve(principal, null, null));
+    }
+
+    @Test
+    void resolve_AddressInBlock_ShouldGrantItsClass() {
+        assertEquals("replay", resolver.resolve(null, null, "10.1.200.7"));
+        assertEquals("replay", resolver.resolve(null, null, "2001:db8:0:0:0:0:0:1"));
+        assertEquals("default", resolver.resolve(null, null, "10.2.0.1"));
+        assertEquals("default", resolver.resolve(null, null, "not-an-address"));
+    }
+
+    @Test
+    void resolve_NothingPresented_ShouldUseDefault() {
+        assertEquals(IngestRateLimiter.DEFAULT_CLASS, resolver.resolve(null, null, null));
+    }
+}
@@ -0,0 +1,131 @@
+package hoops.ingestion.services.ratelimit;
+
+import hoops.ingestion.services.ratelimit.RateLimitDecision.Action;
+import hoops.ingestion.services.ratelimit.RateLimitDecision.Scope;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestRateLimiterTest {
+
+    private IngestRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        // Rates are low enough that nothing refills during a test
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("ingest.ratelimit.class.default.session-rate", "0.001")
+            .withProperty("ingest.ratelimit.class.default.session-burst", "5")
+            .withProperty("ingest.ratelimit.class.default.game-rate", "0.001")
+            .withProperty("ingest.ratelimit.class.default.game-burst", "8")
+            .withProperty("ingest.ratelimit.class.replay.session-rate", "0.001")
+            .withProperty("ingest.ratelimit.class.replay.session-burst", "100");
+        rateLimiter = new IngestRateLimiter(environment);
+        ReflectionTestUtils.setField(rateLimiter, "clientClasses", List.of("default", "replay"));
+        ReflectionTestUtils.setField(rateLimiter, "slowDownThreshold", 0.5);
+        ReflectionTestUtils.setField(rateLimiter, "slowDownIntervalMs", 60_000L);
+        rateLimiter.init();
+    }
+
+    @Test
+    void check_SessionOverBurst_ShouldRejectWithRetryAfter() {
+        ConnectionLimiter connection = rateLimiter.newConnection(null);
+
+        for (int i = 0; i < 5; i++) {
+            assertFalse(rateLimiter.check(connection, "g" + i).rejected());
+        }
+        RateLimitDecision decision = rateLimiter.check(connection, "g9");
+
+        assertEquals(Action.REJECT, decision.action());
+        assertEquals(Scope.SESSION, decision.scope());
+        assertTrue(decision.retryAfterMs() > 0);
+    }
+
+    @Test
+    void check_GameBudgetIsSharedAcrossSessionsOfAClass() {
+        ConnectionLimiter first = rateLimiter.newConnection("default");
+        ConnectionLimiter second = rateLimiter.newConnection("unknown-class");
+
+        for (int i = 0; i < 4; i++) {
+            assertFalse(rateLimiter.check(first, "game1").rejected());
+            assertFalse(rateLimiter.check(second, "game1").rejected());
+        }
+
+        RateLimitDecision decision = rateLimiter.check(first, "game1");
+        assertEquals(Action.REJECT, decision.action());
+        assertEquals(Scope.GAME, decision.scope());
+        // Other games and other classes keep their own budgets
+        assertFalse(rateLimiter.check(second, "game2").rejected());
+        assertFalse(rateLimiter.check(rateLimiter.newConnection("replay"), "game1").rejected());
+    }
+
+    @Test
+    void check_GameOverLimit_ShouldNotChargeTheSession() {
+        ConnectionLimiter connection = rateLimiter.newConnection(null);
+        // Other sessions use up the game's burst of 8
+        for (int i = 0; i < 8; i++) {
+            ConnectionLimiter other = rateLimiter.newConnection(null);
+            assertFalse(rateLimiter.check(other, "busy").rejected());
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Scope.GAME, rateLimiter.check(connection, "busy").scope());
+        }
+
+        // The session burst of 5 is still untouched
+        for (int i = 0; i < 5; i++) {
+            assertFalse(rateLimiter.check(connection, "g" + i).rejected());
+        }
+    }
+
+    @Test
+    void check_NearLimit_ShouldSignalSlowDownOncePerInterval() {
+        ConnectionLimiter connection = rateLimiter.newConnection(null);
+
+        assertEquals(Action.ALLOW, rateLimiter.check(connection, "g").action());
+        assertEquals(Action.ALLOW, rateLimiter.check(connection, "g").action());
+        RateLimitDecision slowDown = rateLimiter.check(connection, "g");
+
+        assertEquals(Action.SLOW_DOWN, slowDown.action());
+        assertEquals(Scope.SESSION, slowDown.scope());
+        assertEquals(Action.ALLOW, rateLimiter.check(connection, "g").action());
+    }
+
+    @Test
+    void check_RestCallersAreTrackedByKey() {
+        for (int i = 0; i < 5; i++) {
+            assertFalse(rateLimiter.check("10.0.0.1", null, "g" + i).rejected());
+        }
+
+        assertTrue(rateLimiter.check("10.0.0.1", null, "g9").rejected());
+        assertFalse(rateLimiter.check("10.0.0.2", null, "g9").rejected());
+    }
+
+    @Test
+    void check_Disabled_ShouldAllowEverything() {
+        ReflectionTestUtils.setField(rateLimiter, "enabled", false);
+        ConnectionLimiter connection = rateLimiter.newConnection(null);
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(RateLimitDecision.ALLOW, rateLimiter.check(connection, "g"));
+        }
+    }
+
+    @Test
+    void tokenBucket_ShouldRefillOverTime() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+
+        assertEquals(1.0, bucket.tryAcquire(0));
+        assertEquals(0.0, bucket.tryAcquire(0));
+        assertEquals(-1.0, bucket.tryAcquire(0));
+        assertEquals(100, bucket.millisUntilAvailable(0));
+        // 10 tokens/s: one token after 100 ms, never more than the burst
+        assertEquals(0.0, bucket.tryAcquire(100_000_000L), 1e-9);
+        assertEquals(1.0, bucket.tryAcquire(10_000_000_000L), 1e-9);
+    }
+}
@@ -0,0 +1,89 @@
+package hoops.ingestion.services.reference;
+
+import hoops.common.models.events.GameEvent;
+import hoops.common.models.events.PointsEvent;
+import hoops.ingestion.models.reference.LiveGame;
+import hoops.ingestion.models.reference.PlayerRecord;
+import hoops.ingestion.models.reference.TeamRecord;
+import hoops.ingestion.repositories.reference.ReferenceDataRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataIndexTest {
+
+    private static final Instant T0 = Instant.parse("2024-03-01T00:00:00Z");
+
+    @Mock
+    private ReferenceDataRepository repository;
+
+    @Mock
+    private ObjectProvider<ReferenceDataRepository> repositoryProvider;
+
+    private ReferenceDataIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(repositoryProvider.getIfAvailable()).thenReturn(repository);
+        index = new ReferenceDataIndex(repositoryProvider);
+        ReflectionTestUtils.setField(index, "fullRefreshIntervalMs", 3_600_000L);
+    }
+
+    @Test
+    void check_BeforeFirstLoad_ShouldAcceptEverything() {
+        assertTrue(index.check(event("jt0")).isEmpty());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void refresh_ShouldLoadFullyThenOnlyChangesSinceWatermark() {
+        when(repository.findTeamsUpdatedSince(isNull())).thenReturn(List.of(new TeamRecord("BOS", T0)));
+        when(repository.findPlayersUpdatedSince(isNull())).thenReturn(List.of(new PlayerRecord("jt0", "BOS", true, T0)));
+        when(repository.findTeamsUpdatedSince(T0)).thenReturn(List.of());
+        when(repository.findPlayersUpdatedSince(T0)).thenReturn(List.of(new PlayerRecord("jt0", "BOS", false, T0.plusSeconds(1))));
+        when(repository.findLiveGames()).thenReturn(List.of(new LiveGame("2024030100", "BOS", "NYK")));
+
+        index.refresh();
+        assertTrue(index.check(event("jt0")).isEmpty());
+
+        index.refresh();
+        assertEquals(List.of("Unknown player jt0"), index.check(event("jt0")));
+        verify(repository, times(1)).findPlayersUpdatedSince(isNull());
+        verify(repository, times(1)).findPlayersUpdatedSince(T0);
+        verify(repository, times(2)).findLiveGames();
+    }
+
+    @Test
+    void start_WithoutRepository_ShouldStayDisabled() {
+        when(repositoryProvider.getIfAvailable()).thenReturn(null);
+        ReferenceDataIndex disabled = new ReferenceDataIndex(repositoryProvider);
+
+        disabled.start();
+
+        assertNull(disabled.getSnapshot());
+        assertTrue(disabled.check(event("anyone")).isEmpty());
+    }
+
+    private GameEvent event(String playerId) {
+        PointsEvent event = new PointsEvent();
+        event.setGameId("2024030100");
+        event.setTeamId("BOS");
+        event.setPlayerId(playerId);
+        event.setEvent("point");
+        event.setValue(2.0);
+        event.setVersion(1L);
+        return event;
+    }
+}
@@ -0,0 +1,80 @@
+package hoops.ingestion.services.reference;
+
+import hoops.common.models.events.GameEvent;
+import hoops.common.models.events.PointsEvent;
+import hoops.ingestion.models.reference.LiveGame;
+import hoops.ingestion.models.reference.PlayerRecord;
+import hoops.ingestion.models.reference.TeamRecord;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceDataSnapshotTest {
+
+    private static final Instant T0 = Instant.parse("2024-03-01T00:00:00Z");
+    private static final Instant T1 = Instant.parse("2024-03-01T00:05:00Z");
+
+    private final ReferenceDataSnapshot snapshot = ReferenceDataSnapshot.of(
+        List.of(new TeamRecord("BOS", T0), new TeamRecord("NYK", T0), new TeamRecord("LAL", T0)),
+        List.of(new PlayerRecord("jt0", "BOS", true, T0),
+                new PlayerRecord("jb7", "BOS", true, T0),
+                new PlayerRecord("retired", "BOS", false, T0)),
+        List.of(new LiveGame("2024030100", "BOS", "NYK")));
+
+    @Test
+    void check_ValidEvent_ShouldReturnNoErrors() {
+        assertTrue(snapshot.check(event("2024030100", "BOS", "jt0")).isEmpty());
+    }
+
+    @Test
+    void check_GameNotInProgress_ShouldReject() {
+        assertEquals(List.of("Game 2024030199 is not in progress"),
+            snapshot.check(event("2024030199", "BOS", "jt0")));
+    }
+
+    @Test
+    void check_TeamNotInGame_ShouldReject() {
+        List<String> errors = snapshot.check(event("2024030100", "LAL", "jt0"));
+
+        assertTrue(errors.contains("Team LAL is not playing in game 2024030100"));
+        assertTrue(errors.contains("Player jt0 is not on the roster of team LAL"));
+    }
+
+    @Test
+    void check_UnknownOrInactivePlayer_ShouldReject() {
+        assertEquals(List.of("Unknown player nobody"), snapshot.check(event("2024030100", "BOS", "nobody")));
+        assertEquals(List.of("Unknown player retired"), snapshot.check(event("2024030100", "BOS", "retired")));
+        assertEquals(List.of("Unknown team XYZ"), snapshot.check(event("2024030100", "XYZ", "nobody")).subList(0, 1));
+    }
+
+    @Test
+    void withChanges_ShouldApplyDeltasWithoutTouchingOriginal() {
+        ReferenceDataSnapshot updated = snapshot.withChanges(
+            List.of(),
+            List.of(new PlayerRecord("jt0", "NYK", true, T1), new PlayerRecord("jb7", "BOS", false, T1)),
+            List.of(new LiveGame("2024030101", "LAL", "BOS")));
+
+        assertTrue(updated.check(event("2024030100", "NYK", "jt0")).contains("Game 2024030100 is not in progress"));
+        assertTrue(updated.check(event("2024030101", "NYK", "jt0")).contains("Team NYK is not playing in game 2024030101"));
+        assertEquals(List.of("Unknown player jb7"), updated.check(event("2024030101", "BOS", "jb7")));
+        assertEquals(T1, updated.getPlayersWatermark());
+        assertEquals(T0, updated.getTeamsWatermark());
+
+        assertTrue(snapshot.check(event("2024030100", "BOS", "jt0")).isEmpty());
+        assertEquals(2, snapshot.getPlayerCount());
+    }
+
+    private GameEvent event(String gameId, String teamId, String playerId) {
+        PointsEvent event = new PointsEvent();
+        event.setGameId(gameId);
+        event.setTeamId(teamId);
+        event.setPlayerId(playerId);
+        event.setEvent("point");
+        event.setValue(2.0);
+        event.setVersion(1L);
+        return event;
+    }
+}
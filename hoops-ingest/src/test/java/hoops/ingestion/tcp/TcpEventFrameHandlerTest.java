@@ -0,0 +1,139 @@
+package hoops.ingestion.tcp;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import hoops.common.codec.GameEventCodec;
+import hoops.common.enums.StatType;
+import hoops.common.models.events.GameEvent;
+import hoops.ingestion.services.metrics.IngestMetrics;
+import hoops.ingestion.services.producers.GameEventProducer;
+import hoops.ingestion.services.reference.ReferenceDataIndex;
+import hoops.ingestion.websocket.BinaryEventFrameDecoderTest.FrameBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TcpEventFrameHandlerTest {
+
+    @Mock
+    private GameEventProducer gameEventProducer;
+
+    @Mock
+    private ReferenceDataIndex referenceDataIndex;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TcpEventFrameHandler handler;
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        handler = new TcpEventFrameHandler(new GameEventCodec(new JsonFactory(), true), gameEventProducer,
+                referenceDataIndex, new IngestMetrics(meterRegistry), 64, 3, 1);
+        channel = new EmbeddedChannel(new LengthFieldBasedFrameDecoder(1024, 0, 4, 0, 4), handler);
+    }
+
+    @Test
+    void frameSplitAcrossReads_ShouldBeReassembledAndPublished() {
+        when(gameEventProducer.publishEventAsync(any())).thenReturn(CompletableFuture.completedFuture("1-0"));
+        FrameBuilder frame = new FrameBuilder(2);
+        frame.event(StatType.POINT, 1, 20).newId("2024030100").newId("BOS").newId("jt0");
+        frame.event(StatType.REBOUND, 2, 10).idRef(1).idRef(2).idRef(3);
+        ByteBuf bytes = lengthPrefixed(frame.toBytes());
+
+        channel.writeInbound(bytes.readRetainedSlice(5));
+        verifyNoInteractions(gameEventProducer);
+        channel.writeInbound(bytes.readRetainedSlice(bytes.readableBytes()));
+        bytes.release();
+
+        ArgumentCaptor<GameEvent> events = ArgumentCaptor.forClass(GameEvent.class);
+        verify(gameEventProducer, times(2)).publishEventAsync(events.capture());
+        assertEquals(List.of("point", "rebound"), events.getAllValues().stream().map(GameEvent::getEvent).toList());
+        assertEquals(2.0, meterRegistry.get("ingest.events").tags("transport", "tcp", "outcome", "accepted").counters()
+                .stream().mapToDouble(counter -> counter.count()).sum());
+    }
+
+    @Test
+    void eventsWaitingOnRedis_ShouldPauseAndResumeReads() {
+        List<CompletableFuture<String>> pending = new ArrayList<>();
+        when(gameEventProducer.publishEventAsync(any())).thenAnswer(invocation -> {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        });
+        FrameBuilder frame = new FrameBuilder(3);
+        frame.event(StatType.ASSIST, 1, 10).newId("2024030100").newId("BOS").newId("jt0");
+        frame.event(StatType.ASSIST, 2, 10).idRef(1).idRef(2).idRef(3);
+        frame.event(StatType.ASSIST, 3, 10).idRef(1).idRef(2).idRef(3);
+
+        channel.writeInbound(lengthPrefixed(frame.toBytes()));
+        assertFalse(channel.config().isAutoRead());
+        assertTrue(handler.isPaused());
+
+        pending.get(0).complete("1-0");
+        assertFalse(channel.config().isAutoRead());
+        pending.get(1).complete("2-0");
+        assertTrue(channel.config().isAutoRead());
+        pending.get(2).complete("3-0");
+        assertFalse(handler.isPaused());
+    }
+
+    @Test
+    void producerThrowing_ShouldNotLeaveReadsPaused() {
+        when(gameEventProducer.publishEventAsync(any())).thenThrow(new IllegalStateException("Ingest queue is full"));
+        FrameBuilder frame = new FrameBuilder(3);
+        frame.event(StatType.STEAL, 1, 10).newId("2024030100").newId("BOS").newId("jt0");
+        frame.event(StatType.STEAL, 2, 10).idRef(1).idRef(2).idRef(3);
+        frame.event(StatType.STEAL, 3, 10).idRef(1).idRef(2).idRef(3);
+
+        channel.writeInbound(lengthPrefixed(frame.toBytes()));
+
+        verify(gameEventProducer, times(3)).publishEventAsync(any());
+        assertTrue(channel.config().isAutoRead());
+        assertFalse(handler.isPaused());
+        assertEquals(3.0, meterRegistry.get("ingest.events").tags("transport", "tcp", "outcome", "failed").counters()
+                .stream().mapToDouble(counter -> counter.count()).sum());
+    }
+
+    @Test
+    void invalidEvents_ShouldNotBePublished() {
+        FrameBuilder frame = new FrameBuilder(1);
+        frame.event(StatType.POINT, 1, 50).newId("2024030100").newId("BOS").newId("jt0");
+
+        channel.writeInbound(lengthPrefixed(frame.toBytes()));
+
+        verifyNoInteractions(gameEventProducer);
+        assertTrue(channel.isOpen());
+    }
+
+    @Test
+    void malformedFrame_ShouldCloseTheConnection() {
+        channel.writeInbound(lengthPrefixed(new byte[] {9, 0}));
+
+        assertFalse(channel.isOpen());
+        verifyNoInteractions(gameEventProducer);
+    }
+
+    private static ByteBuf lengthPrefixed(byte[] payload) {
+        ByteBuf buf = Unpooled.buffer(4 + payload.length);
+        buf.writeInt(payload.length);
+        buf.writeBytes(payload);
+        return buf;
+    }
+}
@@ -0,0 +1,190 @@
+package hoops.ingestion.tcp;
+
+import hoops.common.enums.StatType;
+import hoops.common.models.events.GameEvent;
+import hoops.ingestion.config.JacksonConfig;
+import hoops.ingestion.config.WebSocketConfig;
+import hoops.ingestion.constants.WebSocketConstants;
+import hoops.ingestion.services.metrics.IngestMetrics;
+import hoops.ingestion.services.producers.GameEventProducer;
+import hoops.ingestion.services.ratelimit.IngestRateLimiter;
+import hoops.ingestion.services.reference.ReferenceDataIndex;
+import hoops.ingestion.websocket.BinaryEventFrameDecoderTest.FrameBuilder;
+import hoops.ingestion.websocket.GameEventWebSocketHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the raw TCP listener with the binary WebSocket endpoint on the same frames,
+ * from the socket to {@link GameEventProducer#publishEventAsync}. The producer is a stub
+ * that completes at once, so this measures transport, decoding and validation only.
+ * Run with {@code HOOPS_BENCHMARK=true ./gradlew :hoops-ingest:test --tests '*TcpIngestBenchmarkTest'}.
+ */
+@EnabledIfEnvironmentVariable(named = "HOOPS_BENCHMARK", matches = "true")
+@ImportAutoConfiguration({
+        ServletWebServerFactoryAutoConfiguration.class,
+        DispatcherServletAutoConfiguration.class,
+        WebSocketServletAutoConfiguration.class
+})
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = {
+                WebSocketConfig.class,
+                JacksonConfig.class,
+                GameEventWebSocketHandler.class,
+                IngestRateLimiter.class,
+                IngestMetrics.class,
+                TcpIngestServer.class,
+                ReferenceDataIndex.class,
+                TcpIngestBenchmarkTest.TestConfig.class
+        },
+        properties = {"ingest.tcp.enabled=true", "ingest.tcp.port=0", "ingest.ratelimit.enabled=false"}
+)
+class TcpIngestBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(TcpIngestBenchmarkTest.class);
+
+    private static final int FRAMES = 20_000;
+    private static final int EVENTS_PER_FRAME = 50;
+    private static final int EVENTS = FRAMES * EVENTS_PER_FRAME;
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        // A plain stub rather than a Mockito mock, which would record every one of the invocations
+        @Bean
+        public GameEventProducer gameEventProducer() {
+            return new GameEventProducer() {
+                @Override
+                public void publishEvent(GameEvent event) {
+                    PUBLISHED.get().countDown();
+                }
+
+                @Override
+                public CompletableFuture<String> publishEventAsync(GameEvent event) {
+                    PUBLISHED.get().countDown();
+                    return CompletableFuture.completedFuture("1-0");
+                }
+
+                @Override
+                public CompletableFuture<String> publishEventAsync(GameEvent event, Durability durability) {
+                    return publishEventAsync(event);
+                }
+            };
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TcpIngestServer tcpIngestServer;
+
+    private static final AtomicReference<CountDownLatch> PUBLISHED = new AtomicReference<>(new CountDownLatch(0));
+
+    @Test
+    void compareTcpAndWebSocket() throws Exception {
+        List<byte[]> frames = frames();
+
+        // Warm up both paths before measuring
+        run("warm-up tcp", () -> sendTcp(frames.subList(0, FRAMES / 10)), EVENTS / 10);
+        run("warm-up websocket", () -> sendWebSocket(frames.subList(0, FRAMES / 10)), EVENTS / 10);
+
+        run("tcp", () -> sendTcp(frames), EVENTS);
+        run("websocket", () -> sendWebSocket(frames), EVENTS);
+    }
+
+    private void run(String label, Sender sender, int events) throws Exception {
+        CountDownLatch latch = new CountDownLatch(events);
+        PUBLISHED.set(latch);
+        long start = System.nanoTime();
+        sender.send();
+        assertTrue(latch.await(2, TimeUnit.MINUTES), label + " did not publish every event");
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("{}: {} events in {} s = {} events/s", label, events,
+                String.format("%.2f", seconds), String.format("%,.0f", events / seconds));
+    }
+
+    private void sendTcp(List<byte[]> frames) throws Exception {
+        try (Socket socket = new Socket("localhost", tcpIngestServer.getPort());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024))) {
+            for (byte[] frame : frames) {
+                out.writeInt(frame.length);
+                out.write(frame);
+            }
+            out.flush();
+            // Keep the connection open until the server has drained it
+            PUBLISHED.get().await(2, TimeUnit.MINUTES);
+        }
+    }
+
+    private void sendWebSocket(List<byte[]> frames) throws Exception {
+        WebSocket webSocket = HttpClient.newHttpClient().newWebSocketBuilder()
+                .subprotocols(WebSocketConstants.BINARY_SUBPROTOCOL)
+                .buildAsync(URI.create("ws://localhost:" + port + WebSocketConstants.GAME_EVENTS_ENDPOINT),
+                        new WebSocket.Listener() { })
+                .get(10, TimeUnit.SECONDS);
+        for (byte[] frame : frames) {
+            webSocket.sendBinary(ByteBuffer.wrap(frame), true).join();
+        }
+        PUBLISHED.get().await(2, TimeUnit.MINUTES);
+        webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "done").join();
+    }
+
+    /**
+     * The same frames for both transports; ids are defined in each connection's first frame.
+     */
+    private static List<byte[]> frames() {
+        List<byte[]> frames = new ArrayList<>(FRAMES);
+        for (int f = 0; f < FRAMES; f++) {
+            FrameBuilder frame = new FrameBuilder(EVENTS_PER_FRAME);
+            for (int e = 0; e < EVENTS_PER_FRAME; e++) {
+                frame.event(StatType.ASSIST, (long) f * EVENTS_PER_FRAME + e + 1, 10);
+                if (f == 0 && e == 0) {
+                    frame.newId("2024030100").newId("BOS").newId("jt0");
+                } else {
+                    frame.idRef(1).idRef(2).idRef(3);
+                }
+            }
+            frames.add(frame.toBytes());
+        }
+        return frames;
+    }
+
+    @FunctionalInterface
+    private interface Sender {
+        void send() throws Exception;
+    }
+}
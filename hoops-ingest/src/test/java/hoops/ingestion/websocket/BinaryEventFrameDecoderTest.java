@@ -0,0 +1,137 @@
+package hoops.ingestion.websocket;
+
+import hoops.common.enums.StatType;
+import hoops.common.models.events.GameEvent;
+import hoops.common.models.events.MinutesPlayedEvent;
+import hoops.common.models.events.PointsEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryEventFrameDecoderTest {
+
+    @Test
+    void decode_ShouldReadManyEventsAndReuseInternedIds() {
+        FrameBuilder frame = new FrameBuilder(2);
+        frame.event(StatType.POINT, 7, 30).newId("2024030100").newId("BOS").newId("jt0");
+        frame.event(StatType.MINUTES_PLAYED, 8, 245).idRef(1).idRef(2).idRef(3);
+
+        List<GameEvent> events = new BinaryEventFrameDecoder(16).decode(frame.toBuffer());
+
+        assertEquals(2, events.size());
+        GameEvent points = events.get(0);
+        assertInstanceOf(PointsEvent.class, points);
+        assertEquals("point", points.getEvent());
+        assertEquals(7L, points.getVersion());
+        assertEquals("2024030100", points.getGameId());
+        assertEquals("BOS", points.getTeamId());
+        assertEquals("jt0", points.getPlayerId());
+        assertEquals(3.0, points.getValue());
+
+        GameEvent minutes = events.get(1);
+        assertInstanceOf(MinutesPlayedEvent.class, minutes);
+        assertSame(points.getPlayerId(), minutes.getPlayerId());
+        assertEquals(24.5, minutes.getValue());
+    }
+
+    @Test
+    void decode_ShouldKeepIdTableAcrossFrames() {
+        BinaryEventFrameDecoder decoder = new BinaryEventFrameDecoder(16);
+        FrameBuilder first = new FrameBuilder(1);
+        first.event(StatType.REBOUND, 1, 10).newId("g1").newId("BOS").newId("jt0");
+        decoder.decode(first.toBuffer());
+
+        FrameBuilder second = new FrameBuilder(1);
+        second.event(StatType.ASSIST, 2, 10).idRef(1).idRef(2).idRef(3);
+        GameEvent event = decoder.decode(second.toBuffer()).get(0);
+
+        assertEquals("g1", event.getGameId());
+        assertEquals("assist", event.getEvent());
+    }
+
+    @Test
+    void decode_ShouldRejectMalformedFrames() {
+        BinaryEventFrameDecoder decoder = new BinaryEventFrameDecoder(2);
+
+        // Unknown id reference
+        FrameBuilder unknownRef = new FrameBuilder(1);
+        unknownRef.event(StatType.POINT, 1, 20).idRef(5).idRef(1).idRef(1);
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(unknownRef.toBuffer()));
+
+        // Truncated frame
+        assertThrows(IllegalArgumentException.class,
+            () -> decoder.decode(ByteBuffer.wrap(new byte[] {BinaryEventFrameDecoder.FORMAT_VERSION, 1, 0})));
+
+        // Id table overflow
+        FrameBuilder overflow = new FrameBuilder(1);
+        overflow.event(StatType.POINT, 1, 20).newId("a").newId("b").newId("c");
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(overflow.toBuffer()));
+
+        // Unsupported format version
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(ByteBuffer.wrap(new byte[] {9, 0})));
+    }
+
+    /**
+     * Minimal encoder mirroring the layout documented on {@link BinaryEventFrameDecoder}.
+     * Also used by the TCP ingest tests, which carry the same frames.
+     */
+    public static class FrameBuilder {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private long pendingValue;
+        private int idsWritten;
+
+        public FrameBuilder(int eventCount) {
+            out.write(BinaryEventFrameDecoder.FORMAT_VERSION);
+            varint(eventCount);
+        }
+
+        public FrameBuilder event(StatType statType, long version, long valueTenths) {
+            out.write(statType.ordinal());
+            varint(version);
+            pendingValue = valueTenths;
+            idsWritten = 0;
+            return this;
+        }
+
+        public FrameBuilder newId(String id) {
+            byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+            varint(0);
+            varint(bytes.length);
+            out.writeBytes(bytes);
+            return afterId();
+        }
+
+        public FrameBuilder idRef(int reference) {
+            varint(reference);
+            return afterId();
+        }
+
+        public ByteBuffer toBuffer() {
+            return ByteBuffer.wrap(out.toByteArray());
+        }
+
+        public byte[] toBytes() {
+            return out.toByteArray();
+        }
+
+        private FrameBuilder afterId() {
+            if (++idsWritten == 3) {
+                varint(pendingValue);
+            }
+            return this;
+        }
+
+        private void varint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+}
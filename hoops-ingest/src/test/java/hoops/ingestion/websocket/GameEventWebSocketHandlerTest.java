@@ -1,24 +1,38 @@
 package hoops.ingestion.websocket;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.common.enums.StatType;
 import hoops.common.models.events.MinutesPlayedEvent;
 import hoops.common.models.events.PointsEvent;
+import hoops.ingestion.services.metrics.IngestMetrics;
 import hoops.ingestion.services.producers.GameEventProducer;
+import hoops.ingestion.services.ratelimit.IngestRateLimiter;
+import hoops.ingestion.services.reference.ReferenceDataIndex;
 import hoops.ingestion.config.JacksonConfig;
-import jakarta.validation.Validation;
-import jakarta.validation.Validator;
+import hoops.ingestion.constants.WebSocketConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -31,16 +45,25 @@ class GameEventWebSocketHandlerTest {
     
     @Mock
     private WebSocketSession webSocketSession;
+
+    @Mock
+    private ReferenceDataIndex referenceDataIndex;
     
     @Autowired
     private ObjectMapper objectMapper;
     
+    private SimpleMeterRegistry meterRegistry;
+
     private GameEventWebSocketHandler handler;
     
     @BeforeEach
     void setUp() {
-        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
-        handler = new GameEventWebSocketHandler(objectMapper, gameEventProducer, validator);
+        meterRegistry = new SimpleMeterRegistry();
+        IngestRateLimiter rateLimiter = new IngestRateLimiter(new MockEnvironment());
+        rateLimiter.init();
+        handler = new GameEventWebSocketHandler(objectMapper, gameEventProducer, referenceDataIndex,
+            new IngestMetrics(meterRegistry), rateLimiter);
+        lenient().when(webSocketSession.getAttributes()).thenReturn(new HashMap<>());
     }
     
     @Test
@@ -60,13 +83,14 @@ class GameEventWebSocketHandlerTest {
         TextMessage message = new TextMessage(json);
         
         // Configure mock behavior for a valid event
-        doNothing().when(gameEventProducer).publishEvent(any(PointsEvent.class));
+        when(gameEventProducer.publishEventAsync(any(PointsEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture("1-0"));
         
         // Handle the message
         handler.handleTextMessage(webSocketSession, message);
         
         // Verify that the service was called once
-        verify(gameEventProducer, times(1)).publishEvent(any(PointsEvent.class));
+        verify(gameEventProducer, times(1)).publishEventAsync(any(PointsEvent.class));
     }
     
     @Test
@@ -89,7 +113,7 @@ class GameEventWebSocketHandlerTest {
         handler.handleTextMessage(webSocketSession, message);
         
         // Verify that the service was not called
-        verify(gameEventProducer, never()).publishEvent(any());
+        verify(gameEventProducer, never()).publishEventAsync(any());
     }
     
     @Test
@@ -102,7 +126,7 @@ class GameEventWebSocketHandlerTest {
         handler.handleTextMessage(webSocketSession, message);
         
         // Verify that the service was not called
-        verify(gameEventProducer, never()).publishEvent(any());
+        verify(gameEventProducer, never()).publishEventAsync(any());
     }
     
     @Test
@@ -126,7 +150,7 @@ class GameEventWebSocketHandlerTest {
         handler.handleTextMessage(webSocketSession, message);
         
         // Verify that the service was not called
-        verify(gameEventProducer, never()).publishEvent(any());
+        verify(gameEventProducer, never()).publishEventAsync(any());
     }
     
     @Test
@@ -151,7 +175,7 @@ class GameEventWebSocketHandlerTest {
         handler.handleTextMessage(webSocketSession, message);
         
         // Verify that the service was not called
-        verify(gameEventProducer, never()).publishEvent(any());
+        verify(gameEventProducer, never()).publishEventAsync(any());
     }
 
     @Test
@@ -168,12 +192,14 @@ class GameEventWebSocketHandlerTest {
         """;
 
         TextMessage message = new TextMessage(json);
+        when(gameEventProducer.publishEventAsync(any(MinutesPlayedEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture("1-0"));
 
         // Handle the message
         handler.handleTextMessage(webSocketSession, message);
 
         // Verify that the service was called once
-        verify(gameEventProducer, times(1)).publishEvent(any(MinutesPlayedEvent.class));
+        verify(gameEventProducer, times(1)).publishEventAsync(any(MinutesPlayedEvent.class));
     }
 
     @Test
@@ -196,6 +222,105 @@ class GameEventWebSocketHandlerTest {
         handler.handleTextMessage(webSocketSession, message);
 
         // Verify that the service was not called due to invalid value
-        verify(gameEventProducer, never()).publishEvent(any());
+        verify(gameEventProducer, never()).publishEventAsync(any());
+    }
+
+    @Test
+    void testBinaryFrameProcessing() throws Exception {
+        when(webSocketSession.getAcceptedProtocol()).thenReturn(WebSocketConstants.BINARY_SUBPROTOCOL);
+        when(webSocketSession.getAttributes()).thenReturn(new HashMap<>());
+        when(gameEventProducer.publishEventAsync(any())).thenReturn(CompletableFuture.completedFuture("1-0"));
+
+        // Two valid events and one invalid point value (4) in a single frame
+        BinaryEventFrameDecoderTest.FrameBuilder frame = new BinaryEventFrameDecoderTest.FrameBuilder(3);
+        frame.event(StatType.POINT, 1, 30).newId("2024030100").newId("BOS").newId("jt0");
+        frame.event(StatType.MINUTES_PLAYED, 2, 3).idRef(1).idRef(2).idRef(3);
+        frame.event(StatType.POINT, 3, 40).idRef(1).idRef(2).idRef(3);
+
+        handler.handleBinaryMessage(webSocketSession, new BinaryMessage(frame.toBuffer()));
+
+        verify(gameEventProducer, times(1)).publishEventAsync(any(PointsEvent.class));
+        verify(gameEventProducer, times(1)).publishEventAsync(any(MinutesPlayedEvent.class));
+    }
+
+    @Test
+    void testPublishFailureDoesNotPropagateToSocket() throws Exception {
+        String json = """
+            {"gameId":"2024030100","teamId":"BOS","playerId":"jt0","event":"point","value":2,"version":1}""";
+        when(gameEventProducer.publishEventAsync(any(PointsEvent.class)))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Redis down")));
+
+        // The handler only hands the event off; a failed publish is logged, not thrown
+        assertDoesNotThrow(() -> handler.handleTextMessage(webSocketSession, new TextMessage(json)));
+        verify(webSocketSession, never()).close(any(CloseStatus.class));
+    }
+
+    @Test
+    void testBinaryFrameWithoutSubProtocolClosesSession() throws Exception {
+        when(webSocketSession.getAcceptedProtocol()).thenReturn(null);
+
+        handler.handleBinaryMessage(webSocketSession, new BinaryMessage(new byte[] {1, 0}));
+
+        verify(webSocketSession).close(any(CloseStatus.class));
+        verify(gameEventProducer, never()).publishEventAsync(any());
+    }
+
+    @Test
+    void testOutcomesAreCountedByStatType() throws Exception {
+        when(webSocketSession.getId()).thenReturn("s1");
+        when(gameEventProducer.publishEventAsync(any(PointsEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture("1-0"));
+        String valid = """
+            {"gameId":"2024030100","teamId":"BOS","playerId":"jt0","event":"point","value":2,"version":1}""";
+        String invalid = """
+            {"gameId":"2024030100","teamId":"BOS","playerId":"jt0","event":"point","value":4,"version":2}""";
+
+        handler.afterConnectionEstablished(webSocketSession);
+        handler.handleTextMessage(webSocketSession, new TextMessage(valid));
+        handler.handleTextMessage(webSocketSession, new TextMessage(invalid));
+        handler.handleTextMessage(webSocketSession, new TextMessage("{ not json"));
+
+        assertEquals(1.0, eventCount("accepted", "point"));
+        assertEquals(1.0, eventCount("rejected", "point"));
+        assertEquals(1.0, eventCount("rejected", "unknown"));
+        assertEquals(1.0, meterRegistry.get("ingest.websocket.sessions").gauge().value());
+        assertEquals(2L, meterRegistry.get("ingest.validate").timer().count());
+
+        handler.afterConnectionClosed(webSocketSession, CloseStatus.NORMAL);
+        assertEquals(0.0, meterRegistry.get("ingest.websocket.sessions").gauge().value());
+    }
+
+    @Test
+    void testGameOverLimitGetsRejectFrame() throws Exception {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("ingest.ratelimit.class.default.game-rate", "0.001")
+            .withProperty("ingest.ratelimit.class.default.game-burst", "1");
+        IngestRateLimiter rateLimiter = new IngestRateLimiter(environment);
+        ReflectionTestUtils.setField(rateLimiter, "slowDownThreshold", 0.0);
+        rateLimiter.init();
+        handler = new GameEventWebSocketHandler(objectMapper, gameEventProducer, referenceDataIndex,
+            new IngestMetrics(meterRegistry), rateLimiter);
+        when(gameEventProducer.publishEventAsync(any(PointsEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture("1-0"));
+        String json = """
+            {"gameId":"2024030100","teamId":"BOS","playerId":"jt0","event":"point","value":2,"version":%d}""";
+
+        handler.handleTextMessage(webSocketSession, new TextMessage(json.formatted(1)));
+        handler.handleTextMessage(webSocketSession, new TextMessage(json.formatted(2)));
+
+        verify(gameEventProducer, times(1)).publishEventAsync(any(PointsEvent.class));
+        ArgumentCaptor<TextMessage> frame = ArgumentCaptor.forClass(TextMessage.class);
+        verify(webSocketSession).sendMessage(frame.capture());
+        assertTrue(frame.getValue().getPayload().contains("\"type\":\"reject\",\"scope\":\"game\""));
+        assertTrue(frame.getValue().getPayload().contains("\"version\":2"));
+        assertEquals(1.0, eventCount("throttled", "point"));
+        assertEquals(1.0, meterRegistry.get("ingest.ratelimit")
+            .tags("transport", "websocket", "action", "reject", "scope", "game").counter().count());
+    }
+
+    private double eventCount(String outcome, String stat) {
+        return meterRegistry.get("ingest.events")
+            .tags("transport", "websocket", "outcome", outcome, "stat", stat)
+            .counter().count();
     }
-} 
\ No newline at end of file
+}
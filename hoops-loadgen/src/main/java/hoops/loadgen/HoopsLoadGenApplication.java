@@ -0,0 +1,12 @@
+package hoops.loadgen;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class HoopsLoadGenApplication {
+    public static void main(String[] args) {
+        // Exit once the run is over, with a non-zero code if it could not complete
+        System.exit(SpringApplication.exit(SpringApplication.run(HoopsLoadGenApplication.class, args)));
+    }
+}
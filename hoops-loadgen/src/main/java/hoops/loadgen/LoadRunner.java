@@ -0,0 +1,244 @@
+package hoops.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.common.codec.GameEventCodec;
+import hoops.loadgen.client.EventSender;
+import hoops.loadgen.client.RestEventSender;
+import hoops.loadgen.client.WebSocketEventSender;
+import hoops.loadgen.simulation.GameSimulator;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives {@code games} simulated games over {@code sessions} connections at a fixed total rate.
+ * Each session runs on its own virtual thread and owns a fixed subset of the games, so every
+ * game's events arrive in order on one connection, as they would from a real scorer.
+ *
+ * <p>Latency is measured from each event's <em>scheduled</em> send time, not from when the
+ * thread got round to sending it. If the service stalls, the events that should have gone out
+ * meanwhile are charged the stall too, so the percentiles do not hide queueing
+ * (coordinated omission).
+ */
+@Slf4j
+@Component
+public class LoadRunner implements CommandLineRunner, ExitCodeGenerator {
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final GameEventCodec eventCodec;
+
+    @Value("${loadgen.transport:websocket}")
+    private String transport;
+
+    @Value("${loadgen.websocket-url:ws://localhost:8082/ws/game_live_update}")
+    private String websocketUrl;
+
+    @Value("${loadgen.rest-url:http://localhost:8082/api/v1/ingest/event}")
+    private String restUrl;
+
+    // API key that ingest maps to a rate limit class; blank runs as the default class
+    @Value("${loadgen.api-key:}")
+    private String apiKey;
+
+    @Value("${loadgen.rest-async:false}")
+    private boolean restAsync;
+
+    @Value("${loadgen.sessions:8}")
+    private int sessions;
+
+    @Value("${loadgen.games:15}")
+    private int games;
+
+    @Value("${loadgen.rate:1000}")
+    private double rate;
+
+    @Value("${loadgen.duration-seconds:60}")
+    private long durationSeconds;
+
+    @Value("${loadgen.event-count:0}")
+    private long eventCount;
+
+    @Value("${loadgen.warmup-seconds:5}")
+    private long warmupSeconds;
+
+    @Value("${loadgen.seed:42}")
+    private long seed;
+
+    @Value("${loadgen.report-interval-seconds:5}")
+    private long reportIntervalSeconds;
+
+    @Value("${loadgen.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    private final Recorder recorder = new Recorder(3);
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean measuring;
+    private int exitCode;
+
+    public LoadRunner(ObjectMapper objectMapper) {
+        this.eventCodec = new GameEventCodec(objectMapper.getFactory(), true);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        int sessionCount = Math.max(1, Math.min(sessions, games));
+        // Versions above any earlier run's, so ingest does not drop a rerun as duplicates
+        long versionBase = System.currentTimeMillis() * 1000;
+        List<List<GameSimulator>> assignments = new ArrayList<>();
+        for (int session = 0; session < sessionCount; session++) {
+            assignments.add(new ArrayList<>());
+        }
+        for (int game = 0; game < games; game++) {
+            assignments.get(game % sessionCount).add(new GameSimulator(game, seed, versionBase));
+        }
+
+        log.info("Sending {} games over {} {} sessions at {} events/s ({})", games, sessionCount, transport, rate,
+                eventCount > 0 ? eventCount + " events" : durationSeconds + " s");
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(sendTimeoutMs)).build();
+        long start = System.nanoTime();
+        long deadline = eventCount > 0 ? Long.MAX_VALUE : start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long warmupEnd = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+
+        List<Future<?>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int session = 0; session < sessionCount; session++) {
+                long quota = eventCount > 0 ? share(eventCount, sessionCount, session) : Long.MAX_VALUE;
+                List<GameSimulator> sessionGames = assignments.get(session);
+                workers.add(executor.submit(() -> runSession(httpClient, sessionGames, rate / sessionCount,
+                        quota, start, deadline)));
+            }
+
+            Histogram total = report(workers, warmupEnd);
+            printSummary(total, System.nanoTime() - Math.max(start, Math.min(warmupEnd, System.nanoTime())));
+        }
+        exitCode = sent.get() > 0 ? 0 : 1;
+    }
+
+    private Void runSession(HttpClient httpClient, List<GameSimulator> sessionGames, double sessionRate,
+                            long quota, long start, long deadline) throws Exception {
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / sessionRate;
+        try (EventSender sender = newSender(httpClient)) {
+            for (long i = 0; i < quota; i++) {
+                long scheduled = start + (long) (i * intervalNanos);
+                if (scheduled >= deadline) {
+                    break;
+                }
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                GameSimulator game = sessionGames.get(ThreadLocalRandom.current().nextInt(sessionGames.size()));
+                try {
+                    sender.send(eventCodec.encode(game.nextEvent()));
+                    sent.incrementAndGet();
+                    if (measuring) {
+                        recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled));
+                    }
+                } catch (Exception e) {
+                    if (failed.incrementAndGet() == 1) {
+                        log.warn("First send failure: {}", e.toString());
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private EventSender newSender(HttpClient httpClient) {
+        return switch (transport) {
+            case "websocket" -> new WebSocketEventSender(httpClient, URI.create(websocketUrl), apiKey, sendTimeoutMs);
+            case "rest" -> new RestEventSender(httpClient, URI.create(restUrl), apiKey, restAsync, sendTimeoutMs);
+            default -> throw new IllegalArgumentException("Unknown loadgen.transport: " + transport);
+        };
+    }
+
+    /**
+     * Print interval throughput and latency until every session is done.
+     * @return All latencies recorded after the warm-up
+     */
+    private Histogram report(List<Future<?>> workers, long warmupEnd) throws Exception {
+        Histogram total = new Histogram(3);
+        Histogram interval = null;
+        long lastSent = 0;
+        long lastReport = System.nanoTime();
+        measuring = warmupSeconds <= 0;
+        while (!allDone(workers)) {
+            Thread.sleep(POLL_INTERVAL_MS);
+            long now = System.nanoTime();
+            if (!measuring && now >= warmupEnd) {
+                measuring = true;
+                recorder.reset();
+                lastSent = sent.get();
+                lastReport = now;
+                log.info("Warm-up finished, measuring");
+                continue;
+            }
+            if (!measuring || now - lastReport < TimeUnit.SECONDS.toNanos(reportIntervalSeconds)) {
+                continue;
+            }
+
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            long sentNow = sent.get();
+            log.info("{} events/s, p50 {} us, p99 {} us, max {} us, failed {}",
+                    Math.round((sentNow - lastSent) / ((now - lastReport) / 1e9)),
+                    interval.getValueAtPercentile(50), interval.getValueAtPercentile(99),
+                    interval.getMaxValue(), failed.get());
+            lastSent = sentNow;
+            lastReport = now;
+        }
+
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (Exception e) {
+                log.error("Session failed", e.getCause() != null ? e.getCause() : e);
+            }
+        }
+        total.add(recorder.getIntervalHistogram());
+        return total;
+    }
+
+    private void printSummary(Histogram total, long measuredNanos) {
+        log.info("Run complete: sent {}, failed {}", sent.get(), failed.get());
+        log.info("Throughput after warm-up: {} events/s over {} s",
+                Math.round(total.getTotalCount() / Math.max(measuredNanos / 1e9, 1e-9)),
+                String.format("%.1f", measuredNanos / 1e9));
+        log.info("Latency (us): p50 {}, p90 {}, p99 {}, p99.9 {}, max {} ({} samples)",
+                total.getValueAtPercentile(50), total.getValueAtPercentile(90), total.getValueAtPercentile(99),
+                total.getValueAtPercentile(99.9), total.getMaxValue(), total.getTotalCount());
+    }
+
+    private static boolean allDone(List<Future<?>> workers) {
+        return workers.stream().allMatch(Future::isDone);
+    }
+
+    private static long share(long total, int parts, int index) {
+        return total / parts + (index < total % parts ? 1 : 0);
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
@@ -0,0 +1,16 @@
+package hoops.loadgen.client;
+
+/**
+ * One connection to the ingest service. Calls come from a single session thread.
+ */
+public interface EventSender extends AutoCloseable {
+    /**
+     * Send one JSON-encoded event and wait until it has been handed off (WebSocket)
+     * or acknowledged (REST).
+     * @throws Exception if the send fails or times out
+     */
+    void send(String json) throws Exception;
+
+    @Override
+    void close();
+}
@@ -0,0 +1,53 @@
+package hoops.loadgen.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Posts each event to the single-event REST endpoint and waits for the response,
+ * which the service only sends after the event reached Redis. With {@code async} the request
+ * carries {@code Prefer: respond-async} and is answered with 202 at the durability level
+ * configured on the ingest side.
+ */
+public class RestEventSender implements EventSender {
+    private final HttpClient httpClient;
+    private final URI uri;
+    private final Duration timeout;
+    private final String apiKey;
+    private final boolean async;
+
+    public RestEventSender(HttpClient httpClient, URI uri, String apiKey, boolean async, long sendTimeoutMs) {
+        this.httpClient = httpClient;
+        this.uri = uri;
+        this.timeout = Duration.ofMillis(sendTimeoutMs);
+        this.apiKey = apiKey;
+        this.async = async;
+    }
+
+    @Override
+    public void send(String json) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (!apiKey.isBlank()) {
+            request.header(WebSocketEventSender.API_KEY_HEADER, apiKey);
+        }
+        if (async) {
+            request.header("Prefer", "respond-async");
+        }
+        HttpResponse<Void> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Ingest returned HTTP " + response.statusCode());
+        }
+    }
+
+    @Override
+    public void close() {
+        // Connections belong to the shared HttpClient
+    }
+}
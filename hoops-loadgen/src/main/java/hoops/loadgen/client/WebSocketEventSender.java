@@ -0,0 +1,47 @@
+package hoops.loadgen.client;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends events as text messages on one WebSocket session using the JSON sub-protocol.
+ * The ingest handler does not reply, so completion means the frame was written to the socket.
+ */
+public class WebSocketEventSender implements EventSender {
+    private static final String JSON_SUBPROTOCOL = "hoops.events.v1.json";
+    static final String API_KEY_HEADER = "X-Hoops-Api-Key";
+
+    private final WebSocket webSocket;
+    private final long sendTimeoutMs;
+
+    public WebSocketEventSender(HttpClient httpClient, URI uri, String apiKey, long sendTimeoutMs) {
+        WebSocket.Builder builder = httpClient.newWebSocketBuilder()
+                .subprotocols(JSON_SUBPROTOCOL)
+                .connectTimeout(Duration.ofMillis(sendTimeoutMs));
+        if (!apiKey.isBlank()) {
+            builder.header(API_KEY_HEADER, apiKey);
+        }
+        this.webSocket = builder
+                .buildAsync(uri, new WebSocket.Listener() {
+                })
+                .join();
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    @Override
+    public void send(String json) throws Exception {
+        // java.net.http allows one outstanding send per socket, so wait before the next one
+        webSocket.sendText(json, true).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "load run finished")
+                .orTimeout(sendTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(error -> null)
+                .join();
+    }
+}
@@ -0,0 +1,117 @@
+package hoops.loadgen.simulation;
+
+import hoops.common.enums.StatType;
+import hoops.common.models.events.*;
+
+import java.util.Random;
+
+/**
+ * Produces the event stream of one live game: two teams of {@value #ROSTER_SIZE} players and a
+ * stat mix close to a real NBA box score, where points, rebounds and minutes dominate and blocks
+ * and steals are rare. Versions increase per game, starting at {@code versionBase}, so a resent
+ * run is not dropped as duplicates. The same seed always yields the same sequence of stats.
+ * Not thread-safe; each game is driven by one session.
+ */
+public class GameSimulator {
+    static final int ROSTER_SIZE = 10;
+
+    // Relative frequency per 100 events, taken from typical per-game team totals
+    private static final StatType[] MIX = {
+            StatType.POINT, StatType.REBOUND, StatType.ASSIST, StatType.MINUTES_PLAYED,
+            StatType.FOUL, StatType.TURNOVER, StatType.STEAL, StatType.BLOCK
+    };
+    private static final int[] MIX_WEIGHTS = {32, 22, 12, 13, 9, 7, 3, 2};
+    private static final int MIX_TOTAL = 100;
+    private static final double MAX_MINUTES = 48.0;
+
+    private final String gameId;
+    private final String[] teamIds;
+    private final String[][] playerIds;
+    private final double[][] minutesPlayed;
+    private final Random random;
+    private long version;
+
+    /**
+     * @param gameIndex Zero-based game number; also names the game, teams and players
+     * @param seed Seed for the event sequence
+     * @param versionBase First event version minus one
+     */
+    public GameSimulator(int gameIndex, long seed, long versionBase) {
+        String game = String.format("%03d", gameIndex + 1);
+        this.gameId = "LG" + String.format("%07d", gameIndex + 1);
+        this.teamIds = new String[]{"LGH" + game, "LGA" + game};
+        this.playerIds = new String[2][ROSTER_SIZE];
+        this.minutesPlayed = new double[2][ROSTER_SIZE];
+        for (int team = 0; team < 2; team++) {
+            for (int player = 0; player < ROSTER_SIZE; player++) {
+                playerIds[team][player] = teamIds[team] + "P" + player;
+            }
+        }
+        this.random = new Random(seed * 31 + gameIndex);
+        this.version = versionBase;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public GameEvent nextEvent() {
+        int team = random.nextInt(2);
+        int player = random.nextInt(ROSTER_SIZE);
+        StatType statType = pickStat();
+        if (statType == StatType.MINUTES_PLAYED && minutesPlayed[team][player] >= MAX_MINUTES) {
+            statType = StatType.REBOUND;
+        }
+
+        GameEvent event = newEvent(statType);
+        event.setEvent(statType.getValue());
+        event.setGameId(gameId);
+        event.setTeamId(teamIds[team]);
+        event.setPlayerId(playerIds[team][player]);
+        event.setVersion(++version);
+        event.setValue(valueFor(statType, team, player));
+        return event;
+    }
+
+    private StatType pickStat() {
+        int roll = random.nextInt(MIX_TOTAL);
+        for (int i = 0; i < MIX.length; i++) {
+            roll -= MIX_WEIGHTS[i];
+            if (roll < 0) {
+                return MIX[i];
+            }
+        }
+        return MIX[0];
+    }
+
+    private double valueFor(StatType statType, int team, int player) {
+        return switch (statType) {
+            // Two-pointers are the most common make, then threes, then free throws
+            case POINT -> {
+                int roll = random.nextInt(20);
+                yield roll < 11 ? 2.0 : roll < 16 ? 3.0 : 1.0;
+            }
+            // Minutes are reported as the running total, in tenths
+            case MINUTES_PLAYED -> {
+                double total = Math.min(MAX_MINUTES, minutesPlayed[team][player] + (5 + random.nextInt(16)) / 10.0);
+                total = Math.round(total * 10) / 10.0;
+                minutesPlayed[team][player] = total;
+                yield total;
+            }
+            default -> 1.0;
+        };
+    }
+
+    private static GameEvent newEvent(StatType statType) {
+        return switch (statType) {
+            case POINT -> new PointsEvent();
+            case ASSIST -> new AssistsEvent();
+            case REBOUND -> new ReboundsEvent();
+            case STEAL -> new StealsEvent();
+            case BLOCK -> new BlocksEvent();
+            case FOUL -> new FoulsEvent();
+            case TURNOVER -> new TurnoversEvent();
+            case MINUTES_PLAYED -> new MinutesPlayedEvent();
+        };
+    }
+}
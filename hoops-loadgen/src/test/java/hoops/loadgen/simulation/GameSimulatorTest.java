@@ -0,0 +1,57 @@
+package hoops.loadgen.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.common.codec.GameEventCodec;
+import hoops.common.enums.StatType;
+import hoops.common.models.events.GameEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSimulatorTest {
+
+    private final GameEventCodec codec = new GameEventCodec(new ObjectMapper().getFactory(), true);
+
+    @Test
+    void nextEvent_ShouldOnlyProduceValidEvents() throws Exception {
+        GameSimulator simulator = new GameSimulator(0, 42, 0);
+
+        for (int i = 0; i < 20_000; i++) {
+            GameEvent event = simulator.nextEvent();
+            assertEquals(i + 1L, event.getVersion());
+            assertTrue(event.getGameId().length() < 10);
+            assertEquals(List.of(), codec.validate(event), () -> "Invalid event " + event);
+            // Round trip through the same codec ingest uses
+            assertEquals(event.getValue(), codec.decode(codec.encode(event)).getValue());
+        }
+    }
+
+    @Test
+    void nextEvent_ShouldFollowTheStatMix() {
+        GameSimulator simulator = new GameSimulator(3, 7, 1000);
+        Map<StatType, Integer> counts = new EnumMap<>(StatType.class);
+
+        for (int i = 0; i < 10_000; i++) {
+            counts.merge(StatType.fromString(simulator.nextEvent().getEvent()), 1, Integer::sum);
+        }
+
+        assertTrue(counts.get(StatType.POINT) > counts.get(StatType.REBOUND));
+        assertTrue(counts.get(StatType.REBOUND) > counts.get(StatType.ASSIST));
+        assertTrue(counts.get(StatType.STEAL) > counts.get(StatType.BLOCK));
+        assertEquals(8, counts.size());
+    }
+
+    @Test
+    void sameSeed_ShouldProduceSameSequence() {
+        GameSimulator first = new GameSimulator(1, 99, 0);
+        GameSimulator second = new GameSimulator(1, 99, 0);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(first.nextEvent(), second.nextEvent());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package hoops.processor.config;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import hoops.common.jdbc.ConcurrencyLimitedDataSource;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -26,14 +27,34 @@ public class DatabaseConfig {
     @Value("${spring.datasource.password}")
     private String dbPassword;
 
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int maximumPoolSize;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Only applied on virtual threads; platform threads are already bounded by their pool
+    @Value("${db.concurrency.limit:0}")
+    private int concurrencyLimit;
+
+    @Value("${db.concurrency.acquire-timeout-ms:5000}")
+    private long acquireTimeoutMs;
+
     @Bean
     public DataSource dataSource() {
         HikariConfig config = new HikariConfig();
         config.setJdbcUrl(dbUrl);
         config.setUsername(dbUsername);
         config.setPassword(dbPassword);
-        config.setMaximumPoolSize(10);
-        return new HikariDataSource(config);
+        config.setMaximumPoolSize(maximumPoolSize);
+        HikariDataSource pool = new HikariDataSource(config);
+
+        // With virtual threads the request count is no longer bounded by a thread pool,
+        // so queue callers in front of the connection pool instead of inside it
+        if (virtualThreads && concurrencyLimit > 0) {
+            return new ConcurrencyLimitedDataSource(pool, concurrencyLimit, acquireTimeoutMs);
+        }
+        return pool;
     }
 
     @Bean
@@ -1,123 +1,714 @@
 package hoops.processor.consumers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.common.codec.GameEventCodec;
+import hoops.common.codec.GameEventStreamFormat;
 import hoops.common.constants.StreamConstants;
 import hoops.common.models.events.GameEvent;
+import hoops.common.redis.StreamKeyUtil;
+import hoops.processor.infrastructure.metrics.ConsumerMetrics;
+import hoops.processor.infrastructure.redis.DeadLetterStream;
 import hoops.processor.infrastructure.redis.RedisStreamManager;
 import hoops.processor.processors.GameEvent.GameEventProcessor;
+import hoops.processor.services.streamCheckpoints.StreamCheckpointService;
 import io.lettuce.core.StreamMessage;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.models.stream.PendingMessage;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.stereotype.Component;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static hoops.common.constants.StreamConstants.GAME_EVENTS_CONSUMER_GROUP;
 
+/**
+ * Reads game events from the stream partitions with XREADGROUP BLOCK, back to back, on
+ * {@code consumerThreads} dedicated threads. Each thread owns a Redis connection and a fixed
+ * share of the partitions, so every game is still processed in order by a single thread.
+ * An idle reader wakes up every {@code pollTimeoutMs} to check for shutdown; a new event is
+ * read as soon as it is added. Each batch read is stored with a single insert and acknowledged
+ * with one multi-ID XACK, pipelined with the next read. Started and stopped with the
+ * application context.
+ *
+ * <p>With {@code processor.workers} above one, a reader splits each batch by game across a
+ * {@link GameEventWorkerPool}: games run in parallel on all cores while each game's events keep
+ * their order, and the batch is acknowledged once every worker has stored its share.
+ *
+ * <p>Every replica joins the group under its own name ({@code <host>-<pid>} unless
+ * {@code redis.stream.consumer-name} is set), so several processors share the partitions'
+ * entries instead of receiving the same ones. Every {@code reclaimIntervalMs} each reader takes
+ * over entries that have sat unacknowledged for {@code reclaimMinIdleMs} in any consumer, e.g.
+ * one that crashed mid-batch. On shutdown a reader finishes its batch, acknowledges it and leaves
+ * the group; anything it could not acknowledge stays pending for the other replicas to claim.
+ *
+ * <p>Each insert commits the entries' IDs to {@code stream_checkpoints} in the same transaction
+ * (see {@link StreamCheckpointService}). A claimed or retried entry whose ID is already there was
+ * stored by a processor that stopped before acknowledging it, so it is acknowledged without being
+ * stored again; stats are counted once even across crashes.
+ *
+ * <p>An entry that fails is not acknowledged. It stays pending and is claimed again once its
+ * backoff ({@code initialBackoffMs}, doubling per attempt, capped at {@code maxBackoffMs}) has
+ * passed, with Redis' delivery count as the attempt number. After {@code maxAttempts} it is moved
+ * to the {@link DeadLetterStream} with the error and acknowledged; unreadable entries go there
+ * straight away. After {@code maxConsecutiveErrors} failures in a row all readers pause for
+ * {@code pauseMs} and then resume.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class GameEventStreamConsumer {
-    private static final String CONSUMER_GROUP = "game-events-processor";
-    private static final String CONSUMER_NAME = "processor-1";
-
+public class GameEventStreamConsumer implements SmartLifecycle {
     private final GameEventProcessor gameEventProcessor;
     private final ObjectMapper objectMapper;
     private final RedisStreamManager redisStreamManager;
+    private final ConsumerMetrics metrics;
+    private final GameEventWorkerPool workerPool;
+    private final DeadLetterStream deadLetterStream;
+    private final StreamCheckpointService streamCheckpointService;
 
     @Value("${redis.stream.batch-size:100}")
     private int batchSize;
 
+    // Longest a single XREADGROUP blocks; also bounds how long stop() waits for a reader
     @Value("${redis.stream.poll-timeout-ms:1000}")
     private int pollTimeoutMs;
 
     @Value("${redis.stream.max-errors:10}")
     private int maxConsecutiveErrors;
 
-    private int consecutiveErrors = 0;
+    @Value("${redis.stream.partitions:1}")
+    private int partitions;
+
+    // Partitions read by this node, e.g. "0-3"; blank reads all of them
+    @Value("${redis.stream.assigned-partitions:}")
+    private String assignedPartitions;
+
+    // Reader threads; capped at the number of assigned partitions
+    @Value("${redis.stream.consumer-threads:1}")
+    private int consumerThreads;
+
+    // Sleep after a failed read, so an unreachable Redis is not polled in a tight loop
+    @Value("${redis.stream.error-backoff-ms:1000}")
+    private long errorBackoffMs;
+
+    // Identity of this replica in the consumer group; blank uses <host>-<pid>
+    @Value("${redis.stream.consumer-name:}")
+    private String consumerName;
+
+    // How long an entry must sit unacknowledged before another consumer takes it over;
+    // keep it well above the time a batch takes to process
+    @Value("${redis.stream.reclaim.min-idle-ms:60000}")
+    private long reclaimMinIdleMs;
+
+    // How often each reader looks for stalled entries; 0 disables reclaiming
+    @Value("${redis.stream.reclaim.interval-ms:30000}")
+    private long reclaimIntervalMs;
+
+    // Attempts per entry, as counted by Redis deliveries; the last failure goes to the dead-letter stream
+    @Value("${redis.stream.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    // A failed entry stays pending and is retried after initial-backoff-ms, doubling per attempt up to
+    // max-backoff-ms; keep that below reclaim.min-idle-ms so retries stay with the consumer that failed
+    @Value("${redis.stream.retry.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${redis.stream.retry.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    // How often a reader looks for its failed entries that are due again; 0 disables retries
+    @Value("${redis.stream.retry.interval-ms:1000}")
+    private long retryIntervalMs;
+
+    // After max-errors consecutive failures the readers pause this long, then try again
+    @Value("${redis.stream.pause-ms:30000}")
+    private long pauseMs;
+
+    @Value("${redis.stream.consumer.auto-startup:true}")
+    private boolean autoStartup;
+
+    // Readers mostly wait on XREADGROUP, so they follow the service's thread model
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final AtomicInteger consecutiveErrors = new AtomicInteger();
+
+    // End of the current pause in epoch millis, 0 while running normally
+    private final AtomicLong pausedUntil = new AtomicLong();
+
+    private final List<Thread> readers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    private List<String> streams = List.of(StreamConstants.GAME_EVENTS_STREAM);
+
+    private GameEventStreamFormat streamFormat;
 
     @PostConstruct
     public void init() {
-        redisStreamManager.createConsumerGroup(StreamConstants.GAME_EVENTS_STREAM, GAME_EVENTS_CONSUMER_GROUP);
+        // Reads field-per-attribute entries and legacy JSON "data" entries alike; the JSON side is
+        // lenient on unknown fields so newer producers can add properties without breaking us
+        streamFormat = new GameEventStreamFormat(new GameEventCodec(objectMapper.getFactory(), false));
+        streams = StreamKeyUtil.getStreamKeys(assignedPartitions, partitions);
+        for (String stream : streams) {
+            redisStreamManager.createConsumerGroup(stream, GAME_EVENTS_CONSUMER_GROUP);
+        }
+        if (consumerName == null || consumerName.isBlank()) {
+            consumerName = defaultConsumerName();
+        }
+        log.info("Consuming game events from streams {} as {}", streams, consumerName);
     }
 
-    @Scheduled(fixedDelayString = "${redis.stream.poll-interval-ms:1000}")
-    public void processGameEvents() {
-        // If we exceed error threshold, stop processing temporarily
-        if (consecutiveErrors >= maxConsecutiveErrors) {
-            log.error("Too many consecutive errors ({}), pausing stream processing", consecutiveErrors);
+    @Override
+    public synchronized void start() {
+        if (running) {
             return;
         }
-        
+        int threads = Math.max(1, Math.min(consumerThreads, streams.size()));
+        if (consumerThreads > streams.size()) {
+            log.warn("{} consumer threads requested for {} streams, starting {}", consumerThreads, streams.size(), threads);
+        }
+
+        running = true;
+        for (int i = 0; i < threads; i++) {
+            // Partition i, i + threads, i + 2 * threads, ... belong to thread i
+            List<String> owned = new ArrayList<>();
+            for (int s = i; s < streams.size(); s += threads) {
+                owned.add(streams.get(s));
+            }
+            String readerName = threads == 1 ? consumerName : consumerName + "-" + i;
+            Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform();
+            Thread reader = builder.name("stream-consumer-" + i).start(() -> consumeLoop(owned, readerName));
+            readers.add(reader);
+        }
+        log.info("Started {} stream consumer thread(s), batch size {}, block {} ms", threads, batchSize, pollTimeoutMs);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        for (Thread reader : readers) {
+            try {
+                // A reader finishes its current batch; a blocked XREADGROUP returns within pollTimeoutMs
+                reader.join(pollTimeoutMs + 5000L);
+                if (reader.isAlive()) {
+                    log.warn("Stream consumer thread {} did not stop in time", reader.getName());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        readers.clear();
+        log.info("Stopped stream consumer");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return autoStartup;
+    }
+
+    private void consumeLoop(List<String> ownedStreams, String consumerName) {
+        RedisCommands<String, String> commands = null;
+        // Finished entries, acknowledged together with the next read
+        List<StreamMessage<String, String>> unacknowledged = new ArrayList<>();
+        // First pass right away, to pick up what a crashed predecessor left behind
+        long nextReclaim = 0;
+        long nextRetry = 0;
         try {
-            // Read batch of messages
-            List<StreamMessage<String, String>> messages = redisStreamManager.readGroupMessages(
-                    StreamConstants.GAME_EVENTS_STREAM,
+            while (running) {
+                try {
+                    if (commands == null) {
+                        commands = redisStreamManager.connectConsumer();
+                    }
+                } catch (Exception e) {
+                    consecutiveErrors.incrementAndGet();
+                    log.error("Cannot connect stream consumer {}, retrying in {} ms", consumerName, errorBackoffMs, e);
+                    Thread.sleep(errorBackoffMs);
+                    continue;
+                }
+                if (reclaimIntervalMs > 0 && System.currentTimeMillis() >= nextReclaim && !isPaused()) {
+                    reclaimIdleEntries(commands, ownedStreams, consumerName, unacknowledged);
+                    nextReclaim = System.currentTimeMillis() + reclaimIntervalMs;
+                }
+                if (retryIntervalMs > 0 && System.currentTimeMillis() >= nextRetry && !isPaused()) {
+                    retryFailedEntries(commands, ownedStreams, consumerName, unacknowledged);
+                    nextRetry = System.currentTimeMillis() + retryIntervalMs;
+                }
+                if (pollOnce(commands, ownedStreams, consumerName, unacknowledged) < 0) {
+                    Thread.sleep(errorBackoffMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (commands != null) {
+                flushAcknowledgements(commands, unacknowledged);
+                leaveGroup(commands, ownedStreams, consumerName);
+                commands.getStatefulConnection().close();
+            }
+        }
+    }
+
+    /**
+     * Read and process one batch from every assigned stream on the calling thread, on a
+     * connection of its own. For tests and tools running with auto-startup off.
+     * @return Entries read, or -1 if the read failed or processing is paused
+     */
+    public int processGameEvents() {
+        RedisCommands<String, String> commands = redisStreamManager.connectConsumer();
+        List<StreamMessage<String, String>> unacknowledged = new ArrayList<>();
+        try {
+            return pollOnce(commands, streams, consumerName, unacknowledged);
+        } finally {
+            flushAcknowledgements(commands, unacknowledged);
+            commands.getStatefulConnection().close();
+        }
+    }
+
+    /**
+     * Acknowledge the entries finished by the previous call, read the next batch in the same round
+     * trip and process it. Entries finished here are added to {@code unacknowledged}.
+     */
+    private int pollOnce(RedisCommands<String, String> commands, List<String> ownedStreams, String consumerName,
+                         List<StreamMessage<String, String>> unacknowledged) {
+        // If we exceed error threshold, stop processing temporarily
+        if (isPaused()) {
+            flushAcknowledgements(commands, unacknowledged);
+            return -1;
+        }
+
+        List<StreamMessage<String, String>> messages;
+        try {
+            // Read batch of messages; blocks until one arrives or pollTimeoutMs passes
+            messages = redisStreamManager.acknowledgeAndReadGroupMessages(
+                    commands,
+                    unacknowledged,
+                    ownedStreams,
                     GAME_EVENTS_CONSUMER_GROUP,
-                    CONSUMER_NAME,
+                    consumerName,
                     batchSize,
                     pollTimeoutMs
             );
+            unacknowledged.clear();
+        } catch (Exception e) {
+            // Keep the acknowledgements; XACK is idempotent, so they are simply sent again
+            int errors = consecutiveErrors.incrementAndGet();
+            log.error("Error reading from stream, consecutive errors: {}", errors, e);
+            return -1;
+        }
 
-            if (messages == null || messages.isEmpty()) {
-                return;
+        if (messages == null || messages.isEmpty()) {
+            return 0;
+        }
+        processMessages(commands, messages, null, unacknowledged);
+        return messages.size();
+    }
+
+    /**
+     * Circuit breaker over all readers: after {@code maxConsecutiveErrors} failures in a row they stop
+     * for {@code pauseMs}, then the count is reset and processing resumes. Failed entries are still
+     * pending, so nothing is lost while paused.
+     */
+    private boolean isPaused() {
+        if (consecutiveErrors.get() < maxConsecutiveErrors) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        long until = pausedUntil.get();
+        if (until == 0) {
+            if (pausedUntil.compareAndSet(0, now + pauseMs)) {
+                log.error("Too many consecutive errors ({}), pausing stream processing for {} ms",
+                        consecutiveErrors.get(), pauseMs);
+            }
+            return true;
+        }
+        if (now < until) {
+            return true;
+        }
+        if (pausedUntil.compareAndSet(until, 0)) {
+            consecutiveErrors.set(0);
+            log.info("Resuming stream processing after a {} ms pause", pauseMs);
+        }
+        return false;
+    }
+
+    /**
+     * Take over entries of the owned streams that have been pending too long in any consumer,
+     * including this one, and process them like a freshly read batch. Their delivery counts are
+     * looked up first. An entry that has already been delivered {@code maxAttempts} times without
+     * being acknowledged keeps crashing or hanging whoever processes it, so it goes to the
+     * dead-letter stream instead of being run again.
+     */
+    private void reclaimIdleEntries(RedisCommands<String, String> commands, List<String> ownedStreams,
+                                    String consumerName, List<StreamMessage<String, String>> unacknowledged) {
+        for (String stream : ownedStreams) {
+            try {
+                List<StreamMessage<String, String>> claimed = redisStreamManager.claimIdleMessages(
+                        commands, stream, GAME_EVENTS_CONSUMER_GROUP, consumerName, reclaimMinIdleMs, batchSize);
+                if (!claimed.isEmpty()) {
+                    log.warn("Claimed {} entries idle for over {} ms on {}", claimed.size(), reclaimMinIdleMs, stream);
+                    metrics.recordReclaimed(claimed.size());
+                    List<StreamMessage<String, String>> remaining = skipApplied(claimed, unacknowledged);
+                    Map<String, Long> deliveries = redisStreamManager.deliveryCounts(commands, stream,
+                            GAME_EVENTS_CONSUMER_GROUP, consumerName,
+                            remaining.stream().map(StreamMessage::getId).toList());
+                    // XAUTOCLAIM has counted this delivery already, so the count is this attempt's number
+                    Map<String, Integer> attempts = new HashMap<>();
+                    List<StreamMessage<String, String>> due = new ArrayList<>(remaining.size());
+                    for (StreamMessage<String, String> message : remaining) {
+                        int attempt = deliveries.getOrDefault(message.getId(), 1L).intValue();
+                        if (attempt > maxAttempts) {
+                            deadLetter(commands, message, attempt - 1, new IllegalStateException(
+                                    "Not acknowledged after " + (attempt - 1) + " deliveries"), unacknowledged);
+                        } else {
+                            attempts.put(message.getId(), attempt);
+                            due.add(message);
+                        }
+                    }
+                    if (!due.isEmpty()) {
+                        processMessages(commands, due, attempts, unacknowledged);
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Failed to claim idle entries on {}", stream, e);
             }
+        }
+    }
 
-            // Process messages.  In real life I would work in batched
-            for (StreamMessage<String, String> message : messages) {
-                try {
-                    // Check if this is a metadata/init message
-                    if (isMetadataMessage(message.getBody())) {
-                        log.debug("Skipping metadata message: {}", message.getBody());
-                        // Acknowledge metadata message
-                        redisStreamManager.acknowledgeMessage(
-                                StreamConstants.GAME_EVENTS_STREAM,
-                                CONSUMER_GROUP,
-                                message.getId()
-                        );
+    /**
+     * Claim this consumer's failed entries whose backoff has passed and process them again. The
+     * delivery count Redis keeps for each entry is its attempt number, so retries survive restarts.
+     * Entries finished since the last read are still pending until their XACK goes out with the next
+     * one, so they are left out here rather than processed again.
+     */
+    private void retryFailedEntries(RedisCommands<String, String> commands, List<String> ownedStreams,
+                                    String consumerName, List<StreamMessage<String, String>> unacknowledged) {
+        for (String stream : ownedStreams) {
+            try {
+                Set<String> finished = new HashSet<>();
+                for (StreamMessage<String, String> message : unacknowledged) {
+                    if (stream.equals(message.getStream())) {
+                        finished.add(message.getId());
+                    }
+                }
+                List<PendingMessage> pending = redisStreamManager.pendingMessages(
+                        commands, stream, GAME_EVENTS_CONSUMER_GROUP, consumerName, batchSize);
+                Map<Long, List<String>> dueByBackoff = new TreeMap<>();
+                Map<String, Integer> attempts = new HashMap<>();
+                List<String> order = new ArrayList<>();
+                for (PendingMessage entry : pending) {
+                    if (finished.contains(entry.getId())) {
                         continue;
                     }
-                    
-                    // Process actual event
-                    GameEvent event = parseGameEvent(message.getBody());
-                    gameEventProcessor.processEvent(event);
-
-                    // Acknowledge message
-                    redisStreamManager.acknowledgeMessage(
-                            StreamConstants.GAME_EVENTS_STREAM,
-                            CONSUMER_GROUP,
-                            message.getId()
-                    );
-                    
-                    // Reset consecutive errors on success
-                    consecutiveErrors = 0;
-                } catch (Exception e) {
-                    consecutiveErrors++;
-                    log.error("Error processing game event: {}, consecutive errors: {}", 
-                              message, consecutiveErrors, e);
-                    
-                    // Acknowledge the message to prevent endless reprocessing of problematic messages
-                    // In production, you might want to move these to a dead-letter queue instead
-                    redisStreamManager.acknowledgeMessage(
-                            StreamConstants.GAME_EVENTS_STREAM,
-                            CONSUMER_GROUP,
-                            message.getId()
-                    );
+                    long backoff = backoffMs(entry.getRedeliveryCount());
+                    if (entry.getSinceLastDelivery().toMillis() >= backoff) {
+                        dueByBackoff.computeIfAbsent(backoff, key -> new ArrayList<>()).add(entry.getId());
+                        attempts.put(entry.getId(), (int) entry.getRedeliveryCount() + 1);
+                        order.add(entry.getId());
+                    }
+                }
+                if (order.isEmpty()) {
+                    continue;
+                }
+
+                // XCLAIM with the entry's own backoff as min-idle, so an entry another consumer
+                // has just taken is left alone
+                Map<String, StreamMessage<String, String>> claimed = new HashMap<>();
+                dueByBackoff.forEach((backoff, ids) -> redisStreamManager.claimMessages(
+                        commands, stream, GAME_EVENTS_CONSUMER_GROUP, consumerName, backoff, ids)
+                        .forEach(message -> claimed.put(message.getId(), message)));
+                List<StreamMessage<String, String>> retries = new ArrayList<>(claimed.size());
+                for (String id : order) {
+                    if (claimed.containsKey(id)) {
+                        retries.add(claimed.get(id));
+                    }
+                }
+                retries = skipApplied(retries, unacknowledged);
+                if (!retries.isEmpty()) {
+                    log.info("Retrying {} failed entries on {}", retries.size(), stream);
+                    metrics.recordRetried(retries.size());
+                    processMessages(commands, retries, attempts, unacknowledged);
                 }
+            } catch (Exception e) {
+                log.error("Failed to retry pending entries on {}", stream, e);
+            }
+        }
+    }
+
+    /**
+     * Queue redelivered entries whose stats are already stored for acknowledgement without storing
+     * them again. That happens when a processor commits a batch and stops before acknowledging it.
+     * @return The entries still to process
+     */
+    private List<StreamMessage<String, String>> skipApplied(List<StreamMessage<String, String>> messages,
+                                                            List<StreamMessage<String, String>> unacknowledged) {
+        List<StreamMessage<String, String>> applied = streamCheckpointService.findApplied(
+                GAME_EVENTS_CONSUMER_GROUP, messages);
+        if (applied.isEmpty()) {
+            return messages;
+        }
+        log.info("Acknowledging {} redelivered entries that were already applied", applied.size());
+        metrics.recordAlreadyApplied(applied.size());
+        unacknowledged.addAll(applied);
+        List<StreamMessage<String, String>> remaining = new ArrayList<>(messages);
+        remaining.removeAll(applied);
+        return remaining;
+    }
+
+    /**
+     * @return How long an entry that has failed {@code attempts} times waits before the next try
+     */
+    long backoffMs(long attempts) {
+        int doublings = (int) Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(initialBackoffMs << doublings, maxBackoffMs);
+    }
+
+    /**
+     * Parse and store a batch of entries. Stored, skipped and dead-lettered entries are added to
+     * {@code unacknowledged}; failed ones with attempts left stay pending for a retry.
+     * @param attempts Attempt number per entry ID, or null if every entry is on its first attempt
+     */
+    private void processMessages(RedisCommands<String, String> commands, List<StreamMessage<String, String>> messages,
+                                 Map<String, Integer> attempts, List<StreamMessage<String, String>> unacknowledged) {
+        long batchStart = System.nanoTime();
+        List<StreamMessage<String, String>> eventMessages = new ArrayList<>(messages.size());
+        List<GameEvent> events = new ArrayList<>(messages.size());
+        for (StreamMessage<String, String> message : messages) {
+            // Check if this is a metadata/init message
+            if (isMetadataMessage(message.getBody())) {
+                log.debug("Skipping metadata message: {}", message.getBody());
+                unacknowledged.add(message);
+                continue;
+            }
+            try {
+                events.add(parseGameEvent(message.getBody()));
+                eventMessages.add(message);
+            } catch (Exception e) {
+                // Parsing is deterministic, so retrying cannot help
+                deadLetter(commands, message, attemptOf(attempts, message), e, unacknowledged);
+            }
+        }
+
+        if (!events.isEmpty()) {
+            processBatch(commands, eventMessages, events, attempts, unacknowledged);
+        }
+        metrics.recordBatch(batchStart, messages.size());
+    }
+
+    /**
+     * Split the batch by game across the worker pool and wait for every share before the entries
+     * are acknowledged. A share whose worker failed outright is left pending and retried later.
+     * Without a pool the batch is stored on this thread.
+     */
+    private void processBatch(RedisCommands<String, String> commands, List<StreamMessage<String, String>> messages,
+                              List<GameEvent> events, Map<String, Integer> attempts,
+                              List<StreamMessage<String, String>> unacknowledged) {
+        if (!workerPool.isParallel()) {
+            settle(commands, messages, processShard(messages, events), attempts, unacknowledged);
+            return;
+        }
+
+        int workers = workerPool.getWorkers();
+        List<List<StreamMessage<String, String>>> messageShards = new ArrayList<>(workers);
+        List<List<GameEvent>> eventShards = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            messageShards.add(new ArrayList<>());
+            eventShards.add(new ArrayList<>());
+        }
+        for (int i = 0; i < events.size(); i++) {
+            int worker = workerPool.workerFor(events.get(i).getGameId());
+            messageShards.get(worker).add(messages.get(i));
+            eventShards.get(worker).add(events.get(i));
+        }
+
+        List<CompletableFuture<List<Failure>>> shards = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            List<StreamMessage<String, String>> shardMessages = messageShards.get(w);
+            List<GameEvent> shardEvents = eventShards.get(w);
+            if (shardEvents.isEmpty()) {
+                shards.add(null);
+                continue;
+            }
+            try {
+                shards.add(workerPool.submit(w, () -> processShard(shardMessages, shardEvents)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                shards.add(CompletableFuture.completedFuture(processShard(shardMessages, shardEvents)));
+            }
+        }
+
+        for (int w = 0; w < workers; w++) {
+            if (shards.get(w) == null) {
+                continue;
+            }
+            try {
+                settle(commands, messageShards.get(w), shards.get(w).join(), attempts, unacknowledged);
+            } catch (Exception e) {
+                log.error("Worker {} failed on {} game events, leaving them pending", w, eventShards.get(w).size(), e);
+            }
+        }
+    }
+
+    /**
+     * Store a batch (or one worker's share of it) with one insert, committed together with the
+     * entries' checkpoints. If that fails, retry the events one by one so a single bad event cannot
+     * hold back the rest.
+     * @return The entries that could not be stored, with the reason
+     */
+    private List<Failure> processShard(List<StreamMessage<String, String>> messages, List<GameEvent> events) {
+        try {
+            streamCheckpointService.applyOnce(GAME_EVENTS_CONSUMER_GROUP, messages,
+                    () -> gameEventProcessor.processEvents(events));
+            for (StreamMessage<String, String> message : messages) {
+                metrics.recordEventLag(message.getId());
+            }
+            // Reset consecutive errors on success
+            consecutiveErrors.set(0);
+            return List.of();
+        } catch (Exception e) {
+            log.warn("Batch of {} game events failed, processing them one at a time", events.size(), e);
+        }
+
+        List<Failure> failures = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            StreamMessage<String, String> message = messages.get(i);
+            GameEvent event = events.get(i);
+            try {
+                streamCheckpointService.applyOnce(GAME_EVENTS_CONSUMER_GROUP, List.of(message),
+                        () -> gameEventProcessor.processEvent(event));
+                metrics.recordEventLag(message.getId());
+                consecutiveErrors.set(0);
+            } catch (Exception e) {
+                int errors = consecutiveErrors.incrementAndGet();
+                log.error("Error processing game event: {}, consecutive errors: {}", message, errors, e);
+                failures.add(new Failure(message, e));
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Queue the stored entries for acknowledgement. A failed entry with attempts left stays pending
+     * until its backoff passes; on its last attempt it is moved to the dead-letter stream.
+     */
+    private void settle(RedisCommands<String, String> commands, List<StreamMessage<String, String>> messages,
+                        List<Failure> failures, Map<String, Integer> attempts,
+                        List<StreamMessage<String, String>> unacknowledged) {
+        if (failures.isEmpty()) {
+            unacknowledged.addAll(messages);
+            return;
+        }
+        Set<String> failed = new HashSet<>();
+        for (Failure failure : failures) {
+            failed.add(failure.message().getId());
+        }
+        for (StreamMessage<String, String> message : messages) {
+            if (!failed.contains(message.getId())) {
+                unacknowledged.add(message);
+            }
+        }
+        for (Failure failure : failures) {
+            int attempt = attemptOf(attempts, failure.message());
+            if (attempt >= maxAttempts) {
+                deadLetter(commands, failure.message(), attempt, failure.cause(), unacknowledged);
+            } else {
+                log.warn("Game event {} failed on attempt {} of {}, retrying in {} ms",
+                        failure.message().getId(), attempt, maxAttempts, backoffMs(attempt));
+            }
+        }
+    }
+
+    /**
+     * Copy an entry to the dead-letter stream and acknowledge it. If the copy fails the entry stays
+     * pending, so it is tried again rather than lost.
+     */
+    private void deadLetter(RedisCommands<String, String> commands, StreamMessage<String, String> message,
+                            int attempt, Throwable cause, List<StreamMessage<String, String>> unacknowledged) {
+        try {
+            String deadLetterId = deadLetterStream.add(commands, message, attempt, cause);
+            metrics.recordDeadLettered();
+            unacknowledged.add(message);
+            log.error("Moved game event {} to {} as {} after {} attempt(s): {}", message.getId(),
+                    StreamConstants.GAME_EVENTS_DLQ_STREAM, deadLetterId, attempt, cause.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to dead-letter game event {}, it stays pending", message.getId(), e);
+        }
+    }
+
+    private static int attemptOf(Map<String, Integer> attempts, StreamMessage<String, String> message) {
+        return attempts == null ? 1 : attempts.getOrDefault(message.getId(), 1);
+    }
+
+    /**
+     * Acknowledge finished entries without reading, when this reader pauses or stops.
+     */
+    private void flushAcknowledgements(RedisCommands<String, String> commands,
+                                       List<StreamMessage<String, String>> unacknowledged) {
+        if (unacknowledged.isEmpty()) {
+            return;
+        }
+        try {
+            redisStreamManager.acknowledgeMessages(commands, GAME_EVENTS_CONSUMER_GROUP, unacknowledged);
+            unacknowledged.clear();
+        } catch (Exception e) {
+            log.warn("Failed to acknowledge {} entries, they will be delivered again: {}",
+                    unacknowledged.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Leave the group on shutdown. Streams where this consumer still has pending entries keep it
+     * as a member; those entries are claimed by the other replicas after {@code reclaimMinIdleMs}.
+     */
+    private void leaveGroup(RedisCommands<String, String> commands, List<String> ownedStreams, String consumerName) {
+        try {
+            long stillPending = redisStreamManager.removeConsumerIfIdle(
+                    commands, ownedStreams, GAME_EVENTS_CONSUMER_GROUP, consumerName);
+            if (stillPending > 0) {
+                log.warn("Consumer {} stopped with {} entries pending; other consumers will claim them after {} ms",
+                        consumerName, stillPending, reclaimMinIdleMs);
             }
         } catch (Exception e) {
-            consecutiveErrors++;
-            log.error("Error reading from stream, consecutive errors: {}", consecutiveErrors, e);
+            log.warn("Consumer {} could not leave the group: {}", consumerName, e.getMessage());
+        }
+    }
+
+    // The pod name under Kubernetes; the pid tells apart processors sharing a host
+    private static String defaultConsumerName() {
+        String host = System.getenv("HOSTNAME");
+        if (host == null || host.isBlank()) {
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                host = "processor";
+            }
         }
+        return host + "-" + ProcessHandle.current().pid();
     }
 
     private boolean isMetadataMessage(Map<String, String> fields) {
-        // Check if this is a metadata message (no game event data)
-        if (!fields.containsKey("data")) {
+        // Check if this is a metadata message (no game event in either entry format)
+        if (!streamFormat.isGameEvent(fields)) {
             return true;
         }
         
@@ -127,14 +718,13 @@ public class GameEventStreamConsumer {
 
     private GameEvent parseGameEvent(Map<String, String> fields) {
         try {
-            String data = fields.get("data");
-            if (data == null) {
-                throw new IllegalArgumentException("Message does not contain 'data' field");
-            }
-            return objectMapper.readValue(data, GameEvent.class);
+            return streamFormat.fromFields(fields);
         } catch (Exception e) {
             log.error("Error parsing game event: {}", fields, e);
             throw new RuntimeException("Failed to parse game event", e);
         }
     }
-}
\ No newline at end of file
+
+    private record Failure(StreamMessage<String, String> message, Exception cause) {
+    }
+}
@@ -0,0 +1,128 @@
+package hoops.processor.consumers;
+
+import hoops.processor.infrastructure.metrics.ConsumerMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of single-threaded workers, each with a bounded task queue. The stream consumer
+ * routes each event to {@link #workerFor(String)} by game ID, so all events of a game run on one
+ * worker in the order they were submitted while different games run in parallel. A full
+ * queue blocks the submitting reader, which stops it reading ahead of the workers.
+ * With one worker or fewer the pool starts no threads and the consumer processes inline.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GameEventWorkerPool {
+    private final ConsumerMetrics metrics;
+
+    @Value("${processor.workers:1}")
+    private int workers;
+
+    // Tasks (a reader batch's share for one worker) queued per worker before readers block
+    @Value("${processor.worker.queue-capacity:16}")
+    private int queueCapacity;
+
+    // Workers block on the database for most of each task, so they follow the service's thread model
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final List<BlockingQueue<Runnable>> queues = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!isParallel()) {
+            log.info("Processing game events on the reader threads");
+            return;
+        }
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+            queues.add(queue);
+            metrics.registerWorkerQueue(i, queue);
+            Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+            threads.add(builder.name("game-event-worker-" + i).start(() -> workLoop(queue)));
+        }
+        log.info("Started {} game event workers, queue capacity {}", workers, queueCapacity);
+    }
+
+    /**
+     * @return true if events are handed to worker threads, false if the caller should process inline
+     */
+    public boolean isParallel() {
+        return workers > 1;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * @return The worker that owns this game; events without a game ID go to worker 0
+     */
+    public int workerFor(String gameId) {
+        return gameId == null ? 0 : Math.floorMod(gameId.hashCode(), workers);
+    }
+
+    /**
+     * @return Tasks waiting in the worker's queue
+     */
+    public int getQueueDepth(int worker) {
+        return queues.get(worker).size();
+    }
+
+    /**
+     * Queue a task on a worker, waiting while its queue is full.
+     * @return Future completing with the task's result once it has run, or exceptionally with what it threw
+     */
+    public <T> CompletableFuture<T> submit(int worker, Supplier<T> work) throws InterruptedException {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        queues.get(worker).put(() -> {
+            try {
+                result.complete(work.get());
+            } catch (Throwable e) {
+                log.error("Game event worker task failed", e);
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private void workLoop(BlockingQueue<Runnable> queue) {
+        while (running) {
+            try {
+                queue.take().run();
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // The consumer stops before this bean is destroyed, so the queues are already empty
+        running = false;
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        threads.clear();
+    }
+}
@@ -0,0 +1,165 @@
+package hoops.processor.infrastructure.archive;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.StreamMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes stream entries to gzip-compressed NDJSON segment files before they are trimmed
+ * from Redis, one line per entry: {@code {"stream":..., "id":..., "fields":{...}}}.
+ * Segments are named {@code <firstId>_<lastId>.ndjson.gz} under a directory per stream
+ * and only appear once fully written and synced, so a crash never leaves a partial segment.
+ * Fields are copied verbatim, so both field-per-attribute and legacy {@code data} entries
+ * can be replayed through {@link hoops.common.codec.GameEventStreamFormat}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StreamSegmentArchiver {
+    private static final String SEGMENT_SUFFIX = ".ndjson.gz";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${redis.stream.retention.archive-dir:./stream-archive}")
+    private String archiveDir;
+
+    /**
+     * Start a new segment for a stream. Nothing is visible until {@link SegmentWriter#commit()}.
+     */
+    public SegmentWriter openSegment(String stream) throws IOException {
+        Path directory = Paths.get(archiveDir, directoryName(stream));
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, "segment-", ".tmp");
+        return new SegmentWriter(stream, directory, tempFile);
+    }
+
+    /**
+     * Read back every entry of a segment, in stream order.
+     */
+    public List<ArchivedEntry> readSegment(Path segment) throws IOException {
+        List<ArchivedEntry> entries = new ArrayList<>();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(segment));
+             MappingIterator<ArchivedEntry> iterator = objectMapper.readerFor(ArchivedEntry.class).readValues(in)) {
+            while (iterator.hasNextValue()) {
+                entries.add(iterator.nextValue());
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @return Committed segments of a stream, oldest first
+     */
+    public List<Path> listSegments(String stream) throws IOException {
+        Path directory = Paths.get(archiveDir, directoryName(stream));
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (var files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    // Stream keys such as game-events-stream:{3} are not safe file names everywhere
+    private static String directoryName(String stream) {
+        return stream.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    public record ArchivedEntry(String stream, String id, Map<String, String> fields) {
+    }
+
+    public class SegmentWriter implements Closeable {
+        private final String stream;
+        private final Path directory;
+        private final Path tempFile;
+        private final FileOutputStream fileOut;
+        private final GZIPOutputStream gzipOut;
+        private final JsonGenerator generator;
+        private String firstId;
+        private String lastId;
+        private long count;
+        private boolean committed;
+        private boolean closed;
+
+        private SegmentWriter(String stream, Path directory, Path tempFile) throws IOException {
+            this.stream = stream;
+            this.directory = directory;
+            this.tempFile = tempFile;
+            this.fileOut = new FileOutputStream(tempFile.toFile());
+            this.gzipOut = new GZIPOutputStream(fileOut, 64 * 1024);
+            this.generator = objectMapper.getFactory().createGenerator(gzipOut);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        public void write(StreamMessage<String, String> message) throws IOException {
+            if (firstId == null) {
+                firstId = message.getId();
+            }
+            lastId = message.getId();
+            count++;
+            objectMapper.writeValue(generator, new ArchivedEntry(stream, message.getId(), message.getBody()));
+            generator.writeRaw('\n');
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Flush, sync and publish the segment under its final name.
+         * @return The segment path, or null if nothing was written
+         */
+        public Path commit() throws IOException {
+            if (count == 0) {
+                return null;
+            }
+            generator.flush();
+            gzipOut.finish();
+            fileOut.getFD().sync();
+            committed = true;
+            close();
+            Path segment = directory.resolve(firstId + "_" + lastId + SEGMENT_SUFFIX);
+            Files.move(tempFile, segment, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Archived {} entries of {} to {}", count, stream, segment);
+            return segment;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                generator.close();
+                gzipOut.close();
+            } finally {
+                if (!committed) {
+                    Files.deleteIfExists(tempFile);
+                }
+            }
+        }
+    }
+}
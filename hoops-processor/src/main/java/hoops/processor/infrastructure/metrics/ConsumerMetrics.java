@@ -0,0 +1,120 @@
+package hoops.processor.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stream consumer metrics: how long each XREADGROUP batch takes to process and acknowledge,
+ * how large batches are, and how long an event waited between XADD and being processed.
+ * The wait is measured from the millisecond part of the stream entry ID, which Redis
+ * assigns on XADD, so it covers ingest-to-database latency when clocks agree.
+ * Entries taken over from stalled consumers, retried after a failure and moved to the
+ * dead-letter stream are counted separately, as are the cached stats keys invalidated after
+ * each stored batch, and the queue depth of every game event worker is exposed as a gauge.
+ */
+@Component
+public class ConsumerMetrics {
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+    private final Timer eventLagTimer;
+    private final Counter reclaimed;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final Counter alreadyApplied;
+    private final DistributionSummary cacheInvalidation;
+    private final MeterRegistry registry;
+
+    public ConsumerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        batchTimer = Timer.builder("processor.batch")
+                .description("Time to process and acknowledge one XREADGROUP batch")
+                .publishPercentileHistogram()
+                .register(registry);
+        batchSize = DistributionSummary.builder("processor.batch.size")
+                .description("Entries returned by one XREADGROUP")
+                .baseUnit("entries")
+                .register(registry);
+        eventLagTimer = Timer.builder("processor.event.lag")
+                .description("Time from XADD to the event being processed")
+                .publishPercentileHistogram()
+                .register(registry);
+        reclaimed = Counter.builder("processor.reclaimed")
+                .description("Pending entries claimed from idle consumers")
+                .baseUnit("entries")
+                .register(registry);
+        retried = Counter.builder("processor.retried")
+                .description("Failed entries claimed again for another attempt")
+                .baseUnit("entries")
+                .register(registry);
+        deadLettered = Counter.builder("processor.dead.lettered")
+                .description("Entries moved to the dead-letter stream")
+                .baseUnit("entries")
+                .register(registry);
+        alreadyApplied = Counter.builder("processor.already.applied")
+                .description("Redelivered entries acknowledged without storing them again")
+                .baseUnit("entries")
+                .register(registry);
+        cacheInvalidation = DistributionSummary.builder("processor.cache.invalidation")
+                .description("Cached stats keys unlinked per stored batch; the count is the number of UNLINKs")
+                .baseUnit("keys")
+                .register(registry);
+    }
+
+    /**
+     * @param startNanos {@link System#nanoTime()} when processing of the batch began
+     */
+    public void recordBatch(long startNanos, int size) {
+        batchTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        batchSize.record(size);
+    }
+
+    /**
+     * @param entryId Stream entry ID of the processed event, {@code <millis>-<sequence>}
+     */
+    public void recordEventLag(String entryId) {
+        int dash = entryId.indexOf('-');
+        try {
+            long addedAt = Long.parseLong(dash < 0 ? entryId : entryId.substring(0, dash));
+            eventLagTimer.record(Math.max(0, System.currentTimeMillis() - addedAt), TimeUnit.MILLISECONDS);
+        } catch (NumberFormatException e) {
+            // Not a server-assigned ID; nothing to measure
+        }
+    }
+
+    public void recordReclaimed(int entries) {
+        reclaimed.increment(entries);
+    }
+
+    public void recordRetried(int entries) {
+        retried.increment(entries);
+    }
+
+    public void recordDeadLettered() {
+        deadLettered.increment();
+    }
+
+    public void recordAlreadyApplied(int entries) {
+        alreadyApplied.increment(entries);
+    }
+
+    public void recordCacheInvalidation(int keys) {
+        cacheInvalidation.record(keys);
+    }
+
+    /**
+     * Expose a worker's queue depth as {@code processor.worker.queue.depth{worker=N}}.
+     */
+    public void registerWorkerQueue(int worker, Collection<?> queue) {
+        Gauge.builder("processor.worker.queue.depth", queue, Collection::size)
+                .description("Tasks waiting for a game event worker")
+                .tag("worker", Integer.toString(worker))
+                .register(registry);
+    }
+}
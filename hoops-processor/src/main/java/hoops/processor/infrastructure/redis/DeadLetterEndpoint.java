@@ -0,0 +1,50 @@
+package hoops.processor.infrastructure.redis;
+
+import hoops.common.constants.StreamConstants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the dead-letter stream. It has no authentication of its own, so it is
+ * disabled by default and meant to be exposed only on the internal management port.
+ * <pre>
+ * GET  /actuator/deadletters                     -> {"stream":"game-events-dlq","length":3}
+ * POST /actuator/deadletters {"limit":100}       -> {"replayed":3,"remaining":0}
+ * </pre>
+ */
+@Component
+@Endpoint(id = "deadletters", enableByDefault = false)
+@RequiredArgsConstructor
+public class DeadLetterEndpoint {
+    private static final int DEFAULT_REPLAY_LIMIT = 100;
+
+    private final DeadLetterStream deadLetterStream;
+
+    @ReadOperation
+    public Map<String, Object> length() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("stream", StreamConstants.GAME_EVENTS_DLQ_STREAM);
+        result.put("length", deadLetterStream.size());
+        return result;
+    }
+
+    /**
+     * Move the oldest dead-letter entries back to their source streams.
+     * @param limit Most entries to replay, 100 if omitted
+     */
+    @WriteOperation
+    public Map<String, Object> replay(@Nullable Integer limit) {
+        int replayed = deadLetterStream.replay(limit == null ? DEFAULT_REPLAY_LIMIT : limit);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("replayed", replayed);
+        result.put("remaining", deadLetterStream.size());
+        return result;
+    }
+}
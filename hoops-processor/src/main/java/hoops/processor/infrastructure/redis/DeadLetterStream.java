@@ -0,0 +1,140 @@
+package hoops.processor.infrastructure.redis;
+
+import hoops.common.constants.StreamConstants;
+import io.lettuce.core.Limit;
+import io.lettuce.core.Range;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.XAddArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The dead-letter stream, {@value StreamConstants#GAME_EVENTS_DLQ_STREAM}. An entry that still
+ * fails after its last retry is copied here with its original fields plus where it came from and
+ * why it failed, and is then acknowledged on its source stream. {@link #replay(int)} moves entries
+ * back to their source stream as new entries, e.g. once the bug or outage behind them is fixed.
+ * The stream is capped at about {@code maxLength} entries; beyond that the oldest are dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeadLetterStream {
+    public static final String SOURCE_STREAM_FIELD = "dlq.stream";
+    public static final String SOURCE_ID_FIELD = "dlq.id";
+    public static final String ATTEMPTS_FIELD = "dlq.attempts";
+    public static final String ERROR_FIELD = "dlq.error";
+    public static final String FAILED_AT_FIELD = "dlq.failed-at";
+
+    private static final String FIELD_PREFIX = "dlq.";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    // KEYS: source stream, dead-letter stream; ARGV: dead-letter entry ID, then field/value pairs.
+    // A failed XADD aborts the script before the XDEL, and no other client sees one without the other
+    private static final String MOVE_SCRIPT = """
+            local id = redis.call('XADD', KEYS[1], '*', unpack(ARGV, 2))
+            redis.call('XDEL', KEYS[2], ARGV[1])
+            return id
+            """;
+
+    private final RedisClient redisClient;
+
+    // Approximate cap (XADD MAXLEN ~); 0 keeps every entry
+    @Value("${redis.stream.dlq.max-length:100000}")
+    private long maxLength = 100_000;
+
+    /**
+     * Copy a failed entry to the dead-letter stream on the caller's connection.
+     * @return ID of the dead-letter entry
+     */
+    public String add(RedisCommands<String, String> commands, StreamMessage<String, String> message,
+                      int attempts, Throwable cause) {
+        Map<String, String> fields = new LinkedHashMap<>(message.getBody());
+        fields.put(SOURCE_STREAM_FIELD, message.getStream());
+        fields.put(SOURCE_ID_FIELD, message.getId());
+        fields.put(ATTEMPTS_FIELD, Integer.toString(attempts));
+        fields.put(ERROR_FIELD, describe(cause));
+        fields.put(FAILED_AT_FIELD, Instant.now().toString());
+        if (maxLength <= 0) {
+            return commands.xadd(StreamConstants.GAME_EVENTS_DLQ_STREAM, fields);
+        }
+        return commands.xadd(StreamConstants.GAME_EVENTS_DLQ_STREAM,
+                XAddArgs.Builder.maxlen(maxLength).approximateTrimming(), fields);
+    }
+
+    /**
+     * @return Entries currently in the dead-letter stream
+     */
+    public long size() {
+        try (StatefulRedisConnection<String, String> connection = redisClient.connect()) {
+            return connection.sync().xlen(StreamConstants.GAME_EVENTS_DLQ_STREAM);
+        }
+    }
+
+    /**
+     * Move up to {@code limit} of the oldest dead-letter entries back to their source streams,
+     * without the {@code dlq.*} fields. Each entry is re-added and deleted from the dead-letter
+     * stream in one script, so a failure part way neither loses nor duplicates one.
+     * @return Entries replayed
+     */
+    public int replay(int limit) {
+        try (StatefulRedisConnection<String, String> connection = redisClient.connect()) {
+            RedisCommands<String, String> commands = connection.sync();
+            List<StreamMessage<String, String>> entries = commands.xrange(
+                    StreamConstants.GAME_EVENTS_DLQ_STREAM, Range.create("-", "+"), Limit.from(limit));
+
+            int replayed = 0;
+            for (StreamMessage<String, String> entry : entries) {
+                String source = entry.getBody().get(SOURCE_STREAM_FIELD);
+                if (source == null) {
+                    log.warn("Dead-letter entry {} has no source stream, leaving it", entry.getId());
+                    continue;
+                }
+                Map<String, String> fields = new LinkedHashMap<>();
+                entry.getBody().forEach((name, value) -> {
+                    if (!name.startsWith(FIELD_PREFIX)) {
+                        fields.put(name, value);
+                    }
+                });
+                String newId = move(commands, source, entry.getId(), fields);
+                log.info("Replayed dead-letter entry {} (originally {}) to {} as {}",
+                        entry.getId(), entry.getBody().get(SOURCE_ID_FIELD), source, newId);
+                replayed++;
+            }
+            return replayed;
+        }
+    }
+
+    private String move(RedisCommands<String, String> commands, String source, String deadLetterId,
+                        Map<String, String> fields) {
+        List<String> args = new ArrayList<>(1 + fields.size() * 2);
+        args.add(deadLetterId);
+        fields.forEach((name, value) -> {
+            args.add(name);
+            args.add(value);
+        });
+        return commands.eval(MOVE_SCRIPT, ScriptOutputType.VALUE,
+                new String[] {source, StreamConstants.GAME_EVENTS_DLQ_STREAM}, args.toArray(String[]::new));
+    }
+
+    // Innermost cause, which names the actual problem rather than the layers that wrapped it
+    private static String describe(Throwable cause) {
+        Throwable root = cause;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String text = root.getClass().getName() + ": " + root.getMessage();
+        return text.length() > MAX_ERROR_LENGTH ? text.substring(0, MAX_ERROR_LENGTH) : text;
+    }
+}
@@ -1,13 +1,23 @@
 package hoops.processor.infrastructure.redis;
 
 import io.lettuce.core.*;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.models.stream.ClaimedMessages;
+import io.lettuce.core.models.stream.PendingMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
@@ -69,31 +79,259 @@ public class RedisStreamManager {
             String consumer,
             int count,
             long blockMillis
+    ) {
+        return readGroupMessages(List.of(stream), group, consumer, count, blockMillis);
+    }
+
+    /**
+     * Read new messages for this consumer from several streams (partitions) in one XREADGROUP
+     */
+    public List<StreamMessage<String, String>> readGroupMessages(
+            List<String> streams,
+            String group,
+            String consumer,
+            int count,
+            long blockMillis
+    ) {
+        return readGroupMessages(getCommands(), streams, group, consumer, count, blockMillis);
+    }
+
+    /**
+     * Open a connection for one consumer thread. XREADGROUP BLOCK holds its connection until it
+     * returns, so blocking readers must not share the manager's connection or each other's.
+     * The caller closes it with {@code commands.getStatefulConnection().close()}.
+     */
+    public RedisCommands<String, String> connectConsumer() {
+        return redisClient.connect().sync();
+    }
+
+    /**
+     * Read new messages for this consumer on the given connection. Naming every partition in one
+     * XREADGROUP needs a standalone Redis: on Redis Cluster the partitions' hash tags put them in
+     * different slots, and the command would be rejected with CROSSSLOT.
+     */
+    public List<StreamMessage<String, String>> readGroupMessages(
+            RedisCommands<String, String> commands,
+            List<String> streams,
+            String group,
+            String consumer,
+            int count,
+            long blockMillis
     ) {
         try {
-            return getCommands().xreadgroup(
+            return commands.xreadgroup(
                     io.lettuce.core.Consumer.from(group, consumer),
                     XReadArgs.Builder.count(count).block(blockMillis),
-                    XReadArgs.StreamOffset.from(stream, ">")
+                    newMessageOffsets(streams)
             );
         } catch (Exception e) {
             if (e.getMessage() != null && e.getMessage().contains("NOGROUP")) {
                 log.info("Consumer group {} doesn't exist - creating it", group);
-                createConsumerGroup(stream, group);
+                for (String stream : streams) {
+                    createConsumerGroup(stream, group);
+                }
 
                 // Try reading again after creating the group
-                return getCommands().xreadgroup(
+                return commands.xreadgroup(
                         io.lettuce.core.Consumer.from(group, consumer),
-                        XReadArgs.Builder.count(count).block(0),
-                        XReadArgs.StreamOffset.from(stream, ">")
+                        XReadArgs.Builder.count(count).block(blockMillis),
+                        newMessageOffsets(streams)
                 );
             }
-            log.error("Error reading from consumer group: {} for stream: {}", group, stream, e);
+            log.error("Error reading from consumer group: {} for streams: {}", group, streams, e);
             throw e;
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private XReadArgs.StreamOffset<String>[] newMessageOffsets(List<String> streams) {
+        XReadArgs.StreamOffset<String>[] offsets = new XReadArgs.StreamOffset[streams.size()];
+        for (int i = 0; i < streams.size(); i++) {
+            offsets[i] = XReadArgs.StreamOffset.from(streams.get(i), ">");
+        }
+        return offsets;
+    }
+
     public void acknowledgeMessage(String stream, String group, String messageId) {
-        getCommands().xack(stream, group, messageId);
+        acknowledgeMessage(getCommands(), stream, group, messageId);
+    }
+
+    public void acknowledgeMessage(RedisCommands<String, String> commands, String stream, String group, String messageId) {
+        commands.xack(stream, group, messageId);
+    }
+
+    /**
+     * Acknowledge a processed batch with one multi-ID XACK per stream. All XACKs are written
+     * before any reply is awaited, so a batch spanning several partitions costs one round trip.
+     * @return Number of entries Redis acknowledged
+     */
+    public long acknowledgeMessages(RedisCommands<String, String> commands, String group,
+                                    List<StreamMessage<String, String>> messages) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        return awaitAcknowledgements(commands, sendAcknowledgements(commands, group, messages));
+    }
+
+    /**
+     * Acknowledge the previous batch and read the next one in a single round trip: the XACKs are
+     * pipelined ahead of the XREADGROUP on the same connection and Redis applies them before it
+     * starts blocking. A failed acknowledgement is logged rather than thrown, so the entries just
+     * read are never dropped; the unacknowledged ones stay pending and are delivered again.
+     * If the read itself fails the caller should resend {@code acknowledge}, XACK is idempotent.
+     */
+    public List<StreamMessage<String, String>> acknowledgeAndReadGroupMessages(
+            RedisCommands<String, String> commands,
+            List<StreamMessage<String, String>> acknowledge,
+            List<String> streams,
+            String group,
+            String consumer,
+            int count,
+            long blockMillis
+    ) {
+        List<RedisFuture<Long>> acks = sendAcknowledgements(commands, group, acknowledge);
+        List<StreamMessage<String, String>> messages = readGroupMessages(commands, streams, group, consumer, count, blockMillis);
+        try {
+            awaitAcknowledgements(commands, acks);
+        } catch (Exception e) {
+            log.warn("Failed to acknowledge {} entries in group {}: {}", acknowledge.size(), group, e.getMessage());
+        }
+        return messages;
+    }
+
+    private List<RedisFuture<Long>> sendAcknowledgements(RedisCommands<String, String> commands, String group,
+                                                         List<StreamMessage<String, String>> messages) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+        Map<String, List<String>> idsByStream = new LinkedHashMap<>();
+        for (StreamMessage<String, String> message : messages) {
+            idsByStream.computeIfAbsent(message.getStream(), stream -> new ArrayList<>()).add(message.getId());
+        }
+
+        RedisAsyncCommands<String, String> async = commands.getStatefulConnection().async();
+        List<RedisFuture<Long>> acks = new ArrayList<>(idsByStream.size());
+        idsByStream.forEach((stream, ids) -> acks.add(async.xack(stream, group, ids.toArray(String[]::new))));
+        return acks;
+    }
+
+    private long awaitAcknowledgements(RedisCommands<String, String> commands, List<RedisFuture<Long>> acks) {
+        Duration timeout = commands.getStatefulConnection().getTimeout();
+        long acknowledged = 0;
+        for (RedisFuture<Long> ack : acks) {
+            acknowledged += LettuceFutures.awaitOrCancel(ack, timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return acknowledged;
+    }
+
+    /**
+     * Take over entries that have been pending in the group for at least {@code minIdleMs}, whichever
+     * consumer they were delivered to, with XAUTOCLAIM. Scans the pending list from the start and
+     * stops after {@code count} entries. Entries trimmed from the stream meanwhile are dropped from
+     * the pending list by Redis and not returned.
+     */
+    public List<StreamMessage<String, String>> claimIdleMessages(
+            RedisCommands<String, String> commands,
+            String stream,
+            String group,
+            String consumer,
+            long minIdleMs,
+            int count
+    ) {
+        List<StreamMessage<String, String>> claimed = new ArrayList<>();
+        String cursor = "0-0";
+        do {
+            ClaimedMessages<String, String> page = commands.xautoclaim(stream, XAutoClaimArgs.Builder
+                    .<String>xautoclaim(io.lettuce.core.Consumer.from(group, consumer), minIdleMs, cursor)
+                    .count(count - claimed.size()));
+            for (StreamMessage<String, String> message : page.getMessages()) {
+                if (message.getBody() != null) {
+                    claimed.add(message);
+                }
+            }
+            cursor = page.getId();
+        } while (!"0-0".equals(cursor) && claimed.size() < count);
+        return claimed;
+    }
+
+    /**
+     * Remove a consumer from the group on every stream where it has nothing pending (XPENDING, then
+     * XGROUP DELCONSUMER), so replicas that come and go do not pile up in the group.
+     * @return Entries still pending for the consumer; other consumers claim them once they are idle
+     */
+    public long removeConsumerIfIdle(RedisCommands<String, String> commands, List<String> streams,
+                                     String group, String consumer) {
+        long stillPending = 0;
+        for (String stream : streams) {
+            Long pending = commands.xpending(stream, group).getConsumerMessageCount().get(consumer);
+            if (pending == null || pending == 0) {
+                commands.xgroupDelconsumer(stream, io.lettuce.core.Consumer.from(group, consumer));
+            } else {
+                stillPending += pending;
+            }
+        }
+        return stillPending;
+    }
+
+    /**
+     * Entries delivered to a consumer and not yet acknowledged, oldest first, with their delivery
+     * counts and the time since their last delivery (extended XPENDING).
+     */
+    public List<PendingMessage> pendingMessages(RedisCommands<String, String> commands, String stream,
+                                                String group, String consumer, int count) {
+        return commands.xpending(stream, io.lettuce.core.Consumer.from(group, consumer),
+                Range.create("-", "+"), Limit.from(count));
+    }
+
+    /**
+     * Delivery counts of specific entries pending for a consumer, read with extended XPENDING over
+     * the ID range they span, a page at a time.
+     * @param ids Entry IDs in ascending order, e.g. as XAUTOCLAIM returned them
+     * @return Delivery count per entry ID; entries that are no longer pending are left out
+     */
+    public Map<String, Long> deliveryCounts(RedisCommands<String, String> commands, String stream, String group,
+                                            String consumer, List<String> ids) {
+        Map<String, Long> counts = new HashMap<>();
+        if (ids.isEmpty()) {
+            return counts;
+        }
+        Set<String> wanted = new HashSet<>(ids);
+        Range.Boundary<String> lower = Range.Boundary.including(ids.get(0));
+        Range.Boundary<String> upper = Range.Boundary.including(ids.get(ids.size() - 1));
+        while (true) {
+            // The range can also hold other entries pending for the consumer, hence the paging
+            List<PendingMessage> page = commands.xpending(stream, io.lettuce.core.Consumer.from(group, consumer),
+                    Range.from(lower, upper), Limit.from(ids.size()));
+            for (PendingMessage entry : page) {
+                if (wanted.contains(entry.getId())) {
+                    counts.put(entry.getId(), entry.getRedeliveryCount());
+                }
+            }
+            if (page.size() < ids.size() || counts.size() == wanted.size()) {
+                return counts;
+            }
+            lower = Range.Boundary.excluding(page.get(page.size() - 1).getId());
+        }
+    }
+
+    /**
+     * Claim specific entries with XCLAIM, which also counts a new delivery. An entry is only
+     * claimed if it is still idle for {@code minIdleMs}, so two consumers never both take it.
+     * Entries trimmed from the stream meanwhile are not returned.
+     */
+    public List<StreamMessage<String, String>> claimMessages(RedisCommands<String, String> commands, String stream,
+                                                             String group, String consumer, long minIdleMs,
+                                                             List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<StreamMessage<String, String>> claimed = new ArrayList<>(ids.size());
+        for (StreamMessage<String, String> message : commands.xclaim(
+                stream, io.lettuce.core.Consumer.from(group, consumer), minIdleMs, ids.toArray(String[]::new))) {
+            if (message.getBody() != null) {
+                claimed.add(message);
+            }
+        }
+        return claimed;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,234 @@
+package hoops.processor.infrastructure.redis;
+
+import hoops.common.redis.StreamKeyUtil;
+import hoops.processor.infrastructure.archive.StreamSegmentArchiver;
+import hoops.processor.infrastructure.archive.StreamSegmentArchiver.SegmentWriter;
+import io.lettuce.core.Limit;
+import io.lettuce.core.Range;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.XTrimArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.models.stream.PendingMessages;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Periodically removes game event stream entries that every consumer group has acknowledged.
+ * The trim point is the oldest entry still pending in any group (or just past the last
+ * delivered entry when nothing is pending), and never later than {@code minAgeMs} ago, so
+ * recent history stays available in Redis. With archiving on, the entries are written to a
+ * compressed segment first and trimmed exactly; otherwise trimming is approximate.
+ * Uses its own connection, since the consumer's connection sits in blocking reads.
+ * Every processor replica runs the schedule, so each stream is guarded by a lease key
+ * (SET NX PX for one trim interval): only the replica that takes it trims that stream.
+ * Retention lives here rather than as MAXLEN on the ingest side, because only this side
+ * knows which entries have been acknowledged.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StreamRetentionTrimmer {
+    private final RedisClient redisClient;
+    private final StreamSegmentArchiver archiver;
+
+    @Value("${redis.stream.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${redis.stream.retention.min-age-ms:3600000}")
+    private long minAgeMs;
+
+    @Value("${redis.stream.retention.archive-enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${redis.stream.retention.page-size:1000}")
+    private int pageSize;
+
+    @Value("${redis.stream.partitions:1}")
+    private int partitions;
+
+    @Value("${redis.stream.assigned-partitions:}")
+    private String assignedPartitions;
+
+    // Also the lease length, so a stream is trimmed by one replica per interval
+    @Value("${redis.stream.retention.trim-interval-ms:60000}")
+    private long trimIntervalMs;
+
+    private final String leaseOwner = UUID.randomUUID().toString();
+
+    private List<String> streams;
+    private StatefulRedisConnection<String, String> connection;
+
+    @PostConstruct
+    public void init() {
+        streams = StreamKeyUtil.getStreamKeys(assignedPartitions, partitions);
+    }
+
+    @Scheduled(fixedDelayString = "${redis.stream.retention.trim-interval-ms:60000}",
+            initialDelayString = "${redis.stream.retention.trim-interval-ms:60000}")
+    public void trimAll() {
+        if (!enabled) {
+            return;
+        }
+        for (String stream : streams) {
+            try {
+                if (!acquireLease(stream)) {
+                    log.debug("Another processor holds the trim lease for {}", stream);
+                    continue;
+                }
+                trimStream(stream);
+            } catch (Exception e) {
+                log.error("Failed to trim stream {}", stream, e);
+            }
+        }
+    }
+
+    /**
+     * Take this interval's trim lease for a stream. The lease is not released after trimming,
+     * so other replicas skip the stream until it expires.
+     * @return true if this replica may trim the stream now
+     */
+    boolean acquireLease(String stream) {
+        String reply = getCommands().set(leaseKey(stream), leaseOwner, SetArgs.Builder.nx().px(trimIntervalMs));
+        return "OK".equals(reply);
+    }
+
+    /**
+     * The lease key shares the stream's hash tag, so on a cluster it lives in the same slot.
+     */
+    static String leaseKey(String stream) {
+        return stream + ":trim-lease";
+    }
+
+    /**
+     * Archive (if enabled) and trim the acknowledged entries of one stream.
+     * @return Number of entries removed from Redis
+     */
+    public long trimStream(String stream) throws IOException {
+        RedisCommands<String, String> commands = getCommands();
+        String boundary = findAcknowledgedBoundary(commands, stream);
+        if (boundary == null) {
+            return 0;
+        }
+        String ageBoundary = (System.currentTimeMillis() - minAgeMs) + "-0";
+        if (compareIds(ageBoundary, boundary) < 0) {
+            boundary = ageBoundary;
+        }
+
+        if (archiveEnabled && archive(commands, stream, boundary) == 0) {
+            return 0;
+        }
+
+        // Exact trimming when archiving, so what is deleted matches what was archived
+        Long trimmed = commands.xtrim(stream, XTrimArgs.Builder.minId(boundary).approximateTrimming(!archiveEnabled));
+        if (trimmed != null && trimmed > 0) {
+            log.info("Trimmed {} acknowledged entries from {} (min id {})", trimmed, stream, boundary);
+        }
+        return trimmed == null ? 0 : trimmed;
+    }
+
+    /**
+     * @return The lowest entry ID some group still needs, or null if the stream has no groups
+     */
+    String findAcknowledgedBoundary(RedisCommands<String, String> commands, String stream) {
+        List<Object> groups = commands.xinfoGroups(stream);
+        String boundary = null;
+        for (Object group : groups) {
+            Map<String, Object> info = toMap(group);
+            String groupName = (String) info.get("name");
+            long pending = ((Number) info.get("pending")).longValue();
+
+            String groupBoundary;
+            if (pending > 0) {
+                PendingMessages summary = commands.xpending(stream, groupName);
+                groupBoundary = summary.getMessageIds().getLower().getValue();
+            } else {
+                groupBoundary = nextId((String) info.get("last-delivered-id"));
+            }
+            if (boundary == null || compareIds(groupBoundary, boundary) < 0) {
+                boundary = groupBoundary;
+            }
+        }
+        return boundary;
+    }
+
+    private long archive(RedisCommands<String, String> commands, String stream, String boundary) throws IOException {
+        try (SegmentWriter writer = archiver.openSegment(stream)) {
+            Range.Boundary<String> lower = Range.Boundary.unbounded();
+            Range.Boundary<String> upper = Range.Boundary.excluding(boundary);
+            while (true) {
+                List<StreamMessage<String, String>> page =
+                        commands.xrange(stream, Range.from(lower, upper), Limit.from(pageSize));
+                for (StreamMessage<String, String> message : page) {
+                    writer.write(message);
+                }
+                if (page.size() < pageSize) {
+                    break;
+                }
+                lower = Range.Boundary.excluding(page.get(page.size() - 1).getId());
+            }
+            writer.commit();
+            return writer.getCount();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toMap(Object group) {
+        List<Object> fields = (List<Object>) group;
+        Map<String, Object> info = new HashMap<>();
+        for (int i = 0; i + 1 < fields.size(); i += 2) {
+            info.put(String.valueOf(fields.get(i)), fields.get(i + 1));
+        }
+        return info;
+    }
+
+    /**
+     * Compare two stream entry IDs of the form {@code millis-sequence}.
+     */
+    static int compareIds(String a, String b) {
+        int dashA = a.indexOf('-');
+        int dashB = b.indexOf('-');
+        int result = Long.compare(Long.parseLong(a.substring(0, dashA)), Long.parseLong(b.substring(0, dashB)));
+        if (result != 0) {
+            return result;
+        }
+        return Long.compareUnsigned(Long.parseUnsignedLong(a.substring(dashA + 1)), Long.parseUnsignedLong(b.substring(dashB + 1)));
+    }
+
+    /**
+     * @return The smallest entry ID greater than {@code id}
+     */
+    static String nextId(String id) {
+        int dash = id.indexOf('-');
+        long millis = Long.parseLong(id.substring(0, dash));
+        long sequence = Long.parseUnsignedLong(id.substring(dash + 1));
+        return sequence == -1L ? (millis + 1) + "-0" : millis + "-" + Long.toUnsignedString(sequence + 1);
+    }
+
+    private RedisCommands<String, String> getCommands() {
+        if (connection == null) {
+            connection = redisClient.connect();
+        }
+        return connection.sync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package hoops.processor.models.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@AllArgsConstructor
+@Data
+public class StreamCheckpoint {
+    private String streamKey;      // TEXT NOT NULL
+    private String consumerGroup;  // TEXT NOT NULL
+    private String entryId;        // TEXT NOT NULL, Redis stream entry ID
+}
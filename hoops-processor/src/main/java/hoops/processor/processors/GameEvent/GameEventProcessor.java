@@ -2,6 +2,13 @@ package hoops.processor.processors.GameEvent;
 
 import hoops.common.models.events.GameEvent;
 
+import java.util.List;
+
 public interface GameEventProcessor {
     void processEvent(GameEvent event);
+
+    /**
+     * Process a batch of events as one unit: all of them are stored, or none.
+     */
+    void processEvents(List<GameEvent> events);
 }
\ No newline at end of file
@@ -10,6 +10,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -23,20 +26,42 @@ public class GameEventProcessorImpl implements GameEventProcessor {
             Seasons currentSeason = seasonService.getCurrentSeason()
                 .orElseThrow(() -> new RuntimeException("No active season found"));
 
-            var playerStatEvent = PlayerStatEvent.builder()
-                .version(event.getVersion())
-                .playerId(event.getPlayerId())
-                .teamId(event.getTeamId())
-                .gameId(event.getGameId())
-                .seasonId(currentSeason.getId())
-                .statType(StatType.fromString(event.getEvent()))
-                .statValue(event.getValue())
-                .version(event.getVersion())
-                .build();
-            playerStatEventsService.save(playerStatEvent);
+            playerStatEventsService.save(toPlayerStatEvent(event, currentSeason));
         } catch (Exception e) {
             log.error("Error processing game event: {}", event, e);
             throw new RuntimeException("Failed to process game event", e);
         }
     }
-} 
\ No newline at end of file
+
+    @Override
+    public void processEvents(List<GameEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            Seasons currentSeason = seasonService.getCurrentSeason()
+                .orElseThrow(() -> new RuntimeException("No active season found"));
+
+            List<PlayerStatEvent> playerStatEvents = new ArrayList<>(events.size());
+            for (GameEvent event : events) {
+                playerStatEvents.add(toPlayerStatEvent(event, currentSeason));
+            }
+            playerStatEventsService.saveAll(playerStatEvents);
+        } catch (Exception e) {
+            log.error("Error processing {} game events", events.size(), e);
+            throw new RuntimeException("Failed to process game events", e);
+        }
+    }
+
+    private PlayerStatEvent toPlayerStatEvent(GameEvent event, Seasons currentSeason) {
+        return PlayerStatEvent.builder()
+            .version(event.getVersion())
+            .playerId(event.getPlayerId())
+            .teamId(event.getTeamId())
+            .gameId(event.getGameId())
+            .seasonId(currentSeason.getId())
+            .statType(StatType.fromString(event.getEvent()))
+            .statValue(event.getValue())
+            .build();
+    }
+}
\ No newline at end of file
@@ -2,6 +2,14 @@ package hoops.processor.repositories.PlayerStatEvents;
 
 import hoops.processor.models.entities.PlayerStatEvent;
 
+import java.util.List;
+
 public interface PlayerStatEventsRepository {
     void save(PlayerStatEvent playerStatEvent) ;
-} 
\ No newline at end of file
+
+    /**
+     * Insert a batch of events in one statement, so they are committed together or not at all.
+     * Each event's ID is set from the generated keys, in list order.
+     */
+    void saveAll(List<PlayerStatEvent> playerStatEvents);
+}
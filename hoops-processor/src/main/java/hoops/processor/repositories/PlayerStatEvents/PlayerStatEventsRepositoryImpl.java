@@ -6,6 +6,11 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
 import java.util.Map;
 
 
@@ -51,4 +56,72 @@ public class PlayerStatEventsRepositoryImpl implements PlayerStatEventsRepositor
             throw new RuntimeException("Failed to save player stat event", e);
         }
     }
+
+    /**
+     * One INSERT ... SELECT FROM UNNEST with a column array per field: the statement text and its
+     * seven parameters are the same whatever the batch size, so the server parses and plans it once,
+     * and the whole batch travels in a single round trip and a single transaction.
+     */
+    @Override
+    public void saveAll(List<PlayerStatEvent> playerStatEvents) {
+        if (playerStatEvents.isEmpty()) {
+            return;
+        }
+        String sql = """
+            INSERT INTO player_stat_events (
+                player_id, game_id, team_id, season_id,
+                stat_type, stat_value, version
+            )
+            SELECT * FROM UNNEST(
+                ?::text[], ?::text[], ?::text[], ?::text[],
+                ?::text[], ?::numeric[], ?::bigint[]
+            )
+            RETURNING event_id
+            """;
+
+        int size = playerStatEvents.size();
+        String[] playerIds = new String[size];
+        String[] gameIds = new String[size];
+        String[] teamIds = new String[size];
+        String[] seasonIds = new String[size];
+        String[] statTypes = new String[size];
+        Double[] statValues = new Double[size];
+        Long[] versions = new Long[size];
+        for (int i = 0; i < size; i++) {
+            PlayerStatEvent event = playerStatEvents.get(i);
+            playerIds[i] = event.getPlayerId();
+            gameIds[i] = event.getGameId();
+            teamIds[i] = event.getTeamId();
+            seasonIds[i] = event.getSeasonId();
+            statTypes[i] = event.getStatType().getValue();
+            statValues[i] = event.getStatValue();
+            versions[i] = event.getVersion();
+        }
+
+        try {
+            List<Integer> eventIds = jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql);
+                ps.setArray(1, textArray(connection, playerIds));
+                ps.setArray(2, textArray(connection, gameIds));
+                ps.setArray(3, textArray(connection, teamIds));
+                ps.setArray(4, textArray(connection, seasonIds));
+                ps.setArray(5, textArray(connection, statTypes));
+                ps.setArray(6, connection.createArrayOf("numeric", statValues));
+                ps.setArray(7, connection.createArrayOf("bigint", versions));
+                return ps;
+            }, (rs, rowNum) -> rs.getInt("event_id"));
+
+            // The rows draw from one sequence in UNNEST order, but RETURNING does not promise an order
+            eventIds.sort(null);
+            for (int i = 0; i < eventIds.size(); i++) {
+                playerStatEvents.get(i).setEventId(eventIds.get(i));
+            }
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Failed to save " + size + " player stat events", e);
+        }
+    }
+
+    private static Array textArray(Connection connection, String[] values) throws SQLException {
+        return connection.createArrayOf("text", values);
+    }
 }
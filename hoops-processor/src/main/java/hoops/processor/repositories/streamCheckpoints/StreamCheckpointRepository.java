@@ -0,0 +1,25 @@
+package hoops.processor.repositories.streamCheckpoints;
+
+import hoops.processor.models.entities.StreamCheckpoint;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+public interface StreamCheckpointRepository {
+    /**
+     * Record stream entries as applied in one statement. Fails if any of them already is, which
+     * rolls back the surrounding transaction.
+     */
+    void saveAll(List<StreamCheckpoint> checkpoints);
+
+    /**
+     * @return Those of {@code entryIds} already applied on this stream for this group
+     */
+    Set<String> findAppliedEntryIds(String streamKey, String consumerGroup, List<String> entryIds);
+
+    /**
+     * @return Checkpoints removed
+     */
+    int deleteAppliedBefore(Instant cutoff);
+}
@@ -0,0 +1,90 @@
+package hoops.processor.repositories.streamCheckpoints;
+
+import hoops.processor.models.entities.StreamCheckpoint;
+import lombok.AllArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@AllArgsConstructor
+@Repository
+public class StreamCheckpointRepositoryImpl implements StreamCheckpointRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Same UNNEST insert as the stat rows, so a batch's checkpoints cost one round trip.
+     */
+    @Override
+    public void saveAll(List<StreamCheckpoint> checkpoints) {
+        if (checkpoints.isEmpty()) {
+            return;
+        }
+        String sql = """
+            INSERT INTO stream_checkpoints (stream_key, consumer_group, entry_id)
+            SELECT * FROM UNNEST(?::text[], ?::text[], ?::text[])
+            """;
+
+        int size = checkpoints.size();
+        String[] streamKeys = new String[size];
+        String[] consumerGroups = new String[size];
+        String[] entryIds = new String[size];
+        for (int i = 0; i < size; i++) {
+            StreamCheckpoint checkpoint = checkpoints.get(i);
+            streamKeys[i] = checkpoint.getStreamKey();
+            consumerGroups[i] = checkpoint.getConsumerGroup();
+            entryIds[i] = checkpoint.getEntryId();
+        }
+
+        try {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql);
+                ps.setArray(1, connection.createArrayOf("text", streamKeys));
+                ps.setArray(2, connection.createArrayOf("text", consumerGroups));
+                ps.setArray(3, connection.createArrayOf("text", entryIds));
+                return ps;
+            });
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Failed to save " + size + " stream checkpoints", e);
+        }
+    }
+
+    @Override
+    public Set<String> findAppliedEntryIds(String streamKey, String consumerGroup, List<String> entryIds) {
+        if (entryIds.isEmpty()) {
+            return Set.of();
+        }
+        String sql = """
+            SELECT entry_id FROM stream_checkpoints
+            WHERE stream_key = ? AND consumer_group = ? AND entry_id = ANY(?::text[])
+            """;
+
+        try {
+            return new HashSet<>(jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql);
+                ps.setString(1, streamKey);
+                ps.setString(2, consumerGroup);
+                ps.setArray(3, connection.createArrayOf("text", entryIds.toArray(String[]::new)));
+                return ps;
+            }, (rs, rowNum) -> rs.getString("entry_id")));
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Failed to read stream checkpoints for " + streamKey, e);
+        }
+    }
+
+    @Override
+    public int deleteAppliedBefore(Instant cutoff) {
+        try {
+            return jdbcTemplate.update("DELETE FROM stream_checkpoints WHERE applied_at < ?", Timestamp.from(cutoff));
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Failed to delete stream checkpoints", e);
+        }
+    }
+}
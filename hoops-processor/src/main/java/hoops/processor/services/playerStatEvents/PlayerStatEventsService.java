@@ -2,6 +2,14 @@ package hoops.processor.services.playerStatEvents;
 
 import hoops.processor.models.entities.PlayerStatEvent;
 
+import java.util.List;
+
 public interface PlayerStatEventsService {
     void save(PlayerStatEvent event);
-}
\ No newline at end of file
+
+    /**
+     * Save a batch of events in one transaction, then invalidate the cached stats of every
+     * player and team in the batch.
+     */
+    void saveAll(List<PlayerStatEvent> events);
+}
@@ -1,68 +1,156 @@
 package hoops.processor.services.playerStatEvents;
 
 import hoops.common.redis.RedisKeyUtil;
+import hoops.processor.infrastructure.metrics.ConsumerMetrics;
 import hoops.processor.models.entities.PlayerStatEvent;
 import hoops.processor.repositories.PlayerStatEvents.PlayerStatEventsRepository;
 import io.lettuce.core.RedisClient;
-import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores player stat events and invalidates the cached stats they change. Invalidation sends an
+ * UNLINK per distinct player-season and team-season key of a batch, pipelined in one write over a
+ * connection shared by all callers, once the transaction commits. Single-key commands keep working
+ * whatever hash slots the keys fall in; UNLINK frees the values off the main Redis thread,
+ * so even large cached stat blobs do not stall other clients. Saves join the caller's transaction
+ * (the consumer's stream checkpoint) or open their own, so the insert commits on its own and a
+ * failed invalidation can never make a caller retry rows that are already stored.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PlayerStatEventsServiceImpl implements PlayerStatEventsService {
     private final PlayerStatEventsRepository playerStatEventsRepository;
     private final RedisClient redisClient;
+    private final ConsumerMetrics metrics;
+
+    // How long to wait for the UNLINK replies of one invalidation
+    @Value("${redis.cache.invalidation-timeout-ms:2000}")
+    private long invalidationTimeoutMs = 2000;
+
+    // Opened on first use without auto-flush; Lettuce connections are thread-safe, so the workers share it
+    private StatefulRedisConnection<String, String> cacheConnection;
 
     @Override
+    @Transactional
     public void save(PlayerStatEvent event) {
         try {
             // First save to database
             playerStatEventsRepository.save(event);
-            
-            // Then invalidate Redis caches atomically
-            invalidateRedisCache(event);
+
+            // Then invalidate the player's and team's cached stats
+            Set<String> keys = new LinkedHashSet<>();
+            addStatsKeys(keys, event);
+            afterCommit(() -> invalidateRedisCache(keys));
         } catch (Exception e) {
             log.error("Error saving player stat event: {}", event, e);
             throw new RuntimeException("Failed to process player stat event", e);
         }
     }
-    
-    private void invalidateRedisCache(PlayerStatEvent event) {
+
+    @Override
+    @Transactional
+    public void saveAll(List<PlayerStatEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            playerStatEventsRepository.saveAll(events);
+
+            // A batch often carries many events for the same players and teams; delete each key once
+            Set<String> keys = new LinkedHashSet<>();
+            for (PlayerStatEvent event : events) {
+                addStatsKeys(keys, event);
+            }
+            afterCommit(() -> invalidateRedisCache(keys));
+        } catch (Exception e) {
+            log.error("Error saving {} player stat events", events.size(), e);
+            throw new RuntimeException("Failed to process player stat events", e);
+        }
+    }
+
+    private static void addStatsKeys(Set<String> keys, PlayerStatEvent event) {
+        keys.add(RedisKeyUtil.getPlayerStatsKey(event.getPlayerId(), event.getSeasonId()));
+        keys.add(RedisKeyUtil.getTeamStatsKey(event.getTeamId(), event.getSeasonId()));
+    }
+
+    /**
+     * Invalidate only once the rows are committed: clearing earlier would let a reader cache the old
+     * totals again in between. The rows are stored by then, so a failure is logged rather than failing
+     * the events; the cached stats expire on their own. Without a transaction (a direct call, outside
+     * Spring's proxy) the insert has already auto-committed, and the same rule applies.
+     */
+    private static void afterCommit(Runnable invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateQuietly(invalidation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateQuietly(invalidation);
+            }
+        });
+    }
+
+    private static void invalidateQuietly(Runnable invalidation) {
+        try {
+            invalidation.run();
+        } catch (Exception e) {
+            log.error("Failed to invalidate cached stats after commit", e);
+        }
+    }
+
+    private void invalidateRedisCache(Set<String> keys) {
         try {
-            // Get a connection from the client
-            RedisCommands<String, String> commands = redisClient.connect().sync();
-            
-            // Generate cache keys using RedisKeyUtil
-            String playerStatsKey = RedisKeyUtil.getPlayerStatsKey(event.getPlayerId(), event.getSeasonId());
-            String teamStatsKey = RedisKeyUtil.getTeamStatsKey(event.getTeamId(), event.getSeasonId());
-            
-            try {
-                // Start a transaction
-                commands.multi();
-                
-                // Queue deletion commands
-                commands.del(playerStatsKey);
-                commands.del(teamStatsKey);
-                
-                // Execute transaction
-                commands.exec();
-                
-                log.debug("Successfully invalidated Redis cache for player {} and team {}", 
-                    event.getPlayerId(), event.getTeamId());
-            } catch (Exception e) {
-                commands.discard();
-                log.error("Failed to invalidate Redis cache: {}", e.getMessage(), e);
-                throw new RuntimeException("Failed to invalidate Redis cache", e);
-            } finally {
-                // Close the connection
-                commands.getStatefulConnection().close();
+            StatefulRedisConnection<String, String> connection = cacheConnection();
+            RedisAsyncCommands<String, String> commands = connection.async();
+            List<RedisFuture<Long>> unlinks = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                unlinks.add(commands.unlink(key));
+            }
+            // Also writes whatever other workers queued meanwhile; each of them flushes after queuing anyway
+            connection.flushCommands();
+            long removed = 0;
+            for (RedisFuture<Long> unlink : unlinks) {
+                removed += unlink.get(invalidationTimeoutMs, TimeUnit.MILLISECONDS);
             }
+            metrics.recordCacheInvalidation(keys.size());
+            log.debug("Invalidated {} cached stats keys, {} were cached", keys.size(), removed);
         } catch (Exception e) {
-            log.error("Error accessing Redis: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to access Redis", e);
+            throw new RuntimeException("Failed to invalidate Redis cache", e);
+        }
+    }
+
+    private synchronized StatefulRedisConnection<String, String> cacheConnection() {
+        if (cacheConnection == null) {
+            cacheConnection = redisClient.connect();
+            cacheConnection.setAutoFlushCommands(false);
+        }
+        return cacheConnection;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (cacheConnection != null) {
+            cacheConnection.close();
+            cacheConnection = null;
         }
     }
-} 
\ No newline at end of file
+}
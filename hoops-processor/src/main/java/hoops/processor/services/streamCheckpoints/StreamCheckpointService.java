@@ -0,0 +1,18 @@
+package hoops.processor.services.streamCheckpoints;
+
+import io.lettuce.core.StreamMessage;
+
+import java.util.List;
+
+public interface StreamCheckpointService {
+    /**
+     * Run {@code work} and record the entries as applied in the same database transaction, so
+     * the stats they produce and their checkpoints are committed together or not at all.
+     */
+    void applyOnce(String consumerGroup, List<StreamMessage<String, String>> messages, Runnable work);
+
+    /**
+     * @return Those of {@code messages} whose stats are already stored, in their original order
+     */
+    List<StreamMessage<String, String>> findApplied(String consumerGroup, List<StreamMessage<String, String>> messages);
+}
@@ -0,0 +1,83 @@
+package hoops.processor.services.streamCheckpoints;
+
+import hoops.processor.models.entities.StreamCheckpoint;
+import hoops.processor.repositories.streamCheckpoints.StreamCheckpointRepository;
+import io.lettuce.core.StreamMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An entry can only be delivered again while it is pending, which is minutes after a crash, so
+ * checkpoints are kept for {@code retentionMs} and then deleted rather than kept forever.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StreamCheckpointServiceImpl implements StreamCheckpointService {
+    private final StreamCheckpointRepository streamCheckpointRepository;
+
+    @Value("${redis.stream.checkpoint.retention-ms:86400000}")
+    private long retentionMs;
+
+    @Override
+    @Transactional
+    public void applyOnce(String consumerGroup, List<StreamMessage<String, String>> messages, Runnable work) {
+        // Checkpoints first: a replica applying the same entry right now blocks here until this commits, then fails
+        List<StreamCheckpoint> checkpoints = new ArrayList<>(messages.size());
+        for (StreamMessage<String, String> message : messages) {
+            checkpoints.add(new StreamCheckpoint(message.getStream(), consumerGroup, message.getId()));
+        }
+        streamCheckpointRepository.saveAll(checkpoints);
+        work.run();
+    }
+
+    @Override
+    public List<StreamMessage<String, String>> findApplied(String consumerGroup,
+                                                           List<StreamMessage<String, String>> messages) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+        Map<String, List<String>> idsByStream = new LinkedHashMap<>();
+        for (StreamMessage<String, String> message : messages) {
+            idsByStream.computeIfAbsent(message.getStream(), stream -> new ArrayList<>()).add(message.getId());
+        }
+        try {
+            Map<String, Set<String>> applied = new LinkedHashMap<>();
+            idsByStream.forEach((stream, ids) -> applied.put(stream,
+                    streamCheckpointRepository.findAppliedEntryIds(stream, consumerGroup, ids)));
+
+            List<StreamMessage<String, String>> result = new ArrayList<>();
+            for (StreamMessage<String, String> message : messages) {
+                if (applied.get(message.getStream()).contains(message.getId())) {
+                    result.add(message);
+                }
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("Error reading stream checkpoints for {} entries", messages.size(), e);
+            throw new RuntimeException("Failed to read stream checkpoints", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${redis.stream.checkpoint.prune-interval-ms:3600000}",
+            initialDelayString = "${redis.stream.checkpoint.prune-interval-ms:3600000}")
+    public void pruneCheckpoints() {
+        try {
+            int deleted = streamCheckpointRepository.deleteAppliedBefore(Instant.now().minusMillis(retentionMs));
+            log.debug("Deleted {} stream checkpoints older than {} ms", deleted, retentionMs);
+        } catch (Exception e) {
+            log.error("Failed to prune stream checkpoints", e);
+        }
+    }
+}
@@ -0,0 +1,501 @@
+package hoops.processor.consumers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.common.codec.GameEventStreamFormat;
+import hoops.common.constants.StreamConstants;
+import hoops.common.models.events.GameEvent;
+import hoops.common.redis.StreamKeyUtil;
+import hoops.processor.infrastructure.metrics.ConsumerMetrics;
+import hoops.processor.infrastructure.redis.DeadLetterStream;
+import hoops.processor.infrastructure.redis.RedisStreamManager;
+import hoops.processor.processors.GameEvent.GameEventProcessor;
+import hoops.processor.services.streamCheckpoints.StreamCheckpointService;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.models.stream.PendingMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Lifecycle of the blocking reader threads, with Redis mocked out.
+ */
+@ExtendWith(MockitoExtension.class)
+class GameEventStreamConsumerLoopTest {
+
+    @Mock
+    private GameEventProcessor gameEventProcessor;
+
+    @Mock
+    private RedisStreamManager redisStreamManager;
+
+    @Mock
+    private DeadLetterStream deadLetterStream;
+
+    @Mock
+    private StreamCheckpointService streamCheckpointService;
+
+    @Mock
+    private RedisCommands<String, String> commands;
+
+    @Mock
+    private StatefulRedisConnection<String, String> connection;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GameEventWorkerPool workerPool;
+    private GameEventStreamConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ConsumerMetrics metrics = new ConsumerMetrics(meterRegistry);
+        workerPool = new GameEventWorkerPool(metrics);
+        consumer = new GameEventStreamConsumer(gameEventProcessor, new ObjectMapper(), redisStreamManager,
+                metrics, workerPool, deadLetterStream, streamCheckpointService);
+        ReflectionTestUtils.setField(consumer, "batchSize", 10);
+        ReflectionTestUtils.setField(consumer, "pollTimeoutMs", 50);
+        ReflectionTestUtils.setField(consumer, "maxConsecutiveErrors", 10);
+        ReflectionTestUtils.setField(consumer, "partitions", 4);
+        ReflectionTestUtils.setField(consumer, "assignedPartitions", "");
+        ReflectionTestUtils.setField(consumer, "errorBackoffMs", 10L);
+        ReflectionTestUtils.setField(consumer, "maxAttempts", 3);
+        ReflectionTestUtils.setField(consumer, "initialBackoffMs", 1000L);
+        ReflectionTestUtils.setField(consumer, "maxBackoffMs", 30000L);
+        ReflectionTestUtils.setField(consumer, "pauseMs", 30000L);
+        lenient().when(redisStreamManager.connectConsumer()).thenReturn(commands);
+        lenient().when(commands.getStatefulConnection()).thenReturn(connection);
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return null;
+        }).when(streamCheckpointService).applyOnce(anyString(), anyList(), any(Runnable.class));
+        lenient().when(streamCheckpointService.findApplied(anyString(), anyList())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        consumer.stop();
+        workerPool.stop();
+    }
+
+    @Test
+    void start_ShouldProcessEntriesAsSoonAsTheyAreRead() {
+        ReflectionTestUtils.setField(consumer, "consumerThreads", 1);
+        StreamMessage<String, String> entry = new StreamMessage<>(StreamKeyUtil.getStreamKey(0, 4), System.currentTimeMillis() + "-0",
+                Map.of("s", "2", "event", "point", "gameId", "g1", "teamId", "BOS", "playerId", "p1",
+                        "value", "2", "version", "1"));
+        List<List<StreamMessage<String, String>>> acknowledged = new CopyOnWriteArrayList<>();
+        AtomicInteger reads = new AtomicInteger();
+        when(redisStreamManager.acknowledgeAndReadGroupMessages(same(commands), anyList(), anyList(), anyString(),
+                anyString(), anyInt(), anyLong()))
+                .thenAnswer(invocation -> {
+                    // Copy: the consumer reuses the list once the call returns
+                    acknowledged.add(List.copyOf(invocation.<List<StreamMessage<String, String>>>getArgument(1)));
+                    return reads.getAndIncrement() == 0 ? List.of(entry) : List.of();
+                });
+        consumer.init();
+
+        consumer.start();
+
+        verify(gameEventProcessor, timeout(2000)).processEvents(List.of(event(entry)));
+        // The finished entry is acknowledged along with the next read
+        verify(redisStreamManager, timeout(2000).atLeast(2)).acknowledgeAndReadGroupMessages(same(commands),
+                anyList(), anyList(), anyString(), anyString(), anyInt(), anyLong());
+        assertEquals(List.of(), acknowledged.get(0));
+        assertEquals(List.of(entry), acknowledged.get(1));
+        assertTrue(consumer.isRunning());
+        assertEquals(1, meterRegistry.get("processor.batch").timer().count());
+        assertEquals(1, meterRegistry.get("processor.event.lag").timer().count());
+
+        consumer.stop();
+        assertFalse(consumer.isRunning());
+        verify(connection).close();
+    }
+
+    @Test
+    void start_ShouldSplitPartitionsBetweenThreads() {
+        ReflectionTestUtils.setField(consumer, "consumerThreads", 2);
+        Set<List<String>> assignments = ConcurrentHashMap.newKeySet();
+        when(redisStreamManager.acknowledgeAndReadGroupMessages(same(commands), anyList(), anyList(), anyString(),
+                anyString(), anyInt(), anyLong()))
+                .thenAnswer(invocation -> {
+                    assignments.add(invocation.getArgument(2));
+                    Thread.sleep(10);
+                    return List.of();
+                });
+        consumer.init();
+
+        consumer.start();
+
+        verify(redisStreamManager, timeout(2000).atLeast(2)).acknowledgeAndReadGroupMessages(same(commands),
+                anyList(), anyList(), anyString(), anyString(), anyInt(), anyLong());
+        consumer.stop();
+        List<String> streams = StreamKeyUtil.getStreamKeys(null, 4);
+        assertEquals(Set.of(
+                List.of(streams.get(0), streams.get(2)),
+                List.of(streams.get(1), streams.get(3))), assignments);
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void start_ShouldClaimIdleEntriesAndLeaveTheGroupOnStop() {
+        ReflectionTestUtils.setField(consumer, "consumerThreads", 2);
+        ReflectionTestUtils.setField(consumer, "consumerName", "replica-a");
+        ReflectionTestUtils.setField(consumer, "reclaimMinIdleMs", 60000L);
+        ReflectionTestUtils.setField(consumer, "reclaimIntervalMs", 60000L);
+        String stalledStream = StreamKeyUtil.getStreamKey(0, 4);
+        StreamMessage<String, String> stalled = entry("1-0", "p1");
+        when(redisStreamManager.claimIdleMessages(same(commands), anyString(), anyString(), anyString(), anyLong(), anyInt()))
+                .thenAnswer(invocation -> stalledStream.equals(invocation.getArgument(1)) ? List.of(stalled) : List.of());
+        when(redisStreamManager.acknowledgeAndReadGroupMessages(same(commands), anyList(), anyList(), anyString(),
+                anyString(), anyInt(), anyLong()))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(10);
+                    return List.of();
+                });
+        consumer.init();
+
+        consumer.start();
+
+        verify(gameEventProcessor, timeout(2000)).processEvents(List.of(event(stalled)));
+        verify(redisStreamManager, timeout(2000)).claimIdleMessages(same(commands), eq(stalledStream),
+                eq(StreamConstants.GAME_EVENTS_CONSUMER_GROUP), eq("replica-a-0"), eq(60000L), eq(10));
+        verify(redisStreamManager, timeout(2000)).claimIdleMessages(same(commands), eq(StreamKeyUtil.getStreamKey(1, 4)),
+                eq(StreamConstants.GAME_EVENTS_CONSUMER_GROUP), eq("replica-a-1"), eq(60000L), eq(10));
+        assertEquals(1, meterRegistry.get("processor.reclaimed").counter().count());
+
+        consumer.stop();
+        List<String> streams = StreamKeyUtil.getStreamKeys(null, 4);
+        verify(redisStreamManager).removeConsumerIfIdle(same(commands), eq(List.of(streams.get(0), streams.get(2))),
+                eq(StreamConstants.GAME_EVENTS_CONSUMER_GROUP), eq("replica-a-0"));
+        verify(redisStreamManager).removeConsumerIfIdle(same(commands), eq(List.of(streams.get(1), streams.get(3))),
+                eq(StreamConstants.GAME_EVENTS_CONSUMER_GROUP), eq("replica-a-1"));
+    }
+
+    @Test
+    void start_ShouldAcknowledgeReclaimedEntriesThatWereAlreadyApplied() {
+        ReflectionTestUtils.setField(consumer, "consumerThreads", 1);
+        ReflectionTestUtils.setField(consumer, "reclaimMinIdleMs", 60000L);
+        ReflectionTestUtils.setField(consumer, "reclaimIntervalMs", 60000L);
+        String stalledStream = StreamKeyUtil.getStreamKey(0, 4);
+        StreamMessage<String, String> applied = entry("1-0", "p1");
+        StreamMessage<String, String> notApplied = entry("2-0", "p2");
+        when(redisStreamManager.claimIdleMessages(same(commands), anyString(), anyString(), anyString(), anyLong(), anyInt()))
+                .thenAnswer(invocation -> stalledStream.equals(invocation.getArgument(1))
+                        ? List.of(applied, notApplied) : List.of());
+        // The previous owner committed the first entry and stopped before acknowledging it
+        when(streamCheckpointService.findApplied(StreamConstants.GAME_EVENTS_CONSUMER_GROUP, List.of(applied, notApplied)))
+                .thenReturn(List.of(applied));
+        List<StreamMessage<String, String>> acknowledged = new CopyOnWriteArrayList<>();
+        when(redisStreamManager.acknowledgeAndReadGroupMessages(same(commands), anyList(), anyList(), anyString(),
+                anyString(), anyInt(), anyLong()))
+                .thenAnswer(invocation -> {
+                    acknowledged.addAll(invocation.getArgument(1));
+                    Thread.sleep(10);
+                    return List.of();
+                });
+        consumer.init();
+
+        consumer.start();
+
+        verify(gameEventProcessor, timeout(2000)).processEvents(List.of(event(notApplied)));
+        verify(streamCheckpointService).applyOnce(eq(StreamConstants.GAME_EVENTS_CONSUMER_GROUP),
+                eq(List.of(notApplied)), any(Runnable.class));
+        verify(redisStreamManager, timeout(2000).atLeast(2)).acknowledgeAndReadGroupMessages(same(commands),
+                anyList(), anyList(), anyString(), anyString(), anyInt(), anyLong());
+        assertEquals(List.of(applied, notApplied), acknowledged);
+        assertEquals(1, meterRegistry.get("processor.already.applied").counter().count());
+    }
+
+    @Test
+    void start_ShouldDeadLetterReclaimedEntriesThatUsedUpTheirAttempts() {
+        ReflectionTestUtils.setField(consumer, "consumerThreads", 1);
+        ReflectionTestUtils.setField(consumer, "consumerName", "replica-a");
+        ReflectionTestUtils.setField(consumer, "reclaimMinIdleMs", 60000L);
+        ReflectionTestUtils.setField(consumer, "reclaimIntervalMs", 60000L);
+        String stalledStream = StreamKeyUtil.getStreamKey(0, 4);
+        StreamMessage<String, String> poison = entry("1-0", "p1");
+        StreamMessage<String, String> stalled = entry("2-0", "p2");
+        when(redisStreamManager.claimIdleMessages(same(commands), anyString(), anyString(), anyString(), anyLong(), anyInt()))
+                .thenAnswer(invocation -> stalledStream.equals(invocation.getArgument(1))
+                        ? List.of(poison, stalled) : List.of());
+        // The first entry crashed its consumer on each of three deliveries; this is the fourth
+        when(redisStreamManager.deliveryCounts(same(commands), eq(stalledStream),
+                eq(StreamConstants.GAME_EVENTS_CONSUMER_GROUP), eq("replica-a"), eq(List.of("1-0", "2-0"))))
+                .thenReturn(Map.of("1-0", 4L, "2-0", 2L));
+        when(deadLetterStream.add(same(commands), eq(poison), eq(3), any(IllegalStateException.class))).thenReturn("9-0");
+        when(redisStreamManager.acknowledgeAndReadGroupMessages(same(commands), anyList(), anyList(), anyString(),
+                anyString(), anyInt(), anyLong()))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(10);
+                    return List.of();
+                });
+        doThrow(new RuntimeException("Failed to process game events"))
+                .when(gameEventProcessor).processEvents(anyList());
+        doThrow(new RuntimeException("Failed to process game event"))
+                .when(gameEventProcessor).processEvent(any(GameEvent.class));
+        consumer.init();
+
+        consumer.start();
+
+        verify(gameEventProcessor, timeout(2000)).processEvents(List.of(event(stalled)));
+        verify(deadLetterStream).add(same(commands), eq(poison), eq(3), any(IllegalStateException.class));
+        verify(gameEventProcessor, never()).processEvent(event(poison));
+        // The other entry is on its second attempt of three, so it stays pending for a retry
+        verify(deadLetterStream, never()).add(any(), eq(stalled), anyInt(), any());
+        assertEquals(1, meterRegistry.get("processor.dead.lettered").counter().count());
+    }
+
+    @Test
+    void init_ShouldDefaultToAnIdentityPerProcess() {
+        consumer.init();
+
+        String name = (String) ReflectionTestUtils.getField(consumer, "consumerName");
+        assertNotNull(name);
+        assertTrue(name.endsWith("-" + ProcessHandle.current().pid()), name);
+    }
+
+    @Test
+    void processGameEvents_ShouldFallBackToSingleEventsWhenTheBatchFails() {
+        StreamMessage<String, String> good = entry("1-0", "p1");
+        StreamMessage<String, String> bad = entry("2-0", "p2");
+        List<StreamMessage<String, String>> acknowledged = stubFailingBatch(good, bad);
+        consumer.init();
+
+        assertEquals(2, consumer.processGameEvents());
+
+        verify(gameEventProcessor).processEvents(List.of(event(good), event(bad)));
+        verify(gameEventProcessor).processEvent(event(good));
+        verify(gameEventProcessor).processEvent(event(bad));
+        // Only the stored one is acknowledged; the failed one stays pending for a retry
+        verify(redisStreamManager).acknowledgeMessages(same(commands), eq(StreamConstants.GAME_EVENTS_CONSUMER_GROUP),
+                anyList());
+        assertEquals(List.of(good), acknowledged);
+        assertEquals(1, meterRegistry.get("processor.event.lag").timer().count());
+        verifyNoInteractions(deadLetterStream);
+    }
+
+    @Test
+    void processGameEvents_ShouldDeadLetterAnEntryOnItsLastAttempt() {
+        ReflectionTestUtils.setField(consumer, "maxAttempts", 1);
+        StreamMessage<String, String> good = entry("1-0", "p1");
+        StreamMessage<String, String> bad = entry("2-0", "p2");
+        List<StreamMessage<String, String>> acknowledged = stubFailingBatch(good, bad);
+        when(deadLetterStream.add(same(commands), eq(bad), eq(1), any(RuntimeException.class))).thenReturn("9-0");
+        consumer.init();
+
+        assertEquals(2, consumer.processGameEvents());
+
+        assertEquals(List.of(good, bad), acknowledged);
+        assertEquals(1, meterRegistry.get("processor.dead.lettered").counter().count());
+    }
+
+    @Test
+    void processGameEvents_ShouldLeaveAnEntryPendingIfItCannotBeDeadLettered() {
+        ReflectionTestUtils.setField(consumer, "maxAttempts", 1);
+        StreamMessage<String, String> good = entry("1-0", "p1");
+        StreamMessage<String, String> bad = entry("2-0", "p2");
+        List<StreamMessage<String, String>> acknowledged = stubFailingBatch(good, bad);
+        when(deadLetterStream.add(same(commands), eq(bad), eq(1), any(RuntimeException.class)))
+                .thenThrow(new RuntimeException("Redis is down"));
+        consumer.init();
+
+        assertEquals(2, consumer.processGameEvents());
+
+        assertEquals(List.of(good), acknowledged);
+        assertEquals(0, meterRegistry.get("processor.dead.lettered").counter().count());
+    }
+
+    @Test
+    void start_ShouldRetryFailedEntriesOnceTheirBackoffHasPassed() {
+        ReflectionTestUtils.setField(consumer, "consumerThreads", 1);
+        ReflectionTestUtils.setField(consumer, "consumerName", "replica-a");
+        ReflectionTestUtils.setField(consumer, "retryIntervalMs", 60000L);
+        String stream = StreamKeyUtil.getStreamKey(0, 4);
+        StreamMessage<String, String> due = entry("1-0", "p1");
+        // Failed twice, so the third try waits 2000 ms; the other one failed once and waits 1000 ms
+        when(redisStreamManager.pendingMessages(same(commands), anyString(), anyString(), anyString(), anyInt()))
+                .thenAnswer(invocation -> stream.equals(invocation.getArgument(1))
+                        ? List.of(new PendingMessage("1-0", "replica-a", 5000, 2),
+                                  new PendingMessage("2-0", "replica-a", 500, 1))
+                        : List.of());
+        when(redisStreamManager.claimMessages(same(commands), eq(stream), eq(StreamConstants.GAME_EVENTS_CONSUMER_GROUP),
+                eq("replica-a"), eq(2000L), eq(List.of("1-0"))))
+                .thenReturn(List.of(due));
+        when(redisStreamManager.acknowledgeAndReadGroupMessages(same(commands), anyList(), anyList(), anyString(),
+                anyString(), anyInt(), anyLong()))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(10);
+                    return List.of();
+                });
+        doThrow(new RuntimeException("Failed to process game events"))
+                .when(gameEventProcessor).processEvents(anyList());
+        doThrow(new RuntimeException("Failed to process game event"))
+                .when(gameEventProcessor).processEvent(any(GameEvent.class));
+        consumer.init();
+
+        consumer.start();
+
+        // That was the last of three attempts, so the entry is moved to the dead-letter stream
+        verify(deadLetterStream, timeout(2000)).add(same(commands), eq(due), eq(3), any(RuntimeException.class));
+        verify(gameEventProcessor).processEvents(List.of(event(due)));
+        assertEquals(1, meterRegistry.get("processor.retried").counter().count());
+    }
+
+    @Test
+    void start_ShouldNotRetryEntriesWaitingToBeAcknowledged() {
+        ReflectionTestUtils.setField(consumer, "consumerThreads", 1);
+        ReflectionTestUtils.setField(consumer, "consumerName", "replica-a");
+        ReflectionTestUtils.setField(consumer, "retryIntervalMs", 1L);
+        String stream = StreamKeyUtil.getStreamKey(0, 4);
+        StreamMessage<String, String> entry = entry("1-0", "p1");
+        AtomicBoolean read = new AtomicBoolean();
+        AtomicBoolean acknowledged = new AtomicBoolean();
+        // Pending from the read until its XACK goes out with the next read
+        lenient().when(redisStreamManager.pendingMessages(same(commands), anyString(), anyString(), anyString(), anyInt()))
+                .thenAnswer(invocation -> stream.equals(invocation.getArgument(1)) && read.get() && !acknowledged.get()
+                        ? List.of(new PendingMessage("1-0", "replica-a", 5000, 1))
+                        : List.of());
+        when(redisStreamManager.acknowledgeAndReadGroupMessages(same(commands), anyList(), anyList(), anyString(),
+                anyString(), anyInt(), anyLong()))
+                .thenAnswer(invocation -> {
+                    if (invocation.<List<StreamMessage<String, String>>>getArgument(1).contains(entry)) {
+                        acknowledged.set(true);
+                    }
+                    Thread.sleep(5);
+                    return read.getAndSet(true) ? List.of() : List.of(entry);
+                });
+        consumer.init();
+
+        consumer.start();
+
+        verify(redisStreamManager, timeout(2000).atLeast(4)).acknowledgeAndReadGroupMessages(same(commands),
+                anyList(), anyList(), anyString(), anyString(), anyInt(), anyLong());
+        assertTrue(acknowledged.get());
+        verify(redisStreamManager, never()).claimMessages(any(), anyString(), anyString(), anyString(), anyLong(), anyList());
+        verify(gameEventProcessor).processEvents(List.of(event(entry)));
+    }
+
+    @Test
+    void processGameEvents_ShouldPauseAfterTooManyErrorsAndThenResume() throws InterruptedException {
+        ReflectionTestUtils.setField(consumer, "maxConsecutiveErrors", 1);
+        ReflectionTestUtils.setField(consumer, "pauseMs", 100L);
+        when(redisStreamManager.acknowledgeAndReadGroupMessages(same(commands), anyList(), anyList(), anyString(),
+                anyString(), anyInt(), anyLong()))
+                .thenThrow(new RuntimeException("Connection reset"))
+                .thenReturn(List.of());
+        consumer.init();
+
+        assertEquals(-1, consumer.processGameEvents());
+        assertEquals(-1, consumer.processGameEvents());
+        verify(redisStreamManager, times(1)).acknowledgeAndReadGroupMessages(same(commands), anyList(), anyList(),
+                anyString(), anyString(), anyInt(), anyLong());
+
+        Thread.sleep(150);
+
+        assertEquals(0, consumer.processGameEvents());
+    }
+
+    /**
+     * Batch of {@code good} and {@code bad} where the batch insert and {@code bad}'s single insert fail.
+     * @return Entries acknowledged, in order
+     */
+    private List<StreamMessage<String, String>> stubFailingBatch(StreamMessage<String, String> good,
+                                                                 StreamMessage<String, String> bad) {
+        when(redisStreamManager.acknowledgeAndReadGroupMessages(same(commands), anyList(), anyList(), anyString(),
+                anyString(), anyInt(), anyLong()))
+                .thenReturn(List.of(good, bad));
+        List<StreamMessage<String, String>> acknowledged = new ArrayList<>();
+        when(redisStreamManager.acknowledgeMessages(same(commands), anyString(), anyList()))
+                .thenAnswer(invocation -> {
+                    acknowledged.addAll(invocation.getArgument(2));
+                    return (long) acknowledged.size();
+                });
+        doThrow(new RuntimeException("Failed to process game events"))
+                .when(gameEventProcessor).processEvents(anyList());
+        doAnswer(invocation -> {
+            if (bad.getBody().get("playerId").equals(invocation.<GameEvent>getArgument(0).getPlayerId())) {
+                throw new RuntimeException("Failed to process game event");
+            }
+            return null;
+        }).when(gameEventProcessor).processEvent(any(GameEvent.class));
+        return acknowledged;
+    }
+
+    @Test
+    void processGameEvents_ShouldSplitTheBatchByGameAcrossWorkers() {
+        ReflectionTestUtils.setField(workerPool, "workers", 3);
+        ReflectionTestUtils.setField(workerPool, "queueCapacity", 4);
+        workerPool.start();
+        List<StreamMessage<String, String>> batch = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            batch.add(entry(i + 1 + "-0", "g" + (i % 6), "p" + i));
+        }
+        when(redisStreamManager.acknowledgeAndReadGroupMessages(same(commands), anyList(), anyList(), anyString(),
+                anyString(), anyInt(), anyLong()))
+                .thenReturn(batch);
+        List<StreamMessage<String, String>> acknowledged = new ArrayList<>();
+        when(redisStreamManager.acknowledgeMessages(same(commands), anyString(), anyList()))
+                .thenAnswer(invocation -> {
+                    acknowledged.addAll(invocation.getArgument(2));
+                    return 12L;
+                });
+        Map<String, Set<String>> threadsByGame = new ConcurrentHashMap<>();
+        doAnswer(invocation -> {
+            for (GameEvent event : invocation.<List<GameEvent>>getArgument(0)) {
+                threadsByGame.computeIfAbsent(event.getGameId(), game -> ConcurrentHashMap.newKeySet())
+                        .add(Thread.currentThread().getName());
+            }
+            return null;
+        }).when(gameEventProcessor).processEvents(anyList());
+        consumer.init();
+
+        assertEquals(12, consumer.processGameEvents());
+
+        // Each game ran only on the worker it hashes to
+        assertEquals(6, threadsByGame.size());
+        threadsByGame.forEach((game, threads) -> assertEquals(
+                Set.of("game-event-worker-" + workerPool.workerFor(game)), threads, game));
+        verify(gameEventProcessor, atMost(3)).processEvents(anyList());
+        assertEquals(12, acknowledged.size());
+        assertEquals(Set.copyOf(batch), Set.copyOf(acknowledged));
+        assertEquals(3, meterRegistry.find("processor.worker.queue.depth").gauges().size());
+    }
+
+    private static StreamMessage<String, String> entry(String id, String playerId) {
+        return entry(id, "g1", playerId);
+    }
+
+    private static StreamMessage<String, String> entry(String id, String gameId, String playerId) {
+        return new StreamMessage<>(StreamKeyUtil.getStreamKey(0, 4), id,
+                Map.of("s", "2", "event", "point", "gameId", gameId, "teamId", "BOS", "playerId", playerId,
+                        "value", "2", "version", "1"));
+    }
+
+    private GameEvent event(StreamMessage<String, String> entry) {
+        try {
+            return new GameEventStreamFormat(null).fromFields(entry.getBody());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
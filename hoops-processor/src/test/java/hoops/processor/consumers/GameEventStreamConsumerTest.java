@@ -3,32 +3,45 @@ package hoops.processor.consumers;
 import hoops.common.constants.StreamConstants;
 import hoops.common.models.events.GameEvent;
 import hoops.common.models.events.PointsEvent;
+import hoops.common.models.events.ReboundsEvent;
 import hoops.processor.config.TestRedisConfig;
+import hoops.processor.infrastructure.metrics.ConsumerMetrics;
+import hoops.processor.infrastructure.redis.DeadLetterStream;
 import hoops.processor.infrastructure.redis.RedisStreamManager;
 import hoops.processor.processors.GameEvent.GameEventProcessor;
+import hoops.processor.services.streamCheckpoints.StreamCheckpointService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.lettuce.core.RedisClient;
 import io.lettuce.core.XGroupCreateArgs;
 import io.lettuce.core.XReadArgs;
 import io.lettuce.core.api.sync.RedisCommands;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
-import static org.mockito.ArgumentMatchers.any;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest(classes = {
         GameEventStreamConsumer.class,
+        GameEventWorkerPool.class,
+        DeadLetterStream.class,
         ObjectMapper.class,
         RedisStreamManager.class,
+        ConsumerMetrics.class,
+        SimpleMeterRegistry.class,
 })
 @Import(TestRedisConfig.class)
 @ActiveProfiles("test")
@@ -43,6 +56,9 @@ class GameEventStreamConsumerTest {
     @MockBean
     private GameEventProcessor gameEventProcessor;
 
+    @MockBean
+    private StreamCheckpointService streamCheckpointService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -52,12 +68,16 @@ class GameEventStreamConsumerTest {
     void setUp() {
         commands = redisClient.connect().sync();
         commands.flushall();  // This removes all data
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return null;
+        }).when(streamCheckpointService).applyOnce(anyString(), anyList(), any(Runnable.class));
 
         try {
             
             // Delete the consumer group if it exists
             try {
-                commands.xgroupDestroy(StreamConstants.GAME_EVENTS_STREAM, "game-events-processor");
+                commands.xgroupDestroy(StreamConstants.GAME_EVENTS_STREAM, StreamConstants.GAME_EVENTS_CONSUMER_GROUP);
             } catch (Exception e) {
                 // Ignore - group might not exist yet
             }
@@ -81,7 +101,7 @@ class GameEventStreamConsumerTest {
             // Now create the consumer group
             commands.xgroupCreate(
                     XReadArgs.StreamOffset.from(StreamConstants.GAME_EVENTS_STREAM, "$"),
-                    "game-events-processor",
+                    StreamConstants.GAME_EVENTS_CONSUMER_GROUP,
                     XGroupCreateArgs.Builder.mkstream()
             );
         } catch (Exception e) {
@@ -112,6 +132,55 @@ class GameEventStreamConsumerTest {
         TimeUnit.SECONDS.sleep(1);
 
         // Assert
-        verify(gameEventProcessor, times(1)).processEvent(any(GameEvent.class));
+        verify(gameEventProcessor, times(1)).processEvents(argThat(events -> events.size() == 1));
+    }
+
+    @Test
+    void testProcessFieldPerAttributeEvents() throws Exception {
+        // Arrange: one entry in each format, as during a rolling upgrade of ingest
+        commands.xadd(
+                StreamConstants.GAME_EVENTS_STREAM,
+                Map.of("s", "2", "event", "rebound", "gameId", "game1", "teamId", "BOS",
+                        "playerId", "player1", "value", "1", "version", "4")
+        );
+        commands.xadd(
+                StreamConstants.GAME_EVENTS_STREAM,
+                Map.of("data", "{\"event\":\"point\",\"gameId\":\"game1\",\"teamId\":\"BOS\",\"playerId\":\"player1\",\"value\":2,\"version\":5}")
+        );
+
+        // Act
+        listener.processGameEvents();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<GameEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(gameEventProcessor, times(1)).processEvents(captor.capture());
+        List<GameEvent> events = captor.getValue();
+        assertEquals(2, events.size());
+        assertInstanceOf(ReboundsEvent.class, events.get(0));
+        assertEquals(4L, events.get(0).getVersion());
+        assertInstanceOf(PointsEvent.class, events.get(1));
+    }
+
+    @Test
+    void testProcessedBatchIsAcknowledged() throws Exception {
+        // Arrange
+        commands.xadd(
+                StreamConstants.GAME_EVENTS_STREAM,
+                Map.of("s", "2", "event", "point", "gameId", "game1", "teamId", "BOS",
+                        "playerId", "player1", "value", "2", "version", "6")
+        );
+        commands.xadd(
+                StreamConstants.GAME_EVENTS_STREAM,
+                Map.of("s", "2", "event", "assist", "gameId", "game1", "teamId", "BOS",
+                        "playerId", "player2", "value", "1", "version", "7")
+        );
+
+        // Act
+        listener.processGameEvents();
+
+        // Assert: nothing left pending in the group
+        assertEquals(0, commands.xpending(StreamConstants.GAME_EVENTS_STREAM,
+                StreamConstants.GAME_EVENTS_CONSUMER_GROUP).getCount());
     }
-}
\ No newline at end of file
+}
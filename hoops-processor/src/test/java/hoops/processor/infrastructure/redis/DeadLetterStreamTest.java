@@ -0,0 +1,84 @@
+package hoops.processor.infrastructure.redis;
+
+import hoops.common.constants.StreamConstants;
+import hoops.processor.config.TestRedisConfig;
+import io.lettuce.core.Range;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.api.sync.RedisCommands;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = {DeadLetterStream.class})
+@Import(TestRedisConfig.class)
+@ActiveProfiles("test")
+class DeadLetterStreamTest {
+
+    private static final String TEST_STREAM = "test-stream";
+
+    @Autowired
+    private DeadLetterStream deadLetterStream;
+
+    @Autowired
+    private RedisClient redisClient;
+
+    private RedisCommands<String, String> commands;
+
+    @BeforeEach
+    void setUp() {
+        commands = redisClient.connect().sync();
+        commands.flushall();
+    }
+
+    @Test
+    void shouldKeepTheEntryWithItsSourceAndRootCause() {
+        // Given
+        String id = commands.xadd(TEST_STREAM, Map.of("gameId", "g1"));
+        StreamMessage<String, String> message = new StreamMessage<>(TEST_STREAM, id, Map.of("gameId", "g1"));
+        RuntimeException cause = new RuntimeException("Failed to process game event",
+                new IllegalStateException("season not found"));
+
+        // When
+        deadLetterStream.add(commands, message, 5, cause);
+
+        // Then
+        assertThat(deadLetterStream.size()).isEqualTo(1);
+        Map<String, String> body = commands.xrange(StreamConstants.GAME_EVENTS_DLQ_STREAM, Range.create("-", "+"))
+                .get(0).getBody();
+        assertThat(body)
+                .containsEntry("gameId", "g1")
+                .containsEntry(DeadLetterStream.SOURCE_STREAM_FIELD, TEST_STREAM)
+                .containsEntry(DeadLetterStream.SOURCE_ID_FIELD, id)
+                .containsEntry(DeadLetterStream.ATTEMPTS_FIELD, "5")
+                .containsEntry(DeadLetterStream.ERROR_FIELD, "java.lang.IllegalStateException: season not found")
+                .containsKey(DeadLetterStream.FAILED_AT_FIELD);
+    }
+
+    @Test
+    void shouldReplayEntriesToTheirSourceStream() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            StreamMessage<String, String> message = new StreamMessage<>(TEST_STREAM, i + 1 + "-0", Map.of("seq", "" + i));
+            deadLetterStream.add(commands, message, 5, new RuntimeException("boom"));
+        }
+
+        // When
+        int replayed = deadLetterStream.replay(2);
+
+        // Then: the oldest two are back on the source stream without the dead-letter fields
+        assertThat(replayed).isEqualTo(2);
+        assertThat(deadLetterStream.size()).isEqualTo(1);
+        List<StreamMessage<String, String>> source = commands.xrange(TEST_STREAM, Range.create("-", "+"));
+        assertThat(source).extracting(StreamMessage::getBody)
+                .containsExactly(Map.of("seq", "0"), Map.of("seq", "1"));
+    }
+}
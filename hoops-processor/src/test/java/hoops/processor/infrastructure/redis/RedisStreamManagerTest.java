@@ -189,6 +189,142 @@ class RedisStreamManagerTest {
         assertThat(pendingCount).isEqualTo(0);
     }
 
+    @Test
+    void shouldAcknowledgeBatchAcrossStreams() {
+        // Given: two streams with two pending entries each
+        String otherStream = TEST_STREAM + "-2";
+        redisStreamManager.createConsumerGroup(TEST_STREAM, TEST_GROUP);
+        redisStreamManager.createConsumerGroup(otherStream, TEST_GROUP);
+        for (int i = 0; i < 2; i++) {
+            commands.xadd(TEST_STREAM, Map.of("key", "value" + i));
+            commands.xadd(otherStream, Map.of("key", "value" + i));
+        }
+        List<StreamMessage<String, String>> messages = redisStreamManager.readGroupMessages(
+                List.of(TEST_STREAM, otherStream), TEST_GROUP, TEST_CONSUMER, 10, 100);
+        // Init entry plus two events per stream
+        assertThat(messages).hasSize(6);
+
+        // When
+        long acknowledged = redisStreamManager.acknowledgeMessages(commands, TEST_GROUP, messages);
+
+        // Then
+        assertThat(acknowledged).isEqualTo(6);
+        assertThat(commands.xpending(TEST_STREAM, TEST_GROUP).getCount()).isZero();
+        assertThat(commands.xpending(otherStream, TEST_GROUP).getCount()).isZero();
+    }
+
+    @Test
+    void shouldAcknowledgePreviousBatchWithTheNextRead() {
+        // Given
+        redisStreamManager.createConsumerGroup(TEST_STREAM, TEST_GROUP);
+        List<StreamMessage<String, String>> first = redisStreamManager.readGroupMessages(
+                TEST_STREAM, TEST_GROUP, TEST_CONSUMER, 10, 100);
+        commands.xadd(TEST_STREAM, Map.of("key", "next"));
+
+        // When
+        List<StreamMessage<String, String>> next = redisStreamManager.acknowledgeAndReadGroupMessages(
+                commands, first, List.of(TEST_STREAM), TEST_GROUP, TEST_CONSUMER, 10, 100);
+
+        // Then: only the entry just read is still pending
+        assertThat(next).hasSize(1);
+        assertThat(next.get(0).getBody()).containsEntry("key", "next");
+        assertThat(commands.xpending(TEST_STREAM, TEST_GROUP).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldClaimEntriesLeftPendingByAnotherConsumer() {
+        // Given: a consumer that read two entries and went away
+        redisStreamManager.createConsumerGroup(TEST_STREAM, TEST_GROUP);
+        commands.xadd(TEST_STREAM, Map.of("key", "one"));
+        commands.xadd(TEST_STREAM, Map.of("key", "two"));
+        redisStreamManager.readGroupMessages(TEST_STREAM, TEST_GROUP, "crashed-consumer", 10, 100);
+
+        // When
+        List<StreamMessage<String, String>> claimed = redisStreamManager.claimIdleMessages(
+                commands, TEST_STREAM, TEST_GROUP, TEST_CONSUMER, 0, 10);
+
+        // Then: init entry plus both events now belong to us
+        assertThat(claimed).hasSize(3);
+        assertThat(claimed).allMatch(message -> TEST_STREAM.equals(message.getStream()));
+        Map<String, Long> owners = commands.xpending(TEST_STREAM, TEST_GROUP).getConsumerMessageCount();
+        assertThat(owners).containsEntry(TEST_CONSUMER, 3L);
+        assertThat(owners).doesNotContainKey("crashed-consumer");
+    }
+
+    @Test
+    void shouldNotClaimEntriesBeforeTheyAreIdle() {
+        redisStreamManager.createConsumerGroup(TEST_STREAM, TEST_GROUP);
+        redisStreamManager.readGroupMessages(TEST_STREAM, TEST_GROUP, "busy-consumer", 10, 100);
+
+        List<StreamMessage<String, String>> claimed = redisStreamManager.claimIdleMessages(
+                commands, TEST_STREAM, TEST_GROUP, TEST_CONSUMER, 60_000, 10);
+
+        assertThat(claimed).isEmpty();
+    }
+
+    @Test
+    void shouldCountDeliveriesOfPendingEntriesWhenTheyAreClaimedAgain() {
+        // Given: an entry read once and not acknowledged
+        redisStreamManager.createConsumerGroup(TEST_STREAM, TEST_GROUP);
+        commands.xadd(TEST_STREAM, Map.of("key", "one"));
+        List<StreamMessage<String, String>> read = redisStreamManager.readGroupMessages(
+                TEST_STREAM, TEST_GROUP, TEST_CONSUMER, 10, 100);
+        List<String> ids = read.stream().map(StreamMessage::getId).toList();
+
+        // When
+        List<StreamMessage<String, String>> claimed = redisStreamManager.claimMessages(
+                commands, TEST_STREAM, TEST_GROUP, TEST_CONSUMER, 0, ids);
+
+        // Then
+        assertThat(claimed).extracting(StreamMessage::getId).isEqualTo(ids);
+        assertThat(redisStreamManager.pendingMessages(commands, TEST_STREAM, TEST_GROUP, TEST_CONSUMER, 10))
+                .allMatch(pending -> pending.getRedeliveryCount() == 2);
+        assertThat(redisStreamManager.claimMessages(commands, TEST_STREAM, TEST_GROUP, "other-consumer", 60_000, ids))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldReportDeliveryCountsOfClaimedEntriesOnly() {
+        // Given: three entries read by another consumer, two of them claimed by us
+        redisStreamManager.createConsumerGroup(TEST_STREAM, TEST_GROUP);
+        commands.xadd(TEST_STREAM, Map.of("key", "one"));
+        commands.xadd(TEST_STREAM, Map.of("key", "two"));
+        commands.xadd(TEST_STREAM, Map.of("key", "three"));
+        List<String> ids = redisStreamManager.readGroupMessages(TEST_STREAM, TEST_GROUP, "crashed-consumer", 10, 100)
+                .stream().map(StreamMessage::getId).toList();
+        List<String> claimedIds = List.of(ids.get(1), ids.get(3));
+        redisStreamManager.claimMessages(commands, TEST_STREAM, TEST_GROUP, TEST_CONSUMER, 0, claimedIds);
+        redisStreamManager.claimMessages(commands, TEST_STREAM, TEST_GROUP, TEST_CONSUMER, 0, List.of(ids.get(3)));
+
+        // When
+        Map<String, Long> counts = redisStreamManager.deliveryCounts(commands, TEST_STREAM, TEST_GROUP, TEST_CONSUMER,
+                claimedIds);
+
+        // Then
+        assertThat(counts).containsExactlyInAnyOrderEntriesOf(Map.of(ids.get(1), 2L, ids.get(3), 3L));
+    }
+
+    @Test
+    void shouldRemoveConsumerOnlyWithoutPendingEntries() {
+        // Given
+        String otherStream = TEST_STREAM + "-2";
+        redisStreamManager.createConsumerGroup(TEST_STREAM, TEST_GROUP);
+        redisStreamManager.createConsumerGroup(otherStream, TEST_GROUP);
+        List<StreamMessage<String, String>> read = redisStreamManager.readGroupMessages(
+                List.of(TEST_STREAM, otherStream), TEST_GROUP, TEST_CONSUMER, 10, 100);
+        redisStreamManager.acknowledgeMessages(commands, TEST_GROUP,
+                read.stream().filter(message -> TEST_STREAM.equals(message.getStream())).toList());
+
+        // When
+        long stillPending = redisStreamManager.removeConsumerIfIdle(
+                commands, List.of(TEST_STREAM, otherStream), TEST_GROUP, TEST_CONSUMER);
+
+        // Then
+        assertThat(stillPending).isEqualTo(1);
+        assertThat(commands.xinfoConsumers(TEST_STREAM, TEST_GROUP)).isEmpty();
+        assertThat(commands.xinfoConsumers(otherStream, TEST_GROUP)).hasSize(1);
+    }
+
     @Test
     void shouldCreateStreamIfNotExists() {
         // When
@@ -0,0 +1,156 @@
+package hoops.processor.infrastructure.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hoops.processor.infrastructure.archive.StreamSegmentArchiver;
+import hoops.processor.infrastructure.archive.StreamSegmentArchiver.ArchivedEntry;
+import io.lettuce.core.Limit;
+import io.lettuce.core.Range;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.XTrimArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.models.stream.PendingMessages;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StreamRetentionTrimmerTest {
+    private static final String STREAM = "game-events-stream";
+
+    @Mock
+    private RedisClient redisClient;
+
+    @Mock
+    private StatefulRedisConnection<String, String> connection;
+
+    @Mock
+    private RedisCommands<String, String> commands;
+
+    @TempDir
+    Path archiveDir;
+
+    private StreamSegmentArchiver archiver;
+    private StreamRetentionTrimmer trimmer;
+
+    @BeforeEach
+    void setUp() {
+        archiver = new StreamSegmentArchiver(new ObjectMapper());
+        ReflectionTestUtils.setField(archiver, "archiveDir", archiveDir.toString());
+
+        trimmer = new StreamRetentionTrimmer(redisClient, archiver);
+        ReflectionTestUtils.setField(trimmer, "minAgeMs", 0L);
+        ReflectionTestUtils.setField(trimmer, "pageSize", 2);
+        ReflectionTestUtils.setField(trimmer, "partitions", 1);
+        ReflectionTestUtils.setField(trimmer, "enabled", true);
+        ReflectionTestUtils.setField(trimmer, "trimIntervalMs", 60000L);
+        trimmer.init();
+    }
+
+    @Test
+    void findAcknowledgedBoundary_ShouldStopAtOldestPendingEntryOfAnyGroup() {
+        when(commands.xinfoGroups(STREAM)).thenReturn(List.of(
+                group("processors", 0, "30-0"),
+                group("analytics", 2, "40-0")
+        ));
+        PendingMessages pending = new PendingMessages(2, Range.create("12-3", "40-0"), Map.of());
+        when(commands.xpending(STREAM, "analytics")).thenReturn(pending);
+
+        assertEquals("12-3", trimmer.findAcknowledgedBoundary(commands, STREAM));
+    }
+
+    @Test
+    void findAcknowledgedBoundary_NothingPending_ShouldKeepOnlyUndeliveredEntries() {
+        when(commands.xinfoGroups(STREAM)).thenReturn(List.of(group("processors", 0, "30-7")));
+
+        assertEquals("30-8", trimmer.findAcknowledgedBoundary(commands, STREAM));
+    }
+
+    @Test
+    void trimStream_NoGroups_ShouldNotTrim() throws Exception {
+        connect();
+        when(commands.xinfoGroups(STREAM)).thenReturn(List.of());
+
+        assertEquals(0, trimmer.trimStream(STREAM));
+        verify(commands, never()).xtrim(anyString(), any(XTrimArgs.class));
+    }
+
+    @Test
+    void trimStream_WithArchive_ShouldWriteSegmentBeforeTrimming() throws Exception {
+        connect();
+        ReflectionTestUtils.setField(trimmer, "archiveEnabled", true);
+        when(commands.xinfoGroups(STREAM)).thenReturn(List.of(group("processors", 0, "3-0")));
+        when(commands.xrange(eq(STREAM), any(Range.class), any(Limit.class)))
+                .thenReturn(List.of(message("1-0"), message("2-0")))
+                .thenReturn(List.of(message("3-0")));
+        when(commands.xtrim(eq(STREAM), any(XTrimArgs.class))).thenReturn(3L);
+
+        assertEquals(3, trimmer.trimStream(STREAM));
+
+        List<Path> segments = archiver.listSegments(STREAM);
+        assertEquals(1, segments.size());
+        assertEquals("1-0_3-0.ndjson.gz", segments.get(0).getFileName().toString());
+        List<ArchivedEntry> entries = archiver.readSegment(segments.get(0));
+        assertEquals(List.of("1-0", "2-0", "3-0"), entries.stream().map(ArchivedEntry::id).toList());
+        assertEquals("{}", entries.get(0).fields().get("data"));
+    }
+
+    @Test
+    void trimAll_LeaseHeldByAnotherReplica_ShouldSkipTheStream() {
+        connect();
+        when(commands.set(eq(StreamRetentionTrimmer.leaseKey(STREAM)), anyString(), any(SetArgs.class))).thenReturn(null);
+
+        trimmer.trimAll();
+
+        verify(commands, never()).xinfoGroups(anyString());
+        verify(commands, never()).xtrim(anyString(), any(XTrimArgs.class));
+    }
+
+    @Test
+    void trimAll_LeaseAcquired_ShouldTrimTheStream() {
+        connect();
+        when(commands.set(eq(StreamRetentionTrimmer.leaseKey(STREAM)), anyString(), any(SetArgs.class))).thenReturn("OK");
+        when(commands.xinfoGroups(STREAM)).thenReturn(List.of(group("processors", 0, "3-0")));
+        when(commands.xtrim(eq(STREAM), any(XTrimArgs.class))).thenReturn(3L);
+
+        trimmer.trimAll();
+
+        verify(commands).xtrim(eq(STREAM), any(XTrimArgs.class));
+    }
+
+    @Test
+    void compareIds_ShouldOrderBySequenceWithinSameMillisecond() {
+        assertTrue(StreamRetentionTrimmer.compareIds("5-10", "5-9") > 0);
+        assertTrue(StreamRetentionTrimmer.compareIds("4-99", "5-0") < 0);
+        assertEquals(0, StreamRetentionTrimmer.compareIds("5-1", "5-1"));
+    }
+
+    private void connect() {
+        when(redisClient.connect()).thenReturn(connection);
+        when(connection.sync()).thenReturn(commands);
+    }
+
+    private static List<Object> group(String name, long pending, String lastDeliveredId) {
+        return List.of("name", name, "consumers", 1L, "pending", pending, "last-delivered-id", lastDeliveredId);
+    }
+
+    private static StreamMessage<String, String> message(String id) {
+        return new StreamMessage<>(STREAM, id, Map.of("data", "{}"));
+    }
+}
@@ -1,7 +1,9 @@
 package hoops.processor.processors.GameEvent;
 
+import hoops.common.enums.StatType;
 import hoops.common.models.events.GameEvent;
 import hoops.common.models.events.PointsEvent;
+import hoops.common.models.events.ReboundsEvent;
 import hoops.processor.models.entities.PlayerStatEvent;
 import hoops.processor.models.entities.Seasons;
 import hoops.processor.repositories.PlayerStatEvents.PlayerStatEventsRepository;
@@ -16,6 +18,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,6 +40,9 @@ class GameEventProcessorImplTest {
     @Captor
     private ArgumentCaptor<PlayerStatEvent> playerStatEventsCaptor;
 
+    @Captor
+    private ArgumentCaptor<List<PlayerStatEvent>> playerStatEventListCaptor;
+
     private GameEvent testEvent;
     private Seasons activeSeason;
     private final String PLAYER_ID = "1";
@@ -110,4 +116,43 @@ class GameEventProcessorImplTest {
         verify(seasonService).getCurrentSeason();
         verify(playerStatEventsService, never()).save(any());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void processEvents_ShouldLookUpTheSeasonOnceAndSaveTheBatch() {
+        when(seasonService.getCurrentSeason()).thenReturn(Optional.of(activeSeason));
+        GameEvent rebound = new ReboundsEvent();
+        rebound.setVersion(23L);
+        rebound.setPlayerId(PLAYER_ID);
+        rebound.setGameId(GAME_ID);
+        rebound.setTeamId(TEAM_ID);
+        rebound.setEvent("rebound");
+        rebound.setValue(1.0);
+
+        // Act
+        processor.processEvents(List.of(testEvent, rebound));
+
+        // Assert
+        verify(seasonService, times(1)).getCurrentSeason();
+        verify(playerStatEventsService).saveAll(playerStatEventListCaptor.capture());
+        verify(playerStatEventsService, never()).save(any());
+
+        List<PlayerStatEvent> saved = playerStatEventListCaptor.getValue();
+        assertEquals(2, saved.size());
+        assertEquals(StatType.POINT, saved.get(0).getStatType());
+        assertEquals(22L, saved.get(0).getVersion());
+        assertEquals(StatType.REBOUND, saved.get(1).getStatType());
+        assertEquals(SEASON_ID, saved.get(1).getSeasonId());
+    }
+
+    @Test
+    void processEvents_NoActiveSeason() {
+        when(seasonService.getCurrentSeason()).thenReturn(Optional.empty());
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            processor.processEvents(List.of(testEvent));
+        });
+
+        assertEquals("Failed to process game events", exception.getMessage());
+        verify(playerStatEventsService, never()).saveAll(any());
+    }
+}
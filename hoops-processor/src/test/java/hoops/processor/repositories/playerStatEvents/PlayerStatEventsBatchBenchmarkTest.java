@@ -0,0 +1,111 @@
+package hoops.processor.repositories.playerStatEvents;
+
+import hoops.common.enums.StatType;
+import hoops.processor.config.DataSourceConfig;
+import hoops.processor.config.JdbcTemplateConfig;
+import hoops.processor.config.TestTimescaleDBConfig;
+import hoops.processor.models.entities.PlayerStatEvent;
+import hoops.processor.repositories.PlayerStatEvents.PlayerStatEventsRepositoryImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Insert throughput of one statement per event against one UNNEST insert per consumer batch,
+ * on TimescaleDB. Reports events per second for each path. Run with
+ * {@code HOOPS_BENCHMARK=true ./gradlew :hoops-processor:test --tests '*PlayerStatEventsBatchBenchmarkTest'}.
+ */
+@SpringBootTest(classes = {
+        PlayerStatEventsRepositoryImpl.class,
+        DataSourceConfig.class,
+        JdbcTemplateConfig.class
+})
+@Import(TestTimescaleDBConfig.class)
+@Testcontainers
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "HOOPS_BENCHMARK", matches = "true")
+class PlayerStatEventsBatchBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(PlayerStatEventsBatchBenchmarkTest.class);
+
+    private static final int BATCH_SIZE = 100;     // redis.stream.batch-size default
+    private static final int WARMUP_BATCHES = 20;
+    private static final int BATCHES = 100;
+    private static final StatType[] STAT_TYPES = {StatType.POINT, StatType.REBOUND, StatType.ASSIST};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlayerStatEventsRepositoryImpl repository;
+
+    private long nextVersion;
+
+    @Test
+    void comparePerRowAndBatchedInserts() {
+        measure("per-row", WARMUP_BATCHES, this::perRow);
+        measure("saveAll", WARMUP_BATCHES, repository::saveAll);
+
+        measure("per-row", BATCHES, this::perRow);
+        measure("saveAll", BATCHES, repository::saveAll);
+    }
+
+    private void perRow(List<PlayerStatEvent> batch) {
+        for (PlayerStatEvent event : batch) {
+            repository.save(event);
+        }
+    }
+
+    private void measure(String label, int batches, Writer writer) {
+        jdbcTemplate.execute("TRUNCATE TABLE player_stat_events CASCADE");
+        List<List<PlayerStatEvent>> input = new ArrayList<>(batches);
+        for (int b = 0; b < batches; b++) {
+            input.add(batch());
+        }
+
+        long start = System.nanoTime();
+        for (List<PlayerStatEvent> batch : input) {
+            writer.write(batch);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int events = batches * BATCH_SIZE;
+        assertEquals(events, jdbcTemplate.queryForObject("SELECT count(*) FROM player_stat_events", Integer.class));
+        log.info("{}: {} events/s, {} ms/batch", label,
+                String.format("%.0f", events / (elapsed / 1e9)),
+                String.format("%.2f", elapsed / 1e6 / batches));
+    }
+
+    // Same player, game, team and season as the repository test, which exist in the test data
+    private List<PlayerStatEvent> batch() {
+        List<PlayerStatEvent> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(PlayerStatEvent.builder()
+                    .version(++nextVersion)
+                    .playerId("2")
+                    .gameId("1")
+                    .teamId("1")
+                    .seasonId("1")
+                    .statType(STAT_TYPES[i % STAT_TYPES.length])
+                    .statValue(i % 2 == 0 ? 2.0 : 1.0)
+                    .build());
+        }
+        return batch;
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(List<PlayerStatEvent> batch);
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -96,4 +97,37 @@ class PlayerStatEventsRepositoryImplTest {
         assertEquals(event.getStatType(), savedEvent.getStatType());
         assertEquals(event.getStatValue(), savedEvent.getStatValue());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void saveAll_ShouldInsertTheBatchAndAssignIdsInOrder() {
+        // Arrange
+        List<PlayerStatEvent> events = List.of(
+            PlayerStatEvent.builder().version(11L).playerId("2").gameId("1").teamId("1").seasonId("1")
+                .statType(StatType.POINT).statValue(3.0).build(),
+            PlayerStatEvent.builder().version(12L).playerId("2").gameId("1").teamId("1").seasonId("1")
+                .statType(StatType.REBOUND).statValue(1.0).build(),
+            PlayerStatEvent.builder().version(13L).playerId("2").gameId("1").teamId("1").seasonId("1")
+                .statType(StatType.MINUTES_PLAYED).statValue(24.5).build()
+        );
+
+        // Act
+        repository.saveAll(events);
+
+        // Assert
+        for (PlayerStatEvent event : events) {
+            assertNotNull(event.getEventId(), "Event ID should be populated after saveAll");
+            Long storedVersion = jdbcTemplate.queryForObject(
+                    "SELECT version FROM player_stat_events WHERE event_id = ?",
+                    Long.class,
+                    event.getEventId()
+            );
+            assertEquals(event.getVersion(), storedVersion);
+        }
+        Double minutes = jdbcTemplate.queryForObject(
+                "SELECT stat_value FROM player_stat_events WHERE event_id = ?",
+                Double.class,
+                events.get(2).getEventId()
+        );
+        assertEquals(24.5, minutes);
+    }
+}
@@ -0,0 +1,85 @@
+package hoops.processor.repositories.streamCheckpoints;
+
+import hoops.processor.config.DataSourceConfig;
+import hoops.processor.config.JdbcTemplateConfig;
+import hoops.processor.config.TestTimescaleDBConfig;
+import hoops.processor.models.entities.StreamCheckpoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(classes = {
+        StreamCheckpointRepositoryImpl.class,
+        DataSourceConfig.class,
+        JdbcTemplateConfig.class
+})
+@Import(TestTimescaleDBConfig.class)
+@Testcontainers
+@ActiveProfiles("test")
+class StreamCheckpointRepositoryImplTest {
+
+    private static final String GROUP = "test-group";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StreamCheckpointRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE TABLE stream_checkpoints");
+    }
+
+    @Test
+    void saveAll_ShouldMakeEntriesFindablePerStreamAndGroup() {
+        // Act
+        repository.saveAll(List.of(
+                new StreamCheckpoint("s0", GROUP, "1-0"),
+                new StreamCheckpoint("s0", GROUP, "2-0"),
+                new StreamCheckpoint("s1", GROUP, "3-0")));
+
+        // Assert
+        assertEquals(Set.of("1-0", "2-0"), repository.findAppliedEntryIds("s0", GROUP, List.of("1-0", "2-0", "3-0")));
+        assertEquals(Set.of(), repository.findAppliedEntryIds("s0", "other-group", List.of("1-0")));
+    }
+
+    @Test
+    void saveAll_ShouldRejectAnEntryThatIsAlreadyApplied() {
+        // Arrange
+        repository.saveAll(List.of(new StreamCheckpoint("s0", GROUP, "1-0")));
+
+        // Act & Assert: the whole statement fails, so the new entry is not recorded either
+        assertThrows(RuntimeException.class, () -> repository.saveAll(List.of(
+                new StreamCheckpoint("s0", GROUP, "2-0"),
+                new StreamCheckpoint("s0", GROUP, "1-0"))));
+        assertEquals(Set.of("1-0"), repository.findAppliedEntryIds("s0", GROUP, List.of("1-0", "2-0")));
+    }
+
+    @Test
+    void deleteAppliedBefore_ShouldOnlyRemoveOlderCheckpoints() {
+        // Arrange
+        repository.saveAll(List.of(new StreamCheckpoint("s0", GROUP, "1-0")));
+        jdbcTemplate.update("UPDATE stream_checkpoints SET applied_at = now() - interval '2 days'");
+        repository.saveAll(List.of(new StreamCheckpoint("s0", GROUP, "2-0")));
+
+        // Act
+        int deleted = repository.deleteAppliedBefore(Instant.now().minusSeconds(86400));
+
+        // Assert
+        assertEquals(1, deleted);
+        assertEquals(Set.of("2-0"), repository.findAppliedEntryIds("s0", GROUP, List.of("1-0", "2-0")));
+    }
+}
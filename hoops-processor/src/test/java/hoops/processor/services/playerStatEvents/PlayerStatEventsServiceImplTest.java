@@ -2,23 +2,36 @@ package hoops.processor.services.playerStatEvents;
 
 import hoops.common.enums.StatType;
 import hoops.common.redis.RedisKeyUtil;
+import hoops.processor.infrastructure.metrics.ConsumerMetrics;
 import hoops.processor.models.entities.PlayerStatEvent;
 import hoops.processor.repositories.PlayerStatEvents.PlayerStatEventsRepository;
 import io.lettuce.core.RedisClient;
-import io.lettuce.core.TransactionResult;
+import io.lettuce.core.RedisFuture;
 import io.lettuce.core.api.StatefulRedisConnection;
-import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.cluster.SlotHash;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -35,7 +48,13 @@ class PlayerStatEventsServiceImplTest {
     private StatefulRedisConnection<String, String> redisConnection;
     
     @Mock
-    private RedisCommands<String, String> redisCommands;
+    private RedisAsyncCommands<String, String> redisCommands;
+
+    @Mock
+    private RedisFuture<Long> unlinkReply;
+
+    @Mock
+    private ConsumerMetrics metrics;
     
     @InjectMocks
     private PlayerStatEventsServiceImpl playerStatEventsService;
@@ -66,35 +85,34 @@ class PlayerStatEventsServiceImplTest {
         teamStatsKey = RedisKeyUtil.getTeamStatsKey(TEAM_ID, SEASON_ID);
     }
 
+    // Every UNLINK removes one cached value
+    private void givenCachedKeys() throws Exception {
+        when(redisClient.connect()).thenReturn(redisConnection);
+        when(redisConnection.async()).thenReturn(redisCommands);
+        when(redisCommands.unlink(anyString())).thenReturn(unlinkReply);
+        when(unlinkReply.get(anyLong(), any(TimeUnit.class))).thenReturn(1L);
+    }
+
     @Test
-    void save_shouldStoreInDatabaseAndInvalidateCache() {
+    void save_shouldStoreInDatabaseAndInvalidateCache() throws Exception {
         // Arrange
-        // Set up Redis mocks for this test
-        when(redisClient.connect()).thenReturn(redisConnection);
-        when(redisConnection.sync()).thenReturn(redisCommands);
-        when(redisCommands.getStatefulConnection()).thenReturn(redisConnection);
-        
-        when(redisCommands.multi()).thenReturn(null);
-        // Create a TransactionResult mock - we only need it to return something non-null
-        // The actual values aren't used by the implementation
-        TransactionResult transactionResult = mock(TransactionResult.class);
-        when(redisCommands.exec()).thenReturn(transactionResult);
+        givenCachedKeys();
         doNothing().when(playerStatEventsRepository).save(any(PlayerStatEvent.class));
-        
+
         // Act
         playerStatEventsService.save(testEvent);
-        
+
         // Assert
         // Verify repository was called to save the event
         verify(playerStatEventsRepository).save(testEvent);
-        
-        // Verify Redis operations
-        verify(redisCommands).multi();
-        verify(redisCommands).del(playerStatsKey);
-        verify(redisCommands).del(teamStatsKey);
-        verify(redisCommands).exec();
-        verify(redisCommands).getStatefulConnection();
-        verify(redisConnection).close();
+
+        // One UNLINK per key, written together on the shared connection, which stays open
+        verify(redisConnection).setAutoFlushCommands(false);
+        verify(redisCommands).unlink(playerStatsKey);
+        verify(redisCommands).unlink(teamStatsKey);
+        verify(redisConnection).flushCommands();
+        verify(metrics).recordCacheInvalidation(2);
+        verify(redisConnection, never()).close();
     }
     
     @Test
@@ -115,74 +133,167 @@ class PlayerStatEventsServiceImplTest {
     }
     
     @Test
-    void save_shouldHandleRedisConnectionException() {
+    void save_shouldKeepTheStoredEventWhenRedisConnectionFails() {
         // Arrange
         doNothing().when(playerStatEventsRepository).save(any(PlayerStatEvent.class));
         when(redisClient.connect()).thenThrow(new RuntimeException("Redis connection error"));
         
-        // Act & Assert
-        Exception exception = assertThrows(RuntimeException.class, () -> {
-            playerStatEventsService.save(testEvent);
-        });
+        // Act: the row is committed, so the caller must not see a failure and retry it
+        assertDoesNotThrow(() -> playerStatEventsService.save(testEvent));
         
-        // Verify DB save was attempted before Redis error
+        // Verify DB save happened once before the Redis error
         verify(playerStatEventsRepository).save(testEvent);
         verify(redisClient).connect();
-        assertTrue(exception.getMessage().contains("Failed to process player stat event"));
     }
     
     @Test
-    void save_shouldHandleRedisTransactionException() {
+    void save_shouldKeepTheStoredEventWhenRedisUnlinkFails() throws Exception {
         // Arrange
         doNothing().when(playerStatEventsRepository).save(any(PlayerStatEvent.class));
-        
-        // Set up Redis mocks for this test
         when(redisClient.connect()).thenReturn(redisConnection);
-        when(redisConnection.sync()).thenReturn(redisCommands);
-        when(redisCommands.getStatefulConnection()).thenReturn(redisConnection);
-        
-        when(redisCommands.multi()).thenThrow(new RuntimeException("Redis transaction error"));
-        
-        // Act & Assert
-        Exception exception = assertThrows(RuntimeException.class, () -> {
-            playerStatEventsService.save(testEvent);
-        });
-        
-        // Verify DB save was attempted and connection was closed despite error
+        when(redisConnection.async()).thenReturn(redisCommands);
+        when(redisCommands.unlink(anyString())).thenReturn(unlinkReply);
+        when(unlinkReply.get(anyLong(), any(TimeUnit.class)))
+            .thenThrow(new ExecutionException(new RuntimeException("Redis unlink error")));
+
+        // Act
+        assertDoesNotThrow(() -> playerStatEventsService.save(testEvent));
+
+        // Verify DB save happened once and nothing was counted as invalidated
         verify(playerStatEventsRepository).save(testEvent);
-        verify(redisCommands).multi();
-        verify(redisCommands).getStatefulConnection();
+        verify(metrics, never()).recordCacheInvalidation(anyInt());
+    }
+
+    @Test
+    void saveAll_shouldStoreBatchAndDeleteEachKeyOnce() throws Exception {
+        // Arrange
+        PlayerStatEvent rebound = PlayerStatEvent.builder()
+                .playerId(PLAYER_ID).gameId(GAME_ID).teamId(TEAM_ID).seasonId(SEASON_ID)
+                .statType(StatType.REBOUND).statValue(1.0).version(2L)
+                .build();
+        PlayerStatEvent teammate = PlayerStatEvent.builder()
+                .playerId("player999").gameId(GAME_ID).teamId(TEAM_ID).seasonId(SEASON_ID)
+                .statType(StatType.POINT).statValue(2.0).version(3L)
+                .build();
+        List<PlayerStatEvent> events = List.of(testEvent, rebound, teammate);
+        givenCachedKeys();
+
+        // Act
+        playerStatEventsService.saveAll(events);
+
+        // Assert
+        verify(playerStatEventsRepository).saveAll(events);
+        verify(playerStatEventsRepository, never()).save(any());
+        verify(redisCommands).unlink(playerStatsKey);
+        verify(redisCommands).unlink(teamStatsKey);
+        verify(redisCommands).unlink(RedisKeyUtil.getPlayerStatsKey("player999", SEASON_ID));
+        verify(redisCommands, times(3)).unlink(anyString());
+        verify(metrics).recordCacheInvalidation(3);
+    }
+
+    @Test
+    void saveAll_shouldShareOneConnectionAcrossBatches() throws Exception {
+        // Arrange
+        givenCachedKeys();
+
+        // Act
+        playerStatEventsService.saveAll(List.of(testEvent));
+        playerStatEventsService.saveAll(List.of(testEvent));
+
+        // Assert
+        verify(redisClient, times(1)).connect();
+        verify(redisCommands, times(2)).unlink(playerStatsKey);
+        verify(redisCommands, times(2)).unlink(teamStatsKey);
+        verify(redisConnection, times(2)).flushCommands();
+        verify(redisConnection, never()).close();
+
+        playerStatEventsService.close();
         verify(redisConnection).close();
-        assertTrue(exception.getMessage().contains("Failed to process player stat event"));
     }
-    
+
     @Test
-    void save_shouldHandleRedisExecException() {
+    void saveAll_shouldNotTouchRedisWhenTheBatchFails() {
         // Arrange
-        doNothing().when(playerStatEventsRepository).save(any(PlayerStatEvent.class));
-        
-        // Set up Redis mocks for this test
-        when(redisClient.connect()).thenReturn(redisConnection);
-        when(redisConnection.sync()).thenReturn(redisCommands);
-        when(redisCommands.getStatefulConnection()).thenReturn(redisConnection);
-        
-        when(redisCommands.multi()).thenReturn(null);
-        when(redisCommands.exec()).thenThrow(new RuntimeException("Redis exec error"));
-        when(redisCommands.discard()).thenReturn("OK"); // Lettuce Redis commands typically return String status
-        
+        doThrow(new RuntimeException("Database error"))
+            .when(playerStatEventsRepository).saveAll(anyList());
+
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
-            playerStatEventsService.save(testEvent);
+            playerStatEventsService.saveAll(List.of(testEvent));
         });
-        
-        // Verify transaction was discarded and connection closed
-        verify(playerStatEventsRepository).save(testEvent);
-        verify(redisCommands).multi();
-        verify(redisCommands, times(2)).del(anyString()); // Two del calls are expected
-        verify(redisCommands).exec();
-        verify(redisCommands).discard();
-        verify(redisCommands).getStatefulConnection();
-        verify(redisConnection).close();
-        assertTrue(exception.getMessage().contains("Failed to process player stat event"));
+
+        assertTrue(exception.getMessage().contains("Failed to process player stat events"));
+        verify(redisClient, never()).connect();
+    }
+
+    @Test
+    void saveAll_shouldNotFailTheStoredBatchWhenInvalidationFails() {
+        // Arrange
+        when(redisClient.connect()).thenReturn(redisConnection);
+        when(redisConnection.async()).thenReturn(redisCommands);
+        when(redisCommands.unlink(anyString())).thenThrow(new RuntimeException("Redis unlink error"));
+
+        // Act: a failure here would send the consumer to its per-event fallback and insert the rows twice
+        assertDoesNotThrow(() -> playerStatEventsService.saveAll(List.of(testEvent)));
+
+        // Assert
+        verify(playerStatEventsRepository).saveAll(List.of(testEvent));
+        verify(playerStatEventsRepository, never()).save(any());
+    }
+
+    @Test
+    void saveAll_shouldInvalidateOnlyAfterTheSurroundingTransactionCommits() throws Exception {
+        // Arrange
+        givenCachedKeys();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            playerStatEventsService.saveAll(List.of(testEvent));
+
+            // Assert
+            verify(playerStatEventsRepository).saveAll(List.of(testEvent));
+            verify(redisClient, never()).connect();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(redisCommands).unlink(playerStatsKey);
+            verify(redisCommands).unlink(teamStatsKey);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void saveAll_shouldUnlinkKeysInDifferentHashSlotsOneByOneInOneWrite() throws Exception {
+        // Arrange: players and teams of two games, whose keys hash to different cluster slots
+        List<PlayerStatEvent> events = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            events.add(PlayerStatEvent.builder()
+                    .playerId("player" + i).gameId(GAME_ID).teamId("team" + (i % 2)).seasonId(SEASON_ID)
+                    .statType(StatType.POINT).statValue(2.0).version(i)
+                    .build());
+        }
+        List<String> keys = new ArrayList<>();
+        for (PlayerStatEvent event : events) {
+            keys.add(RedisKeyUtil.getPlayerStatsKey(event.getPlayerId(), SEASON_ID));
+        }
+        keys.add(RedisKeyUtil.getTeamStatsKey("team0", SEASON_ID));
+        keys.add(RedisKeyUtil.getTeamStatsKey("team1", SEASON_ID));
+        Set<Integer> slots = keys.stream().map(SlotHash::getSlot).collect(Collectors.toSet());
+        assertTrue(slots.size() > 1, "Test keys should span several hash slots");
+        givenCachedKeys();
+
+        // Act
+        playerStatEventsService.saveAll(events);
+
+        // Assert: a multi-key UNLINK across slots would fail with CROSSSLOT on a cluster
+        InOrder inOrder = inOrder(redisCommands, redisConnection);
+        for (String key : keys) {
+            verify(redisCommands).unlink(key);
+        }
+        verify(redisCommands, times(keys.size())).unlink(anyString());
+        verifyNoMoreInteractions(redisCommands);
+        inOrder.verify(redisCommands, times(keys.size())).unlink(anyString());
+        inOrder.verify(redisConnection).flushCommands();
+        verify(metrics).recordCacheInvalidation(keys.size());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package hoops.processor.services.streamCheckpoints;
+
+import hoops.processor.models.entities.StreamCheckpoint;
+import hoops.processor.repositories.streamCheckpoints.StreamCheckpointRepository;
+import io.lettuce.core.StreamMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StreamCheckpointServiceImplTest {
+
+    private static final String GROUP = "test-group";
+
+    @Mock
+    private StreamCheckpointRepository streamCheckpointRepository;
+
+    @Mock
+    private Runnable work;
+
+    @InjectMocks
+    private StreamCheckpointServiceImpl streamCheckpointService;
+
+    @Test
+    void applyOnce_shouldRecordEveryEntryBeforeRunningTheWork() {
+        // Arrange
+        List<StreamMessage<String, String>> messages = List.of(message("s0", "1-0"), message("s1", "1-0"));
+
+        // Act
+        streamCheckpointService.applyOnce(GROUP, messages, work);
+
+        // Assert
+        InOrder inOrder = inOrder(streamCheckpointRepository, work);
+        inOrder.verify(streamCheckpointRepository).saveAll(List.of(
+                new StreamCheckpoint("s0", GROUP, "1-0"),
+                new StreamCheckpoint("s1", GROUP, "1-0")));
+        inOrder.verify(work).run();
+    }
+
+    @Test
+    void applyOnce_shouldNotRunTheWorkWhenAnEntryIsAlreadyRecorded() {
+        // Arrange
+        doThrow(new RuntimeException("Failed to save 1 stream checkpoints"))
+                .when(streamCheckpointRepository).saveAll(anyList());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class,
+                () -> streamCheckpointService.applyOnce(GROUP, List.of(message("s0", "1-0")), work));
+        verifyNoInteractions(work);
+    }
+
+    @Test
+    void findApplied_shouldLookUpEachStreamOnceAndKeepTheOrder() {
+        // Arrange
+        StreamMessage<String, String> first = message("s0", "1-0");
+        StreamMessage<String, String> second = message("s1", "1-0");
+        StreamMessage<String, String> third = message("s0", "2-0");
+        when(streamCheckpointRepository.findAppliedEntryIds("s0", GROUP, List.of("1-0", "2-0")))
+                .thenReturn(Set.of("2-0"));
+        when(streamCheckpointRepository.findAppliedEntryIds("s1", GROUP, List.of("1-0")))
+                .thenReturn(Set.of("1-0"));
+
+        // Act
+        List<StreamMessage<String, String>> applied =
+                streamCheckpointService.findApplied(GROUP, List.of(first, second, third));
+
+        // Assert
+        assertEquals(List.of(second, third), applied);
+    }
+
+    @Test
+    void findApplied_shouldSkipTheDatabaseForAnEmptyBatch() {
+        assertEquals(List.of(), streamCheckpointService.findApplied(GROUP, List.of()));
+        verifyNoInteractions(streamCheckpointRepository);
+    }
+
+    private static StreamMessage<String, String> message(String stream, String id) {
+        return new StreamMessage<>(stream, id, Map.of("gameId", "g1"));
+    }
+}
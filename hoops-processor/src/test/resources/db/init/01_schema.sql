@@ -76,6 +76,17 @@ CREATE TABLE player_stat_events (
 -- Convert to hypertable
 SELECT create_hypertable('player_stat_events', 'created_at');
 
+-- Stream entries whose stats the processor has stored, written in the same transaction as the
+-- rows, so an entry delivered again after a crash is acknowledged instead of counted twice
+CREATE TABLE stream_checkpoints (
+    stream_key TEXT NOT NULL,
+    consumer_group TEXT NOT NULL,
+    entry_id TEXT NOT NULL,
+    applied_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (stream_key, consumer_group, entry_id)
+);
+CREATE INDEX idx_stream_checkpoints_applied_at ON stream_checkpoints(applied_at);
+
 -- Create indexes
 CREATE INDEX idx_player_stat_events_game_id ON player_stat_events(game_id);
 CREATE INDEX idx_player_stat_events_player_id ON player_stat_events(player_id);
@@ -84,6 +95,33 @@ CREATE INDEX idx_games_season_id ON games(season_id);
 CREATE INDEX idx_games_league_id ON games(league_id);
 CREATE INDEX idx_players_team_id ON players(team_id);
 CREATE INDEX idx_teams_league_id ON teams(league_id);
+-- Ingest reloads the live games every few seconds
+CREATE INDEX idx_live_games ON games(game_id, home_team_id, away_team_id) WHERE state = 'IN_PROGRESS';
+
+-- Keep last_updated current on every change: ingest reloads only the teams and players
+-- updated since its previous refresh, so a row changed without it would never be picked up
+CREATE OR REPLACE FUNCTION touch_last_updated()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.last_updated := CURRENT_TIMESTAMP;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER teams_touch_last_updated
+    BEFORE UPDATE ON teams
+    FOR EACH ROW
+    EXECUTE FUNCTION touch_last_updated();
+
+CREATE TRIGGER players_touch_last_updated
+    BEFORE UPDATE ON players
+    FOR EACH ROW
+    EXECUTE FUNCTION touch_last_updated();
+
+CREATE TRIGGER games_touch_last_updated
+    BEFORE UPDATE ON games
+    FOR EACH ROW
+    EXECUTE FUNCTION touch_last_updated();
 
 -- Create the team_avg_stats_view materialized view
 CREATE MATERIALIZED VIEW team_avg_stats_view_per_bucket